@@ -17,6 +17,7 @@ import {
 } from '@mui/material';
 import { useParams, useNavigate } from 'react-router-dom';
 import axios from 'axios';
+import { idempotencyKeyFor, clearIdempotencyKey } from '../services/api';
 import Navbar from '../components/Navbar';
 import { useAuth } from '../context/AuthContext';
 
@@ -87,24 +88,29 @@ export default function BookDestination() {
     setForm(prev => ({ ...prev, [name]: value }));
   };
   
-  const calculateTotalPrice = () => {
-    if (!form.hotelId || !form.travelDate || !form.returnDate) return 0;
-    
-    const hotel = hotels.find(h => h.id.toString() === form.hotelId.toString());
-    if (!hotel) return 0;
-    
-    // Calculate number of days between dates
-    const startDate = new Date(form.travelDate);
-    const endDate = new Date(form.returnDate);
-    
-    // Check if dates are valid
-    if (isNaN(startDate.getTime()) || isNaN(endDate.getTime())) return 0;
-    
-    const days = Math.max(1, Math.ceil((endDate - startDate) / (1000 * 60 * 60 * 24)));
-    const pricePerNight = hotel.pricePerNight || 0;
-    
-    return pricePerNight * days * form.numberOfPeople;
-  };
+  // Prices come from the server, which computes the booked total the same way
+  const [totalPrice, setTotalPrice] = useState(0);
+  
+  useEffect(() => {
+    if (!form.hotelId || !form.travelDate || !form.returnDate || form.returnDate <= form.travelDate) {
+      setTotalPrice(0);
+      return;
+    }
+    let cancelled = false;
+    axios.get(`/api/pricing/hotels/${form.hotelId}`, {
+      params: {
+        checkIn: form.travelDate,
+        checkOut: form.returnDate,
+        guests: Math.max(1, Number(form.numberOfPeople) || 1)
+      }
+    })
+      .then(response => { if (!cancelled) setTotalPrice(response.data.total); })
+      .catch(err => {
+        console.error('Error fetching price quote:', err);
+        if (!cancelled) setTotalPrice(0);
+      });
+    return () => { cancelled = true; };
+  }, [form.hotelId, form.travelDate, form.returnDate, form.numberOfPeople]);
 
   const handleSubmit = async (e) => {
     e.preventDefault();
@@ -135,25 +141,32 @@ export default function BookDestination() {
         travelDate: form.travelDate,
         returnDate: form.returnDate,
         numberOfPeople: Number(form.numberOfPeople),
-        specialRequests: form.specialRequests,
-        totalPrice: calculateTotalPrice()
+        specialRequests: form.specialRequests
       };
       
       console.log('Sending destination booking data:', bookingData);
       
       // Make the actual API call to create a booking
-      const response = await axios.post('/api/bookings/destination', bookingData);
+      const response = await axios.post('/api/bookings/destination', bookingData, {
+        headers: { 'Idempotency-Key': idempotencyKeyFor(bookingData) }
+      });
       
       console.log('Booking response:', response.data);
       
       if (response.data && response.data.status === 'success') {
+        clearIdempotencyKey();
         setBookingSuccess(true);
       } else {
         setError('Failed to create booking. Please try again.');
       }
     } catch (err) {
       console.error('Error creating booking:', err);
-      setError('Failed to create booking. Please try again later.');
+      // 409: the hotel has no rooms left for some night of the stay
+      if (err.response && err.response.status === 409) {
+        setError(`No rooms available for these dates. ${err.response.data}`);
+      } else {
+        setError('Failed to create booking. Please try again later.');
+      }
     } finally {
       setLoading(false);
     }
@@ -356,7 +369,7 @@ export default function BookDestination() {
                   </Grid>
                   <Grid item xs={4} sx={{ textAlign: 'right' }}>
                     <Typography variant="h6" color="primary">
-                      ${calculateTotalPrice().toFixed(2)}
+                      ${totalPrice.toFixed(2)}
                     </Typography>
                   </Grid>
                 </Grid>
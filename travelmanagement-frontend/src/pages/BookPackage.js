@@ -25,6 +25,7 @@ import {
 import { useParams, useNavigate } from 'react-router-dom';
 import { useAuth } from '../context/AuthContext';
 import axios from 'axios';
+import { idempotencyKeyFor, clearIdempotencyKey } from '../services/api';
 import Navbar from '../components/Navbar';
 import ArrowBackIcon from '@mui/icons-material/ArrowBack';
 import HotelIcon from '@mui/icons-material/Hotel';
@@ -52,6 +53,8 @@ export default function BookPackage() {
   const [bookingComplete, setBookingComplete] = useState(false);
   const [bookingId, setBookingId] = useState(null);
   const [accessDenied, setAccessDenied] = useState(false);
+  // Server-side price for the chosen travel date; this is what the booking is charged
+  const [quotedPrice, setQuotedPrice] = useState(null);
 
   useEffect(() => {
     // Protect the route - only logged-in users can access
@@ -70,6 +73,22 @@ export default function BookPackage() {
     fetchPackageDetails();
   }, [user, navigate, id]);
 
+  useEffect(() => {
+    if (!packageData || !travelDate) return;
+    let cancelled = false;
+    axios.get(`/api/pricing/packages/${packageData.id}`, {
+      params: { travelDate: travelDate.format('YYYY-MM-DD') }
+    })
+      .then(response => { if (!cancelled) setQuotedPrice(response.data.total); })
+      .catch(err => {
+        console.error('Error fetching price quote:', err);
+        if (!cancelled) setQuotedPrice(null);
+      });
+    return () => { cancelled = true; };
+  }, [packageData, travelDate]);
+
+  const totalPrice = quotedPrice !== null ? quotedPrice : packageData?.price;
+
   const fetchPackageDetails = async () => {
     try {
       setLoading(true);
@@ -95,17 +114,23 @@ export default function BookPackage() {
         username: user.username, // Adding username as a fallback
         travelPackageId: packageData.id,
         bookingDate: bookingDate.format('YYYY-MM-DD'),
-        travelDate: travelDate.format('YYYY-MM-DD'),
-        totalPrice: packageData.price
+        travelDate: travelDate.format('YYYY-MM-DD')
       };
       
       console.log('Sending booking data:', bookingData);
       
       // Use the correct endpoint from the BookingController
-      const response = await axios.post('/api/bookings', bookingData);
+      const response = await axios.post('/api/bookings', bookingData, {
+        headers: { 'Idempotency-Key': idempotencyKeyFor(bookingData) }
+      });
       
       console.log('Booking response:', response.data);
-      setBookingId(response.data.id);
+      clearIdempotencyKey();
+      // Bookings accepted in write-behind mode have a reference until they are written
+      setBookingId(response.data.id || response.data.reference);
+      if (response.data.totalPrice !== undefined) {
+        setQuotedPrice(response.data.totalPrice);
+      }
       setBookingComplete(true);
       setShowConfirmation(false);
     } catch (err) {
@@ -209,7 +234,7 @@ export default function BookPackage() {
               Travel Date: {travelDate.format('MMMM D, YYYY')}
             </Typography>
             <Typography variant="h6" sx={{ mt: 2 }}>
-              Total Amount: ${packageData?.price}
+              Total Amount: ${totalPrice}
             </Typography>
             <Button
               variant="contained"
@@ -370,7 +395,7 @@ export default function BookPackage() {
                   <Divider sx={{ my: 2 }} />
                   <Box sx={{ display: 'flex', justifyContent: 'space-between' }}>
                     <Typography variant="h6">Total:</Typography>
-                    <Typography variant="h6">${packageData?.price}</Typography>
+                    <Typography variant="h6">${totalPrice}</Typography>
                   </Box>
                 </Box>
 
@@ -408,7 +433,7 @@ export default function BookPackage() {
               </Box>
               <Box sx={{ display: 'flex', alignItems: 'center' }}>
                 <AttachMoneyIcon sx={{ mr: 1 }} />
-                <Typography>Total Price: ${packageData?.price}</Typography>
+                <Typography>Total Price: ${totalPrice}</Typography>
               </Box>
             </Box>
             <Typography variant="body2" color="text.secondary">
@@ -68,12 +68,13 @@ export default function CreatePackage() {
     formData.append('price', form.price);
     form.restaurants.forEach((restaurant, i) => restaurant && formData.append(`restaurants[${i}]`, restaurant));
     form.hotels.forEach((hotel, i) => hotel && formData.append(`hotels[${i}]`, hotel));
+    // Text fields go first so the server can reject the request before the photos are uploaded
+    formData.append('username', user.username);
     form.restaurantImages.forEach((file) => formData.append('restaurantImages', file));
     form.hotelImages.forEach((file) => formData.append('hotelImages', file));
-    formData.append('username', user.username);
 
     try {
-      await axios.post('/travel-packages/create', formData, {
+      await axios.post('/travel-packages/create/stream', formData, {
         headers: {
           'Content-Type': 'multipart/form-data',
         },
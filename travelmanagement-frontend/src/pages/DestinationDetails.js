@@ -30,6 +30,7 @@ import AttachMoneyIcon from '@mui/icons-material/AttachMoney';
 import BedroomParentIcon from '@mui/icons-material/BedroomParent';
 import DinnerDiningIcon from '@mui/icons-material/DinnerDining';
 import { useAuth } from '../context/AuthContext';
+import { imageUrl } from '../services/api';
 
 export default function DestinationDetails() {
   const { id } = useParams();
@@ -252,7 +253,7 @@ export default function DestinationDetails() {
                       <CardMedia
                         component="img"
                         height="140"
-                        image={hotel.imagePath ? `/${hotel.imagePath}` : `${process.env.PUBLIC_URL}/assets/sample2.jpg`}
+                        image={hotel.imagePath ? imageUrl(hotel.imagePath, 'card') : `${process.env.PUBLIC_URL}/assets/sample2.jpg`}
                         alt={hotel.name}
                       />
                       <CardContent sx={{ flexGrow: 1 }}>
@@ -307,7 +308,7 @@ export default function DestinationDetails() {
                       <CardMedia
                         component="img"
                         height="140"
-                        image={restaurant.imagePath ? `/${restaurant.imagePath}` : `${process.env.PUBLIC_URL}/assets/sample1.jpg`}
+                        image={restaurant.imagePath ? imageUrl(restaurant.imagePath, 'card') : `${process.env.PUBLIC_URL}/assets/sample1.jpg`}
                         alt={restaurant.name}
                       />
                       <CardContent sx={{ flexGrow: 1 }}>
@@ -86,9 +86,8 @@ export default function MyBookings() {
       
       console.log('Bookings data received:', response.data);
       
-      // The backend already filters bookings by user ID, so we don't need additional filtering
-      // Just use the bookings returned from the API directly
-      setBookings(response.data);
+      // The backend already filters bookings by user ID; cancelled bookings are kept there but not listed here
+      setBookings(response.data.filter(b => b.status !== 'CANCELLED'));
       setError('');
     } catch (err) {
       console.error('Error fetching bookings:', err);
@@ -142,13 +141,18 @@ export default function MyBookings() {
     return dayjs(dateStr).format('MMMM D, YYYY');
   };
 
-  // Check if a booking is a destination booking
+  // Destination bookings reference their destination and hotel directly; older ones
+  // were stored as a personal "My Trip to ..." package
   const isDestinationBooking = (booking) => {
-    return booking.travelPackage && booking.travelPackage.isPersonalBooking === true;
+    if (booking.destination) return true;
+    const pkg = booking.travelPackage;
+    return !!pkg && (pkg.isPersonalBooking === true
+      || pkg.name.startsWith('Booking for') || pkg.name.startsWith('My Trip to '));
   };
 
-  // Get destination name from booking package name 
-  const extractDestinationName = (packageName) => {
+  const destinationName = (booking) => {
+    if (booking.destination) return booking.destination.name;
+    const packageName = booking.travelPackage.name;
     if (packageName.startsWith('My Trip to ')) {
       return packageName.replace('My Trip to ', '');
     }
@@ -158,8 +162,9 @@ export default function MyBookings() {
     return packageName;
   };
 
-  // Get hotel name from booking package description
-  const extractHotelName = (packageDescription) => {
+  const hotelName = (booking) => {
+    if (booking.destination) return booking.hotel ? booking.hotel.name : '';
+    const packageDescription = booking.travelPackage.description;
     if (packageDescription.startsWith('Hotel: ')) {
       return packageDescription.replace('Hotel: ', '');
     }
@@ -204,9 +209,20 @@ export default function MyBookings() {
     <>
       <Navbar />
       <Box sx={{ p: 3, maxWidth: 1200, mx: 'auto' }}>
-        <Typography variant="h4" component="h1" gutterBottom>
-          My Bookings
-        </Typography>
+        <Box sx={{ display: 'flex', justifyContent: 'space-between', alignItems: 'center' }}>
+          <Typography variant="h4" component="h1" gutterBottom>
+            My Bookings
+          </Typography>
+          {bookings.length > 0 && user?.username && (
+            // Streamed by the server, so it works however many bookings the account has
+            <Button
+              variant="outlined"
+              href={`/api/bookings/username/${encodeURIComponent(user.username)}/export?format=csv`}
+            >
+              Download CSV
+            </Button>
+          )}
+        </Box>
 
         {error && (
           <Alert severity="error" sx={{ mb: 2 }}>
@@ -240,12 +256,12 @@ export default function MyBookings() {
                     <Card sx={{ height: '100%' }}>
                       <CardContent>
                         <Box sx={{ display: 'flex', justifyContent: 'space-between', alignItems: 'flex-start' }}>
-                          {isDestinationBooking(booking) || booking.travelPackage.name.startsWith('Booking for') || booking.travelPackage.name.startsWith('My Trip to ') ? (
+                          {isDestinationBooking(booking) ? (
                             // For destination bookings
                             <Box sx={{ display: 'flex', alignItems: 'center' }}>
                               <FlightTakeoffIcon sx={{ mr: 1, color: 'primary.main' }} />
                               <Typography variant="h5" gutterBottom>
-                                {extractDestinationName(booking.travelPackage.name)}
+                                {destinationName(booking)}
                               </Typography>
                             </Box>
                           ) : (
@@ -268,13 +284,13 @@ export default function MyBookings() {
                           </Typography>
                         </Box>
 
-                        {isDestinationBooking(booking) || booking.travelPackage.name.startsWith('Booking for') || booking.travelPackage.name.startsWith('My Trip to ') ? (
+                        {isDestinationBooking(booking) ? (
                           // For destination bookings
                           <>
                             <Box sx={{ display: 'flex', alignItems: 'center', mb: 2 }}>
                               <HotelIcon sx={{ mr: 1, color: 'primary.main' }} />
                               <Typography>
-                                {extractHotelName(booking.travelPackage.description)}
+                                {hotelName(booking)}
                               </Typography>
                             </Box>
                             <Typography variant="body2" color="text.secondary" sx={{ fontStyle: 'italic' }}>
@@ -335,12 +351,12 @@ export default function MyBookings() {
                     <Card sx={{ height: '100%', opacity: 0.8 }}>
                       <CardContent>
                         <Box sx={{ display: 'flex', justifyContent: 'space-between', alignItems: 'flex-start' }}>
-                          {isDestinationBooking(booking) || booking.travelPackage.name.startsWith('Booking for') || booking.travelPackage.name.startsWith('My Trip to ') ? (
+                          {isDestinationBooking(booking) ? (
                             // For destination bookings
                             <Box sx={{ display: 'flex', alignItems: 'center' }}>
                               <FlightTakeoffIcon sx={{ mr: 1 }} />
                               <Typography variant="h5" gutterBottom>
-                                {extractDestinationName(booking.travelPackage.name)}
+                                {destinationName(booking)}
                               </Typography>
                             </Box>
                           ) : (
@@ -362,12 +378,12 @@ export default function MyBookings() {
                           </Typography>
                         </Box>
 
-                        {isDestinationBooking(booking) || booking.travelPackage.name.startsWith('Booking for') || booking.travelPackage.name.startsWith('My Trip to ') ? (
+                        {isDestinationBooking(booking) ? (
                           // For destination bookings
                           <Box sx={{ display: 'flex', alignItems: 'center', mb: 2 }}>
                             <HotelIcon sx={{ mr: 1 }} />
                             <Typography>
-                              {extractHotelName(booking.travelPackage.description)}
+                              {hotelName(booking)}
                             </Typography>
                           </Box>
                         ) : (
@@ -393,8 +409,8 @@ export default function MyBookings() {
             </Typography>
             {selectedBooking && (
               <>
-                {isDestinationBooking(selectedBooking) || selectedBooking.travelPackage.name.startsWith('Booking for') || selectedBooking.travelPackage.name.startsWith('My Trip to ') ? (
-                  <Typography variant="h6">Trip to {extractDestinationName(selectedBooking.travelPackage.name)}</Typography>
+                {isDestinationBooking(selectedBooking) ? (
+                  <Typography variant="h6">Trip to {destinationName(selectedBooking)}</Typography>
                 ) : (
                   <Typography variant="h6">{selectedBooking.travelPackage.name}</Typography>
                 )}
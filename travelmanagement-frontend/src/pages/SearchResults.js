@@ -26,6 +26,7 @@ import BookOnlineIcon from '@mui/icons-material/BookOnline';
 import AttachMoneyIcon from '@mui/icons-material/AttachMoney';
 import LuggageIcon from '@mui/icons-material/Luggage';
 import { useAuth } from '../context/AuthContext';
+import { imageUrl } from '../services/api';
 
 export default function SearchResults() {
   const { user } = useAuth();
@@ -39,6 +40,8 @@ export default function SearchResults() {
   const [destinations, setDestinations] = useState([]);
   const [travelPackages, setTravelPackages] = useState([]);
   const [activeTab, setActiveTab] = useState(0);
+  // Package prices for a trip a week from now, keyed by package id, from one bulk quote call
+  const [quotes, setQuotes] = useState({});
   
   useEffect(() => {
     if (query) {
@@ -59,6 +62,7 @@ export default function SearchResults() {
       
       if (response.data && response.data.packages) {
         setTravelPackages(response.data.packages || []);
+        fetchQuotes(response.data.packages || []);
       }
     } catch (err) {
       console.error('Search failed:', err);
@@ -70,6 +74,27 @@ export default function SearchResults() {
     }
   };
   
+  const fetchQuotes = async (packages) => {
+    if (packages.length === 0) {
+      setQuotes({});
+      return;
+    }
+    const travelDate = new Date(Date.now() + 7 * 24 * 60 * 60 * 1000).toISOString().slice(0, 10);
+    try {
+      const response = await axios.post('/api/pricing/quotes',
+        packages.map(travelPackage => ({ type: 'package', id: travelPackage.id, travelDate })));
+      const byId = {};
+      response.data.forEach(quote => {
+        if (!quote.error) byId[quote.id] = quote.total;
+      });
+      setQuotes(byId);
+    } catch (err) {
+      // The catalog price is still shown
+      console.error('Error fetching price quotes:', err);
+      setQuotes({});
+    }
+  };
+  
   const handleViewDetails = (item) => {
     if (item.type === 'destination') {
       navigate(`/destination-details/${item.id}`);
@@ -158,7 +183,7 @@ export default function SearchResults() {
                 <CardMedia
                   component="img"
                   height="200"
-                  image={destination.imagePath ? `/${destination.imagePath}` : `${process.env.PUBLIC_URL}/assets/sample1.jpg`}
+                  image={destination.imagePath ? imageUrl(destination.imagePath, 'card') : `${process.env.PUBLIC_URL}/assets/sample1.jpg`}
                   alt={destination.name}
                   sx={{ objectFit: 'cover' }}
                 />
@@ -239,7 +264,7 @@ export default function SearchResults() {
                 <CardMedia
                   component="img"
                   height="200"
-                  image={travelPackage.imagePath ? `/${travelPackage.imagePath}` : `${process.env.PUBLIC_URL}/assets/sample2.jpg`}
+                  image={travelPackage.imagePath ? imageUrl(travelPackage.imagePath, 'card') : `${process.env.PUBLIC_URL}/assets/sample2.jpg`}
                   alt={travelPackage.name}
                   sx={{ objectFit: 'cover' }}
                 />
@@ -250,7 +275,7 @@ export default function SearchResults() {
                     </Typography>
                     <Chip
                       icon={<AttachMoneyIcon />}
-                      label={`$${travelPackage.price}`}
+                      label={`$${quotes[travelPackage.id] !== undefined ? quotes[travelPackage.id] : travelPackage.price}`}
                       color="primary"
                       size="small"
                     />
@@ -22,6 +22,7 @@ import { useNavigate } from 'react-router-dom';
 import { useAuth } from '../context/AuthContext';
 import axios from 'axios';
 import Navbar from '../components/Navbar';
+import { imageUrl } from '../services/api';
 
 export default function ViewDestinations() {
   const { user } = useAuth();
@@ -212,7 +213,7 @@ export default function ViewDestinations() {
                   <CardMedia
                     component="img"
                     height="200"
-                    image={destination.imagePath || `${process.env.PUBLIC_URL}/assets/sample1.jpg`}
+                    image={imageUrl(destination.imagePath, 'card') || `${process.env.PUBLIC_URL}/assets/sample1.jpg`}
                     alt={destination.name}
                   />
                   <CardContent sx={{ flexGrow: 1 }}>
@@ -265,7 +266,7 @@ export default function ViewDestinations() {
               <DialogContent>
                 <Box sx={{ mb: 2 }}>
                   <img
-                    src={selectedDestination.imagePath || `${process.env.PUBLIC_URL}/assets/sample1.jpg`}
+                    src={imageUrl(selectedDestination.imagePath, 'full') || `${process.env.PUBLIC_URL}/assets/sample1.jpg`}
                     alt={selectedDestination.name}
                     style={{ width: '100%', maxHeight: '400px', objectFit: 'cover' }}
                   />
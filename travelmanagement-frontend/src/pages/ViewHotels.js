@@ -26,6 +26,7 @@ import { useNavigate } from 'react-router-dom';
 import { useAuth } from '../context/AuthContext';
 import axios from 'axios';
 import Navbar from '../components/Navbar';
+import { imageUrl } from '../services/api';
 
 export default function ViewHotels() {
   const { user } = useAuth();
@@ -216,7 +217,7 @@ export default function ViewHotels() {
                   <CardMedia
                     component="img"
                     height="200"
-                    image={hotel.imagePath || `${process.env.PUBLIC_URL}/assets/sample1.jpg`}
+                    image={imageUrl(hotel.imagePath, 'card') || `${process.env.PUBLIC_URL}/assets/sample1.jpg`}
                     alt={hotel.name}
                   />
                   <CardContent sx={{ flexGrow: 1 }}>
@@ -272,7 +273,7 @@ export default function ViewHotels() {
               <DialogContent>
                 <Box sx={{ mb: 2 }}>
                   <img
-                    src={selectedHotel.imagePath || `${process.env.PUBLIC_URL}/assets/sample1.jpg`}
+                    src={imageUrl(selectedHotel.imagePath, 'full') || `${process.env.PUBLIC_URL}/assets/sample1.jpg`}
                     alt={selectedHotel.name}
                     style={{ width: '100%', maxHeight: '400px', objectFit: 'cover' }}
                   />
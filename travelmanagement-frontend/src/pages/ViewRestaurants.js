@@ -22,6 +22,7 @@ import { useNavigate } from 'react-router-dom';
 import { useAuth } from '../context/AuthContext';
 import axios from 'axios';
 import Navbar from '../components/Navbar';
+import { imageUrl } from '../services/api';
 
 export default function ViewRestaurants() {
   const { user } = useAuth();
@@ -201,7 +202,7 @@ export default function ViewRestaurants() {
                 <CardMedia
                   component="img"
                   height="200"
-                  image={restaurant.imagePath || `${process.env.PUBLIC_URL}/assets/sample1.jpg`}
+                  image={imageUrl(restaurant.imagePath, 'card') || `${process.env.PUBLIC_URL}/assets/sample1.jpg`}
                   alt={restaurant.name}
                 />
                 <CardContent sx={{ flexGrow: 1 }}>
@@ -249,7 +250,7 @@ export default function ViewRestaurants() {
               <DialogContent>
                 <Box sx={{ mb: 2 }}>
                   <img
-                    src={selectedRestaurant.imagePath || `${process.env.PUBLIC_URL}/assets/sample1.jpg`}
+                    src={imageUrl(selectedRestaurant.imagePath, 'full') || `${process.env.PUBLIC_URL}/assets/sample1.jpg`}
                     alt={selectedRestaurant.name}
                     style={{ width: '100%', maxHeight: '400px', objectFit: 'cover' }}
                   />
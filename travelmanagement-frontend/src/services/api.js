@@ -4,4 +4,34 @@ const api = axios.create({
   baseURL: '/', // Proxy is set in package.json
 });
 
-export default api;
\ No newline at end of file
+// URL for an uploaded image at a given size ('thumbnail', 'card' or 'full').
+// Paths outside uploads/ (bundled assets, external URLs) are returned unchanged.
+export const imageUrl = (path, size) => {
+  if (!path) return path;
+  const relative = path.replace(/^\//, '');
+  if (!relative.startsWith('uploads/')) return path;
+  const url = `/${relative}`;
+  return size ? `${url}?size=${size}` : url;
+};
+
+// Idempotency-Key for a booking request. Resubmitting the same request (double click,
+// retry after a timeout) reuses the key, so the server returns the first booking
+// instead of creating another; any change to the request gets a new key.
+let lastRequest = null;
+let lastKey = null;
+export const idempotencyKeyFor = (request) => {
+  const body = JSON.stringify(request);
+  if (body !== lastRequest) {
+    lastRequest = body;
+    lastKey = crypto.randomUUID();
+  }
+  return lastKey;
+};
+
+// Called once a booking has succeeded, so booking the same thing again really books it again
+export const clearIdempotencyKey = () => {
+  lastRequest = null;
+  lastKey = null;
+};
+
+export default api;
@@ -0,0 +1,48 @@
+package com.example.travelmanagementapp;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS_BY_ID = "usersById";
+    public static final String USERS_BY_USERNAME = "usersByUsername";
+    public static final String TRAVEL_PACKAGES = "travelPackages";
+    public static final String HOTELS = "hotels";
+    public static final String DESTINATIONS = "destinations";
+
+    private static final List<String> REGIONS =
+        List.of(USERS_BY_ID, USERS_BY_USERNAME, TRAVEL_PACKAGES, HOTELS, DESTINATIONS);
+
+    @Bean
+    public CacheManager cacheManager(Environment environment) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Lookups never cache misses, see CatalogLookupService
+        cacheManager.setAllowNullValues(false);
+
+        // Each region gets its own TTL and size bound from app.cache.<region>.*
+        for (String region : REGIONS) {
+            long ttlSeconds = environment.getProperty("app.cache." + region + ".ttl-seconds", Long.class, 300L);
+            long maxSize = environment.getProperty("app.cache." + region + ".max-size", Long.class, 10000L);
+            cacheManager.registerCustomCache(region, Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build());
+        }
+        // Evictions (and puts) made inside a transaction only apply once it commits, so a
+        // rolled-back update does not drop entries and a re-read cannot cache uncommitted rows
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
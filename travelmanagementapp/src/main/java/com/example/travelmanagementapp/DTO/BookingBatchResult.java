@@ -0,0 +1,53 @@
+package com.example.travelmanagementapp.DTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a batch booking request: one entry per submitted booking, in request order,
+ * with either the new booking id or the reason it was rejected.
+ */
+public class BookingBatchResult {
+    private int created;
+    private int failed;
+    private List<Map<String, Object>> results;
+
+    public BookingBatchResult(int size) {
+        this.results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            results.add(null);
+        }
+    }
+
+    public void addCreated(int index, Long bookingId) {
+        created++;
+        Map<String, Object> result = new HashMap<>();
+        result.put("index", index);
+        result.put("status", "success");
+        result.put("id", bookingId);
+        results.set(index, result);
+    }
+
+    public void addError(int index, String message) {
+        failed++;
+        Map<String, Object> result = new HashMap<>();
+        result.put("index", index);
+        result.put("status", "error");
+        result.put("message", message);
+        results.set(index, result);
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<Map<String, Object>> getResults() {
+        return results;
+    }
+}
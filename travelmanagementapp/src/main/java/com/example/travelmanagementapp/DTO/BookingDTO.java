@@ -6,7 +6,8 @@ public class BookingDTO {
     private Long id;
     private String bookingDate;
     private String travelDate;
-    private double totalPrice;
+    private double totalPrice; // Ignored on create, the server computes the price
+    private Integer numberOfPeople; // Defaults to one traveller
     private Long userId;
     private String username; // Added username field for fallback authentication
     private Long travelPackageId;
@@ -44,6 +45,14 @@ public class BookingDTO {
         this.totalPrice = totalPrice;
     }
     
+    public Integer getNumberOfPeople() {
+        return numberOfPeople;
+    }
+
+    public void setNumberOfPeople(Integer numberOfPeople) {
+        this.numberOfPeople = numberOfPeople;
+    }
+    
     public Long getUserId() {
         return userId;
     }
@@ -0,0 +1,23 @@
+package com.example.travelmanagementapp.DTO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Projection used by the paginated booking history: the booking with the names of what was booked
+public interface BookingHistoryItem {
+    Long getId();
+    String getReference();
+    LocalDate getBookingDate();
+    LocalDate getTravelDate();
+    LocalDate getReturnDate();
+    Integer getRooms();
+    Double getTotalPrice();
+    String getStatus();
+    LocalDateTime getCancelledAt();
+    Long getTravelPackageId();
+    String getTravelPackageName();
+    Long getHotelId();
+    String getHotelName();
+    Long getDestinationId();
+    String getDestinationName();
+}
@@ -0,0 +1,44 @@
+package com.example.travelmanagementapp.DTO;
+
+/**
+ * Which bookings a bulk cancellation covers. Criteria that are set must all match; at
+ * least one is required. Dates are ISO dates and bound the travel date, both inclusive.
+ */
+public class BulkCancellationRequest {
+    private Long travelPackageId;
+    private Long destinationId;
+    private String from;
+    private String to;
+
+    public Long getTravelPackageId() {
+        return travelPackageId;
+    }
+
+    public void setTravelPackageId(Long travelPackageId) {
+        this.travelPackageId = travelPackageId;
+    }
+
+    public Long getDestinationId() {
+        return destinationId;
+    }
+
+    public void setDestinationId(Long destinationId) {
+        this.destinationId = destinationId;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.travelmanagementapp.DTO;
+
+import java.time.LocalDate;
+
+/**
+ * What cancelling a booking has to undo: the rooms of a hotel stay and the booking's
+ * place in the demand index. Read instead of the whole booking so that cancelling, one
+ * booking or a whole package, loads none of the associations.
+ */
+public class CancellableBooking {
+    private final Long id;
+    private final LocalDate travelDate;
+    private final LocalDate returnDate;
+    private final Integer rooms;
+    private final Long hotelId;
+    private final Long destinationId;
+    private final Long travelPackageId;
+
+    public CancellableBooking(Long id, LocalDate travelDate, LocalDate returnDate, Integer rooms,
+                              Long hotelId, Long destinationId, Long travelPackageId) {
+        this.id = id;
+        this.travelDate = travelDate;
+        this.returnDate = returnDate;
+        this.rooms = rooms;
+        this.hotelId = hotelId;
+        this.destinationId = destinationId;
+        this.travelPackageId = travelPackageId;
+    }
+
+    public boolean isHotelStay() {
+        return hotelId != null && returnDate != null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getTravelDate() {
+        return travelDate;
+    }
+
+    public LocalDate getReturnDate() {
+        return returnDate;
+    }
+
+    public Integer getRooms() {
+        return rooms;
+    }
+
+    public Long getHotelId() {
+        return hotelId;
+    }
+
+    public Long getDestinationId() {
+        return destinationId;
+    }
+
+    public Long getTravelPackageId() {
+        return travelPackageId;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.travelmanagementapp.DTO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a bulk cancellation. {@code total} is the number of matching bookings when
+ * the job started; {@code skipped} counts those that were cancelled by someone else before
+ * the job reached them. Updated by the job's thread and read by status requests.
+ */
+public class CancellationJob {
+    public static final String QUEUED = "queued";
+    public static final String RUNNING = "running";
+    public static final String COMPLETED = "completed";
+    public static final String FAILED = "failed";
+
+    private final String id;
+    private final Long travelPackageId;
+    private final Long destinationId;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final String requestedBy;
+    private volatile String status = QUEUED;
+    private volatile long total;
+    private volatile long processed;
+    private volatile long cancelled;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public CancellationJob(String id, Long travelPackageId, Long destinationId, LocalDate from, LocalDate to,
+                           String requestedBy) {
+        this.id = id;
+        this.travelPackageId = travelPackageId;
+        this.destinationId = destinationId;
+        this.from = from;
+        this.to = to;
+        this.requestedBy = requestedBy;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getTravelPackageId() {
+        return travelPackageId;
+    }
+
+    public Long getDestinationId() {
+        return destinationId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public String getRequestedBy() {
+        return requestedBy;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public long getCancelled() {
+        return cancelled;
+    }
+
+    public void setCancelled(long cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    public long getSkipped() {
+        // Both counters move while the job runs; never report a negative gap between them
+        return Math.max(0, processed - cancelled);
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
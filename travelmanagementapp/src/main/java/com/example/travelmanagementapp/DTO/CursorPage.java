@@ -0,0 +1,139 @@
+package com.example.travelmanagementapp.DTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is an opaque token to pass
+ * back as the {@code cursor} parameter, or null when there are no more rows.
+ */
+public class CursorPage<T> {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    /**
+     * Position after the last row of a page sorted by a date and then by id.
+     */
+    public static final class DateKey {
+        private final LocalDate date;
+        private final long id;
+
+        public DateKey(LocalDate date, long id) {
+            this.date = date;
+            this.id = id;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public long getId() {
+            return id;
+        }
+    }
+
+    private List<T> items;
+    private String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Builds a page from rows fetched with {@code limit + 1}: the extra row only signals
+     * that another page exists and is not returned.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, Long> idOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, encodeCursor(idOf.apply(items.get(limit - 1))));
+    }
+
+    /**
+     * Same as {@link #of(List, int, Function)} for rows sorted by a date, then by id.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, LocalDate> dateOf, Function<T, Long> idOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        T last = items.get(limit - 1);
+        return new CursorPage<>(items, encodeCursor(dateOf.apply(last), idOf.apply(last)));
+    }
+
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    public static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(("id:" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the last id seen by the previous page, or 0 for the first page.
+     */
+    public static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith("id:")) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(3));
+        } catch (IllegalArgumentException e) {
+            // Also covers NumberFormatException and malformed Base64
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public static String encodeCursor(LocalDate lastDate, Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(("date:" + lastDate + ":" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the position after the previous page of a date-sorted listing, or null for
+     * the first page.
+     */
+    public static DateKey decodeDateCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(":");
+            if (parts.length != 3 || !"date".equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new DateKey(LocalDate.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -6,7 +6,8 @@ public class DestinationBookingDTO {
     private String travelDate;
     private String returnDate;
     private int numberOfPeople;
-    private double totalPrice;
+    private Integer rooms; // Defaults to one room
+    private double totalPrice; // Ignored, the server computes the price
     private Long userId;
     private String username;
     private Long hotelId;
@@ -54,6 +55,14 @@ public class DestinationBookingDTO {
         this.numberOfPeople = numberOfPeople;
     }
 
+    public Integer getRooms() {
+        return rooms;
+    }
+
+    public void setRooms(Integer rooms) {
+        this.rooms = rooms;
+    }
+
     public double getTotalPrice() {
         return totalPrice;
     }
@@ -0,0 +1,9 @@
+package com.example.travelmanagementapp.DTO;
+
+// Projection used by paginated destination listings
+public interface DestinationSummary {
+    Long getId();
+    String getName();
+    String getCountry();
+    String getImagePath();
+}
@@ -0,0 +1,11 @@
+package com.example.travelmanagementapp.DTO;
+
+// Projection used by paginated hotel listings
+public interface HotelSummary {
+    Long getId();
+    String getName();
+    String getLocation();
+    Double getPricePerNight();
+    String getAddress();
+    Long getDestinationId();
+}
@@ -0,0 +1,82 @@
+package com.example.travelmanagementapp.DTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk catalog import. Only the first {@link #MAX_REPORTED_ERRORS} row
+ * errors are kept so a bad file cannot exhaust memory; {@code rowsFailed} has the total.
+ */
+public class ImportResult {
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private String entityType;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    private List<Map<String, Object>> errors = new ArrayList<>();
+
+    public ImportResult(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public void addError(long line, String message) {
+        rowsFailed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("line", line);
+            error.put("message", message);
+            errors.add(error);
+        }
+    }
+
+    public void incrementRowsRead() {
+        rowsRead++;
+    }
+
+    public void addRowsImported(long count) {
+        rowsImported += count;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public void setRowsImported(long rowsImported) {
+        this.rowsImported = rowsImported;
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    public void setRowsFailed(long rowsFailed) {
+        this.rowsFailed = rowsFailed;
+    }
+
+    public List<Map<String, Object>> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<Map<String, Object>> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.travelmanagementapp.DTO;
+
+// Projection used to price many packages or hotels with one query
+public interface ItemPrice {
+    Long getId();
+    Double getPrice();
+}
@@ -0,0 +1,81 @@
+package com.example.travelmanagementapp.DTO;
+
+/**
+ * Server-side price of a package or hotel stay; {@code total} is what a booking with the
+ * same parameters is charged.
+ */
+public class PriceQuote {
+    private String type; // "package" or "hotel"
+    private Long id;
+    private double basePrice;
+    private int nights;
+    private double total;
+    private String error; // Set instead of a total when the item could not be priced
+
+    public PriceQuote() {
+    }
+
+    public static PriceQuote error(String type, Long id, String error) {
+        PriceQuote quote = new PriceQuote();
+        quote.setType(type);
+        quote.setId(id);
+        quote.setError(error);
+        return quote;
+    }
+
+    public PriceQuote(String type, Long id, double basePrice, int nights, double total) {
+        this.type = type;
+        this.id = id;
+        this.basePrice = basePrice;
+        this.nights = nights;
+        this.total = total;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public double getBasePrice() {
+        return basePrice;
+    }
+
+    public void setBasePrice(double basePrice) {
+        this.basePrice = basePrice;
+    }
+
+    public int getNights() {
+        return nights;
+    }
+
+    public void setNights(int nights) {
+        this.nights = nights;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public void setTotal(double total) {
+        this.total = total;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
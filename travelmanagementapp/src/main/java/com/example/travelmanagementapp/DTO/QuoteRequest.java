@@ -0,0 +1,62 @@
+package com.example.travelmanagementapp.DTO;
+
+/**
+ * One item of a bulk quote request: a package on {@code travelDate}, or a hotel stay from
+ * {@code travelDate} to {@code returnDate}, for {@code numberOfPeople} guests.
+ */
+public class QuoteRequest {
+    private String type; // "package" or "hotel"
+    private Long id;
+    private String travelDate;
+    private String returnDate; // Hotels only; defaults to one night
+    private Integer numberOfPeople; // Defaults to one
+    private Integer rooms; // Hotels only; defaults to one room
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTravelDate() {
+        return travelDate;
+    }
+
+    public void setTravelDate(String travelDate) {
+        this.travelDate = travelDate;
+    }
+
+    public String getReturnDate() {
+        return returnDate;
+    }
+
+    public void setReturnDate(String returnDate) {
+        this.returnDate = returnDate;
+    }
+
+    public Integer getNumberOfPeople() {
+        return numberOfPeople;
+    }
+
+    public void setNumberOfPeople(Integer numberOfPeople) {
+        this.numberOfPeople = numberOfPeople;
+    }
+
+    public Integer getRooms() {
+        return rooms;
+    }
+
+    public void setRooms(Integer rooms) {
+        this.rooms = rooms;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.travelmanagementapp.DTO;
+
+// Projection used by paginated restaurant listings
+public interface RestaurantSummary {
+    Long getId();
+    String getName();
+    String getLocation();
+    String getAddress();
+    String getCuisine();
+    String getCuisineType();
+    Long getDestinationId();
+}
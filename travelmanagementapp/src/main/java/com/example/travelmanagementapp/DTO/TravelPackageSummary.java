@@ -0,0 +1,10 @@
+package com.example.travelmanagementapp.DTO;
+
+// Projection used by paginated travel package listings
+public interface TravelPackageSummary {
+    Long getId();
+    String getName();
+    String getDescription();
+    Double getPrice();
+    String getTravelAgencyName();
+}
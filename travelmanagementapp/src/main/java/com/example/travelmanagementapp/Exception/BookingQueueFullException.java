@@ -0,0 +1,11 @@
+package com.example.travelmanagementapp.Exception;
+
+/**
+ * The asynchronous booking queue cannot take more bookings right now; the client should retry.
+ */
+public class BookingQueueFullException extends OurException {
+
+    public BookingQueueFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
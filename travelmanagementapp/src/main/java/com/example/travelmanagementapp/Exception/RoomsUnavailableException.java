@@ -0,0 +1,11 @@
+package com.example.travelmanagementapp.Exception;
+
+/**
+ * A hotel has fewer free rooms than requested on at least one night of a stay.
+ */
+public class RoomsUnavailableException extends OurException {
+
+    public RoomsUnavailableException(String message) {
+        super(message);
+    }
+}
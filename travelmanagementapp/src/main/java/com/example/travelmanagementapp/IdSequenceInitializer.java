@@ -0,0 +1,70 @@
+package com.example.travelmanagementapp;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Entities take their ids from pooled sequences ({@code <table>_seq}, allocation size 50)
+ * so Hibernate can batch inserts. MySQL has no sequences, so Hibernate backs each one
+ * with a single-row table instead.
+ *
+ * Databases created before the switch already hold rows with AUTO_INCREMENT ids and the
+ * new sequences start at 1, so on startup every sequence is moved past the highest
+ * existing id. This runs once the EntityManagerFactory (and so the schema) is ready and
+ * before the data loader or any request inserts rows.
+ */
+@Component
+public class IdSequenceInitializer {
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String> TABLES = List.of(
+        "accommodation", "booking", "complaint", "destination", "feedback", "hotel",
+        "image", "restaurant", "room_night", "service_provider", "transportation", "travel_package", "user");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Only injected so the schema exists before the sequences are adjusted
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void syncSequences() {
+        String database = jdbcTemplate.execute(
+            (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        boolean tableBacked = database != null && database.toLowerCase().contains("mysql");
+
+        for (String table : TABLES) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + quote(table, tableBacked), Long.class);
+            if (maxId == null) {
+                continue;
+            }
+            // The pooled optimizer hands out the block below the stored value, so leave a full block of headroom
+            long next = maxId + ALLOCATION_SIZE + 1;
+            String sequence = table + "_seq";
+            if (tableBacked) {
+                jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ? WHERE next_val < ?", next, next);
+            } else {
+                // BASE_VALUE is the next value the sequence hands out; never move it backwards
+                Long current = jdbcTemplate.queryForObject(
+                    "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE LOWER(SEQUENCE_NAME) = ?",
+                    Long.class, sequence);
+                if (current == null || current < next) {
+                    jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+                }
+            }
+        }
+    }
+
+    // "user" is a reserved word on MySQL
+    private static String quote(String table, boolean mysql) {
+        return mysql ? "`" + table + "`" : table;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.travelmanagementapp;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+
+@Configuration
+public class MultipartConfig {
+
+    // Reads its parts off the raw request body as they arrive (see PackageUploadService)
+    public static final String STREAMING_UPLOAD_PATH = "/travel-packages/create/stream";
+
+    // Every other multipart request is parsed by the servlet container before its handler runs
+    @Bean
+    public MultipartResolver multipartResolver() {
+        return new StandardServletMultipartResolver() {
+            @Override
+            public boolean isMultipart(HttpServletRequest request) {
+                String path = request.getRequestURI().substring(request.getContextPath().length());
+                return !STREAMING_UPLOAD_PATH.equals(path) && super.isMultipart(request);
+            }
+        };
+    }
+}
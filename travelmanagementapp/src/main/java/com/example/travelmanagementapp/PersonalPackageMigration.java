@@ -0,0 +1,138 @@
+package com.example.travelmanagementapp;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Destination bookings used to insert a personal "My Trip to X" travel package per booking
+ * and point the booking at it. Bookings now reference the hotel and destination directly,
+ * so on startup this moves the bookings of existing personal packages onto their hotel and
+ * destination and deletes the packages.
+ *
+ * The personal packages only kept the names ("My Trip to X", "Hotel: Y"), so they are
+ * matched by name; a package whose destination or hotel no longer exists is left alone.
+ * Once everything is migrated the check is a single query that finds nothing.
+ */
+@Component
+public class PersonalPackageMigration {
+
+    private static final String TRIP_PREFIX = "My Trip to ";
+    private static final String HOTEL_PREFIX = "Hotel: ";
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Only injected so the schema, including the new booking columns, exists first
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void migrate() {
+        allowBookingsWithoutPackage();
+
+        List<Map<String, Object>> packages = jdbcTemplate.queryForList(
+            "SELECT id, name, description FROM travel_package WHERE is_personal_booking = true");
+        if (packages.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> destinations = new HashMap<>();
+        Map<String, Long> hotels = new HashMap<>();
+        List<Object[]> moves = new ArrayList<>();
+        for (Map<String, Object> travelPackage : packages) {
+            Long destinationId = destinationId(strip((String) travelPackage.get("name"), TRIP_PREFIX), destinations);
+            if (destinationId == null) {
+                continue;
+            }
+            Long hotelId = hotelId(strip((String) travelPackage.get("description"), HOTEL_PREFIX), destinationId, hotels);
+            if (hotelId == null) {
+                continue;
+            }
+            moves.add(new Object[] {hotelId, destinationId, ((Number) travelPackage.get("id")).longValue()});
+        }
+
+        // Small transactions so a large backlog does not hold locks on the booking table for long
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int start = 0; start < moves.size(); start += CHUNK_SIZE) {
+            List<Object[]> chunk = moves.subList(start, Math.min(start + CHUNK_SIZE, moves.size()));
+            transaction.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(
+                    "UPDATE booking SET hotel_id = ?, destination_id = ?, travel_package_id = NULL WHERE travel_package_id = ?",
+                    chunk);
+                List<Object[]> ids = new ArrayList<>(chunk.size());
+                for (Object[] move : chunk) {
+                    ids.add(new Object[] {move[2]});
+                }
+                jdbcTemplate.batchUpdate("DELETE FROM travel_package WHERE id = ? AND is_personal_booking = true", ids);
+            });
+        }
+        System.out.println("Migrated " + moves.size() + " of " + packages.size()
+            + " personal booking packages to direct hotel/destination bookings");
+    }
+
+    // The column was NOT NULL when every booking had a package; ddl-auto=update never relaxes that
+    private void allowBookingsWithoutPackage() {
+        Boolean nullable = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, "booking", "travel_package_id")) {
+                return !columns.next() || columns.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
+            }
+        });
+        if (Boolean.TRUE.equals(nullable)) {
+            return;
+        }
+        String database = jdbcTemplate.execute(
+            (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (database != null && database.toLowerCase().contains("mysql")) {
+            jdbcTemplate.execute("ALTER TABLE booking MODIFY travel_package_id BIGINT NULL");
+        } else {
+            jdbcTemplate.execute("ALTER TABLE booking ALTER COLUMN travel_package_id SET NULL");
+        }
+    }
+
+    private Long destinationId(String name, Map<String, Long> resolved) {
+        if (name == null) {
+            return null;
+        }
+        return resolved.computeIfAbsent(name, key -> firstId(
+            jdbcTemplate.queryForList("SELECT id FROM destination WHERE name = ? ORDER BY id", Long.class, key)));
+    }
+
+    // Prefers the hotel of that name at the booked destination
+    private Long hotelId(String name, Long destinationId, Map<String, Long> resolved) {
+        if (name == null) {
+            return null;
+        }
+        return resolved.computeIfAbsent(destinationId + ":" + name, key -> firstId(jdbcTemplate.queryForList(
+            "SELECT id FROM hotel WHERE name = ? ORDER BY CASE WHEN destination_id = ? THEN 0 ELSE 1 END, id",
+            Long.class, name, destinationId)));
+    }
+
+    private static Long firstId(List<Long> ids) {
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    private static String strip(String value, String prefix) {
+        if (value == null || !value.startsWith(prefix)) {
+            return null;
+        }
+        return value.substring(prefix.length());
+    }
+}
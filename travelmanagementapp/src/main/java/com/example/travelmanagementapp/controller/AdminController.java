@@ -1,9 +1,17 @@
 package com.example.travelmanagementapp.controller;
 
+import com.example.travelmanagementapp.DTO.CursorPage;
+import com.example.travelmanagementapp.DTO.ImportResult;
 import com.example.travelmanagementapp.model.Destination;
 import com.example.travelmanagementapp.model.Hotel;
 import com.example.travelmanagementapp.model.Restaurant;
 import com.example.travelmanagementapp.service.AdminService;
+import com.example.travelmanagementapp.service.CatalogImportService;
+import com.example.travelmanagementapp.service.CatalogLookupService;
+import com.example.travelmanagementapp.service.CatalogSearchIndex;
+import com.example.travelmanagementapp.service.PricingEngine;
+import com.example.travelmanagementapp.service.RateTable;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,8 +29,19 @@ import java.util.ArrayList;
 @CrossOrigin(origins = "*")
 public class AdminController {
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 200;
+
     @Autowired
     private AdminService adminService;
+    
+    @Autowired
+    private CatalogLookupService catalogLookupService;
+    
+    @Autowired
+    private CatalogImportService catalogImportService;
+    
+    @Autowired
+    private PricingEngine pricingEngine;
 
     // Destination endpoints
     @GetMapping("/destinations")
@@ -30,6 +49,18 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getAllDestinations());
     }
     
+    // Keyset-paginated listing with only the columns the list view renders
+    @GetMapping("/destinations/page")
+    public ResponseEntity<?> getDestinationPage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(adminService.getDestinationPage(cursor, CursorPage.clampLimit(limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     @GetMapping("/destinations/{id}")
     public ResponseEntity<Destination> getDestinationById(@PathVariable Long id) {
         Destination destination = adminService.getDestinationById(id);
@@ -111,6 +142,17 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getAllHotels());
     }
     
+    @GetMapping("/hotels/page")
+    public ResponseEntity<?> getHotelPage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(adminService.getHotelPage(cursor, CursorPage.clampLimit(limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     @GetMapping("/destinations/{destinationId}/hotels")
     public ResponseEntity<List<Hotel>> getHotelsByDestination(@PathVariable Long destinationId) {
         return ResponseEntity.ok(adminService.getHotelsByDestination(destinationId));
@@ -173,6 +215,17 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getAllRestaurants());
     }
     
+    @GetMapping("/restaurants/page")
+    public ResponseEntity<?> getRestaurantPage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(adminService.getRestaurantPage(cursor, CursorPage.clampLimit(limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     @GetMapping("/destinations/{destinationId}/restaurants")
     public ResponseEntity<List<Restaurant>> getRestaurantsByDestination(@PathVariable Long destinationId) {
         return ResponseEntity.ok(adminService.getRestaurantsByDestination(destinationId));
@@ -231,6 +284,58 @@ public class AdminController {
         return ResponseEntity.noContent().build();
     }
     
+    // Bulk import: the request body is a CSV file (with header row) or NDJSON, streamed as it is read
+    @PostMapping("/import/{entityType}")
+    public ResponseEntity<?> importCatalog(
+            @PathVariable String entityType,
+            @RequestParam(value = "format", required = false) String format,
+            @RequestParam(value = "username", required = false) String username,
+            HttpServletRequest request) {
+            
+        String effectiveUsername = (username != null) ? username : "admin";
+        String effectiveFormat = format;
+        if (effectiveFormat == null) {
+            String contentType = request.getContentType();
+            effectiveFormat = contentType != null && contentType.contains("ndjson") ? "ndjson" : "csv";
+        }
+        
+        try {
+            ImportResult result = catalogImportService.importCatalog(
+                entityType, effectiveFormat, request.getInputStream(), effectiveUsername);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(403).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error importing " + entityType + ": " + e.getMessage());
+        }
+    }
+    
+    // Hit/miss statistics for the catalog lookup caches
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Map<String, Object>>> getCacheStatistics() {
+        return ResponseEntity.ok(catalogLookupService.getCacheStatistics());
+    }
+    
+    // Applies edited pricing rules right away instead of at the next file check
+    @PostMapping("/pricing/reload")
+    public ResponseEntity<?> reloadPricingRules() {
+        try {
+            RateTable table = pricingEngine.reload();
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            // Dates outside the precompiled range are still priced, just not from the table
+            response.put("compiledFrom", table.getWindowStart().toString());
+            response.put("compiledUntil", table.getWindowEnd().toString());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid pricing rules: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error reloading pricing rules: " + e.getMessage());
+        }
+    }
+    
     // Legacy endpoints (keeping for backward compatibility)
     @PutMapping("/destinations/{destinationId}/hotels")
     public ResponseEntity<String> updateHotels(@PathVariable Long destinationId, @RequestBody List<Hotel> hotels) {
@@ -246,8 +351,13 @@ public class AdminController {
     
     // Search endpoints
     @GetMapping("/search/destinations")
-    public ResponseEntity<List<Map<String, Object>>> searchDestinations(@RequestParam String query) {
-        List<Destination> destinations = adminService.searchDestinations(query);
+    public ResponseEntity<List<Map<String, Object>>> searchDestinations(
+            @RequestParam String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
+        List<Destination> destinations = adminService.searchDestinations(query, page, clampPageSize(size));
+        
+        Map<Long, String> imagePaths = adminService.getDestinationImagePaths(destinationIds(destinations));
         
         // Create a simplified response without circular references
         List<Map<String, Object>> result = new ArrayList<>();
@@ -260,8 +370,7 @@ public class AdminController {
             dest.put("type", "destination");
             
             // Get the first image for this destination if available
-            String imagePath = adminService.getDestinationImagePath(d.getId());
-            dest.put("imagePath", imagePath);
+            dest.put("imagePath", imagePaths.get(d.getId()));
             
             // Get hotel and restaurant counts
             int hotelCount = d.getHotels() != null ? d.getHotels().size() : 0;
@@ -276,8 +385,13 @@ public class AdminController {
     }
     
     @GetMapping("/search/packages")
-    public ResponseEntity<List<Map<String, Object>>> searchTravelPackages(@RequestParam String query) {
-        List<TravelPackage> packages = adminService.searchTravelPackages(query);
+    public ResponseEntity<List<Map<String, Object>>> searchTravelPackages(
+            @RequestParam String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
+        List<TravelPackage> packages = adminService.searchTravelPackages(query, page, clampPageSize(size));
+        
+        Map<Long, String> imagePaths = adminService.getTravelPackageImagePaths(travelPackageIds(packages));
         
         // Create a simplified response without circular references
         List<Map<String, Object>> result = new ArrayList<>();
@@ -291,8 +405,7 @@ public class AdminController {
             pack.put("type", "package");
             
             // Get the first image for this package if available
-            String imagePath = adminService.getTravelPackageImagePath(tp.getId());
-            pack.put("imagePath", imagePath);
+            pack.put("imagePath", imagePaths.get(tp.getId()));
             
             // Get hotel and restaurant counts
             int hotelCount = tp.getHotels() != null ? tp.getHotels().size() : 0;
@@ -307,19 +420,30 @@ public class AdminController {
     }
     
     @GetMapping("/search")
-    public ResponseEntity<Map<String, Object>> searchAll(@RequestParam String query) {
+    public ResponseEntity<Map<String, Object>> searchAll(
+            @RequestParam String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
         Map<String, Object> results = new HashMap<>();
+        int pageSize = clampPageSize(size);
+        boolean unfiltered = query.trim().isEmpty();
+        // The query runs once; both pages and the total come from the same hits
+        CatalogSearchIndex.Hits hits = unfiltered ? null : adminService.searchCatalog(query);
         
         // Get destinations
+        List<Destination> destinationPage = unfiltered
+            ? adminService.searchDestinations(query, page, pageSize)
+            : adminService.findDestinationsPage(hits.getDestinationIds(), page, pageSize);
+        Map<Long, String> destinationImagePaths = adminService.getDestinationImagePaths(destinationIds(destinationPage));
         List<Map<String, Object>> destinations = new ArrayList<>();
-        for (Destination d : adminService.searchDestinations(query)) {
+        for (Destination d : destinationPage) {
             Map<String, Object> dest = new HashMap<>();
             dest.put("id", d.getId());
             dest.put("name", d.getName());
             dest.put("country", d.getCountry());
             dest.put("description", d.getDescription());
             dest.put("type", "destination");
-            dest.put("imagePath", adminService.getDestinationImagePath(d.getId()));
+            dest.put("imagePath", destinationImagePaths.get(d.getId()));
             int hotelCount = d.getHotels() != null ? d.getHotels().size() : 0;
             int restaurantCount = d.getRestaurants() != null ? d.getRestaurants().size() : 0;
             dest.put("hotelCount", hotelCount);
@@ -328,8 +452,12 @@ public class AdminController {
         }
         
         // Get travel packages
+        List<TravelPackage> packagePage = unfiltered
+            ? adminService.searchTravelPackages(query, page, pageSize)
+            : adminService.findTravelPackagesPage(hits.getTravelPackageIds(), page, pageSize);
+        Map<Long, String> packageImagePaths = adminService.getTravelPackageImagePaths(travelPackageIds(packagePage));
         List<Map<String, Object>> packages = new ArrayList<>();
-        for (TravelPackage tp : adminService.searchTravelPackages(query)) {
+        for (TravelPackage tp : packagePage) {
             Map<String, Object> pack = new HashMap<>();
             pack.put("id", tp.getId());
             pack.put("name", tp.getName());
@@ -337,7 +465,7 @@ public class AdminController {
             pack.put("price", tp.getPrice());
             pack.put("travelAgencyName", tp.getTravelAgencyName());
             pack.put("type", "package");
-            pack.put("imagePath", adminService.getTravelPackageImagePath(tp.getId()));
+            pack.put("imagePath", packageImagePaths.get(tp.getId()));
             int hotelCount = tp.getHotels() != null ? tp.getHotels().size() : 0;
             int restaurantCount = tp.getRestaurants() != null ? tp.getRestaurants().size() : 0;
             pack.put("hotelCount", hotelCount);
@@ -347,8 +475,32 @@ public class AdminController {
         
         results.put("destinations", destinations);
         results.put("packages", packages);
-        results.put("totalResults", destinations.size() + packages.size());
+        results.put("totalResults", unfiltered
+            ? adminService.countDestinations(query) + adminService.countTravelPackages(query)
+            : hits.getDestinationIds().size() + hits.getTravelPackageIds().size());
+        results.put("page", page);
+        results.put("size", pageSize);
         
         return ResponseEntity.ok(results);
     }
+    
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+    }
+    
+    private static List<Long> destinationIds(List<Destination> destinations) {
+        List<Long> ids = new ArrayList<>(destinations.size());
+        for (Destination d : destinations) {
+            ids.add(d.getId());
+        }
+        return ids;
+    }
+    
+    private static List<Long> travelPackageIds(List<TravelPackage> packages) {
+        List<Long> ids = new ArrayList<>(packages.size());
+        for (TravelPackage tp : packages) {
+            ids.add(tp.getId());
+        }
+        return ids;
+    }
 }
\ No newline at end of file
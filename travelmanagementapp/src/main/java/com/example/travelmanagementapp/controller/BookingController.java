@@ -1,22 +1,42 @@
 package com.example.travelmanagementapp.controller;
 
 import com.example.travelmanagementapp.DTO.BookingDTO;
+import com.example.travelmanagementapp.DTO.BulkCancellationRequest;
+import com.example.travelmanagementapp.DTO.CancellationJob;
+import com.example.travelmanagementapp.DTO.CursorPage;
 import com.example.travelmanagementapp.DTO.DestinationBookingDTO;
+import com.example.travelmanagementapp.DTO.TravelPackageSummary;
+import com.example.travelmanagementapp.Exception.BookingQueueFullException;
+import com.example.travelmanagementapp.Exception.RoomsUnavailableException;
 import com.example.travelmanagementapp.model.Booking;
 import com.example.travelmanagementapp.model.Destination;
 import com.example.travelmanagementapp.model.Hotel;
 import com.example.travelmanagementapp.model.TravelPackage;
 import com.example.travelmanagementapp.model.User;
-import com.example.travelmanagementapp.repository.DestinationRepository;
-import com.example.travelmanagementapp.repository.HotelRepository;
 import com.example.travelmanagementapp.repository.TravelPackageRepository;
-import com.example.travelmanagementapp.repository.UserRepository;
+import com.example.travelmanagementapp.service.AsyncBookingService;
+import com.example.travelmanagementapp.service.BookingCancellationService;
+import com.example.travelmanagementapp.service.BookingExportService;
 import com.example.travelmanagementapp.service.BookingService;
+import com.example.travelmanagementapp.service.CatalogLookupService;
+import com.example.travelmanagementapp.service.IdempotencyStore;
+import com.example.travelmanagementapp.service.PricingEngine;
+import com.example.travelmanagementapp.service.RateTable;
+import com.example.travelmanagementapp.service.RoomInventoryService;
+import com.example.travelmanagementapp.service.TravelPackageService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,25 +50,50 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
     
-    @Autowired
-    private UserRepository userRepository;
-    
     @Autowired
     private TravelPackageRepository travelPackageRepository;
     
     @Autowired
-    private HotelRepository hotelRepository;
+    private TravelPackageService travelPackageService;
     
     @Autowired
-    private DestinationRepository destinationRepository;
+    private CatalogLookupService catalogLookupService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private RoomInventoryService roomInventoryService;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private BookingCancellationService bookingCancellationService;
+
+    // Only present when app.bookings.async.enabled is set
+    @Autowired(required = false)
+    private AsyncBookingService asyncBookingService;
+
+    @Value("${app.bookings.batch.max-size:1000}")
+    private int maxBatchSize;
 
+    // Retries carrying the same Idempotency-Key get the first response instead of a second booking
     @PostMapping
-    public ResponseEntity<?> createBooking(@RequestBody BookingDTO bookingDTO) {
+    public ResponseEntity<?> createBooking(@RequestBody BookingDTO bookingDTO,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute("booking", idempotencyKey, bookingDTO, () -> doCreateBooking(bookingDTO));
+    }
+
+    private ResponseEntity<?> doCreateBooking(BookingDTO bookingDTO) {
         try {
             // Get the user - try by ID first, then by username if ID is null or not found
             User user = null;
             if (bookingDTO.getUserId() != null) {
-                Optional<User> userOpt = userRepository.findById(bookingDTO.getUserId());
+                Optional<User> userOpt = catalogLookupService.findUserById(bookingDTO.getUserId());
                 if (userOpt.isPresent()) {
                     user = userOpt.get();
                 }
@@ -56,7 +101,7 @@ public class BookingController {
             
             // If user not found by ID and username is provided, try by username
             if (user == null && bookingDTO.getUsername() != null && !bookingDTO.getUsername().isEmpty()) {
-                Optional<User> userOpt = userRepository.findByUsername(bookingDTO.getUsername());
+                Optional<User> userOpt = catalogLookupService.findUserByUsername(bookingDTO.getUsername());
                 if (userOpt.isPresent()) {
                     user = userOpt.get();
                 }
@@ -72,16 +117,33 @@ public class BookingController {
             }
             
             // Get the travel package
-            Optional<TravelPackage> packageOpt = travelPackageRepository.findById(bookingDTO.getTravelPackageId());
+            Optional<TravelPackage> packageOpt = catalogLookupService.findTravelPackageById(bookingDTO.getTravelPackageId());
             if (!packageOpt.isPresent()) {
                 return ResponseEntity.badRequest().body("Travel package not found");
             }
             
+            // The price is computed here; whatever total the client sent is ignored
+            LocalDate travelDate = LocalDate.parse(bookingDTO.getTravelDate());
+            int travellers = bookingDTO.getNumberOfPeople() != null ? bookingDTO.getNumberOfPeople() : 1;
+            double totalPrice = pricingEngine.quotePackage(packageOpt.get().getPrice(), travelDate, travellers);
+            
+            // Write-behind mode: acknowledge once the booking is durably queued, the database write follows
+            if (asyncBookingService != null) {
+                String reference = asyncBookingService.enqueue(user.getId(), packageOpt.get().getId(),
+                    bookingDTO.getTravelDate(), totalPrice);
+                Map<String, Object> response = new HashMap<>();
+                response.put("reference", reference);
+                response.put("totalPrice", totalPrice);
+                response.put("status", AsyncBookingService.PENDING);
+                response.put("message", "Booking accepted, poll /api/bookings/status/" + reference + " for confirmation");
+                return ResponseEntity.accepted().body(response);
+            }
+            
             // Create booking entity
             Booking booking = new Booking();
             booking.setBookingDate(LocalDate.now());
-            booking.setTravelDate(LocalDate.parse(bookingDTO.getTravelDate()));
-            booking.setTotalPrice(bookingDTO.getTotalPrice());
+            booking.setTravelDate(travelDate);
+            booking.setTotalPrice(totalPrice);
             booking.setUser(user);
             booking.setTravelPackage(packageOpt.get());
             
@@ -91,23 +153,51 @@ public class BookingController {
             // Return success response with booking id
             Map<String, Object> response = new HashMap<>();
             response.put("id", savedBooking.getId());
+            response.put("totalPrice", savedBooking.getTotalPrice());
             response.put("status", "success");
             response.put("message", "Booking created successfully");
             
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (BookingQueueFullException e) {
+            return ResponseEntity.status(503).body(e.getMessage());
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body("Error creating booking: " + e.getMessage());
         }
     }
     
+    // Group and agency bookings in one round-trip; the result lists every item's outcome in request order
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBookings(@RequestBody List<BookingDTO> bookingDTOs,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        if (bookingDTOs.isEmpty() || bookingDTOs.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body("A batch must contain between 1 and " + maxBatchSize + " bookings");
+        }
+        return idempotencyStore.execute("booking-batch", idempotencyKey, bookingDTOs, () -> {
+            try {
+                return ResponseEntity.ok(bookingService.createBookings(bookingDTOs));
+            } catch (Exception e) {
+                e.printStackTrace();
+                return ResponseEntity.status(500).body("Error creating bookings: " + e.getMessage());
+            }
+        });
+    }
+    
     @PostMapping("/destination")
-    public ResponseEntity<?> createDestinationBooking(@RequestBody DestinationBookingDTO bookingDTO) {
+    public ResponseEntity<?> createDestinationBooking(@RequestBody DestinationBookingDTO bookingDTO,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute("destination-booking", idempotencyKey, bookingDTO,
+            () -> doCreateDestinationBooking(bookingDTO));
+    }
+
+    private ResponseEntity<?> doCreateDestinationBooking(DestinationBookingDTO bookingDTO) {
         try {
             // Get the user - try by ID first, then by username if ID is null or not found
             User user = null;
             if (bookingDTO.getUserId() != null) {
-                Optional<User> userOpt = userRepository.findById(bookingDTO.getUserId());
+                Optional<User> userOpt = catalogLookupService.findUserById(bookingDTO.getUserId());
                 if (userOpt.isPresent()) {
                     user = userOpt.get();
                 }
@@ -115,7 +205,7 @@ public class BookingController {
             
             // If user not found by ID and username is provided, try by username
             if (user == null && bookingDTO.getUsername() != null && !bookingDTO.getUsername().isEmpty()) {
-                Optional<User> userOpt = userRepository.findByUsername(bookingDTO.getUsername());
+                Optional<User> userOpt = catalogLookupService.findUserByUsername(bookingDTO.getUsername());
                 if (userOpt.isPresent()) {
                     user = userOpt.get();
                 }
@@ -131,13 +221,13 @@ public class BookingController {
             }
             
             // Get the hotel
-            Optional<Hotel> hotelOpt = hotelRepository.findById(bookingDTO.getHotelId());
+            Optional<Hotel> hotelOpt = catalogLookupService.findHotelById(bookingDTO.getHotelId());
             if (!hotelOpt.isPresent()) {
                 return ResponseEntity.badRequest().body("Hotel not found");
             }
             
             // Get the destination
-            Optional<Destination> destinationOpt = destinationRepository.findById(bookingDTO.getDestinationId());
+            Optional<Destination> destinationOpt = catalogLookupService.findDestinationById(bookingDTO.getDestinationId());
             if (!destinationOpt.isPresent()) {
                 return ResponseEntity.badRequest().body("Destination not found");
             }
@@ -146,29 +236,18 @@ public class BookingController {
             Booking booking = new Booking();
             booking.setBookingDate(LocalDate.now());
             booking.setTravelDate(LocalDate.parse(bookingDTO.getTravelDate()));
-            booking.setTotalPrice(bookingDTO.getTotalPrice());
             booking.setUser(user);
             
-            // For destination bookings, we create a special "virtual" travel package that
-            // represents this specific hotel + destination combination
-            TravelPackage virtualPackage = new TravelPackage();
-            // Personalize the package name to include the user's identifier
-            virtualPackage.setName("My Trip to " + destinationOpt.get().getName());
-            virtualPackage.setDescription("Hotel: " + hotelOpt.get().getName());
-            virtualPackage.setPrice(bookingDTO.getTotalPrice());
-            
-            // Set a default travel agency name to avoid null constraint violation
-            virtualPackage.setTravelAgencyName("Destination Direct Booking");
-            
-            // Set the user who created this virtual package
-            virtualPackage.setUser(user);
-            // Flag this as a private destination booking package, not a public package
-            virtualPackage.setIsPersonalBooking(true);
-            
-            // Save the virtual package
-            virtualPackage = travelPackageRepository.save(virtualPackage);
-            
-            booking.setTravelPackage(virtualPackage);
+            // Destination bookings point at the hotel and destination themselves, so this is a single insert
+            booking.setHotel(hotelOpt.get());
+            booking.setDestination(destinationOpt.get());
+            // The stay's nights are reserved in the hotel's room inventory; without a return date it is one night
+            booking.setReturnDate(bookingDTO.getReturnDate() != null && !bookingDTO.getReturnDate().isEmpty()
+                ? LocalDate.parse(bookingDTO.getReturnDate()) : booking.getTravelDate().plusDays(1));
+            booking.setRooms(bookingDTO.getRooms() != null ? bookingDTO.getRooms() : 1);
+            int guests = bookingDTO.getNumberOfPeople() > 0 ? bookingDTO.getNumberOfPeople() : 1;
+            booking.setTotalPrice(pricingEngine.quoteStay(hotelOpt.get().getPricePerNight(),
+                booking.getTravelDate(), booking.getReturnDate(), booking.getRooms(), guests));
             
             // Save booking
             Booking savedBooking = bookingService.createBooking(booking);
@@ -176,21 +255,63 @@ public class BookingController {
             // Return success response with booking id
             Map<String, Object> response = new HashMap<>();
             response.put("id", savedBooking.getId());
+            response.put("totalPrice", savedBooking.getTotalPrice());
             response.put("status", "success");
             response.put("message", "Destination booking created successfully");
             
             return ResponseEntity.ok(response);
+        } catch (RoomsUnavailableException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body("Error creating destination booking: " + e.getMessage());
         }
     }
 
+    // Progress of a booking accepted in write-behind mode: pending, confirmed (with id) or rejected
+    @GetMapping("/status/{reference}")
+    public ResponseEntity<?> getBookingStatus(@PathVariable String reference) {
+        try {
+            if (asyncBookingService == null) {
+                return ResponseEntity.notFound().build();
+            }
+            Optional<Map<String, Object>> status = asyncBookingService.getStatus(reference);
+            if (!status.isPresent()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(status.get());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching booking status: " + e.getMessage());
+        }
+    }
+
+    // Free rooms per night for a stay from checkIn up to checkOut
+    @GetMapping("/hotels/{hotelId}/availability")
+    public ResponseEntity<?> getHotelAvailability(
+            @PathVariable Long hotelId,
+            @RequestParam("checkIn") String checkIn,
+            @RequestParam("checkOut") String checkOut) {
+        try {
+            Optional<Hotel> hotelOpt = catalogLookupService.findHotelById(hotelId);
+            if (!hotelOpt.isPresent()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(roomInventoryService.getAvailability(
+                hotelOpt.get(), LocalDate.parse(checkIn), LocalDate.parse(checkOut)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching availability: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<?> getUserBookings(@PathVariable Long userId) {
         try {
             // Validate user exists
-            Optional<User> userOpt = userRepository.findById(userId);
+            Optional<User> userOpt = catalogLookupService.findUserById(userId);
             if (!userOpt.isPresent()) {
                 return ResponseEntity.badRequest().body("User not found");
             }
@@ -206,7 +327,7 @@ public class BookingController {
     public ResponseEntity<?> getUserBookingsByUsername(@PathVariable String username) {
         try {
             // Validate user exists
-            Optional<User> userOpt = userRepository.findByUsername(username);
+            Optional<User> userOpt = catalogLookupService.findUserByUsername(username);
             if (!userOpt.isPresent()) {
                 return ResponseEntity.badRequest().body("User not found");
             }
@@ -219,6 +340,79 @@ public class BookingController {
         }
     }
     
+    // Cursor-paged history ordered by travel date, with flat package/hotel/destination names
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<?> getUserBookingHistory(
+            @PathVariable Long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            Optional<User> userOpt = catalogLookupService.findUserById(userId);
+            if (!userOpt.isPresent()) {
+                return ResponseEntity.badRequest().body("User not found");
+            }
+            return ResponseEntity.ok(bookingService.getBookingHistory(userId, cursor, CursorPage.clampLimit(limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching bookings: " + e.getMessage());
+        }
+    }
+    
+    @GetMapping("/username/{username}/history")
+    public ResponseEntity<?> getUserBookingHistoryByUsername(
+            @PathVariable String username,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        Optional<User> userOpt = catalogLookupService.findUserByUsername(username);
+        if (!userOpt.isPresent()) {
+            return ResponseEntity.badRequest().body("User not found");
+        }
+        return getUserBookingHistory(userOpt.get().getId(), cursor, limit);
+    }
+    
+    // Every booking of the user, streamed as NDJSON (default) or CSV while it is read from the database
+    @GetMapping("/user/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportUserBookings(
+            @PathVariable Long userId,
+            @RequestParam(value = "format", defaultValue = BookingExportService.NDJSON) String format,
+            HttpServletResponse response) throws IOException {
+        if (!BookingExportService.isSupported(format)) {
+            return plainText(400, "Format must be ndjson or csv");
+        }
+        Optional<User> userOpt = catalogLookupService.findUserById(userId);
+        if (!userOpt.isPresent()) {
+            return plainText(400, "User not found");
+        }
+        StreamingResponseBody body = out -> bookingExportService.export(userId, format, out);
+        boolean csv = BookingExportService.CSV.equals(format);
+        response.setContentType(csv ? "text/csv; charset=UTF-8" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings-" + userId + "." + format + "\"");
+        // Commit the headers here: the body is written from another thread, which must not race
+        // the security filter still adding its headers on this one
+        response.flushBuffer();
+        return ResponseEntity.ok().body(body);
+    }
+    
+    @GetMapping("/username/{username}/export")
+    public ResponseEntity<StreamingResponseBody> exportUserBookingsByUsername(
+            @PathVariable String username,
+            @RequestParam(value = "format", defaultValue = BookingExportService.NDJSON) String format,
+            HttpServletResponse response) throws IOException {
+        Optional<User> userOpt = catalogLookupService.findUserByUsername(username);
+        if (!userOpt.isPresent()) {
+            return plainText(400, "User not found");
+        }
+        return exportUserBookings(userOpt.get().getId(), format, response);
+    }
+    
+    // Streaming endpoints are declared with a StreamingResponseBody, so their errors are one as well
+    private static ResponseEntity<StreamingResponseBody> plainText(int status, String message) {
+        return ResponseEntity.status(status)
+            .contentType(MediaType.TEXT_PLAIN)
+            .body(out -> out.write(message.getBytes(StandardCharsets.UTF_8)));
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<?> getBooking(@PathVariable Long id) {
         try {
@@ -232,25 +426,53 @@ public class BookingController {
         }
     }
     
+    // Soft cancellation: the booking is kept with status CANCELLED; 404 if missing or already cancelled
     @DeleteMapping("/{id}")
     public ResponseEntity<?> cancelBooking(@PathVariable Long id) {
         try {
-            Optional<Booking> bookingOpt = bookingService.getBookingById(id);
-            if (!bookingOpt.isPresent()) {
+            if (!bookingService.cancelBooking(id)) {
                 return ResponseEntity.notFound().build();
             }
-            
-            bookingService.cancelBooking(id);
             return ResponseEntity.ok().body(Map.of("status", "success", "message", "Booking cancelled successfully"));
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error cancelling booking: " + e.getMessage());
         }
     }
     
+    // Starts a background job cancelling every matching booking; poll the returned job for progress
+    @PostMapping("/cancellations")
+    public ResponseEntity<?> startBulkCancellation(@RequestBody BulkCancellationRequest request,
+            @RequestParam("username") String username) {
+        try {
+            return ResponseEntity.accepted().body(bookingCancellationService.start(request, username));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(403).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error starting bulk cancellation: " + e.getMessage());
+        }
+    }
+    
+    @GetMapping("/cancellations/{jobId}")
+    public ResponseEntity<?> getBulkCancellation(@PathVariable String jobId) {
+        Optional<CancellationJob> job = bookingCancellationService.getJob(jobId);
+        if (!job.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job.get());
+    }
+    
+    // With a travelDate every package also carries the price a booking on that date is charged
     @GetMapping("/packages")
-    public ResponseEntity<?> getAvailablePackagesForBooking() {
+    public ResponseEntity<?> getAvailablePackagesForBooking(
+            @RequestParam(value = "travelDate", required = false) String travelDate,
+            @RequestParam(value = "travellers", defaultValue = "1") int travellers) {
         try {
-            List<TravelPackage> packages = travelPackageRepository.findAll();
+            LocalDate date = travelDate != null ? LocalDate.parse(travelDate) : null;
+            RateTable rates = pricingEngine.snapshot();
+            // Just the listed columns of public packages, without owners, hotels or restaurants
+            List<TravelPackageSummary> packages = travelPackageRepository.findSummaries();
             List<Map<String, Object>> result = packages.stream().map(pkg -> {
                 Map<String, Object> map = new HashMap<>();
                 map.put("id", pkg.getId());
@@ -258,10 +480,28 @@ public class BookingController {
                 map.put("description", pkg.getDescription());
                 map.put("price", pkg.getPrice());
                 map.put("travelAgencyName", pkg.getTravelAgencyName());
+                if (date != null) {
+                    map.put("quotedPrice", rates.quotePackage(pkg.getPrice(), date, travellers));
+                }
                 return map;
             }).collect(Collectors.toList());
             
             return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching packages: " + e.getMessage());
+        }
+    }
+    
+    @GetMapping("/packages/page")
+    public ResponseEntity<?> getAvailablePackagesPage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(travelPackageService.getTravelPackagePage(cursor, CursorPage.clampLimit(limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error fetching packages: " + e.getMessage());
         }
@@ -270,7 +510,7 @@ public class BookingController {
     @GetMapping("/validate-user-role/{userId}")
     public ResponseEntity<?> validateUserBookingPermission(@PathVariable Long userId) {
         try {
-            Optional<User> userOpt = userRepository.findById(userId);
+            Optional<User> userOpt = catalogLookupService.findUserById(userId);
             if (!userOpt.isPresent()) {
                 return ResponseEntity.badRequest().body("User not found");
             }
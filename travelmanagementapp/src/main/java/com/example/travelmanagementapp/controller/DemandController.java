@@ -0,0 +1,137 @@
+package com.example.travelmanagementapp.controller;
+
+import com.example.travelmanagementapp.model.Hotel;
+import com.example.travelmanagementapp.service.CatalogLookupService;
+import com.example.travelmanagementapp.service.DemandIndex;
+import com.example.travelmanagementapp.service.RoomInventoryService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Demand heatmaps and occupancy from the in-memory demand index; ranges run from 'from' up to, not including, 'to'
+@RestController
+@RequestMapping("/api/demand")
+public class DemandController {
+
+    private static final int MAX_DAYS = 366;
+    private static final int MAX_DESTINATIONS = 200;
+
+    @Autowired
+    private DemandIndex demandIndex;
+
+    @Autowired
+    private CatalogLookupService catalogLookupService;
+
+    @Autowired
+    private RoomInventoryService roomInventoryService;
+
+    @GetMapping("/destinations/{destinationId}")
+    public ResponseEntity<?> getDestinationDemand(
+            @PathVariable Long destinationId,
+            @RequestParam("from") String from,
+            @RequestParam("to") String to) {
+        try {
+            LocalDate start = LocalDate.parse(from);
+            LocalDate end = LocalDate.parse(to);
+            validateRange(start, end);
+            int[] arrivals = demandIndex.getDestinationArrivals(destinationId, start, end);
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("destinationId", destinationId);
+            response.put("from", start.toString());
+            response.put("to", end.toString());
+            response.put("total", sum(arrivals));
+            response.put("bookings", arrivals);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching demand: " + e.getMessage());
+        }
+    }
+
+    // Heatmap rows for several destinations at once: destination id -> bookings per day
+    @GetMapping("/destinations")
+    public ResponseEntity<?> getDestinationHeatmap(
+            @RequestParam("ids") List<Long> destinationIds,
+            @RequestParam("from") String from,
+            @RequestParam("to") String to) {
+        try {
+            if (destinationIds.isEmpty() || destinationIds.size() > MAX_DESTINATIONS) {
+                return ResponseEntity.badRequest().body("Between 1 and " + MAX_DESTINATIONS + " destinations can be requested");
+            }
+            LocalDate start = LocalDate.parse(from);
+            LocalDate end = LocalDate.parse(to);
+            validateRange(start, end);
+            Map<Long, int[]> heatmap = new LinkedHashMap<>();
+            for (Long destinationId : destinationIds) {
+                heatmap.put(destinationId, demandIndex.getDestinationArrivals(destinationId, start, end));
+            }
+            return ResponseEntity.ok(heatmap);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching demand: " + e.getMessage());
+        }
+    }
+
+    // Arrivals and rooms held per night; 'available' uses the hotel's room count
+    @GetMapping("/hotels/{hotelId}")
+    public ResponseEntity<?> getHotelDemand(
+            @PathVariable Long hotelId,
+            @RequestParam("from") String from,
+            @RequestParam("to") String to) {
+        try {
+            Optional<Hotel> hotelOpt = catalogLookupService.findHotelById(hotelId);
+            if (!hotelOpt.isPresent()) {
+                return ResponseEntity.notFound().build();
+            }
+            LocalDate start = LocalDate.parse(from);
+            LocalDate end = LocalDate.parse(to);
+            validateRange(start, end);
+            int capacity = roomInventoryService.capacityOf(hotelOpt.get());
+            int[] roomsReserved = demandIndex.getHotelRoomNights(hotelId, start, end);
+            int[] available = new int[roomsReserved.length];
+            for (int i = 0; i < available.length; i++) {
+                available[i] = Math.max(0, capacity - roomsReserved[i]);
+            }
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("hotelId", hotelId);
+            response.put("from", start.toString());
+            response.put("to", end.toString());
+            response.put("capacity", capacity);
+            response.put("arrivals", demandIndex.getHotelArrivals(hotelId, start, end));
+            response.put("roomsReserved", roomsReserved);
+            response.put("available", available);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching demand: " + e.getMessage());
+        }
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("'to' must be after 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_DAYS) {
+            throw new IllegalArgumentException("At most " + MAX_DAYS + " days can be requested");
+        }
+    }
+
+    private static long sum(int[] counts) {
+        long total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}
@@ -4,21 +4,25 @@ import com.example.travelmanagementapp.model.Image;
 import com.example.travelmanagementapp.model.User;
 import com.example.travelmanagementapp.repository.ImageRepository;
 import com.example.travelmanagementapp.repository.UserRepository;
+import com.example.travelmanagementapp.service.ImageDerivativeService;
 import com.example.travelmanagementapp.service.ImageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import jakarta.servlet.http.HttpServletRequest;
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @RestController
@@ -45,38 +49,71 @@ public class ImageController {
         if (!("ROLE_ADMIN".equals(uploader.getRole()) || "ROLE_TRAVEL_AGENCY".equals(uploader.getRole()))) {
             return ResponseEntity.status(403).body("Only admin or travel agency can upload images");
         }
-        String uploadDir = "uploads";
-        File dir = new File(uploadDir);
-        if (!dir.exists()) dir.mkdirs();
-        String filename = System.currentTimeMillis() + "_" + file.getOriginalFilename();
-        File dest = new File(dir, filename);
-        file.transferTo(dest);
-        imageService.saveImage(filename, uploader);
-        return ResponseEntity.ok("Image uploaded successfully: " + filename);
+        Image image = imageService.saveImage(file, uploader);
+        return ResponseEntity.ok("Image uploaded successfully: " + image.getFilePath());
     }
     
-    @GetMapping("/{fileName:.+}")
-    public ResponseEntity<Resource> getImage(@PathVariable String fileName, HttpServletRequest request) {
-        // Load file as Resource
-        Resource resource = imageService.loadFileAsResource(fileName);
-
-        // Try to determine file's content type
-        String contentType = null;
+    // fileName is the path below uploads/, e.g. destination/123_paris.jpg; size picks a derivative.
+    // ETag and Last-Modified let Spring answer If-None-Match/If-Modified-Since with 304, and
+    // returning the Resource itself lets it answer Range requests with 206 partial content.
+    @GetMapping("/{*fileName}")
+    public ResponseEntity<Resource> getImage(
+            @PathVariable String fileName,
+            @RequestParam(value = "size", required = false) String size,
+            @RequestParam(value = "v", required = false) String version) {
+        ImageDerivativeService.Size derivativeSize;
         try {
-            contentType = request.getServletContext().getMimeType(resource.getFile().getAbsolutePath());
-        } catch (IOException ex) {
-            System.out.println("Could not determine file type.");
+            derivativeSize = ImageDerivativeService.Size.parse(size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
-
-        // Fallback to the default content type if type could not be determined
-        if (contentType == null) {
-            contentType = "application/octet-stream";
+        
+        ImageService.ServedFile file = imageService.loadServedFile(fileName.substring(1), derivativeSize);
+        if (file == null) {
+            String remoteUrl = imageService.remoteUrl(fileName.substring(1), derivativeSize);
+            if (remoteUrl != null) {
+                return ResponseEntity.status(HttpStatus.FOUND)
+                        .location(URI.create(remoteUrl))
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+            }
+            return ResponseEntity.notFound().build();
         }
+        
+        // Content-addressed or version-pinned URLs never change; everything else is revalidated
+        CacheControl cacheControl = file.isImmutable(version)
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                : CacheControl.noCache().cachePublic();
 
         return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                .body(resource);
+                .contentType(MediaType.parseMediaType(file.getContentType()))
+                .eTag(file.getEtag())
+                .lastModified(file.getLastModified())
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + file.getResource().getFilename() + "\"")
+                .body(file.getResource());
+    }
+    
+    // Removes the image row; the stored file goes away once no other image uses it
+    @DeleteMapping("/{id:\\d+}")
+    public ResponseEntity<String> deleteImage(@PathVariable Long id, @RequestParam Long userId) {
+        Optional<User> userOpt = userRepository.findById(userId);
+        if (userOpt.isEmpty()) {
+            return ResponseEntity.badRequest().body("Invalid user ID");
+        }
+        Optional<Image> imageOpt = imageRepository.findById(id);
+        if (imageOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        User user = userOpt.get();
+        User uploader = imageOpt.get().getUploader();
+        // Only allow ADMIN or the user who uploaded the image
+        if (!("ROLE_ADMIN".equals(user.getRole()) || (uploader != null && uploader.getId().equals(user.getId())))) {
+            return ResponseEntity.status(403).body("Only admin or the uploader can delete this image");
+        }
+        imageService.deleteImage(id);
+        return ResponseEntity.noContent().build();
     }
     
     @GetMapping("/entity/{type}/{entityId}")
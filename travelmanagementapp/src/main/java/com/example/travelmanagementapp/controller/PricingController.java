@@ -0,0 +1,97 @@
+package com.example.travelmanagementapp.controller;
+
+import com.example.travelmanagementapp.DTO.PriceQuote;
+import com.example.travelmanagementapp.DTO.QuoteRequest;
+import com.example.travelmanagementapp.model.Hotel;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.service.CatalogLookupService;
+import com.example.travelmanagementapp.service.PriceQuoteService;
+import com.example.travelmanagementapp.service.PricingEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+// Quotes are computed the same way as the price of the booking they lead to
+@RestController
+@RequestMapping("/api/pricing")
+public class PricingController {
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private CatalogLookupService catalogLookupService;
+
+    @Autowired
+    private PriceQuoteService priceQuoteService;
+
+    @Value("${app.pricing.quotes.max-size:500}")
+    private int maxQuotes;
+
+    // A whole result page in one call; the response has one quote per item, in request order
+    @PostMapping("/quotes")
+    public ResponseEntity<?> quote(@RequestBody List<QuoteRequest> items) {
+        if (items.isEmpty() || items.size() > maxQuotes) {
+            return ResponseEntity.badRequest().body("A quote request must contain between 1 and " + maxQuotes + " items");
+        }
+        if (items.contains(null)) {
+            return ResponseEntity.badRequest().body("Quote items must not be null");
+        }
+        try {
+            return ResponseEntity.ok(priceQuoteService.quote(items));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error pricing items: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/packages/{packageId}")
+    public ResponseEntity<?> quotePackage(
+            @PathVariable Long packageId,
+            @RequestParam("travelDate") String travelDate,
+            @RequestParam(value = "travellers", defaultValue = "1") int travellers) {
+        try {
+            Optional<TravelPackage> packageOpt = catalogLookupService.findTravelPackageById(packageId);
+            if (!packageOpt.isPresent()) {
+                return ResponseEntity.notFound().build();
+            }
+            double price = packageOpt.get().getPrice();
+            double total = pricingEngine.quotePackage(price, LocalDate.parse(travelDate), travellers);
+            return ResponseEntity.ok(new PriceQuote("package", packageId, price, 0, total));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error pricing package: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/hotels/{hotelId}")
+    public ResponseEntity<?> quoteStay(
+            @PathVariable Long hotelId,
+            @RequestParam("checkIn") String checkIn,
+            @RequestParam("checkOut") String checkOut,
+            @RequestParam(value = "rooms", defaultValue = "1") int rooms,
+            @RequestParam(value = "guests", defaultValue = "1") int guests) {
+        try {
+            Optional<Hotel> hotelOpt = catalogLookupService.findHotelById(hotelId);
+            if (!hotelOpt.isPresent()) {
+                return ResponseEntity.notFound().build();
+            }
+            LocalDate in = LocalDate.parse(checkIn);
+            LocalDate out = LocalDate.parse(checkOut);
+            double price = hotelOpt.get().getPricePerNight();
+            double total = pricingEngine.quoteStay(price, in, out, rooms, guests);
+            return ResponseEntity.ok(new PriceQuote("hotel", hotelId, price, (int) ChronoUnit.DAYS.between(in, out), total));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error pricing stay: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.travelmanagementapp.controller;
+
+import com.example.travelmanagementapp.service.CatalogSearchIndex;
+import com.example.travelmanagementapp.service.SuggestionTrie;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*")
+public class SearchController {
+
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    // Typeahead completions over destination names, countries and package names
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Map<String, Object>>> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        List<SuggestionTrie.Suggestion> suggestions = catalogSearchIndex.suggest(query, limit);
+
+        List<Map<String, Object>> result = new ArrayList<>(suggestions.size());
+        for (SuggestionTrie.Suggestion suggestion : suggestions) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("text", suggestion.getText());
+            item.put("type", suggestion.getType());
+            item.put("id", suggestion.getId());
+            result.add(item);
+        }
+        return ResponseEntity.ok(result);
+    }
+}
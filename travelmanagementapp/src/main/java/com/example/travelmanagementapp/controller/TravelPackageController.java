@@ -1,10 +1,16 @@
 package com.example.travelmanagementapp.controller;
 
+import com.example.travelmanagementapp.DTO.CursorPage;
 import com.example.travelmanagementapp.model.TravelPackage;
 import com.example.travelmanagementapp.model.Hotel;
 import com.example.travelmanagementapp.model.Restaurant;
+import com.example.travelmanagementapp.service.CatalogLookupService;
+import com.example.travelmanagementapp.service.DemandIndex;
+import com.example.travelmanagementapp.service.PackageUploadService;
 import com.example.travelmanagementapp.service.TravelPackageService;
 import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -29,10 +35,19 @@ public class TravelPackageController {
 
     @Autowired
     private UserRepository userRepository;
+    
+    @Autowired
+    private CatalogLookupService catalogLookupService;
+
+    @Autowired
+    private PackageUploadService packageUploadService;
 
     @Autowired
     private HotelRepository hotelRepository;
 
+    @Autowired
+    private DemandIndex demandIndex;
+
     @Autowired
     private RestaurantRepository restaurantRepository;
 
@@ -53,7 +68,7 @@ public class TravelPackageController {
                                                       @RequestParam String username) { // Accept username as a parameter
         try {
             // Fetch the user from the database
-            User user = userRepository.findByUsername(username)
+            User user = catalogLookupService.findUserByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
             // Ensure the user has the role of TRAVEL_AGENCY
@@ -79,11 +94,39 @@ public class TravelPackageController {
         }
     }
 
+    // Same form as /create, but parts are read off the request as they arrive and images go
+    // straight to the image store, instead of Spring buffering the whole body first
+    @PostMapping(value = "/create/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<String> createTravelPackageStreaming(HttpServletRequest request) {
+        try {
+            packageUploadService.createTravelPackage(request.getInputStream(), request.getContentType());
+            return ResponseEntity.ok("Travel package created successfully");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(403).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error creating travel package: " + e.getMessage());
+        }
+    }
+
     @GetMapping
     public ResponseEntity<List<TravelPackage>> getAllTravelPackages() {
         return ResponseEntity.ok(travelPackageService.getAllTravelPackages());
     }
     
+    // Keyset-paginated listing of public packages with only the listed columns
+    @GetMapping("/page")
+    public ResponseEntity<?> getTravelPackagePage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(travelPackageService.getTravelPackagePage(cursor, CursorPage.clampLimit(limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     @GetMapping("/user/{username}")
     public ResponseEntity<List<TravelPackage>> getTravelPackagesByUsername(@PathVariable String username) {
         return ResponseEntity.ok(travelPackageService.getTravelPackagesByUsername(username));
@@ -115,7 +158,7 @@ public class TravelPackageController {
                 return ResponseEntity.notFound().build();
             }
 
-            User user = userRepository.findByUsername(username)
+            User user = catalogLookupService.findUserByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
             
             // Verify the user owns this package
@@ -151,7 +194,7 @@ public class TravelPackageController {
                         if (restaurantImages != null && i < restaurantImages.size()) {
                             MultipartFile image = restaurantImages.get(i);
                             if (!image.isEmpty()) {
-                                travelPackageService.saveImage(image);
+                                travelPackageService.saveImage(image, travelPackage, "restaurant");
                             }
                         }
                     }
@@ -178,11 +221,12 @@ public class TravelPackageController {
                         if (hotelImages != null && i < hotelImages.size()) {
                             MultipartFile image = hotelImages.get(i);
                             if (!image.isEmpty()) {
-                                travelPackageService.saveImage(image);
+                                travelPackageService.saveImage(image, travelPackage, "hotel");
                             }
                         }
                     }
                 }
+                demandIndex.evictPackage(travelPackage.getId());
             }
             
             return ResponseEntity.ok("Travel package updated successfully");
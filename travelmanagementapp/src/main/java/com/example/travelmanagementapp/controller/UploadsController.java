@@ -0,0 +1,68 @@
+package com.example.travelmanagementapp.controller;
+
+import com.example.travelmanagementapp.service.ImageDerivativeService;
+import com.example.travelmanagementapp.service.ImageService;
+import com.example.travelmanagementapp.service.UploadFileServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Static serving path for uploaded files. Stored image paths look like
+ * {@code uploads/destination/123_paris.jpg}, so the frontend can request them as-is.
+ * Bytes are written by {@link UploadFileServer} (sendfile / FileChannel.transferTo)
+ * instead of Spring's Resource handling used by {@code /api/images}. With a remote
+ * {@link com.example.travelmanagementapp.service.ImageStore} the request is redirected
+ * to a presigned URL of the object instead.
+ */
+@RestController
+@RequestMapping("/uploads")
+@CrossOrigin(origins = "*")
+public class UploadsController {
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private UploadFileServer uploadFileServer;
+
+    @RequestMapping(value = "/{*filePath}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serveUpload(
+            @PathVariable String filePath,
+            @RequestParam(value = "size", required = false) String size,
+            @RequestParam(value = "v", required = false) String version,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        ImageDerivativeService.Size derivativeSize;
+        try {
+            derivativeSize = ImageDerivativeService.Size.parse(size);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        ImageService.ServedFile file = imageService.loadServedFile(filePath.substring(1), derivativeSize);
+        if (file == null) {
+            // Remote store: the client fetches the bytes from it directly
+            String remoteUrl = imageService.remoteUrl(filePath.substring(1), derivativeSize);
+            if (remoteUrl != null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+                response.sendRedirect(remoteUrl);
+                return;
+            }
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        CacheControl cacheControl = file.isImmutable(version)
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                : CacheControl.noCache().cachePublic();
+        uploadFileServer.serve(file, cacheControl, request, response);
+    }
+}
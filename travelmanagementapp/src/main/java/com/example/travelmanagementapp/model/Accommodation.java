@@ -5,7 +5,8 @@ import jakarta.persistence.*;
 @Entity
 public class Accommodation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accommodation_seq")
+    @SequenceGenerator(name = "accommodation_seq", sequenceName = "accommodation_seq", allocationSize = 50)
     private Long id;
     private String type; // e.g., HOTEL, HOSTEL, APARTMENT
     private String details;
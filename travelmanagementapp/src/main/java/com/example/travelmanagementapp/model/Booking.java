@@ -1,33 +1,69 @@
 package com.example.travelmanagementapp.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_booking_user_travel_date", columnList = "user_id, travel_date, id"))
 public class Booking {
+    public static final String CONFIRMED = "CONFIRMED";
+    public static final String CANCELLED = "CANCELLED";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long id;
 
+    // Handed to the client when the booking was accepted asynchronously, before it had an id
+    @Column(unique = true, length = 36)
+    private String reference;
+
     @Column(nullable = false)
     private LocalDate bookingDate;
 
     @Column(nullable = false)
     private LocalDate travelDate;
 
+    // Check-out day of a hotel booking; the nights from travelDate up to here are reserved
+    private LocalDate returnDate;
+
+    private Integer rooms;
+
     @Column(nullable = false)
     private double totalPrice;
 
+    // Cancelled bookings are kept; the default also applies to rows that existed before the column
+    @Column(nullable = false, length = 16)
+    @ColumnDefault("'" + CONFIRMED + "'")
+    private String status = CONFIRMED;
+
+    private LocalDateTime cancelledAt;
+
     @JsonBackReference
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne(optional = false)
-    @JoinColumn(name = "travel_package_id", nullable = false)
+    // Set for package bookings; destination bookings reference the hotel and destination instead
+    @ManyToOne
+    @JoinColumn(name = "travel_package_id")
     private TravelPackage travelPackage;
 
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "hotel_id")
+    private Hotel hotel;
+
+    @JsonIgnoreProperties({"hotels", "restaurants", "hibernateLazyInitializer", "handler"})
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "destination_id")
+    private Destination destination;
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -37,6 +73,14 @@ public class Booking {
         this.id = id;
     }
 
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
     public LocalDate getBookingDate() {
         return bookingDate;
     }
@@ -53,6 +97,22 @@ public class Booking {
         this.travelDate = travelDate;
     }
 
+    public LocalDate getReturnDate() {
+        return returnDate;
+    }
+
+    public void setReturnDate(LocalDate returnDate) {
+        this.returnDate = returnDate;
+    }
+
+    public Integer getRooms() {
+        return rooms;
+    }
+
+    public void setRooms(Integer rooms) {
+        this.rooms = rooms;
+    }
+
     public double getTotalPrice() {
         return totalPrice;
     }
@@ -61,6 +121,22 @@ public class Booking {
         this.totalPrice = totalPrice;
     }
 
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCancelledAt() {
+        return cancelledAt;
+    }
+
+    public void setCancelledAt(LocalDateTime cancelledAt) {
+        this.cancelledAt = cancelledAt;
+    }
+
     public User getUser() {
         return user;
     }
@@ -76,4 +152,20 @@ public class Booking {
     public void setTravelPackage(TravelPackage travelPackage) {
         this.travelPackage = travelPackage;
     }
+
+    public Hotel getHotel() {
+        return hotel;
+    }
+
+    public void setHotel(Hotel hotel) {
+        this.hotel = hotel;
+    }
+
+    public Destination getDestination() {
+        return destination;
+    }
+
+    public void setDestination(Destination destination) {
+        this.destination = destination;
+    }
 }
\ No newline at end of file
@@ -6,7 +6,8 @@ import java.time.LocalDateTime;
 @Entity
 public class Complaint {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "complaint_seq")
+    @SequenceGenerator(name = "complaint_seq", sequenceName = "complaint_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
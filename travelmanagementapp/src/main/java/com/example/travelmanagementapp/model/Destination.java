@@ -3,13 +3,16 @@ package com.example.travelmanagementapp.model;
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 public class Destination {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "destination_seq")
+    @SequenceGenerator(name = "destination_seq", sequenceName = "destination_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -25,10 +28,12 @@ public class Destination {
 
     @JsonManagedReference
     @OneToMany(mappedBy = "destination", cascade = CascadeType.ALL, orphanRemoval = false)
+    @Fetch(FetchMode.SUBSELECT) // one query loads the hotels of every destination in a listing
     private List<Hotel> hotels = new ArrayList<>();
 
     @JsonManagedReference
     @OneToMany(mappedBy = "destination", cascade = CascadeType.ALL, orphanRemoval = false)
+    @Fetch(FetchMode.SUBSELECT)
     private List<Restaurant> restaurants = new ArrayList<>();
 
     // Getters and Setters
@@ -6,7 +6,8 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 @Entity
 public class Hotel {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hotel_seq")
+    @SequenceGenerator(name = "hotel_seq", sequenceName = "hotel_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -21,13 +22,16 @@ public class Hotel {
     @Column(nullable = false)
     private String address;
 
+    // Rooms sold per night; when unset the app.inventory.default-rooms default applies
+    private Integer roomCount;
+
     @JsonBackReference
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "travel_package_id", nullable = false)
     private TravelPackage travelPackage;
     
     @JsonBackReference
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "destination_id")
     private Destination destination;
 
@@ -72,6 +76,14 @@ public class Hotel {
         this.address = address;
     }
 
+    public Integer getRoomCount() {
+        return roomCount;
+    }
+
+    public void setRoomCount(Integer roomCount) {
+        this.roomCount = roomCount;
+    }
+
     public TravelPackage getTravelPackage() {
         return travelPackage;
     }
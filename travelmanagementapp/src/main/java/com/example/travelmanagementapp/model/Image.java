@@ -1,12 +1,15 @@
 package com.example.travelmanagementapp.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_image_content_hash", columnList = "content_hash"))
 public class Image {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "image_seq")
+    @SequenceGenerator(name = "image_seq", sequenceName = "image_seq", allocationSize = 50)
     private Long id;
 
     private String filePath;
@@ -27,7 +30,22 @@ public class Image {
     @Column(name = "related_entity_id")
     private Long relatedEntityId;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // SHA-256 of the file contents (hex), used as the HTTP ETag; computed at upload
+    @Column(length = 64)
+    private String contentHash;
+
+    private String contentType;
+
+    private Long fileSize;
+
+    // Pixel dimensions read from the image header at upload, so layouts can reserve space
+    private Integer width;
+
+    private Integer height;
+
+    // Lazy: listings that render the uploader fetch it with an entity graph
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "uploader_id", nullable = false)
     private User uploader;
 
@@ -56,6 +74,21 @@ public class Image {
     public Long getRelatedEntityId() { return relatedEntityId; }
     public void setRelatedEntityId(Long relatedEntityId) { this.relatedEntityId = relatedEntityId; }
 
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public Long getFileSize() { return fileSize; }
+    public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
+
+    public Integer getWidth() { return width; }
+    public void setWidth(Integer width) { this.width = width; }
+
+    public Integer getHeight() { return height; }
+    public void setHeight(Integer height) { this.height = height; }
+
     public User getUploader() { return uploader; }
     public void setUploader(User uploader) { this.uploader = uploader; }
 }
\ No newline at end of file
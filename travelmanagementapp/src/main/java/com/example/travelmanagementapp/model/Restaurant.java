@@ -6,7 +6,8 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 @Entity
 public class Restaurant {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "restaurant_seq")
+    @SequenceGenerator(name = "restaurant_seq", sequenceName = "restaurant_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -25,12 +26,12 @@ public class Restaurant {
     private String cuisineType;
 
     @JsonBackReference
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "travel_package_id")
     private TravelPackage travelPackage;
     
     @JsonBackReference
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "destination_id")
     private Destination destination;
 
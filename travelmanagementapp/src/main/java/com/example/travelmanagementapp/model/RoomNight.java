@@ -0,0 +1,63 @@
+package com.example.travelmanagementapp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Rooms of one hotel reserved for one night. A row exists only once a night has been
+ * booked; nights without a row are fully available. The version column makes concurrent
+ * reservations from different nodes fail instead of overwriting each other's counts.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_room_night_hotel_night", columnNames = {"hotel_id", "night"}))
+public class RoomNight {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_night_seq")
+    @SequenceGenerator(name = "room_night_seq", sequenceName = "room_night_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "hotel_id", nullable = false)
+    private Long hotelId;
+
+    @Column(nullable = false)
+    private LocalDate night;
+
+    @Column(nullable = false)
+    private int reserved;
+
+    @Version
+    private long version;
+
+    public RoomNight() {
+    }
+
+    public RoomNight(Long hotelId, LocalDate night) {
+        this.hotelId = hotelId;
+        this.night = night;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getHotelId() {
+        return hotelId;
+    }
+
+    public LocalDate getNight() {
+        return night;
+    }
+
+    public int getReserved() {
+        return reserved;
+    }
+
+    public void setReserved(int reserved) {
+        this.reserved = reserved;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -6,7 +6,8 @@ import java.util.List;
 @Entity
 public class ServiceProvider {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "service_provider_seq")
+    @SequenceGenerator(name = "service_provider_seq", sequenceName = "service_provider_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String serviceType; // e.g., TRANSPORTATION, ACCOMMODATION
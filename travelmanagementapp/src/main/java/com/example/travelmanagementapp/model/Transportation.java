@@ -5,7 +5,8 @@ import jakarta.persistence.*;
 @Entity
 public class Transportation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transportation_seq")
+    @SequenceGenerator(name = "transportation_seq", sequenceName = "transportation_seq", allocationSize = 50)
     private Long id;
     private String type; // e.g., FLIGHT, TRAIN, BUS
     private String details;
@@ -4,11 +4,14 @@ import jakarta.persistence.*;
 import java.util.List;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 @Entity
 public class TravelPackage {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "travel_package_seq")
+    @SequenceGenerator(name = "travel_package_seq", sequenceName = "travel_package_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -33,10 +36,12 @@ public class TravelPackage {
 
     @JsonManagedReference
     @OneToMany(mappedBy = "travelPackage", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Fetch(FetchMode.SUBSELECT) // one query loads the hotels of every package in a listing
     private List<Hotel> hotels;
 
     @JsonManagedReference
     @OneToMany(mappedBy = "travelPackage", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Fetch(FetchMode.SUBSELECT)
     private List<Restaurant> restaurants;
 
     // Getters and Setters
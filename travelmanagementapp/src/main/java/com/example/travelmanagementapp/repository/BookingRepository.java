@@ -1,10 +1,75 @@
 package com.example.travelmanagementapp.repository;
 
+import com.example.travelmanagementapp.DTO.BookingHistoryItem;
+import com.example.travelmanagementapp.DTO.CancellableBooking;
 import com.example.travelmanagementapp.model.Booking;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    // The booked package and its owner, or the booked hotel and destination, are serialized with each booking
+    @EntityGraph(attributePaths = {"travelPackage", "travelPackage.user", "hotel", "destination"})
     List<Booking> findByUserId(Long userId);
+    
+    String HISTORY_SELECT = "SELECT b.id AS id, b.reference AS reference, b.bookingDate AS bookingDate, " +
+        "b.travelDate AS travelDate, b.returnDate AS returnDate, b.rooms AS rooms, b.totalPrice AS totalPrice, " +
+        "b.status AS status, b.cancelledAt AS cancelledAt, " +
+        "p.id AS travelPackageId, p.name AS travelPackageName, h.id AS hotelId, h.name AS hotelName, " +
+        "d.id AS destinationId, d.name AS destinationName " +
+        "FROM Booking b LEFT JOIN b.travelPackage p LEFT JOIN b.hotel h LEFT JOIN b.destination d ";
+    
+    // Keyset pagination by travel date, then id, over the idx_booking_user_travel_date index
+    @Query(HISTORY_SELECT + "WHERE b.user.id = :userId ORDER BY b.travelDate, b.id")
+    List<BookingHistoryItem> findHistory(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query(HISTORY_SELECT + "WHERE b.user.id = :userId AND (b.travelDate > :afterDate " +
+           "OR (b.travelDate = :afterDate AND b.id > :afterId)) ORDER BY b.travelDate, b.id")
+    List<BookingHistoryItem> findHistoryAfter(@Param("userId") Long userId, @Param("afterDate") LocalDate afterDate,
+                                              @Param("afterId") Long afterId, Pageable pageable);
+    
+    // Read back after cancel() changed the row, for the rooms and demand counts it has to give back
+    @Query("SELECT new com.example.travelmanagementapp.DTO.CancellableBooking(b.id, b.travelDate, b.returnDate, " +
+           "b.rooms, h.id, d.id, p.id) FROM Booking b LEFT JOIN b.hotel h LEFT JOIN b.destination d " +
+           "LEFT JOIN b.travelPackage p WHERE b.id = :id")
+    CancellableBooking findCancellationById(@Param("id") Long id);
+    
+    // Cancels only if the booking exists and is not cancelled yet; returns the number of rows changed
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = '" + Booking.CANCELLED + "', b.cancelledAt = :cancelledAt " +
+           "WHERE b.id = :id AND b.status <> '" + Booking.CANCELLED + "'")
+    int cancel(@Param("id") Long id, @Param("cancelledAt") LocalDateTime cancelledAt);
+    
+    // Row locks on the given bookings only, so a bulk cancellation sees exactly which ones it changes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id FROM Booking b WHERE b.id IN :ids AND b.status <> '" + Booking.CANCELLED + "'")
+    List<Long> lockActiveIds(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = '" + Booking.CANCELLED + "', b.cancelledAt = :cancelledAt " +
+           "WHERE b.id IN :ids AND b.status <> '" + Booking.CANCELLED + "'")
+    int cancelAll(@Param("ids") Collection<Long> ids, @Param("cancelledAt") LocalDateTime cancelledAt);
+    
+    @Query("SELECT b.id FROM Booking b WHERE b.reference = :reference")
+    Optional<Long> findIdByReference(@Param("reference") String reference);
+    
+    // References of asynchronously accepted bookings that are already stored
+    @Query("SELECT b.reference FROM Booking b WHERE b.reference IN :references")
+    List<String> findExistingReferences(@Param("references") Collection<String> references);
+    
+    // Rows of [travelPackageId, bookingCount], used to rank search suggestions
+    @Query("SELECT b.travelPackage.id, COUNT(b) FROM Booking b WHERE b.status <> '" + Booking.CANCELLED + "' " +
+           "GROUP BY b.travelPackage.id")
+    List<Object[]> countBookingsByTravelPackage();
 }
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.example.travelmanagementapp.repository;
 
+import com.example.travelmanagementapp.DTO.DestinationSummary;
 import com.example.travelmanagementapp.model.Destination;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +14,9 @@ import java.util.List;
 public interface DestinationRepository extends JpaRepository<Destination, Long> {
     List<Destination> findByCountry(String country);
     List<Destination> findByNameContainingIgnoreCase(String name);
+    
+    // Keyset pagination: rows after the last id of the previous page, only the listed columns
+    @Query("SELECT d.id AS id, d.name AS name, d.country AS country, d.imagePath AS imagePath " +
+           "FROM Destination d WHERE d.id > :afterId ORDER BY d.id")
+    List<DestinationSummary> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
\ No newline at end of file
@@ -1,9 +1,24 @@
 package com.example.travelmanagementapp.repository;
 
+import com.example.travelmanagementapp.DTO.HotelSummary;
+import com.example.travelmanagementapp.DTO.ItemPrice;
 import com.example.travelmanagementapp.model.Hotel;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 
 public interface HotelRepository extends JpaRepository<Hotel, Long> {
     List<Hotel> findByDestinationId(Long destinationId);
+    
+    // Keyset pagination: rows after the last id of the previous page, only the listed columns
+    @Query("SELECT h.id AS id, h.name AS name, h.location AS location, h.pricePerNight AS pricePerNight, " +
+           "h.address AS address, d.id AS destinationId " +
+           "FROM Hotel h LEFT JOIN h.destination d WHERE h.id > :afterId ORDER BY h.id")
+    List<HotelSummary> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT h.id AS id, h.pricePerNight AS price FROM Hotel h WHERE h.id IN :ids")
+    List<ItemPrice> findPricesByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package com.example.travelmanagementapp.repository;
 
 import com.example.travelmanagementapp.model.Image;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ImageRepository extends JpaRepository<Image, Long> {
@@ -14,7 +17,22 @@ public interface ImageRepository extends JpaRepository<Image, Long> {
     // New methods with updated fields
     List<Image> findByEntityTypeAndEntityId(String entityType, Long entityId);
     
-    // Combination search that looks in both old and new fields
+    // Images for many entities at once, so listings need one query instead of one per row
+    List<Image> findByEntityTypeAndEntityIdIn(String entityType, Collection<Long> entityIds);
+    
+    // Image row for a stored file; older rows store the path with or without the uploads/ prefix
+    Optional<Image> findFirstByFilePathIn(Collection<String> filePaths);
+    
+    // Reference counts for content-addressed blobs (see ImageBlobStore)
+    long countByContentHash(String contentHash);
+    
+    long countByFilePath(String filePath);
+    
+    // Rows stored before uploads were hashed, walked by id so unreadable files are not revisited
+    List<Image> findTop500ByContentHashIsNullAndIdGreaterThanOrderByIdAsc(Long afterId);
+    
+    // Combination search that looks in both old and new fields; the uploader is serialized, so fetch it in the same query
+    @EntityGraph(attributePaths = "uploader")
     List<Image> findByTypeAndRelatedEntityIdOrEntityTypeAndEntityId(
         String type, Long relatedEntityId, String entityType, Long entityId);
 }
\ No newline at end of file
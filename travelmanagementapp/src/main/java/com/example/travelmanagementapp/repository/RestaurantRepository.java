@@ -1,9 +1,19 @@
 package com.example.travelmanagementapp.repository;
 
+import com.example.travelmanagementapp.DTO.RestaurantSummary;
 import com.example.travelmanagementapp.model.Restaurant;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     List<Restaurant> findByDestinationId(Long destinationId);
+    
+    // Keyset pagination: rows after the last id of the previous page, only the listed columns
+    @Query("SELECT r.id AS id, r.name AS name, r.location AS location, r.address AS address, " +
+           "r.cuisine AS cuisine, r.cuisineType AS cuisineType, d.id AS destinationId " +
+           "FROM Restaurant r LEFT JOIN r.destination d WHERE r.id > :afterId ORDER BY r.id")
+    List<RestaurantSummary> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.example.travelmanagementapp.repository;
+
+import com.example.travelmanagementapp.model.RoomNight;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RoomNightRepository extends JpaRepository<RoomNight, Long> {
+    // Booked nights of a hotel in [from, to)
+    @Query("SELECT n FROM RoomNight n WHERE n.hotelId = :hotelId AND n.night >= :from AND n.night < :to ORDER BY n.night")
+    List<RoomNight> findNights(@Param("hotelId") Long hotelId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // The same nights with row locks, for releases that run inside a cancellation's transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM RoomNight n WHERE n.hotelId = :hotelId AND n.night >= :from AND n.night < :to ORDER BY n.night")
+    List<RoomNight> lockNights(@Param("hotelId") Long hotelId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -1,11 +1,39 @@
 package com.example.travelmanagementapp.repository;
 
+import com.example.travelmanagementapp.DTO.ItemPrice;
+import com.example.travelmanagementapp.DTO.TravelPackageSummary;
 import com.example.travelmanagementapp.model.TravelPackage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface TravelPackageRepository extends JpaRepository<TravelPackage, Long> {
-    // Custom query methods can be defined here
+    // The owning user is serialized with each package, so join it instead of loading it per row.
+    // Hotels and restaurants are loaded with one subselect each (see TravelPackage).
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<TravelPackage> findAll();
+    
+    @EntityGraph(attributePaths = "user")
     List<TravelPackage> findByUserUsername(String username);
+    
+    // Rows created before the flag existed have it NULL; they are public packages too
+    String PUBLIC_SUMMARY_SELECT = "SELECT p.id AS id, p.name AS name, p.description AS description, " +
+        "p.price AS price, p.travelAgencyName AS travelAgencyName FROM TravelPackage p " +
+        "WHERE (p.isPersonalBooking = false OR p.isPersonalBooking IS NULL) ";
+    
+    // Keyset pagination over public packages: rows after the last id of the previous page
+    @Query(PUBLIC_SUMMARY_SELECT + "AND p.id > :afterId ORDER BY p.id")
+    List<TravelPackageSummary> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(PUBLIC_SUMMARY_SELECT + "ORDER BY p.id")
+    List<TravelPackageSummary> findSummaries();
+    
+    @Query("SELECT p.id AS id, p.price AS price FROM TravelPackage p WHERE p.id IN :ids")
+    List<ItemPrice> findPricesByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
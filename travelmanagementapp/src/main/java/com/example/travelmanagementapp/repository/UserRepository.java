@@ -3,6 +3,7 @@ package com.example.travelmanagementapp.repository;
 import com.example.travelmanagementapp.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +14,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
 
+    List<User> findByUsernameIn(Collection<String> usernames);
+
     Optional<User> findByEmail(String email);
 
     Optional<User> findByUsernameAndPassword(String username, String password);
@@ -1,5 +1,9 @@
 package com.example.travelmanagementapp.service;
 
+import com.example.travelmanagementapp.DTO.CursorPage;
+import com.example.travelmanagementapp.DTO.DestinationSummary;
+import com.example.travelmanagementapp.DTO.HotelSummary;
+import com.example.travelmanagementapp.DTO.RestaurantSummary;
 import com.example.travelmanagementapp.model.Destination;
 import com.example.travelmanagementapp.model.Hotel;
 import com.example.travelmanagementapp.model.Image;
@@ -10,7 +14,12 @@ import com.example.travelmanagementapp.repository.HotelRepository;
 import com.example.travelmanagementapp.repository.ImageRepository;
 import com.example.travelmanagementapp.repository.RestaurantRepository;
 import com.example.travelmanagementapp.repository.UserRepository;
+import com.example.travelmanagementapp.CacheConfig;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import com.example.travelmanagementapp.model.TravelPackage;
@@ -22,10 +31,15 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.function.Function;
 
 @Service
 public class AdminService {
 
+    // Cap for listings returned by an empty search query
+    private static final int MAX_UNFILTERED_PAGE_SIZE = 1000;
+
     @Autowired
     private HotelRepository hotelRepository;
 
@@ -46,12 +60,27 @@ public class AdminService {
     
     @Autowired
     private ImageRepository imageRepository;
+    
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Autowired
+    private DemandIndex demandIndex;
+    
+    @Autowired
+    private CatalogLookupService catalogLookupService;
 
     // Destination Management
     public List<Destination> getAllDestinations() {
         return destinationRepository.findAll();
     }
     
+    public CursorPage<DestinationSummary> getDestinationPage(String cursor, int limit) {
+        List<DestinationSummary> rows = destinationRepository.findSummariesAfter(
+            CursorPage.decodeCursor(cursor), PageRequest.of(0, limit + 1));
+        return CursorPage.of(rows, limit, DestinationSummary::getId);
+    }
+    
     public Destination getDestinationById(Long id) {
         return destinationRepository.findById(id).orElse(null);
     }
@@ -59,7 +88,7 @@ public class AdminService {
     public Destination createDestination(String name, String country, String description, 
                                          MultipartFile image, String username) throws IOException {
         // Validate that the user is an admin
-        User user = userRepository.findByUsername(username)
+        User user = catalogLookupService.findUserByUsername(username)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
         if (!"ADMIN".equals(user.getRole())) {
@@ -73,6 +102,7 @@ public class AdminService {
         
         // Save the destination first to get an ID
         destination = destinationRepository.save(destination);
+        catalogSearchIndex.indexDestination(destination);
         
         // If an image was provided, save it
         if (image != null && !image.isEmpty()) {
@@ -82,10 +112,11 @@ public class AdminService {
         return destination;
     }
     
+    @CacheEvict(cacheNames = CacheConfig.DESTINATIONS, key = "#id")
     public Destination updateDestination(Long id, String name, String country, String description, 
                                          MultipartFile image, String username) throws IOException {
         // Validate that the user is an admin
-        User user = userRepository.findByUsername(username)
+        User user = catalogLookupService.findUserByUsername(username)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
         if (!"ADMIN".equals(user.getRole())) {
@@ -100,6 +131,7 @@ public class AdminService {
         destination.setDescription(description != null ? description : destination.getDescription());
         
         destination = destinationRepository.save(destination);
+        catalogSearchIndex.indexDestination(destination);
         
         // If an image was provided, save it
         if (image != null && !image.isEmpty()) {
@@ -109,9 +141,14 @@ public class AdminService {
         return destination;
     }
     
+    // Hotels cascade with the destination, so drop cached hotels as well
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.DESTINATIONS, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.HOTELS, allEntries = true)
+    })
     public void deleteDestination(Long id, String username) {
         // Validate that the user is an admin
-        User user = userRepository.findByUsername(username)
+        User user = catalogLookupService.findUserByUsername(username)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
         if (!"ADMIN".equals(user.getRole())) {
@@ -119,6 +156,8 @@ public class AdminService {
         }
         
         destinationRepository.deleteById(id);
+        imageService.deleteImagesFor("destination", id);
+        catalogSearchIndex.removeDestination(id);
     }
     
     // Hotel Management
@@ -126,6 +165,12 @@ public class AdminService {
         return hotelRepository.findAll();
     }
     
+    public CursorPage<HotelSummary> getHotelPage(String cursor, int limit) {
+        List<HotelSummary> rows = hotelRepository.findSummariesAfter(
+            CursorPage.decodeCursor(cursor), PageRequest.of(0, limit + 1));
+        return CursorPage.of(rows, limit, HotelSummary::getId);
+    }
+    
     public List<Hotel> getHotelsByDestination(Long destinationId) {
         Optional<Destination> destination = destinationRepository.findById(destinationId);
         if (destination.isPresent()) {
@@ -137,7 +182,7 @@ public class AdminService {
     public Hotel createHotel(String name, String location, double pricePerNight, String address, 
                             Long destinationId, Long packageId, MultipartFile image, String username) throws IOException {
         // Validate that the user is an admin
-        User user = userRepository.findByUsername(username)
+        User user = catalogLookupService.findUserByUsername(username)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
         if (!"ADMIN".equals(user.getRole())) {
@@ -177,6 +222,8 @@ public class AdminService {
         
         // Save the hotel to get an ID
         hotel = hotelRepository.save(hotel);
+        demandIndex.evictPackage(hotel.getTravelPackage().getId());
+        catalogLookupService.evictOwners(hotel.getDestination(), hotel.getTravelPackage());
         
         // If an image was provided, save it
         if (image != null && !image.isEmpty()) {
@@ -192,10 +239,11 @@ public class AdminService {
         return hotel;
     }
     
+    @CacheEvict(cacheNames = CacheConfig.HOTELS, key = "#id")
     public Hotel updateHotel(Long id, String name, String location, Double pricePerNight, 
                            String address, Long destinationId, MultipartFile image, String username) throws IOException {
         // Validate that the user is an admin
-        User user = userRepository.findByUsername(username)
+        User user = catalogLookupService.findUserByUsername(username)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
         if (!"ADMIN".equals(user.getRole())) {
@@ -204,6 +252,8 @@ public class AdminService {
         
         Hotel hotel = hotelRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Hotel not found"));
+        // The hotel may move, and its previous destination is cached with it too
+        Destination previousDestination = hotel.getDestination();
         
         hotel.setName(name != null ? name : hotel.getName());
         hotel.setLocation(location != null ? location : hotel.getLocation());
@@ -227,6 +277,9 @@ public class AdminService {
         }
         
         hotel = hotelRepository.save(hotel);
+        demandIndex.evictPackage(hotel.getTravelPackage().getId());
+        catalogLookupService.evictOwners(previousDestination, null);
+        catalogLookupService.evictOwners(hotel.getDestination(), hotel.getTravelPackage());
         
         // If an image was provided, save it
         if (image != null && !image.isEmpty()) {
@@ -236,16 +289,25 @@ public class AdminService {
         return hotel;
     }
     
+    @CacheEvict(cacheNames = CacheConfig.HOTELS, key = "#id")
     public void deleteHotel(Long id, String username) {
         // Validate that the user is an admin
-        User user = userRepository.findByUsername(username)
+        User user = catalogLookupService.findUserByUsername(username)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
         if (!"ADMIN".equals(user.getRole())) {
             throw new IllegalStateException("Only admin users can manage hotels");
         }
         
+        Optional<Hotel> hotel = hotelRepository.findById(id);
         hotelRepository.deleteById(id);
+        hotel.ifPresent(deleted -> {
+            if (deleted.getTravelPackage() != null) {
+                demandIndex.evictPackage(deleted.getTravelPackage().getId());
+            }
+            catalogLookupService.evictOwners(deleted.getDestination(), deleted.getTravelPackage());
+        });
+        imageService.deleteImagesFor("hotel", id);
     }
     
     // Restaurant Management
@@ -253,6 +315,12 @@ public class AdminService {
         return restaurantRepository.findAll();
     }
     
+    public CursorPage<RestaurantSummary> getRestaurantPage(String cursor, int limit) {
+        List<RestaurantSummary> rows = restaurantRepository.findSummariesAfter(
+            CursorPage.decodeCursor(cursor), PageRequest.of(0, limit + 1));
+        return CursorPage.of(rows, limit, RestaurantSummary::getId);
+    }
+    
     public List<Restaurant> getRestaurantsByDestination(Long destinationId) {
         Optional<Destination> destination = destinationRepository.findById(destinationId);
         if (destination.isPresent()) {
@@ -265,7 +333,7 @@ public class AdminService {
                                      String cuisineType, Long destinationId, Long packageId, 
                                      MultipartFile image, String username) throws IOException {
         // Validate that the user is an admin
-        User user = userRepository.findByUsername(username)
+        User user = catalogLookupService.findUserByUsername(username)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
         if (!"ADMIN".equals(user.getRole())) {
@@ -302,6 +370,7 @@ public class AdminService {
         
         // Save the restaurant to get an ID
         restaurant = restaurantRepository.save(restaurant);
+        catalogLookupService.evictOwners(restaurant.getDestination(), restaurant.getTravelPackage());
         
         // If an image was provided, save it
         if (image != null && !image.isEmpty()) {
@@ -315,7 +384,7 @@ public class AdminService {
                                      String cuisine, String cuisineType, Long destinationId, 
                                      MultipartFile image, String username) throws IOException {
         // Validate that the user is an admin
-        User user = userRepository.findByUsername(username)
+        User user = catalogLookupService.findUserByUsername(username)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
         if (!"ADMIN".equals(user.getRole())) {
@@ -324,6 +393,7 @@ public class AdminService {
         
         Restaurant restaurant = restaurantRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Restaurant not found"));
+        Destination previousDestination = restaurant.getDestination();
         
         restaurant.setName(name != null ? name : restaurant.getName());
         restaurant.setLocation(location != null ? location : restaurant.getLocation());
@@ -338,6 +408,8 @@ public class AdminService {
         }
         
         restaurant = restaurantRepository.save(restaurant);
+        catalogLookupService.evictOwners(previousDestination, null);
+        catalogLookupService.evictOwners(restaurant.getDestination(), restaurant.getTravelPackage());
         
         // If an image was provided, save it
         if (image != null && !image.isEmpty()) {
@@ -349,63 +421,149 @@ public class AdminService {
     
     public void deleteRestaurant(Long id, String username) {
         // Validate that the user is an admin
-        User user = userRepository.findByUsername(username)
+        User user = catalogLookupService.findUserByUsername(username)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
         if (!"ADMIN".equals(user.getRole())) {
             throw new IllegalStateException("Only admin users can manage restaurants");
         }
         
+        Optional<Restaurant> restaurant = restaurantRepository.findById(id);
         restaurantRepository.deleteById(id);
+        restaurant.ifPresent(deleted ->
+            catalogLookupService.evictOwners(deleted.getDestination(), deleted.getTravelPackage()));
+        imageService.deleteImagesFor("restaurant", id);
     }
     
     // Existing methods
+    @CacheEvict(cacheNames = CacheConfig.HOTELS, allEntries = true)
     public void updateHotels(Long destinationId, List<Hotel> hotels) {
+        // Where the hotels were before, so the owners they leave are evicted as well
+        List<Hotel> previous = hotelRepository.findAllById(idsOf(hotels, Hotel::getId));
         // Logic to update hotels for a destination
         hotelRepository.saveAll(hotels);
+        for (Hotel hotel : hotels) {
+            if (hotel.getTravelPackage() != null) {
+                demandIndex.evictPackage(hotel.getTravelPackage().getId());
+            }
+            catalogLookupService.evictOwners(hotel.getDestination(), hotel.getTravelPackage());
+        }
+        for (Hotel hotel : previous) {
+            catalogLookupService.evictOwners(hotel.getDestination(), hotel.getTravelPackage());
+        }
+        catalogLookupService.evictDestination(destinationId);
     }
 
     public void updateRestaurants(Long destinationId, List<Restaurant> restaurants) {
+        List<Restaurant> previous = restaurantRepository.findAllById(idsOf(restaurants, Restaurant::getId));
         // Logic to update restaurants for a destination
         restaurantRepository.saveAll(restaurants);
+        for (Restaurant restaurant : restaurants) {
+            catalogLookupService.evictOwners(restaurant.getDestination(), restaurant.getTravelPackage());
+        }
+        for (Restaurant restaurant : previous) {
+            catalogLookupService.evictOwners(restaurant.getDestination(), restaurant.getTravelPackage());
+        }
+        catalogLookupService.evictDestination(destinationId);
+    }
+    
+    private static <T> List<Long> idsOf(List<T> entities, Function<T, Long> id) {
+        return entities.stream().map(id).filter(value -> value != null).collect(Collectors.toList());
     }
     
     // Search functionality
     public List<Destination> searchDestinations(String query) {
+        return searchDestinations(query, 0, Integer.MAX_VALUE);
+    }
+    
+    public List<Destination> searchDestinations(String query, int page, int size) {
         if (query == null || query.trim().isEmpty()) {
-            return getAllDestinations();
+            return destinationRepository.findAll(PageRequest.of(page, Math.min(size, MAX_UNFILTERED_PAGE_SIZE), Sort.by("id")))
+                .getContent();
         }
         
-        String lowercaseQuery = query.toLowerCase();
-        return destinationRepository.findAll().stream()
-            .filter(d -> 
-                (d.getName() != null && d.getName().toLowerCase().contains(lowercaseQuery)) ||
-                (d.getCountry() != null && d.getCountry().toLowerCase().contains(lowercaseQuery)) ||
-                (d.getDescription() != null && d.getDescription().toLowerCase().contains(lowercaseQuery))
-            )
-            .collect(Collectors.toList());
+        return findDestinationsPage(catalogSearchIndex.searchDestinationIds(query), page, size);
+    }
+    
+    // One page of destinations out of ranked search hits, in ranking order
+    public List<Destination> findDestinationsPage(List<Long> rankedIds, int page, int size) {
+        List<Long> pageIds = pageOf(rankedIds, page, size);
+        return inIdOrder(pageIds, destinationRepository.findAllById(pageIds), Destination::getId);
+    }
+    
+    public int countDestinations(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return (int) destinationRepository.count();
+        }
+        return catalogSearchIndex.countDestinations(query);
     }
     
     // New search method for travel packages
     public List<TravelPackage> searchTravelPackages(String query) {
+        return searchTravelPackages(query, 0, Integer.MAX_VALUE);
+    }
+    
+    public List<TravelPackage> searchTravelPackages(String query, int page, int size) {
         if (query == null || query.trim().isEmpty()) {
-            return travelPackageRepository.findAll();
+            return travelPackageRepository.findAll(PageRequest.of(page, Math.min(size, MAX_UNFILTERED_PAGE_SIZE), Sort.by("id")))
+                .getContent();
         }
         
-        String lowercaseQuery = query.toLowerCase();
-        return travelPackageRepository.findAll().stream()
-            .filter(tp -> 
-                (tp.getName() != null && tp.getName().toLowerCase().contains(lowercaseQuery)) ||
-                (tp.getDescription() != null && tp.getDescription().toLowerCase().contains(lowercaseQuery))
-            )
-            .collect(Collectors.toList());
+        return findTravelPackagesPage(catalogSearchIndex.searchTravelPackageIds(query), page, size);
+    }
+    
+    public List<TravelPackage> findTravelPackagesPage(List<Long> rankedIds, int page, int size) {
+        List<Long> pageIds = pageOf(rankedIds, page, size);
+        return inIdOrder(pageIds, travelPackageRepository.findAllById(pageIds), TravelPackage::getId);
+    }
+    
+    // Matches of every entity type from a single pass over the search index
+    public CatalogSearchIndex.Hits searchCatalog(String query) {
+        return catalogSearchIndex.search(query);
+    }
+    
+    public int countTravelPackages(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return (int) travelPackageRepository.count();
+        }
+        return catalogSearchIndex.countTravelPackages(query);
+    }
+    
+    private static List<Long> pageOf(List<Long> rankedIds, int page, int size) {
+        long from = (long) page * size;
+        if (page < 0 || size <= 0 || from >= rankedIds.size()) {
+            return List.of();
+        }
+        return rankedIds.subList((int) from, (int) Math.min(rankedIds.size(), from + size));
+    }
+    
+    // findAllById does not preserve order, so put the entities back into ranking order
+    private static <T> List<T> inIdOrder(List<Long> ids, List<T> entities, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        for (T entity : entities) {
+            byId.put(idOf.apply(entity), entity);
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                ordered.add(entity);
+            }
+        }
+        return ordered;
     }
     
     // Search all (combined results)
     public Map<String, Object> searchAll(String query) {
         Map<String, Object> results = new HashMap<>();
-        results.put("destinations", searchDestinations(query));
-        results.put("travelPackages", searchTravelPackages(query));
+        if (query == null || query.trim().isEmpty()) {
+            results.put("destinations", searchDestinations(query));
+            results.put("travelPackages", searchTravelPackages(query));
+            return results;
+        }
+        CatalogSearchIndex.Hits hits = catalogSearchIndex.search(query);
+        results.put("destinations", findDestinationsPage(hits.getDestinationIds(), 0, Integer.MAX_VALUE));
+        results.put("travelPackages", findTravelPackagesPage(hits.getTravelPackageIds(), 0, Integer.MAX_VALUE));
         return results;
     }
     
@@ -439,4 +597,48 @@ public class AdminService {
         // Return a default image path if no image is found
         return "uploads/packages/default.jpg";
     }
+    
+    // Batched variant of getDestinationImagePath for listings: one query for all ids
+    public Map<Long, String> getDestinationImagePaths(List<Long> destinationIds) {
+        Map<Long, String> paths = firstImagePaths("destination", destinationIds);
+        for (Long id : destinationIds) {
+            paths.putIfAbsent(id, "uploads/destination/default.jpg");
+        }
+        return paths;
+    }
+    
+    // Batched variant of getTravelPackageImagePath: restaurant images first, then hotel images
+    public Map<Long, String> getTravelPackageImagePaths(List<Long> packageIds) {
+        Map<Long, String> paths = firstImagePaths("package_restaurant", packageIds);
+        List<Long> missing = new ArrayList<>();
+        for (Long id : packageIds) {
+            if (!paths.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            paths.putAll(firstImagePaths("package_hotel", missing));
+        }
+        for (Long id : packageIds) {
+            paths.putIfAbsent(id, "uploads/packages/default.jpg");
+        }
+        return paths;
+    }
+    
+    private Map<Long, String> firstImagePaths(String entityType, List<Long> entityIds) {
+        Map<Long, Image> first = new HashMap<>();
+        if (!entityIds.isEmpty()) {
+            for (Image image : imageRepository.findByEntityTypeAndEntityIdIn(entityType, entityIds)) {
+                Image current = first.get(image.getEntityId());
+                if (current == null || image.getId() < current.getId()) {
+                    first.put(image.getEntityId(), image);
+                }
+            }
+        }
+        Map<Long, String> paths = new HashMap<>();
+        for (Map.Entry<Long, Image> entry : first.entrySet()) {
+            paths.put(entry.getKey(), entry.getValue().getFilePath());
+        }
+        return paths;
+    }
 }
\ No newline at end of file
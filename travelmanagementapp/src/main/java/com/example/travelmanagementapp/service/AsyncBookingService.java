@@ -0,0 +1,406 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.DTO.BookingBatchResult;
+import com.example.travelmanagementapp.DTO.BookingDTO;
+import com.example.travelmanagementapp.Exception.BookingQueueFullException;
+import com.example.travelmanagementapp.repository.BookingRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Write-behind mode for package bookings, enabled with {@code app.bookings.async.enabled}.
+ * A validated booking is appended to a {@link BookingWriteLog} on local disk and the
+ * client gets a reference as soon as the record is synced, without waiting for the
+ * database. A single writer drains the log into the database in batches of
+ * {@code app.bookings.async.batch-size}, one transaction per batch. A burst is absorbed
+ * by the log and written at whatever rate the database sustains.
+ *
+ * A booking is pending until its batch commits, then confirmed; it is rejected if its user
+ * or package disappeared in between. Batches are replayed after a crash, and references
+ * already in the database are skipped, so no booking is written twice.
+ *
+ * A batch that fails stays in the log and is retried with exponential backoff. While the
+ * database is unreachable nothing else happens: the bookings wait in the log until it is
+ * back. A batch that keeps failing for another reason for {@code app.bookings.async.retry-limit-millis}
+ * is written one booking at a time, and only a booking that fails on its own is appended to
+ * {@code dead-letter.ndjson} next to the log and rejected, so one bad booking cannot hold up
+ * everything queued behind it. Rejection reasons are kept in memory only, for
+ * {@code app.bookings.async.rejected-ttl-seconds}.
+ */
+@Service
+@ConditionalOnProperty(name = "app.bookings.async.enabled", havingValue = "true")
+public class AsyncBookingService {
+
+    public static final String PENDING = "pending";
+    public static final String CONFIRMED = "confirmed";
+    public static final String REJECTED = "rejected";
+
+    /**
+     * A booking as written to the log.
+     */
+    public static final class QueuedBooking {
+        private String reference;
+        private Long userId;
+        private Long travelPackageId;
+        private String travelDate;
+        private double totalPrice;
+
+        public String getReference() { return reference; }
+        public void setReference(String reference) { this.reference = reference; }
+        public Long getUserId() { return userId; }
+        public void setUserId(Long userId) { this.userId = userId; }
+        public Long getTravelPackageId() { return travelPackageId; }
+        public void setTravelPackageId(Long travelPackageId) { this.travelPackageId = travelPackageId; }
+        public String getTravelDate() { return travelDate; }
+        public void setTravelDate(String travelDate) { this.travelDate = travelDate; }
+        public double getTotalPrice() { return totalPrice; }
+        public void setTotalPrice(double totalPrice) { this.totalPrice = totalPrice; }
+    }
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.bookings.async.directory:data/booking-queue}")
+    private String directory;
+
+    @Value("${app.bookings.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.bookings.async.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.bookings.async.poll-millis:50}")
+    private long pollMillis;
+
+    @Value("${app.bookings.async.compact-bytes:67108864}")
+    private long compactBytes;
+
+    @Value("${app.bookings.async.append-timeout-seconds:5}")
+    private long appendTimeoutSeconds;
+
+    @Value("${app.bookings.async.rejected-ttl-seconds:86400}")
+    private long rejectedTtlSeconds;
+
+    @Value("${app.bookings.async.retry-initial-millis:100}")
+    private long retryInitialMillis;
+
+    @Value("${app.bookings.async.retry-max-millis:30000}")
+    private long retryMaxMillis;
+
+    @Value("${app.bookings.async.retry-limit-millis:60000}")
+    private long retryLimitMillis;
+
+    private BookingWriteLog log;
+
+    private Path deadLetterFile;
+
+    // Retry state of the batch at failedOffset; only touched by the writer thread
+    private long failedOffset = -1;
+    private long failingSince;
+    private long retryDelay;
+    private long retryAt;
+    private boolean failedTransiently;
+    // Dead-lettered while the failed batch was written one by one; skipped if the rest is retried
+    private final Set<String> deadLettered = new HashSet<>();
+
+    private Cache<String, String> rejected;
+
+    // Accepted but not yet written; rebuilt from the unconsumed part of the log on startup
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "booking-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() throws IOException {
+        log = new BookingWriteLog(Paths.get(directory), queueCapacity);
+        deadLetterFile = Paths.get(directory).resolve("dead-letter.ndjson");
+        rejected = Caffeine.newBuilder()
+            .maximumSize(100000)
+            .expireAfterWrite(Duration.ofSeconds(rejectedTtlSeconds))
+            .build();
+
+        long offset = log.getConsumedOffset();
+        BookingWriteLog.Batch batch;
+        while (!(batch = log.read(offset, batchSize)).getRecords().isEmpty()) {
+            for (QueuedBooking booking : parse(batch)) {
+                pending.add(booking.getReference());
+            }
+            offset = batch.getEndOffset();
+        }
+        drainer.scheduleWithFixedDelay(this::drain, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        drainer.shutdown();
+        try {
+            drainer.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+
+    /**
+     * Durably queues a booking whose user and package have already been validated and
+     * returns its reference. Throws BookingQueueFullException when the log refuses it.
+     * If the log is merely slow, the reference is returned before the record is synced
+     * and stays pending; it is rejected should the append fail after all.
+     */
+    public String enqueue(Long userId, Long travelPackageId, String travelDate, double totalPrice) {
+        QueuedBooking booking = new QueuedBooking();
+        booking.setReference(UUID.randomUUID().toString());
+        booking.setUserId(userId);
+        booking.setTravelPackageId(travelPackageId);
+        booking.setTravelDate(travelDate);
+        booking.setTotalPrice(totalPrice);
+
+        byte[] record;
+        try {
+            record = objectMapper.writeValueAsBytes(booking);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Booking cannot be queued: " + e.getMessage());
+        }
+        pending.add(booking.getReference());
+        CompletableFuture<Void> append = log.append(record);
+        try {
+            append.get(appendTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            pending.remove(booking.getReference());
+            throw new BookingQueueFullException("Bookings are arriving faster than they can be queued, please retry",
+                e.getCause());
+        } catch (TimeoutException e) {
+            rejectIfNotAppended(booking.getReference(), append);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejectIfNotAppended(booking.getReference(), append);
+        }
+        return booking.getReference();
+    }
+
+    // The record is still on its way to the log, so a retry could book it twice; the client
+    // polls the reference instead and learns here if it never made it
+    private void rejectIfNotAppended(String reference, CompletableFuture<Void> append) {
+        append.whenComplete((ignored, failure) -> {
+            if (failure != null) {
+                rejected.put(reference, "Could not be queued: " + failure.getMessage());
+                pending.remove(reference);
+            }
+        });
+    }
+
+    /**
+     * Status of a queued booking: {@code status} plus the booking {@code id} once confirmed
+     * or the {@code message} when rejected. Empty for unknown references.
+     */
+    public Optional<Map<String, Object>> getStatus(String reference) {
+        Map<String, Object> status = new HashMap<>();
+        status.put("reference", reference);
+        if (pending.contains(reference)) {
+            status.put("status", PENDING);
+            return Optional.of(status);
+        }
+        String reason = rejected.getIfPresent(reference);
+        if (reason != null) {
+            status.put("status", REJECTED);
+            status.put("message", reason);
+            return Optional.of(status);
+        }
+        Optional<Long> id = bookingRepository.findIdByReference(reference);
+        if (id.isPresent()) {
+            status.put("status", CONFIRMED);
+            status.put("id", id.get());
+            return Optional.of(status);
+        }
+        return Optional.empty();
+    }
+
+    // Writes everything queued so far; a failed batch stays in the log and drain() does nothing
+    // until its backoff has passed
+    private void drain() {
+        if (failedOffset >= 0 && System.currentTimeMillis() < retryAt) {
+            return;
+        }
+        try {
+            long offset = log.getConsumedOffset();
+            BookingWriteLog.Batch batch;
+            while (!(batch = log.read(offset, batchSize)).getRecords().isEmpty()) {
+                List<QueuedBooking> queued = parse(batch);
+                try {
+                    if (offset == failedOffset && !failedTransiently
+                            && System.currentTimeMillis() - failingSince >= retryLimitMillis) {
+                        writeOneByOne(queued);
+                    } else {
+                        write(queued);
+                    }
+                } catch (RuntimeException e) {
+                    backOff(offset, e);
+                    return;
+                }
+                log.commit(batch.getEndOffset());
+                offset = batch.getEndOffset();
+                failedOffset = -1;
+                deadLettered.clear();
+            }
+            log.compactIfDrained(compactBytes);
+        } catch (Exception e) {
+            System.err.println("Error writing queued bookings, will retry: " + e.getMessage());
+        }
+    }
+
+    private void backOff(long offset, RuntimeException cause) {
+        long now = System.currentTimeMillis();
+        if (offset != failedOffset) {
+            failedOffset = offset;
+            failingSince = now;
+            retryDelay = retryInitialMillis;
+        } else {
+            retryDelay = Math.min(retryDelay * 2, retryMaxMillis);
+        }
+        failedTransiently = isTransient(cause);
+        retryAt = now + retryDelay;
+        System.err.println("Error writing queued bookings, retrying in " + retryDelay + " ms: " + cause.getMessage());
+    }
+
+    // Finds the bookings that sink the batch; the others are written and only those are
+    // dead-lettered. A database outage still stops the drain and leaves everything in the log
+    private void writeOneByOne(List<QueuedBooking> queued) throws IOException {
+        for (QueuedBooking booking : queued) {
+            if (deadLettered.contains(booking.getReference())) {
+                continue;
+            }
+            try {
+                write(List.of(booking));
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    throw e;
+                }
+                deadLetter(booking, e);
+            }
+        }
+    }
+
+    // Keeps the booking's record for an operator and rejects it; synced before the caller
+    // moves the checkpoint past it
+    private void deadLetter(QueuedBooking booking, RuntimeException cause) throws IOException {
+        try (FileChannel channel = FileChannel.open(deadLetterFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(new ByteBuffer[] {
+                ByteBuffer.wrap(objectMapper.writeValueAsBytes(booking)), ByteBuffer.wrap(new byte[] { '\n' }) });
+            channel.force(true);
+        }
+        deadLettered.add(booking.getReference());
+        rejected.put(booking.getReference(), "Could not be written: " + cause.getMessage());
+        pending.remove(booking.getReference());
+        System.err.println("Moved queued booking " + booking.getReference() + " to " + deadLetterFile
+            + ": " + cause.getMessage());
+    }
+
+    // The database or the connection to it is down; the same batch goes through once it is back
+    private static boolean isTransient(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(List<QueuedBooking> queued) {
+        Set<String> references = new HashSet<>();
+        for (QueuedBooking booking : queued) {
+            references.add(booking.getReference());
+        }
+        // Written by an earlier attempt that crashed before its checkpoint
+        Set<String> existing = new HashSet<>(bookingRepository.findExistingReferences(references));
+
+        List<BookingDTO> items = new ArrayList<>(queued.size());
+        List<String> itemReferences = new ArrayList<>(queued.size());
+        for (QueuedBooking booking : queued) {
+            if (existing.contains(booking.getReference())) {
+                continue;
+            }
+            BookingDTO item = new BookingDTO();
+            item.setUserId(booking.getUserId());
+            item.setTravelPackageId(booking.getTravelPackageId());
+            item.setTravelDate(booking.getTravelDate());
+            item.setTotalPrice(booking.getTotalPrice());
+            items.add(item);
+            itemReferences.add(booking.getReference());
+        }
+
+        if (!items.isEmpty()) {
+            BookingBatchResult result = bookingService.createBookings(items, itemReferences);
+            for (Map<String, Object> item : result.getResults()) {
+                if ("error".equals(item.get("status"))) {
+                    rejected.put(itemReferences.get((Integer) item.get("index")), (String) item.get("message"));
+                }
+            }
+        }
+        pending.removeAll(references);
+    }
+
+    private List<QueuedBooking> parse(BookingWriteLog.Batch batch) {
+        List<QueuedBooking> bookings = new ArrayList<>(batch.getRecords().size());
+        for (byte[] record : batch.getRecords()) {
+            try {
+                bookings.add(objectMapper.readValue(record, QueuedBooking.class));
+            } catch (IOException e) {
+                // Skipping is safer than blocking every booking behind one unreadable record
+                System.err.println("Skipping unreadable queued booking: " + new String(record, StandardCharsets.UTF_8));
+            }
+        }
+        return bookings;
+    }
+}
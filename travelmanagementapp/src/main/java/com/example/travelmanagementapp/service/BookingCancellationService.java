@@ -0,0 +1,198 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.DTO.BulkCancellationRequest;
+import com.example.travelmanagementapp.DTO.CancellableBooking;
+import com.example.travelmanagementapp.DTO.CancellationJob;
+import com.example.travelmanagementapp.model.Booking;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bulk cancellation of bookings by package, destination and/or travel date range, e.g.
+ * when an agency withdraws a package. A job runs in the background and walks the matching
+ * bookings in id order, {@code app.bookings.cancellation.chunk-size} at a time: each chunk
+ * is read without locks and cancelled in short transactions that lock only its own rows,
+ * so bookings and single cancellations carry on while a large job runs.
+ *
+ * Jobs run one after another. Their progress is kept in memory on the node that runs them,
+ * for {@code app.bookings.cancellation.job-ttl-seconds}. A failed job can simply be started
+ * again: bookings that are already cancelled are not matched a second time.
+ */
+@Service
+public class BookingCancellationService {
+
+    private static final String SELECT_BOOKINGS =
+        "SELECT b.id, b.travel_date, b.return_date, b.rooms, b.hotel_id, b.destination_id, b.travel_package_id " +
+        "FROM booking b";
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private CatalogLookupService catalogLookupService;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private final int chunkSize;
+
+    private final Cache<String, CancellationJob> jobs;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "booking-cancellation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BookingCancellationService(
+            @Value("${app.bookings.cancellation.chunk-size:500}") int chunkSize,
+            @Value("${app.bookings.cancellation.job-ttl-seconds:86400}") long jobTtlSeconds) {
+        this.chunkSize = chunkSize;
+        this.jobs = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(Duration.ofSeconds(jobTtlSeconds))
+            .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupted jobs stop between chunks' transactions and can be started again
+        worker.shutdownNow();
+    }
+
+    /**
+     * Validates the request and queues the job. Admins may cancel by any criteria; a travel
+     * agency only the bookings of its own package.
+     */
+    public CancellationJob start(BulkCancellationRequest request, String username) {
+        User user = catalogLookupService.findUserByUsername(username)
+            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        LocalDate from = request.getFrom() != null ? LocalDate.parse(request.getFrom()) : null;
+        LocalDate to = request.getTo() != null ? LocalDate.parse(request.getTo()) : null;
+        if (request.getTravelPackageId() == null && request.getDestinationId() == null && from == null && to == null) {
+            throw new IllegalArgumentException("A package, destination or travel date range is required");
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (request.getTravelPackageId() != null && !catalogLookupService.findTravelPackageById(request.getTravelPackageId()).isPresent()) {
+            throw new IllegalArgumentException("Travel package not found");
+        }
+        if (request.getDestinationId() != null && !catalogLookupService.findDestinationById(request.getDestinationId()).isPresent()) {
+            throw new IllegalArgumentException("Destination not found");
+        }
+        if (!"ADMIN".equals(user.getRole()) && !ownsPackage(user, request.getTravelPackageId())) {
+            throw new IllegalStateException("Only admins, or the agency offering the package, can cancel bookings in bulk");
+        }
+
+        CancellationJob job = new CancellationJob(UUID.randomUUID().toString(), request.getTravelPackageId(),
+            request.getDestinationId(), from, to, user.getUsername());
+        jobs.put(job.getId(), job);
+        worker.execute(() -> run(job));
+        return job;
+    }
+
+    public Optional<CancellationJob> getJob(String id) {
+        return Optional.ofNullable(jobs.getIfPresent(id));
+    }
+
+    private void run(CancellationJob job) {
+        job.setStatus(CancellationJob.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        try {
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            String where = where(job, params);
+            Long total = namedParameterJdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking b" + where, params, Long.class);
+            job.setTotal(total != null ? total : 0);
+
+            // Keyset over the id: each chunk starts where the previous one ended
+            String chunkSql = SELECT_BOOKINGS + where + " AND b.id > :afterId ORDER BY b.id LIMIT " + chunkSize;
+            long afterId = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                params.addValue("afterId", afterId);
+                List<CancellableBooking> chunk = namedParameterJdbcTemplate.query(chunkSql, params, (row, i) ->
+                    new CancellableBooking(row.getLong(1), row.getDate(2).toLocalDate(), toLocalDate(row.getDate(3)),
+                        row.getObject(4, Integer.class), row.getObject(5, Long.class),
+                        row.getObject(6, Long.class), row.getObject(7, Long.class)));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                int cancelled = bookingService.cancelBookings(chunk);
+                job.setCancelled(job.getCancelled() + cancelled);
+                job.setProcessed(job.getProcessed() + chunk.size());
+                afterId = chunk.get(chunk.size() - 1).getId();
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                job.setError("Stopped by shutdown");
+                job.setStatus(CancellationJob.FAILED);
+            } else {
+                job.setStatus(CancellationJob.COMPLETED);
+            }
+        } catch (Exception e) {
+            System.err.println("Bulk cancellation " + job.getId() + " failed: " + e.getMessage());
+            job.setError(e.getMessage());
+            job.setStatus(CancellationJob.FAILED);
+        } finally {
+            job.setFinishedAt(LocalDateTime.now());
+            // Keeps finished jobs around for the full TTL
+            jobs.put(job.getId(), job);
+        }
+    }
+
+    private static String where(CancellationJob job, MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder(" WHERE b.status <> '" + Booking.CANCELLED + "'");
+        if (job.getTravelPackageId() != null) {
+            where.append(" AND b.travel_package_id = :travelPackageId");
+            params.addValue("travelPackageId", job.getTravelPackageId());
+        }
+        if (job.getDestinationId() != null) {
+            where.append(" AND b.destination_id = :destinationId");
+            params.addValue("destinationId", job.getDestinationId());
+        }
+        if (job.getFrom() != null) {
+            where.append(" AND b.travel_date >= :from");
+            params.addValue("from", Date.valueOf(job.getFrom()));
+        }
+        if (job.getTo() != null) {
+            where.append(" AND b.travel_date <= :to");
+            params.addValue("to", Date.valueOf(job.getTo()));
+        }
+        return where.toString();
+    }
+
+    private boolean ownsPackage(User user, Long travelPackageId) {
+        if (travelPackageId == null
+                || (!"TRAVEL_AGENCY".equals(user.getRole()) && !"ROLE_TRAVEL_AGENCY".equals(user.getRole()))) {
+            return false;
+        }
+        Optional<TravelPackage> travelPackage = catalogLookupService.findTravelPackageById(travelPackageId);
+        return travelPackage.isPresent() && travelPackage.get().getUser() != null
+            && user.getId().equals(travelPackage.get().getUser().getId());
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+}
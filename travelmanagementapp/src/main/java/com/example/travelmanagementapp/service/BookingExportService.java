@@ -0,0 +1,187 @@
+package com.example.travelmanagementapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Writes all bookings of a user, cancelled ones included with their status, as NDJSON or
+ * CSV, ordered by travel date. Rows are read
+ * from a forward-only, read-only result set in chunks of {@code app.bookings.export.fetch-size}
+ * and written to the response as they arrive, so memory use does not depend on how many
+ * bookings the account has. On MySQL this needs {@code useCursorFetch=true} on the JDBC
+ * URL; otherwise the driver reads the whole result before returning the first row.
+ */
+@Service
+public class BookingExportService {
+
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    private static final String[] COLUMNS = {
+        "id", "reference", "bookingDate", "travelDate", "returnDate", "rooms", "totalPrice",
+        "travelPackageId", "travelPackageName", "hotelId", "hotelName", "destinationId", "destinationName",
+        "status", "cancelledAt"
+    };
+
+    private static final String EXPORT_SQL =
+        "SELECT b.id, b.reference, b.booking_date, b.travel_date, b.return_date, b.rooms, b.total_price, " +
+        "p.id, p.name, h.id, h.name, d.id, d.name, b.status, b.cancelled_at " +
+        "FROM booking b " +
+        "LEFT JOIN travel_package p ON p.id = b.travel_package_id " +
+        "LEFT JOIN hotel h ON h.id = b.hotel_id " +
+        "LEFT JOIN destination d ON d.id = b.destination_id " +
+        "WHERE b.user_id = ? ORDER BY b.travel_date, b.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.bookings.export.fetch-size:500}")
+    private int fetchSize;
+
+    public static boolean isSupported(String format) {
+        return NDJSON.equals(format) || CSV.equals(format);
+    }
+
+    /**
+     * Streams the bookings of {@code userId} to {@code out} in {@code format}; returns the
+     * number of bookings written.
+     */
+    public long export(Long userId, String format, OutputStream out) throws IOException {
+        if (!isSupported(format)) {
+            throw new IllegalArgumentException("Format must be " + NDJSON + " or " + CSV);
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowWriter rows = NDJSON.equals(format) ? new NdjsonRowWriter(writer) : new CsvRowWriter(writer);
+        long[] count = {0};
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                    EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, userId);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> {
+                try {
+                    rows.write(resultSet);
+                } catch (IOException e) {
+                    // Typically the client went away; stops the query instead of reading on
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rows.finish();
+        writer.flush();
+        return count[0];
+    }
+
+    // Timestamps as ISO date-times, whichever type the driver returns them as
+    private static Object valueOf(ResultSet row, int column) throws SQLException {
+        Object value = row.getObject(column);
+        return value instanceof Timestamp ? ((Timestamp) value).toLocalDateTime() : value;
+    }
+
+    private interface RowWriter {
+        void write(ResultSet row) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            // The response stream belongs to the servlet container
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                Object value = valueOf(row, i + 1);
+                if (value == null) {
+                    generator.writeNullField(COLUMNS[i]);
+                } else if (value instanceof Double || value instanceof Float || value instanceof BigDecimal) {
+                    generator.writeNumberField(COLUMNS[i], ((Number) value).doubleValue());
+                } else if (value instanceof Number) {
+                    generator.writeNumberField(COLUMNS[i], ((Number) value).longValue());
+                } else {
+                    // Dates come back as java.sql.Date, whose toString, like LocalDateTime's, is ISO
+                    generator.writeStringField(COLUMNS[i], value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = valueOf(row, i + 1);
+                if (value instanceof Double || value instanceof Float) {
+                    // Plain notation; Double.toString switches to 1.0E7 for large amounts
+                    writer.write(BigDecimal.valueOf(((Number) value).doubleValue()).toPlainString());
+                } else if (value != null) {
+                    writer.write(escape(value.toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private static String escape(String value) {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+        }
+    }
+}
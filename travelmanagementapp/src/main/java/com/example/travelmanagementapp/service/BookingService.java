@@ -1,12 +1,32 @@
 package com.example.travelmanagementapp.service;
 
+import com.example.travelmanagementapp.DTO.BookingBatchResult;
+import com.example.travelmanagementapp.DTO.BookingDTO;
+import com.example.travelmanagementapp.DTO.BookingHistoryItem;
+import com.example.travelmanagementapp.DTO.CancellableBooking;
+import com.example.travelmanagementapp.DTO.CursorPage;
 import com.example.travelmanagementapp.model.Booking;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
 import com.example.travelmanagementapp.repository.BookingRepository;
+import com.example.travelmanagementapp.repository.TravelPackageRepository;
+import com.example.travelmanagementapp.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class BookingService {
@@ -14,19 +34,254 @@ public class BookingService {
     @Autowired
     private BookingRepository bookingRepository;
     
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+    
+    @Autowired
+    private RoomInventoryService roomInventoryService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private PricingEngine pricingEngine;
+    
+    @Autowired
+    private DemandIndex demandIndex;
+    
+    /**
+     * Saves the booking; a hotel stay also reserves its rooms, in the same transaction.
+     * Throws RoomsUnavailableException when the hotel is full on any night of the stay.
+     */
     public Booking createBooking(Booking booking) {
-        return bookingRepository.save(booking);
+        return isHotelStay(booking)
+            ? roomInventoryService.reserve(booking.getHotel(), booking.getTravelDate(), booking.getReturnDate(),
+                roomsOf(booking), () -> recordBooking(bookingRepository.save(booking)))
+            : new TransactionTemplate(transactionManager).execute(status -> recordBooking(bookingRepository.save(booking)));
+    }
+    
+    // Called inside the booking's transaction, so the indexes count it once it commits
+    private Booking recordBooking(Booking saved) {
+        catalogSearchIndex.recordBooking(saved);
+        demandIndex.recordBooking(saved);
+        return saved;
+    }
+    
+    /**
+     * Creates many package bookings at once. Users and packages are resolved with one IN
+     * query each instead of per booking. The valid bookings are inserted in one transaction
+     * with batched inserts. Invalid ones are reported in the result and do not stop the rest.
+     */
+    public BookingBatchResult createBookings(List<BookingDTO> items) {
+        return createBookings(items, null);
+    }
+    
+    /**
+     * Same as {@link #createBookings(List)}, storing {@code references.get(i)} as the
+     * reference of the i-th booking; used for bookings that were accepted asynchronously.
+     * Those keep the total quoted when they were accepted, all others are priced here.
+     */
+    public BookingBatchResult createBookings(List<BookingDTO> items, List<String> references) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            BookingBatchResult result = new BookingBatchResult(items.size());
+            
+            Set<Long> userIds = new HashSet<>();
+            Set<Long> packageIds = new HashSet<>();
+            for (BookingDTO item : items) {
+                if (item.getUserId() != null) {
+                    userIds.add(item.getUserId());
+                }
+                if (item.getTravelPackageId() != null) {
+                    packageIds.add(item.getTravelPackageId());
+                }
+            }
+            Map<Long, User> usersById = new HashMap<>();
+            for (User user : userRepository.findAllById(userIds)) {
+                usersById.put(user.getId(), user);
+            }
+            // Usernames are only a fallback, so only the ones still needed are looked up
+            Set<String> usernames = new HashSet<>();
+            for (BookingDTO item : items) {
+                if (!usersById.containsKey(item.getUserId()) && item.getUsername() != null && !item.getUsername().isEmpty()) {
+                    usernames.add(item.getUsername());
+                }
+            }
+            Map<String, User> usersByUsername = new HashMap<>();
+            if (!usernames.isEmpty()) {
+                for (User user : userRepository.findByUsernameIn(usernames)) {
+                    usersByUsername.put(user.getUsername(), user);
+                }
+            }
+            Map<Long, TravelPackage> packages = new HashMap<>();
+            for (TravelPackage travelPackage : travelPackageRepository.findAllById(packageIds)) {
+                packages.put(travelPackage.getId(), travelPackage);
+            }
+            
+            List<Booking> bookings = new ArrayList<>(items.size());
+            List<Integer> indexes = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                BookingDTO item = items.get(i);
+                User user = usersById.get(item.getUserId());
+                if (user == null && item.getUsername() != null) {
+                    user = usersByUsername.get(item.getUsername());
+                }
+                if (user == null) {
+                    result.addError(i, "User not found");
+                    continue;
+                }
+                if (!"TRAVELLER".equals(user.getRole()) && !"ROLE_TRAVELLER".equals(user.getRole())) {
+                    result.addError(i, "Only travelers can create bookings");
+                    continue;
+                }
+                TravelPackage travelPackage = packages.get(item.getTravelPackageId());
+                if (travelPackage == null) {
+                    result.addError(i, "Travel package not found");
+                    continue;
+                }
+                LocalDate travelDate = parseDate(item.getTravelDate());
+                if (travelDate == null) {
+                    result.addError(i, "Invalid travel date: " + item.getTravelDate());
+                    continue;
+                }
+                int travellers = item.getNumberOfPeople() != null ? item.getNumberOfPeople() : 1;
+                if (travellers < 1) {
+                    result.addError(i, "At least one traveller is required");
+                    continue;
+                }
+                double totalPrice = references != null ? item.getTotalPrice()
+                    : pricingEngine.quotePackage(travelPackage.getPrice(), travelDate, travellers);
+                
+                Booking booking = new Booking();
+                booking.setBookingDate(LocalDate.now());
+                booking.setTravelDate(travelDate);
+                booking.setTotalPrice(totalPrice);
+                booking.setUser(user);
+                booking.setTravelPackage(travelPackage);
+                if (references != null) {
+                    booking.setReference(references.get(i));
+                }
+                bookings.add(booking);
+                indexes.add(i);
+            }
+            
+            List<Booking> saved = bookingRepository.saveAll(bookings);
+            for (int k = 0; k < saved.size(); k++) {
+                result.addCreated(indexes.get(k), saved.get(k).getId());
+                recordBooking(saved.get(k));
+            }
+            return result;
+        });
     }
     
     public List<Booking> getBookingsByUserId(Long userId) {
         return bookingRepository.findByUserId(userId);
     }
     
+    /**
+     * One page of a user's bookings ordered by travel date, with the names of the booked
+     * package, hotel and destination but none of their other data.
+     */
+    public CursorPage<BookingHistoryItem> getBookingHistory(Long userId, String cursor, int limit) {
+        CursorPage.DateKey after = CursorPage.decodeDateCursor(cursor);
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<BookingHistoryItem> rows = after == null
+            ? bookingRepository.findHistory(userId, page)
+            : bookingRepository.findHistoryAfter(userId, after.getDate(), after.getId(), page);
+        return CursorPage.of(rows, limit, BookingHistoryItem::getTravelDate, BookingHistoryItem::getId);
+    }
+    
     public Optional<Booking> getBookingById(Long id) {
         return bookingRepository.findById(id);
     }
     
-    public void cancelBooking(Long id) {
-        bookingRepository.deleteById(id);
+    /**
+     * Marks the booking cancelled, giving back the rooms of a hotel stay in the same
+     * transaction. Returns false when there is no such booking or it is already cancelled.
+     * The conditional update runs first and its row count decides, so an unknown or
+     * cancelled booking costs one statement and of two concurrent cancellations only one
+     * releases the rooms.
+     */
+    public boolean cancelBooking(Long id) {
+        return cancelBooking(id, null);
+    }
+    
+    boolean cancelBooking(CancellableBooking booking) {
+        return cancelBooking(booking.getId(), booking);
+    }
+    
+    // The booking's row is locked by the update before any room night, in every cancellation
+    private boolean cancelBooking(Long id, CancellableBooking known) {
+        LocalDateTime cancelledAt = LocalDateTime.now();
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            if (bookingRepository.cancel(id, cancelledAt) == 0) {
+                return false;
+            }
+            CancellableBooking booking = known != null ? known : bookingRepository.findCancellationById(id);
+            if (booking.isHotelStay()) {
+                roomInventoryService.release(booking.getHotelId(), booking.getTravelDate(), booking.getReturnDate(),
+                    booking.getRooms() != null ? booking.getRooms() : 1, () -> null);
+            }
+            demandIndex.removeBooking(booking);
+            return true;
+        });
+    }
+    
+    /**
+     * Cancels a chunk of a bulk cancellation and returns how many bookings it changed.
+     * Hotel stays are cancelled one by one with their rooms; all other bookings in one
+     * transaction that locks just their rows. Bookings cancelled in the meantime are skipped.
+     */
+    int cancelBookings(List<CancellableBooking> bookings) {
+        int cancelled = 0;
+        Map<Long, CancellableBooking> others = new HashMap<>();
+        for (CancellableBooking booking : bookings) {
+            if (booking.isHotelStay()) {
+                if (cancelBooking(booking)) {
+                    cancelled++;
+                }
+            } else {
+                others.put(booking.getId(), booking);
+            }
+        }
+        if (others.isEmpty()) {
+            return cancelled;
+        }
+        LocalDateTime cancelledAt = LocalDateTime.now();
+        List<Long> changed = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Long> active = bookingRepository.lockActiveIds(others.keySet());
+            if (!active.isEmpty()) {
+                bookingRepository.cancelAll(active, cancelledAt);
+            }
+            for (Long id : active) {
+                demandIndex.removeBooking(others.get(id));
+            }
+            return active;
+        });
+        return cancelled + changed.size();
+    }
+    
+    private static LocalDate parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    private static boolean isHotelStay(Booking booking) {
+        return booking.getHotel() != null && booking.getReturnDate() != null;
+    }
+    
+    private static int roomsOf(Booking booking) {
+        return booking.getRooms() != null ? booking.getRooms() : 1;
     }
-}
\ No newline at end of file
+}
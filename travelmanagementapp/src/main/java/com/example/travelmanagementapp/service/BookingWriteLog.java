@@ -0,0 +1,268 @@
+package com.example.travelmanagementapp.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Durable local queue: an append-only file of newline-terminated records plus a checkpoint
+ * holding the offset up to which records have been consumed.
+ *
+ * Appends are group-committed: a single writer thread takes every record queued since its
+ * last write, writes them together and syncs the file once, and only then completes the
+ * callers' futures. Under load one fsync covers hundreds of records. Once the consumer has
+ * caught up, the file is truncated so it does not grow without bound.
+ */
+public class BookingWriteLog implements Closeable {
+
+    private static final int MAX_GROUP = 4096;
+    private static final int READ_CHUNK = 1024 * 1024;
+
+    /**
+     * Records read from the log and the offset just past the last of them.
+     */
+    public static final class Batch {
+        private final List<byte[]> records;
+        private final long endOffset;
+
+        Batch(List<byte[]> records, long endOffset) {
+            this.records = records;
+            this.endOffset = endOffset;
+        }
+
+        public List<byte[]> getRecords() { return records; }
+        public long getEndOffset() { return endOffset; }
+    }
+
+    private static final class Append {
+        private final byte[] record;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Append(byte[] record) {
+            this.record = record;
+        }
+    }
+
+    private final Path logFile;
+    private final Path checkpointFile;
+    private final FileChannel channel;
+    private final BlockingQueue<Append> appends;
+    private final Thread writer;
+    // Held while the file is written or truncated
+    private final ReentrantLock fileLock = new ReentrantLock();
+
+    // Everything before this offset has been synced to disk and may be read
+    private volatile long durableEnd;
+    private volatile long consumed;
+    private volatile boolean running = true;
+
+    public BookingWriteLog(Path directory, int queueCapacity) throws IOException {
+        Files.createDirectories(directory);
+        this.logFile = directory.resolve("bookings.log");
+        this.checkpointFile = directory.resolve("checkpoint");
+        this.channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.appends = new ArrayBlockingQueue<>(queueCapacity);
+
+        // A crash in the middle of a write leaves a partial last record, which was never acknowledged
+        long size = channel.size();
+        this.durableEnd = lastRecordEnd(size);
+        if (durableEnd < size) {
+            channel.truncate(durableEnd);
+        }
+        long checkpoint = Files.exists(checkpointFile)
+            ? Long.parseLong(Files.readString(checkpointFile, StandardCharsets.US_ASCII).trim()) : 0;
+        this.consumed = checkpoint <= durableEnd ? checkpoint : 0;
+
+        this.writer = new Thread(this::writeLoop, "booking-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a record; the future completes once it is on disk. Fails immediately when the
+     * queue is full, so a burst beyond what the disk can take is refused instead of buffered.
+     */
+    public CompletableFuture<Void> append(byte[] record) {
+        for (byte b : record) {
+            if (b == '\n') {
+                throw new IllegalArgumentException("Records must not contain line breaks");
+            }
+        }
+        Append append = new Append(record);
+        if (!running || !appends.offer(append)) {
+            append.done.completeExceptionally(new IllegalStateException("Booking queue is full"));
+        }
+        return append.done;
+    }
+
+    public long getConsumedOffset() {
+        return consumed;
+    }
+
+    /**
+     * Reads up to {@code maxRecords} durable records starting at {@code fromOffset}.
+     */
+    public Batch read(long fromOffset, int maxRecords) throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        long position = fromOffset;
+        long end = durableEnd;
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(READ_CHUNK, Math.max(1, end - fromOffset)));
+        long lineStart = position;
+        while (position < end && records.size() < maxRecords) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining() && records.size() < maxRecords) {
+                byte b = buffer.get();
+                position++;
+                if (b == '\n') {
+                    records.add(line.toByteArray());
+                    line.reset();
+                    lineStart = position;
+                } else {
+                    line.write(b);
+                }
+            }
+        }
+        return new Batch(records, lineStart);
+    }
+
+    /**
+     * Marks everything before {@code offset} as consumed; survives restarts.
+     */
+    public void commit(long offset) throws IOException {
+        Path temp = checkpointFile.resolveSibling("checkpoint.tmp");
+        Files.writeString(temp, Long.toString(offset), StandardCharsets.US_ASCII);
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        consumed = offset;
+    }
+
+    /**
+     * Empties the file once every record in it has been consumed and it has grown past
+     * {@code minBytes}. Must only be called by the consumer.
+     */
+    public void compactIfDrained(long minBytes) throws IOException {
+        if (consumed < minBytes || consumed != durableEnd) {
+            return;
+        }
+        fileLock.lock();
+        try {
+            if (consumed == durableEnd) {
+                channel.truncate(0);
+                channel.force(true);
+                durableEnd = 0;
+                commit(0);
+            }
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private void writeLoop() {
+        List<Append> group = new ArrayList<>();
+        while (running || !appends.isEmpty()) {
+            try {
+                Append first = appends.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                appends.drainTo(group, MAX_GROUP - 1);
+                write(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void write(List<Append> group) {
+        int size = 0;
+        for (Append append : group) {
+            size += append.record.length + 1;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (Append append : group) {
+            buffer.put(append.record).put((byte) '\n');
+        }
+        buffer.flip();
+
+        fileLock.lock();
+        try {
+            long position = durableEnd;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+            durableEnd = position;
+        } catch (IOException e) {
+            System.err.println("Failed to write booking queue: " + e.getMessage());
+            // Drop whatever part of the group made it into the file; none of it is acknowledged
+            try {
+                channel.truncate(durableEnd);
+            } catch (IOException ignored) {
+                // The next startup cuts a partial record off anyway
+            }
+            for (Append append : group) {
+                append.done.completeExceptionally(e);
+            }
+            return;
+        } finally {
+            fileLock.unlock();
+        }
+        for (Append append : group) {
+            append.done.complete(null);
+        }
+    }
+
+    // Offset just past the last complete record
+    private long lastRecordEnd(long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = size;
+        while (position > 0) {
+            int length = (int) Math.min(buffer.capacity(), position);
+            position -= length;
+            buffer.clear();
+            buffer.limit(length);
+            channel.read(buffer, position);
+            for (int i = length - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+        }
+        return 0;
+    }
+}
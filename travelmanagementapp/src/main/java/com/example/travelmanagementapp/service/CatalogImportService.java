@@ -0,0 +1,463 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.DTO.ImportResult;
+import com.example.travelmanagementapp.model.Destination;
+import com.example.travelmanagementapp.model.Hotel;
+import com.example.travelmanagementapp.model.Restaurant;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import of destinations, hotels and restaurants from CSV or NDJSON.
+ *
+ * Input is parsed one row at a time and collected into chunks of {@link #CHUNK_SIZE}.
+ * Each chunk resolves its destination/package references with one IN query per table
+ * and is persisted in its own transaction. Ids come from pooled sequences, so Hibernate
+ * writes the chunk as JDBC batches ({@code hibernate.jdbc.batch_size}); the persistence
+ * context is cleared after every chunk, so memory use does not grow with the file. Rows that fail validation are reported with
+ * their line number and skipped; the rest of the file is still imported. If the database rejects a
+ * chunk, its rows are retried one per transaction so only the rows it rejects are reported.
+ *
+ * Imported destinations are added to the search index as each chunk commits, and the cached
+ * destinations and packages that own imported hotels and restaurants are evicted.
+ */
+@Service
+public class CatalogImportService {
+
+    public static final int CHUNK_SIZE = 1000;
+
+    private enum EntityType {
+        DESTINATIONS, HOTELS, RESTAURANTS
+    }
+
+    // A parsed row waiting for its chunk to be validated and written
+    private static class PendingRow {
+        final long line;
+        final Object[] values;
+        final Long destinationId;
+        final Long packageId;
+
+        PendingRow(long line, Object[] values, Long destinationId, Long packageId) {
+            this.line = line;
+            this.values = values;
+            this.destinationId = destinationId;
+            this.packageId = packageId;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogLookupService catalogLookupService;
+
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Autowired
+    private DemandIndex demandIndex;
+
+    /**
+     * Imports every row of {@code input}. {@code format} is "csv" (header row required)
+     * or "ndjson" (one JSON object per line). Field names match the create endpoints:
+     * name, country, description, imagePath for destinations; name, location,
+     * pricePerNight, address, destinationId, packageId for hotels; name, location,
+     * address, cuisine, cuisineType, destinationId, packageId for restaurants.
+     */
+    public ImportResult importCatalog(String entityType, String format, InputStream input, String username) throws IOException {
+        // Validate that the user is an admin, once for the whole import
+        User user = catalogLookupService.findUserByUsername(username)
+            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        if (!"ADMIN".equals(user.getRole())) {
+            throw new IllegalStateException("Only admin users can import catalog data");
+        }
+
+        EntityType type = parseEntityType(entityType);
+        ImportResult result = new ImportResult(type.name().toLowerCase(Locale.ROOT));
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+
+        Long defaultPackageId = null;
+        if (type != EntityType.DESTINATIONS) {
+            // Same fallback as the single-row endpoints: rows without a package go to the first one
+            defaultPackageId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM travel_package", Long.class);
+        }
+
+        List<PendingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        Iterator<Map.Entry<Long, Map<String, String>>> rows = "ndjson".equalsIgnoreCase(format)
+            ? ndjsonRows(reader, result)
+            : csvRows(reader);
+        while (rows.hasNext()) {
+            Map.Entry<Long, Map<String, String>> row = rows.next();
+            result.incrementRowsRead();
+            try {
+                chunk.add(toPendingRow(type, row.getKey(), row.getValue(), defaultPackageId));
+            } catch (IllegalArgumentException e) {
+                result.addError(row.getKey(), e.getMessage());
+            }
+            if (chunk.size() >= CHUNK_SIZE) {
+                writeChunk(type, chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(type, chunk, result);
+        }
+        return result;
+    }
+
+    private static EntityType parseEntityType(String entityType) {
+        if (entityType != null) {
+            for (EntityType type : EntityType.values()) {
+                if (type.name().equalsIgnoreCase(entityType)) {
+                    return type;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported entity type: " + entityType);
+    }
+
+    private PendingRow toPendingRow(EntityType type, long line, Map<String, String> fields, Long defaultPackageId) {
+        switch (type) {
+            case DESTINATIONS:
+                return new PendingRow(line, new Object[] {
+                    required(fields, "name"),
+                    required(fields, "country"),
+                    optional(fields, "description"),
+                    optional(fields, "imagePath")
+                }, null, null);
+            case HOTELS: {
+                String name = required(fields, "name");
+                String location = required(fields, "location");
+                double pricePerNight = parseDouble(required(fields, "pricePerNight"), "pricePerNight");
+                if (pricePerNight < 0) {
+                    throw new IllegalArgumentException("pricePerNight must not be negative");
+                }
+                String address = required(fields, "address");
+                Long destinationId = parseId(optional(fields, "destinationId"), "destinationId");
+                Long packageId = packageId(fields, defaultPackageId);
+                return new PendingRow(line, new Object[] {
+                    name, location, pricePerNight, address
+                }, destinationId, packageId);
+            }
+            case RESTAURANTS: {
+                String name = required(fields, "name");
+                String location = required(fields, "location");
+                String address = required(fields, "address");
+                String cuisine = required(fields, "cuisine");
+                String cuisineType = required(fields, "cuisineType");
+                Long destinationId = parseId(optional(fields, "destinationId"), "destinationId");
+                Long packageId = packageId(fields, defaultPackageId);
+                return new PendingRow(line, new Object[] {
+                    name, location, address, cuisine, cuisineType
+                }, destinationId, packageId);
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported entity type: " + type);
+        }
+    }
+
+    private static Long packageId(Map<String, String> fields, Long defaultPackageId) {
+        Long packageId = parseId(optional(fields, "packageId"), "packageId");
+        if (packageId != null) {
+            return packageId;
+        }
+        if (defaultPackageId == null) {
+            throw new IllegalArgumentException("No travel packages available. Please create a travel package first.");
+        }
+        return defaultPackageId;
+    }
+
+    // Checks the chunk's references with one query per table, then persists the valid rows
+    private void writeChunk(EntityType type, List<PendingRow> chunk, ImportResult result) {
+        Set<Long> destinationIds = new HashSet<>();
+        Set<Long> packageIds = new HashSet<>();
+        for (PendingRow row : chunk) {
+            if (row.destinationId != null) destinationIds.add(row.destinationId);
+            if (row.packageId != null) packageIds.add(row.packageId);
+        }
+        Set<Long> knownDestinations = existingIds("destination", destinationIds);
+        Set<Long> knownPackages = existingIds("travel_package", packageIds);
+
+        List<PendingRow> batch = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            if (row.destinationId != null && !knownDestinations.contains(row.destinationId)) {
+                result.addError(row.line, "Destination not found: " + row.destinationId);
+            } else if (row.packageId != null && !knownPackages.contains(row.packageId)) {
+                result.addError(row.line, "Travel package not found: " + row.packageId);
+            } else {
+                batch.add(row);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(type, batch));
+            result.addRowsImported(batch.size());
+        } catch (RuntimeException e) {
+            // One bad row rolls back the whole chunk; retry row by row to find it
+            for (PendingRow row : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(type, List.of(row)));
+                    result.addRowsImported(1);
+                } catch (RuntimeException rowError) {
+                    result.addError(row.line, "Could not save row: " + rootMessage(rowError));
+                }
+            }
+        }
+    }
+
+    // Index and cache updates are registered on the transaction, so they only apply if it commits
+    private void persist(EntityType type, List<PendingRow> rows) {
+        Set<Long> ownerDestinations = new HashSet<>();
+        Set<Long> ownerPackages = new HashSet<>();
+        for (PendingRow row : rows) {
+            Object entity = toEntity(type, row);
+            entityManager.persist(entity);
+            if (type == EntityType.DESTINATIONS) {
+                catalogSearchIndex.indexDestination((Destination) entity);
+            } else {
+                ownerDestinations.add(row.destinationId);
+                ownerPackages.add(row.packageId);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        for (Long destinationId : ownerDestinations) {
+            catalogLookupService.evictDestination(destinationId);
+        }
+        for (Long packageId : ownerPackages) {
+            catalogLookupService.evictTravelPackage(packageId);
+            if (type == EntityType.HOTELS) {
+                demandIndex.evictPackage(packageId);
+            }
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private Object toEntity(EntityType type, PendingRow row) {
+        Object[] v = row.values;
+        Destination destination = row.destinationId != null
+            ? entityManager.getReference(Destination.class, row.destinationId) : null;
+        TravelPackage travelPackage = row.packageId != null
+            ? entityManager.getReference(TravelPackage.class, row.packageId) : null;
+        switch (type) {
+            case DESTINATIONS: {
+                Destination entity = new Destination();
+                entity.setName((String) v[0]);
+                entity.setCountry((String) v[1]);
+                entity.setDescription((String) v[2]);
+                entity.setImagePath((String) v[3]);
+                return entity;
+            }
+            case HOTELS: {
+                Hotel entity = new Hotel();
+                entity.setName((String) v[0]);
+                entity.setLocation((String) v[1]);
+                entity.setPricePerNight((Double) v[2]);
+                entity.setAddress((String) v[3]);
+                entity.setDestination(destination);
+                entity.setTravelPackage(travelPackage);
+                return entity;
+            }
+            case RESTAURANTS: {
+                Restaurant entity = new Restaurant();
+                entity.setName((String) v[0]);
+                entity.setLocation((String) v[1]);
+                entity.setAddress((String) v[2]);
+                entity.setCuisine((String) v[3]);
+                entity.setCuisineType((String) v[4]);
+                entity.setDestination(destination);
+                entity.setTravelPackage(travelPackage);
+                return entity;
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported entity type: " + type);
+        }
+    }
+
+    private Set<Long> existingIds(String table, Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+            "SELECT id FROM " + table + " WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids), Long.class));
+    }
+
+    // Rows keyed by the line they start on
+    private static Iterator<Map.Entry<Long, Map<String, String>>> csvRows(BufferedReader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return List.<Map.Entry<Long, Map<String, String>>>of().iterator();
+        }
+        List<String> columns = new ArrayList<>(header.size());
+        for (String column : header) {
+            // Tolerate a UTF-8 byte order mark in front of the first column
+            columns.add(column.replace("\uFEFF", "").trim());
+        }
+
+        return new Iterator<>() {
+            private List<String> next = readNext();
+
+            private List<String> readNext() {
+                try {
+                    return csv.readRecord();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Map.Entry<Long, Map<String, String>> next() {
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < columns.size() && i < next.size(); i++) {
+                    fields.put(columns.get(i), next.get(i));
+                }
+                Map.Entry<Long, Map<String, String>> row = Map.entry(csv.getRecordLine(), fields);
+                next = readNext();
+                return row;
+            }
+        };
+    }
+
+    // Lines that are not valid JSON objects are reported and skipped
+    private Iterator<Map.Entry<Long, Map<String, String>>> ndjsonRows(BufferedReader reader, ImportResult result) {
+        return new Iterator<>() {
+            private long lineNumber = 0;
+            private Map.Entry<Long, Map<String, String>> next = readNext();
+
+            private Map.Entry<Long, Map<String, String>> readNext() {
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        lineNumber++;
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        try {
+                            JsonNode node = objectMapper.readTree(line);
+                            if (!node.isObject()) {
+                                throw new IOException("expected a JSON object");
+                            }
+                            Map<String, String> fields = new HashMap<>();
+                            node.fields().forEachRemaining(field -> {
+                                if (!field.getValue().isNull()) {
+                                    fields.put(field.getKey(), field.getValue().asText());
+                                }
+                            });
+                            return Map.entry(lineNumber, fields);
+                        } catch (IOException e) {
+                            result.incrementRowsRead();
+                            result.addError(lineNumber, "Invalid JSON: " + e.getMessage());
+                        }
+                    }
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Map.Entry<Long, Map<String, String>> next() {
+                Map.Entry<Long, Map<String, String>> row = next;
+                next = readNext();
+                return row;
+            }
+        };
+    }
+
+    private static String required(Map<String, String> fields, String name) {
+        String value = optional(fields, name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing required field: " + name);
+        }
+        return value;
+    }
+
+    private static String optional(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    private static double parseDouble(String value, String name) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + name + ": " + value);
+        }
+    }
+
+    private static Long parseId(String value, String name) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid id for " + name + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.CacheConfig;
+import com.example.travelmanagementapp.model.Destination;
+import com.example.travelmanagementapp.model.Hotel;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import com.example.travelmanagementapp.repository.DestinationRepository;
+import com.example.travelmanagementapp.repository.HotelRepository;
+import com.example.travelmanagementapp.repository.TravelPackageRepository;
+import com.example.travelmanagementapp.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cached lookups for the catalog data used on the booking path and for
+ * role checks. Misses are not cached, so newly created rows are visible immediately.
+ *
+ * Entries are evicted by the services that update or delete the underlying rows, once
+ * their transaction commits. Returned entities are detached: use them for reading and as
+ * references, not for updates. The associations callers read are loaded before an entity
+ * is cached: a package's hotels and restaurants, a hotel's package and destination, and a
+ * destination's hotels and restaurants. A user's bookings are not.
+ */
+@Service
+public class CatalogLookupService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_ID, unless = "#result == null")
+    public Optional<User> findUserById(Long id) {
+        return userRepository.findById(id);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_USERNAME, unless = "#result == null")
+    public Optional<User> findUserByUsername(String username) {
+        return userRepository.findByUsername(username);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.TRAVEL_PACKAGES, unless = "#result == null")
+    public Optional<TravelPackage> findTravelPackageById(Long id) {
+        return readOnly(() -> travelPackageRepository.findById(id).map(travelPackage -> {
+            Hibernate.initialize(travelPackage.getHotels());
+            Hibernate.initialize(travelPackage.getRestaurants());
+            return travelPackage;
+        }));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.HOTELS, unless = "#result == null")
+    public Optional<Hotel> findHotelById(Long id) {
+        return readOnly(() -> hotelRepository.findById(id).map(hotel -> {
+            Hibernate.initialize(hotel.getTravelPackage());
+            Hibernate.initialize(hotel.getDestination());
+            return hotel;
+        }));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.DESTINATIONS, unless = "#result == null")
+    public Optional<Destination> findDestinationById(Long id) {
+        return readOnly(() -> destinationRepository.findById(id).map(destination -> {
+            Hibernate.initialize(destination.getHotels());
+            Hibernate.initialize(destination.getRestaurants());
+            return destination;
+        }));
+    }
+
+    /**
+     * Drops the cached destination and package that a hotel or restaurant belongs to, since
+     * both are cached with their hotel and restaurant lists. Either may be null. Inside a
+     * transaction the eviction happens once it commits.
+     */
+    public void evictOwners(Destination destination, TravelPackage travelPackage) {
+        evictDestination(destination != null ? destination.getId() : null);
+        evictTravelPackage(travelPackage != null ? travelPackage.getId() : null);
+    }
+
+    public void evictDestination(Long id) {
+        evict(CacheConfig.DESTINATIONS, id);
+    }
+
+    public void evictTravelPackage(Long id) {
+        evict(CacheConfig.TRAVEL_PACKAGES, id);
+    }
+
+    private void evict(String cacheName, Long key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evict(key);
+        }
+    }
+
+    /**
+     * Hit/miss statistics per cache region.
+     */
+    public Map<String, Map<String, Object>> getCacheStatistics() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TransactionAwareCacheDecorator) {
+                cache = ((TransactionAwareCacheDecorator) cache).getTargetCache();
+            }
+            if (!(cache instanceof CaffeineCache)) {
+                continue;
+            }
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = ((CaffeineCache) cache).getNativeCache();
+            CacheStats stats = nativeCache.stats();
+
+            Map<String, Object> region = new LinkedHashMap<>();
+            region.put("size", nativeCache.estimatedSize());
+            region.put("hits", stats.hitCount());
+            region.put("misses", stats.missCount());
+            region.put("hitRate", stats.hitRate());
+            region.put("evictions", stats.evictionCount());
+            result.put(name, region);
+        }
+        return result;
+    }
+
+    // Lazy associations can only be loaded while the session that read the entity is open
+    private <T> T readOnly(Supplier<T> lookup) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> lookup.get());
+    }
+}
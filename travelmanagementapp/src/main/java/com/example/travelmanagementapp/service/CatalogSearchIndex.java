@@ -0,0 +1,288 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.model.Booking;
+import com.example.travelmanagementapp.model.Destination;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.repository.BookingRepository;
+import com.example.travelmanagementapp.repository.DestinationRepository;
+import com.example.travelmanagementapp.repository.TravelPackageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Keeps an in-memory inverted index over destination and travel package text so
+ * searches do not have to load and scan whole tables, plus a prefix trie over
+ * destination names, countries and package names for typeahead suggestions.
+ *
+ * Both are built once the application is ready and are then updated by the
+ * services that create, update and delete destinations and packages.
+ */
+@Service
+public class CatalogSearchIndex {
+
+    private static final int NAME_WEIGHT = 5;
+    private static final int COUNTRY_WEIGHT = 3;
+    private static final int AGENCY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final int MAX_SUGGESTIONS = 10;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    /**
+     * Ranked matches of one query, split by entity type.
+     */
+    public static final class Hits {
+        private final List<Long> destinationIds;
+        private final List<Long> travelPackageIds;
+
+        Hits(List<Long> destinationIds, List<Long> travelPackageIds) {
+            this.destinationIds = destinationIds;
+            this.travelPackageIds = travelPackageIds;
+        }
+
+        public List<Long> getDestinationIds() { return destinationIds; }
+        public List<Long> getTravelPackageIds() { return travelPackageIds; }
+    }
+
+    // Destinations and packages share one index; the lowest bit of a document id tells them apart
+    private final InvertedIndex catalog = new InvertedIndex();
+    private final SuggestionTrie suggestions = new SuggestionTrie(MAX_SUGGESTIONS);
+
+    // Country suggestions are shared by destinations, so track how many use each one
+    private final Map<Long, String> destinationCountries = new HashMap<>();
+    private final Map<String, Integer> countryCounts = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Long, Long> bookingCounts = new HashMap<>();
+        for (Object[] row : bookingRepository.countBookingsByTravelPackage()) {
+            bookingCounts.put((Long) row[0], (Long) row[1]);
+        }
+
+        catalog.clear();
+        suggestions.clear();
+        synchronized (countryCounts) {
+            destinationCountries.clear();
+            countryCounts.clear();
+        }
+        for (Destination destination : destinationRepository.findAll()) {
+            catalog.put(destinationDocument(destination.getId()), destinationTerms(destination));
+            putDestinationSuggestions(destination.getId(), destination.getName(), destination.getCountry());
+        }
+
+        for (TravelPackage travelPackage : travelPackageRepository.findAll()) {
+            if (!Boolean.TRUE.equals(travelPackage.getIsPersonalBooking())) {
+                catalog.put(packageDocument(travelPackage.getId()), travelPackageTerms(travelPackage));
+                suggestions.put(new SuggestionTrie.Suggestion(packageKey(travelPackage.getId()), travelPackage.getName(),
+                    "package", travelPackage.getId(), bookingCounts.getOrDefault(travelPackage.getId(), 0L)));
+            }
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} completions for a partially typed query, most popular first.
+     */
+    public List<SuggestionTrie.Suggestion> suggest(String prefix, int limit) {
+        return suggestions.suggest(prefix, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    /**
+     * Bumps the popularity of the booked package so it ranks higher in suggestions.
+     */
+    public void recordBooking(Booking booking) {
+        if (booking.getTravelPackage() != null && booking.getTravelPackage().getId() != null) {
+            String key = packageKey(booking.getTravelPackage().getId());
+            afterCommit(() -> suggestions.addWeight(key, 1));
+        }
+    }
+
+    /**
+     * Runs the query once over destinations and packages, best match first within each type.
+     */
+    public Hits search(String query) {
+        List<Long> destinationIds = new ArrayList<>();
+        List<Long> travelPackageIds = new ArrayList<>();
+        for (long document : catalog.search(query)) {
+            if ((document & 1) == 0) {
+                destinationIds.add(document >>> 1);
+            } else {
+                travelPackageIds.add(document >>> 1);
+            }
+        }
+        return new Hits(destinationIds, travelPackageIds);
+    }
+
+    // One entity type only: documents of the other type are skipped before they are scored
+    public List<Long> searchDestinationIds(String query) {
+        return entityIds(catalog.search(query, CatalogSearchIndex::isDestination));
+    }
+
+    public List<Long> searchTravelPackageIds(String query) {
+        return entityIds(catalog.search(query, document -> !isDestination(document)));
+    }
+
+    public int countDestinations(String query) {
+        return catalog.count(query, CatalogSearchIndex::isDestination);
+    }
+
+    public int countTravelPackages(String query) {
+        return catalog.count(query, document -> !isDestination(document));
+    }
+
+    private static boolean isDestination(long document) {
+        return (document & 1) == 0;
+    }
+
+    private static List<Long> entityIds(List<Long> documents) {
+        List<Long> ids = new ArrayList<>(documents.size());
+        for (long document : documents) {
+            ids.add(document >>> 1);
+        }
+        return ids;
+    }
+
+    public void indexDestination(Destination destination) {
+        Long id = destination.getId();
+        String name = destination.getName();
+        String country = destination.getCountry();
+        Map<String, Integer> terms = destinationTerms(destination);
+        afterCommit(() -> {
+            catalog.put(destinationDocument(id), terms);
+            putDestinationSuggestions(id, name, country);
+        });
+    }
+
+    public void removeDestination(Long id) {
+        afterCommit(() -> {
+            catalog.remove(destinationDocument(id));
+            suggestions.remove(destinationKey(id));
+            releaseCountry(id);
+        });
+    }
+
+    public void indexTravelPackage(TravelPackage travelPackage) {
+        Long id = travelPackage.getId();
+        // Personal destination-booking packages are private and never show up in search
+        if (Boolean.TRUE.equals(travelPackage.getIsPersonalBooking())) {
+            removeTravelPackage(id);
+            return;
+        }
+        String name = travelPackage.getName();
+        Map<String, Integer> terms = travelPackageTerms(travelPackage);
+        afterCommit(() -> {
+            catalog.put(packageDocument(id), terms);
+            // Keep the popularity the package has earned so far
+            SuggestionTrie.Suggestion existing = suggestions.get(packageKey(id));
+            long weight = existing != null ? existing.getWeight() : 0;
+            suggestions.put(new SuggestionTrie.Suggestion(packageKey(id), name, "package", id, weight));
+        });
+    }
+
+    public void removeTravelPackage(Long id) {
+        afterCommit(() -> {
+            catalog.remove(packageDocument(id));
+            suggestions.remove(packageKey(id));
+        });
+    }
+
+    private void putDestinationSuggestions(Long id, String name, String country) {
+        SuggestionTrie.Suggestion existing = suggestions.get(destinationKey(id));
+        long weight = existing != null ? existing.getWeight() : 0;
+        suggestions.put(new SuggestionTrie.Suggestion(destinationKey(id), name, "destination", id, weight));
+
+        releaseCountry(id);
+        if (country == null || country.isBlank()) {
+            return;
+        }
+        String countryKey = countryKey(country);
+        synchronized (countryCounts) {
+            destinationCountries.put(id, countryKey);
+            int count = countryCounts.merge(countryKey, 1, Integer::sum);
+            suggestions.put(new SuggestionTrie.Suggestion(countryKey, country.trim(), "country", null, count));
+        }
+    }
+
+    private void releaseCountry(Long destinationId) {
+        synchronized (countryCounts) {
+            String countryKey = destinationCountries.remove(destinationId);
+            if (countryKey == null) {
+                return;
+            }
+            int count = countryCounts.merge(countryKey, -1, Integer::sum);
+            if (count <= 0) {
+                countryCounts.remove(countryKey);
+                suggestions.remove(countryKey);
+            } else {
+                suggestions.addWeight(countryKey, -1);
+            }
+        }
+    }
+
+    private static long destinationDocument(Long id) {
+        return id << 1;
+    }
+
+    private static long packageDocument(Long id) {
+        return (id << 1) | 1;
+    }
+
+    private static String destinationKey(Long id) {
+        return "destination:" + id;
+    }
+
+    private static String packageKey(Long id) {
+        return "package:" + id;
+    }
+
+    private static String countryKey(String country) {
+        return "country:" + country.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Map<String, Integer> destinationTerms(Destination destination) {
+        Map<String, Integer> terms = new HashMap<>();
+        InvertedIndex.addField(terms, destination.getName(), NAME_WEIGHT);
+        InvertedIndex.addField(terms, destination.getCountry(), COUNTRY_WEIGHT);
+        InvertedIndex.addField(terms, destination.getDescription(), DESCRIPTION_WEIGHT);
+        return terms;
+    }
+
+    private Map<String, Integer> travelPackageTerms(TravelPackage travelPackage) {
+        Map<String, Integer> terms = new HashMap<>();
+        InvertedIndex.addField(terms, travelPackage.getName(), NAME_WEIGHT);
+        InvertedIndex.addField(terms, travelPackage.getTravelAgencyName(), AGENCY_WEIGHT);
+        InvertedIndex.addField(terms, travelPackage.getDescription(), DESCRIPTION_WEIGHT);
+        return terms;
+    }
+
+    // Only touch the index once the surrounding transaction (if any) has committed
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
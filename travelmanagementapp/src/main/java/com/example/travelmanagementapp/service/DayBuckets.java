@@ -0,0 +1,122 @@
+package com.example.travelmanagementapp.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Per-day counters for many keys (destination or hotel ids). The days of a key are held in
+ * pages of {@value #PAGE_DAYS} consecutive days, each a primitive int array indexed by day
+ * offset, created the first time one of its days is counted. Reading or updating a day is
+ * one hash lookup for the page plus an array access, and memory grows with the number of
+ * key-months that actually have bookings rather than with keys times calendar length.
+ *
+ * Thread-safe: updates are atomic per day, and readers see each day's latest count.
+ */
+public class DayBuckets {
+
+    static final int PAGE_DAYS = 64;
+    private static final int PAGE_BITS = 16;
+    private static final long MAX_KEY = (1L << (63 - PAGE_BITS)) - 1;
+
+    private final ConcurrentHashMap<Long, AtomicIntegerArray> pages = new ConcurrentHashMap<>();
+
+    public void add(long key, LocalDate day, int delta) {
+        long epochDay = day.toEpochDay();
+        if (!inRange(key, epochDay)) {
+            return;
+        }
+        pages.computeIfAbsent(pageKey(key, epochDay), k -> new AtomicIntegerArray(PAGE_DAYS))
+            .addAndGet((int) (epochDay % PAGE_DAYS), delta);
+    }
+
+    /**
+     * Adds {@code delta} to every day from {@code from} up to, not including, {@code to}.
+     */
+    public void addRange(long key, LocalDate from, LocalDate to, int delta) {
+        for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+            add(key, day, delta);
+        }
+    }
+
+    public int get(long key, LocalDate day) {
+        long epochDay = day.toEpochDay();
+        if (!inRange(key, epochDay)) {
+            return 0;
+        }
+        AtomicIntegerArray page = pages.get(pageKey(key, epochDay));
+        return page != null ? page.get((int) (epochDay % PAGE_DAYS)) : 0;
+    }
+
+    /**
+     * Counts of the days from {@code from} up to, not including, {@code to}.
+     */
+    public int[] series(long key, LocalDate from, LocalDate to) {
+        long start = from.toEpochDay();
+        int[] counts = new int[(int) Math.max(0, to.toEpochDay() - start)];
+        AtomicIntegerArray page = null;
+        long pageKey = -1;
+        for (int i = 0; i < counts.length; i++) {
+            long epochDay = start + i;
+            if (!inRange(key, epochDay)) {
+                continue;
+            }
+            // One lookup per page rather than per day
+            long currentKey = pageKey(key, epochDay);
+            if (currentKey != pageKey) {
+                pageKey = currentKey;
+                page = pages.get(currentKey);
+            }
+            if (page != null) {
+                counts[i] = page.get((int) (epochDay % PAGE_DAYS));
+            }
+        }
+        return counts;
+    }
+
+    public long sum(long key, LocalDate from, LocalDate to) {
+        long total = 0;
+        for (int count : series(key, from, to)) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Calls {@code visitor} with every day of {@code key} that has a non-zero count. Walks all
+     * pages of all keys, so it is meant for rare maintenance rather than reads.
+     */
+    public void forEachDay(long key, ObjIntConsumer<LocalDate> visitor) {
+        if (key < 0 || key > MAX_KEY) {
+            return;
+        }
+        for (Map.Entry<Long, AtomicIntegerArray> entry : pages.entrySet()) {
+            if (entry.getKey() >>> PAGE_BITS != key) {
+                continue;
+            }
+            long firstDay = (entry.getKey() & ((1L << PAGE_BITS) - 1)) * PAGE_DAYS;
+            AtomicIntegerArray page = entry.getValue();
+            for (int i = 0; i < PAGE_DAYS; i++) {
+                int count = page.get(i);
+                if (count != 0) {
+                    visitor.accept(LocalDate.ofEpochDay(firstDay + i), count);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        pages.clear();
+    }
+
+    private static boolean inRange(long key, long epochDay) {
+        return key >= 0 && key <= MAX_KEY && epochDay >= 0 && epochDay / PAGE_DAYS < (1L << PAGE_BITS);
+    }
+
+    // Key and page number packed into one long: 47 bits of id, 16 bits of page (until year ~13000)
+    private static long pageKey(long key, long epochDay) {
+        return (key << PAGE_BITS) | (epochDay / PAGE_DAYS);
+    }
+}
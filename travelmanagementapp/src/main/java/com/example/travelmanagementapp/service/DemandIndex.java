@@ -0,0 +1,351 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.DTO.CancellableBooking;
+import com.example.travelmanagementapp.model.Booking;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bookings bucketed by travel date per destination and per hotel, so demand for a month
+ * at a destination or a hotel's occupancy over a season is read from memory instead of
+ * scanning the booking table. Package bookings count towards the destinations of the
+ * package's hotels; hotel stays also count the rooms they hold on each night.
+ *
+ * Built from the database once the application is ready, then kept up to date by
+ * {@link BookingService} as bookings are created and cancelled. A transaction that changes
+ * the index holds it from just before it commits until the change is applied, and a
+ * rebuild takes its snapshot of the booking table in between such transactions: each
+ * change is then either in the snapshot or applied to the rebuilt buckets, never both or
+ * neither. Bookings made through other nodes only show up here after this node restarts.
+ *
+ * Package bookings are also counted per package. When a package's hotels change, services
+ * evict it and its counts are moved from the destinations it had to the ones it has now,
+ * so later cancellations take them off where they were counted.
+ */
+@Service
+public class DemandIndex {
+
+    private static final int REBUILD_FETCH_SIZE = 1000;
+
+    private static final String BOOKINGS_SQL =
+        "SELECT travel_date, return_date, rooms, hotel_id, destination_id, travel_package_id FROM booking " +
+        "WHERE status <> '" + Booking.CANCELLED + "'";
+
+    private static final String PACKAGE_DESTINATIONS_SQL =
+        "SELECT DISTINCT travel_package_id, destination_id FROM hotel " +
+        "WHERE travel_package_id IS NOT NULL AND destination_id IS NOT NULL";
+
+    private static final String DESTINATIONS_OF_PACKAGE_SQL =
+        "SELECT DISTINCT destination_id FROM hotel WHERE travel_package_id = ? AND destination_id IS NOT NULL";
+
+    // Swapped as a whole on rebuild
+    private static final class Buckets {
+        private final DayBuckets destinationArrivals = new DayBuckets();
+        private final DayBuckets hotelArrivals = new DayBuckets();
+        private final DayBuckets hotelRoomNights = new DayBuckets();
+        // Package bookings without a destination of their own, per package
+        private final DayBuckets packageArrivals = new DayBuckets();
+        // The destinations each package's arrivals are currently counted towards
+        private final Map<Long, long[]> packageDestinations = new ConcurrentHashMap<>();
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Buckets buckets = new Buckets();
+
+    // Set while a rebuild reads the booking table; changes are applied to it as well
+    private volatile Buckets rebuilding;
+
+    // Read: a transaction between its commit and applying its changes. Write: a rebuild
+    // taking its snapshot
+    private final ReentrantReadWriteLock commitLock = new ReentrantReadWriteLock();
+
+    // Held while the buckets, rebuilding and package destinations change
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            // The connection is taken first: transactions waiting on the commit lock hold theirs
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                Buckets rebuilt = new Buckets();
+                try (PreparedStatement statement = connection.prepareStatement(
+                        BOOKINGS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    statement.setFetchSize(REBUILD_FETCH_SIZE);
+                    ResultSet rows;
+                    commitLock.writeLock().lock();
+                    try {
+                        readPackageDestinations(connection, rebuilt);
+                        rows = statement.executeQuery();
+                        setRebuilding(rebuilt);
+                    } finally {
+                        commitLock.writeLock().unlock();
+                    }
+                    try (rows) {
+                        while (rows.next()) {
+                            readBooking(rows, rebuilt);
+                        }
+                    }
+                    locked(() -> buckets = rebuilt);
+                } finally {
+                    setRebuilding(null);
+                }
+                return null;
+            });
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Moves the counts of {@code packageId}'s bookings to the destinations of its current
+     * hotels, once the caller's transaction commits. Call after adding, moving or deleting
+     * one of its hotels.
+     */
+    public void evictPackage(Long packageId) {
+        if (packageId != null) {
+            afterCommit(() -> {
+                long[] destinations = queryDestinationsOf(packageId);
+                locked(() -> {
+                    redistribute(buckets, packageId, destinations);
+                    if (rebuilding != null) {
+                        redistribute(rebuilding, packageId, destinations);
+                    }
+                });
+            });
+        }
+    }
+
+    private void setRebuilding(Buckets rebuilt) {
+        locked(() -> rebuilding = rebuilt);
+    }
+
+    private void readPackageDestinations(Connection connection, Buckets target) throws SQLException {
+        Map<Long, List<Long>> destinationsByPackage = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(PACKAGE_DESTINATIONS_SQL);
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                destinationsByPackage.computeIfAbsent(rows.getLong(1), k -> new ArrayList<>()).add(rows.getLong(2));
+            }
+        }
+        for (Map.Entry<Long, List<Long>> entry : destinationsByPackage.entrySet()) {
+            long[] destinations = toArray(entry.getValue());
+            Arrays.sort(destinations);
+            target.packageDestinations.put(entry.getKey(), destinations);
+        }
+    }
+
+    private void readBooking(ResultSet row, Buckets rebuilt) throws SQLException {
+        LocalDate travelDate = row.getDate(1).toLocalDate();
+        Date returnDate = row.getDate(2);
+        int rooms = row.getInt(3);
+        if (row.wasNull()) {
+            rooms = 1;
+        }
+        Long hotelId = idOrNull(row, 4);
+        Long destinationId = idOrNull(row, 5);
+        Long packageId = idOrNull(row, 6);
+        if (destinationId == null && packageId != null) {
+            // Outside the lock: its query needs a second connection
+            destinationsOf(rebuilt, packageId);
+        }
+        // Changes that committed after the snapshot are applied to the same buckets meanwhile
+        int bookedRooms = rooms;
+        locked(() -> apply(rebuilt, travelDate, returnDate != null ? returnDate.toLocalDate() : null, bookedRooms,
+            hotelId, destinationId, packageId, 1));
+    }
+
+    /**
+     * Counts a new booking once its transaction commits.
+     */
+    public void recordBooking(Booking booking) {
+        update(booking, 1);
+    }
+
+    /**
+     * Takes a cancelled booking out again once its transaction commits.
+     */
+    public void removeBooking(CancellableBooking booking) {
+        update(booking.getTravelDate(), booking.getReturnDate(), booking.getRooms(),
+            booking.getHotelId(), booking.getDestinationId(), booking.getTravelPackageId(), -1);
+    }
+
+    /**
+     * Bookings per travel date at a destination, for the days from {@code from} up to, not
+     * including, {@code to}.
+     */
+    public int[] getDestinationArrivals(Long destinationId, LocalDate from, LocalDate to) {
+        return buckets.destinationArrivals.series(destinationId, from, to);
+    }
+
+    public long countDestinationArrivals(Long destinationId, LocalDate from, LocalDate to) {
+        return buckets.destinationArrivals.sum(destinationId, from, to);
+    }
+
+    public int[] getHotelArrivals(Long hotelId, LocalDate from, LocalDate to) {
+        return buckets.hotelArrivals.series(hotelId, from, to);
+    }
+
+    /**
+     * Rooms held by hotel stays on each night from {@code from} up to, not including, {@code to}.
+     */
+    public int[] getHotelRoomNights(Long hotelId, LocalDate from, LocalDate to) {
+        return buckets.hotelRoomNights.series(hotelId, from, to);
+    }
+
+    private void update(Booking booking, int delta) {
+        update(booking.getTravelDate(), booking.getReturnDate(), booking.getRooms(),
+            booking.getHotel() != null ? booking.getHotel().getId() : null,
+            booking.getDestination() != null ? booking.getDestination().getId() : null,
+            booking.getTravelPackage() != null ? booking.getTravelPackage().getId() : null, delta);
+    }
+
+    private void update(LocalDate travelDate, LocalDate returnDate, Integer bookedRooms,
+            Long hotelId, Long destinationId, Long packageId, int delta) {
+        if (travelDate == null) {
+            return;
+        }
+        int rooms = bookedRooms != null ? bookedRooms : 1;
+        if (destinationId == null && packageId != null) {
+            // Resolved now, while the caller's transaction still holds a connection
+            destinationsOf(buckets, packageId);
+        }
+        afterCommit(() -> locked(() -> {
+            apply(buckets, travelDate, returnDate, rooms, hotelId, destinationId, packageId, delta);
+            if (rebuilding != null) {
+                apply(rebuilding, travelDate, returnDate, rooms, hotelId, destinationId, packageId, delta);
+            }
+        }));
+    }
+
+    private void apply(Buckets target, LocalDate travelDate, LocalDate returnDate, int rooms,
+            Long hotelId, Long destinationId, Long packageId, int delta) {
+        if (destinationId != null) {
+            target.destinationArrivals.add(destinationId, travelDate, delta);
+        } else if (packageId != null) {
+            target.packageArrivals.add(packageId, travelDate, delta);
+            for (long packageDestination : destinationsOf(target, packageId)) {
+                target.destinationArrivals.add(packageDestination, travelDate, delta);
+            }
+        }
+        if (hotelId != null) {
+            target.hotelArrivals.add(hotelId, travelDate, delta);
+            if (returnDate != null) {
+                target.hotelRoomNights.addRange(hotelId, travelDate, returnDate, delta * rooms);
+            }
+        }
+    }
+
+    // Takes the package's arrivals off the destinations they were counted towards and adds
+    // them to its current ones
+    private void redistribute(Buckets target, Long packageId, long[] destinations) {
+        long[] previous = target.packageDestinations.put(packageId, destinations);
+        if (previous == null || Arrays.equals(previous, destinations)) {
+            return;
+        }
+        target.packageArrivals.forEachDay(packageId, (day, count) -> {
+            for (long destination : previous) {
+                target.destinationArrivals.add(destination, day, -count);
+            }
+            for (long destination : destinations) {
+                target.destinationArrivals.add(destination, day, count);
+            }
+        });
+    }
+
+    // Packages created after the rebuild are looked up on their first booking; until one has
+    // been counted its entry may be filled in at any time, since nothing depends on it yet
+    private long[] destinationsOf(Buckets target, Long packageId) {
+        return target.packageDestinations.computeIfAbsent(packageId, this::queryDestinationsOf);
+    }
+
+    private long[] queryDestinationsOf(Long packageId) {
+        long[] destinations = toArray(jdbcTemplate.queryForList(DESTINATIONS_OF_PACKAGE_SQL, Long.class, packageId));
+        Arrays.sort(destinations);
+        return destinations;
+    }
+
+    private static Long idOrNull(ResultSet row, int column) throws SQLException {
+        long id = row.getLong(column);
+        return row.wasNull() ? null : id;
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        long[] array = new long[ids.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = ids.get(i);
+        }
+        return array;
+    }
+
+    // Runs the change once the caller's transaction commits. The transaction holds the commit
+    // lock from just before its commit until the change is applied, so a rebuild cannot take
+    // its snapshot after the commit but before the change reaches the buckets it rebuilds
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean locked;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    commitLock.readLock().lock();
+                    locked = true;
+                }
+
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (locked) {
+                        locked = false;
+                        commitLock.readLock().unlock();
+                    }
+                }
+            });
+        } else {
+            commitLock.readLock().lock();
+            try {
+                change.run();
+            } finally {
+                commitLock.readLock().unlock();
+            }
+        }
+    }
+
+    private void locked(Runnable change) {
+        updateLock.lock();
+        try {
+            change.run();
+        } finally {
+            updateLock.unlock();
+        }
+    }
+}
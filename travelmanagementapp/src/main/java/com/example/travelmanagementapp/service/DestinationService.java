@@ -6,7 +6,10 @@ import com.example.travelmanagementapp.model.Restaurant;
 import com.example.travelmanagementapp.repository.DestinationRepository;
 import com.example.travelmanagementapp.repository.HotelRepository;
 import com.example.travelmanagementapp.repository.RestaurantRepository;
+import com.example.travelmanagementapp.CacheConfig;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -28,6 +31,12 @@ public class DestinationService {
     @Autowired
     private ImageService imageService;
     
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Autowired
+    private DemandIndex demandIndex;
+    
     public List<Destination> getAllDestinations() {
         return destinationRepository.findAll();
     }
@@ -44,6 +53,7 @@ public class DestinationService {
         
         // Save to get an ID
         destination = destinationRepository.save(destination);
+        catalogSearchIndex.indexDestination(destination);
         
         // Handle image upload if provided
         if (image != null && !image.isEmpty()) {
@@ -53,6 +63,7 @@ public class DestinationService {
         return destination;
     }
     
+    @CacheEvict(cacheNames = CacheConfig.DESTINATIONS, key = "#id")
     public Destination updateDestination(Long id, String name, String country, String description, MultipartFile image, String username) throws IOException {
         Destination destination = destinationRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Destination not found with id: " + id));
@@ -74,9 +85,15 @@ public class DestinationService {
             imageService.saveImage(image, "destination", destination.getId());
         }
         
-        return destinationRepository.save(destination);
+        destination = destinationRepository.save(destination);
+        catalogSearchIndex.indexDestination(destination);
+        return destination;
     }
     
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.DESTINATIONS, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.HOTELS, allEntries = true)
+    })
     public void deleteDestination(Long id, String username) {
         Destination destination = destinationRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Destination not found with id: " + id));
@@ -86,9 +103,16 @@ public class DestinationService {
         List<Restaurant> restaurants = restaurantRepository.findByDestinationId(id);
         
         hotelRepository.deleteAll(hotels);
+        for (Hotel hotel : hotels) {
+            if (hotel.getTravelPackage() != null) {
+                demandIndex.evictPackage(hotel.getTravelPackage().getId());
+            }
+        }
         restaurantRepository.deleteAll(restaurants);
         
         destinationRepository.delete(destination);
+        imageService.deleteImagesFor("destination", id);
+        catalogSearchIndex.removeDestination(id);
     }
     
     public List<Hotel> getHotelsByDestination(Long destinationId) {
@@ -0,0 +1,141 @@
+package com.example.travelmanagementapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the responses of requests sent with an {@code Idempotency-Key} header, so a
+ * client retrying a POST gets the first response back instead of creating the same rows
+ * again. A duplicate arriving while the first request is still running waits for its
+ * result rather than executing a second time.
+ *
+ * Keys are held in memory, bounded by {@code app.idempotency.max-keys} and forgotten
+ * {@code app.idempotency.ttl-seconds} after the first request. Server errors are not
+ * remembered so that the request can be retried. Each node keeps its own keys, so a load
+ * balancer should route retries with sticky sessions for the guarantee to span nodes.
+ */
+@Service
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * The first request seen for a key: what it sent and, once finished, what it got.
+     */
+    private static final class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private final Cache<String, Entry> entries;
+
+    private final long waitSeconds;
+
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyStore(
+            @Value("${app.idempotency.max-keys:100000}") long maxKeys,
+            @Value("${app.idempotency.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${app.idempotency.wait-seconds:30}") long waitSeconds,
+            ObjectMapper objectMapper) {
+        this.entries = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+        this.waitSeconds = waitSeconds;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Runs {@code action} once per {@code scope} and key and returns its response; later
+     * requests with the same key get that response again. Without a key the action simply
+     * runs. Reusing a key with a different request body is rejected with 422.
+     */
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = scope + ":" + key;
+        Entry entry = new Entry(fingerprint(request));
+        Entry existing = entries.asMap().putIfAbsent(cacheKey, entry);
+        if (existing != null) {
+            if (!existing.fingerprint.equals(entry.fingerprint)) {
+                return ResponseEntity.status(422).body(HEADER + " was already used for a different request");
+            }
+            return awaitReplay(existing);
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            entries.asMap().remove(cacheKey, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+        // Failed attempts may be retried with the same key; waiting duplicates still get this answer
+        if (response.getStatusCode().is5xxServerError()) {
+            entries.asMap().remove(cacheKey, entry);
+        }
+        entry.response.complete(response);
+        return response;
+    }
+
+    private ResponseEntity<?> awaitReplay(Entry existing) {
+        ResponseEntity<?> original;
+        try {
+            original = existing.response.get(waitSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(409).body("A request with this " + HEADER + " is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(409).body("A request with this " + HEADER + " is still in progress");
+        } catch (ExecutionException e) {
+            return ResponseEntity.status(500).body("Error processing request: " + e.getCause().getMessage());
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(original.getHeaders());
+        headers.set(REPLAYED_HEADER, "true");
+        return new ResponseEntity<>(original.getBody(), headers, original.getStatusCode());
+    }
+
+    // SHA-256 of the request as JSON, so a key cannot replay the response to another request
+    private String fingerprint(Object request) {
+        try {
+            byte[] json = objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request cannot be fingerprinted: " + e.getMessage());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.repository.ImageRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Content-addressed storage for uploaded images. A file is stored once in the
+ * {@link ImageStore} under {@code blobs/<first two hash chars>/<sha256>.<ext>} (file path
+ * {@code uploads/blobs/...} on the Image rows), however many rows point at it, so
+ * uploading the same photo again costs no storage.
+ *
+ * Image rows with the same {@code contentHash} are the references to a blob. A blob is
+ * deleted (with its derivatives) once the last row is gone. Between writing a blob and
+ * committing the Image row that references it, the upload holds a pending reference so
+ * a concurrent delete of another row cannot reclaim the blob underneath it.
+ *
+ * Pending references are per node. When several nodes share a remote store, set
+ * {@code app.images.reclaim-delay-seconds} so reclaiming waits until uploads that
+ * deduplicated against the blob on other nodes have committed their rows.
+ */
+@Service
+public class ImageBlobStore {
+
+    public static final String BLOB_PREFIX = "uploads/blobs/";
+
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * Result of storing an upload.
+     */
+    public static final class StoredBlob {
+        private final String hash;
+        private final String filePath;
+        private final long size;
+        private final boolean duplicate;
+        private final Integer width;
+        private final Integer height;
+
+        StoredBlob(String hash, String filePath, long size, boolean duplicate, Integer width, Integer height) {
+            this.hash = hash;
+            this.filePath = filePath;
+            this.size = size;
+            this.duplicate = duplicate;
+            this.width = width;
+            this.height = height;
+        }
+
+        public String getHash() { return hash; }
+        // Path relative to the working directory, e.g. uploads/blobs/ab/ab12....jpg
+        public String getFilePath() { return filePath; }
+        public long getSize() { return size; }
+        public boolean isDuplicate() { return duplicate; }
+        // Null when the format is not one ImageIO can read the header of
+        public Integer getWidth() { return width; }
+        public Integer getHeight() { return height; }
+    }
+
+    private static final String UPLOADS_PREFIX = "uploads/";
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Value("${app.images.reclaim-delay-seconds:0}")
+    private long reclaimDelaySeconds;
+
+    private final ScheduledExecutorService delayedReclaims = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "image-blob-reclaim");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Per-hash critical sections: store/dedupe and reclaim never interleave for one blob.
+    // Locks rather than monitors, so a virtual thread blocked on the database inside
+    // reclaim does not pin its carrier thread
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final Map<String, Integer> pendingReferences = new ConcurrentHashMap<>();
+
+    public ImageBlobStore() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        delayedReclaims.shutdown();
+    }
+
+    /**
+     * Streams {@code content} to a scratch file while hashing it, then puts it into the store
+     * at its content address, or drops it if that blob already exists. The returned blob holds
+     * a pending reference: save the Image row that points at it, then call
+     * {@link #release(StoredBlob)} (in a finally block).
+     */
+    public StoredBlob store(InputStream content) throws IOException {
+        Files.createDirectories(ImageStore.SCRATCH_DIRECTORY);
+        // Unique temp name, so concurrent uploads of the same file never write the same path
+        Path temp = ImageStore.SCRATCH_DIRECTORY.resolve(UUID.randomUUID() + ".tmp");
+        MessageDigest digest = sha256();
+        long size;
+        try (InputStream in = new DigestInputStream(content, digest)) {
+            size = Files.copy(in, temp);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+
+        try {
+            String key = blobKey(hash, sniffExtension(temp));
+            int[] dimensions = readDimensions(temp);
+            // Once the pending reference is taken no reclaim can delete the blob, so the
+            // (possibly remote) existence check and upload can run outside the lock
+            ReentrantLock lock = lockFor(hash);
+            lock.lock();
+            try {
+                pendingReferences.merge(hash, 1, Integer::sum);
+            } finally {
+                lock.unlock();
+            }
+            boolean duplicate;
+            try {
+                duplicate = imageStore.exists(key);
+                if (!duplicate) {
+                    String contentType = URLConnection.guessContentTypeFromName(key);
+                    imageStore.put(key, temp, contentType != null ? contentType : "application/octet-stream");
+                }
+            } catch (IOException | RuntimeException e) {
+                dropPending(hash);
+                throw e;
+            }
+            return new StoredBlob(hash, UPLOADS_PREFIX + key, size, duplicate,
+                dimensions != null ? dimensions[0] : null, dimensions != null ? dimensions[1] : null);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Call after deleting Image rows: once the transaction commits, every blob among
+     * {@code filePaths} that no row references any more is deleted.
+     */
+    public void reclaimAfterCommit(Iterable<String> filePaths) {
+        for (String filePath : filePaths) {
+            if (filePath == null) {
+                continue;
+            }
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        scheduleReclaim(filePath);
+                    }
+                });
+            } else {
+                scheduleReclaim(filePath);
+            }
+        }
+    }
+
+    /**
+     * Drops the pending reference taken by {@link #store}. Inside a transaction this waits
+     * for it to complete; if the Image row never made it to the database (rollback or a
+     * failed save) and nothing else references the blob, the blob is deleted.
+     */
+    public void release(StoredBlob blob) {
+        String hash = blob.getHash();
+        String filePath = blob.getFilePath();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    dropPending(hash);
+                    if (status != STATUS_COMMITTED) {
+                        scheduleReclaim(filePath);
+                    }
+                }
+            });
+        } else {
+            dropPending(hash);
+            scheduleReclaim(filePath);
+        }
+    }
+
+    public static boolean isBlobPath(String filePath) {
+        return filePath != null && filePath.startsWith(BLOB_PREFIX);
+    }
+
+    private void dropPending(String hash) {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            pendingReferences.computeIfPresent(hash, (key, count) -> count > 1 ? count - 1 : null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void scheduleReclaim(String filePath) {
+        if (reclaimDelaySeconds <= 0) {
+            reclaim(filePath);
+            return;
+        }
+        delayedReclaims.schedule(() -> {
+            try {
+                reclaim(filePath);
+            } catch (RuntimeException e) {
+                System.err.println("Could not reclaim " + filePath + ": " + e.getMessage());
+            }
+        }, reclaimDelaySeconds, TimeUnit.SECONDS);
+    }
+
+    private void reclaim(String filePath) {
+        String key = filePath.startsWith(UPLOADS_PREFIX) ? filePath.substring(UPLOADS_PREFIX.length()) : filePath;
+        if (isBlobPath(filePath)) {
+            String fileName = filePath.substring(filePath.lastIndexOf('/') + 1);
+            int dot = fileName.indexOf('.');
+            String hash = dot > 0 ? fileName.substring(0, dot) : fileName;
+            ReentrantLock lock = lockFor(hash);
+            lock.lock();
+            try {
+                if (pendingReferences.containsKey(hash) || imageRepository.countByContentHash(hash) > 0) {
+                    return;
+                }
+                deleteWithDerivatives(key);
+            } finally {
+                lock.unlock();
+            }
+            return;
+        }
+        // Files stored before the blob store have one row each; remove them with their last row
+        if (imageRepository.countByFilePath(filePath) == 0) {
+            deleteWithDerivatives(key);
+        }
+    }
+
+    private void deleteWithDerivatives(String key) {
+        try {
+            imageDerivativeService.deleteDerivatives(key);
+            imageStore.delete(key);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not delete " + key + ": " + e.getMessage());
+        }
+    }
+
+    private static String blobKey(String hash, String extension) {
+        return "blobs/" + hash.substring(0, 2) + "/" + hash + "." + extension;
+    }
+
+    private ReentrantLock lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    // The extension comes from the content, so identical bytes always map to one address
+    static String sniffExtension(Path file) throws IOException {
+        byte[] header = new byte[12];
+        int read;
+        try (InputStream in = Files.newInputStream(file)) {
+            read = in.readNBytes(header, 0, header.length);
+        }
+        if (read >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return "jpg";
+        }
+        if (read >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G') {
+            return "png";
+        }
+        if (read >= 6 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F' && header[3] == '8') {
+            return "gif";
+        }
+        if (read >= 12 && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return "webp";
+        }
+        if (read >= 2 && header[0] == 'B' && header[1] == 'M') {
+            return "bmp";
+        }
+        return "bin";
+    }
+
+    // Reads width and height from the image header only; the pixels are never decoded
+    static int[] readDimensions(Path file) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return new int[] {reader.getWidth(0), reader.getHeight(0)};
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.travelmanagementapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates resized copies of uploaded images so list pages do not download originals.
+ *
+ * Every size is stored next to the original as {@code <name>_<size>.<ext>} in the
+ * {@link ImageStore} (PNG and GIF uploads become PNG, everything else JPEG). Generation runs on a small bounded pool; when
+ * the queue is full the work is dropped and the original keeps being served until the
+ * derivative is requested, which queues it again.
+ */
+@Service
+public class ImageDerivativeService {
+
+    public enum Size {
+        THUMBNAIL(160), CARD(480), FULL(1600);
+
+        private final int maxDimension;
+
+        Size(int maxDimension) {
+            this.maxDimension = maxDimension;
+        }
+
+        public int getMaxDimension() {
+            return maxDimension;
+        }
+
+        public String suffix() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * Parses a size query parameter; {@code null}, blank and "original" mean no derivative.
+         */
+        public static Size parse(String value) {
+            if (value == null || value.isBlank() || "original".equalsIgnoreCase(value)) {
+                return null;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown image size: " + value);
+            }
+        }
+    }
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    // Resizing is CPU-bound, so this stays a small platform-thread pool in virtual-thread mode too
+    private final ThreadPoolExecutor executor;
+
+    private final ImageStore imageStore;
+
+    // Originals with generation queued or running, so repeated requests do not pile up work
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    // Derivatives known to exist; with a remote store every check would be a round trip
+    private final Cache<String, Boolean> existing = Caffeine.newBuilder()
+        .maximumSize(50000)
+        .expireAfterWrite(Duration.ofMinutes(10))
+        .build();
+
+    // Originals ImageIO could not decode (e.g. CMYK JPEG); they only ever serve themselves, so
+    // they are not checked or queued again. The expiry lets a transient read failure recover
+    private final Cache<String, Boolean> undecodable = Caffeine.newBuilder()
+        .maximumSize(10000)
+        .expireAfterWrite(Duration.ofHours(1))
+        .build();
+
+    public ImageDerivativeService(
+            @Value("${app.images.derivative-threads:2}") int threads,
+            @Value("${app.images.derivative-queue-capacity:200}") int queueCapacity,
+            ImageStore imageStore) {
+        this.imageStore = imageStore;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "image-derivatives-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Queues generation of every size for the given original key. Returns immediately.
+     */
+    public void generateAsync(String original) {
+        if (!isSupported(original) || isUndecodable(original) || !inFlight.add(original)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(original);
+                } catch (Exception e) {
+                    System.err.println("Error generating derivatives for " + original + ": " + e.getMessage());
+                } finally {
+                    inFlight.remove(original);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(original);
+            System.err.println("Derivative queue full, skipping " + original);
+        }
+    }
+
+    /**
+     * Returns the key of the derivative of {@code original} for the given size if it exists.
+     * When it does not (not generated yet, or the original is already smaller), generation
+     * is queued and the original key is returned.
+     */
+    public String resolve(String original, Size size) {
+        if (size == null || isUndecodable(original)) {
+            return original;
+        }
+        String derivative = derivativeKey(original, size);
+        if (exists(derivative)) {
+            return derivative;
+        }
+        // A thumbnail without this size means the original is already small enough
+        if (!isProcessed(original) && imageStore.exists(original)) {
+            generateAsync(original);
+        }
+        return original;
+    }
+
+    /**
+     * True once derivatives have been generated for {@code original}, i.e. its thumbnail exists,
+     * or once it turned out it cannot have any.
+     */
+    public boolean isProcessed(String original) {
+        return isUndecodable(original) || exists(derivativeKey(original, Size.THUMBNAIL));
+    }
+
+    /**
+     * Generates all sizes synchronously. Sizes at least as large as the original are skipped.
+     */
+    public void generate(String original) throws IOException {
+        BufferedImage source;
+        try (InputStream in = imageStore.open(original)) {
+            source = ImageIO.read(in);
+        } catch (IIOException | RuntimeException e) {
+            undecodable.put(original, Boolean.TRUE);
+            throw e;
+        }
+        if (source == null) {
+            // Not a format ImageIO can decode (e.g. SVG or WebP), serve the original only
+            undecodable.put(original, Boolean.TRUE);
+            return;
+        }
+        for (Size size : Size.values()) {
+            String target = derivativeKey(original, size);
+            if (imageStore.exists(target)) {
+                continue;
+            }
+            int longest = Math.max(source.getWidth(), source.getHeight());
+            // The thumbnail is always written, it also marks the original as processed
+            if (longest <= size.getMaxDimension() && size != Size.THUMBNAIL) {
+                continue;
+            }
+            double scale = Math.min(1.0, (double) size.getMaxDimension() / longest);
+            int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+            write(resize(source, width, height, keepsAlpha(original)), target, keepsAlpha(original));
+        }
+    }
+
+    /**
+     * Deletes every derivative of {@code original} from the store.
+     */
+    public void deleteDerivatives(String original) throws IOException {
+        undecodable.invalidate(original);
+        for (Size size : Size.values()) {
+            String derivative = derivativeKey(original, size);
+            existing.invalidate(derivative);
+            imageStore.delete(derivative);
+        }
+    }
+
+    public static String derivativeKey(String original, Size size) {
+        int slash = original.lastIndexOf('/');
+        int dot = original.lastIndexOf('.');
+        String stem = dot > slash + 1 ? original.substring(0, dot) : original;
+        String extension = keepsAlpha(original) ? "png" : "jpg";
+        return stem + "_" + size.suffix() + "." + extension;
+    }
+
+    private boolean exists(String key) {
+        if (existing.getIfPresent(key) != null) {
+            return true;
+        }
+        if (!imageStore.exists(key)) {
+            return false;
+        }
+        existing.put(key, Boolean.TRUE);
+        return true;
+    }
+
+    private boolean isUndecodable(String original) {
+        return undecodable.getIfPresent(original) != null;
+    }
+
+    private static boolean isSupported(String original) {
+        String name = original.toLowerCase(Locale.ROOT);
+        return name.endsWith(".jpg") || name.endsWith(".jpeg") || name.endsWith(".png")
+            || name.endsWith(".gif") || name.endsWith(".bmp");
+    }
+
+    private static boolean keepsAlpha(String original) {
+        String name = original.toLowerCase(Locale.ROOT);
+        return name.endsWith(".png") || name.endsWith(".gif");
+    }
+
+    // Halves the image until it is within 2x of the target, then does a final bilinear pass;
+    // a single large bilinear step would skip most source pixels and look aliased
+    private static BufferedImage resize(BufferedImage source, int width, int height, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    // Encodes into local scratch space, then puts the finished file into the store in one go,
+    // so a half-written derivative is never served
+    private void write(BufferedImage image, String target, boolean png) throws IOException {
+        Files.createDirectories(ImageStore.SCRATCH_DIRECTORY);
+        Path temp = Files.createTempFile(ImageStore.SCRATCH_DIRECTORY, "derivative", ".tmp");
+        try {
+            if (png) {
+                ImageIO.write(image, "png", temp.toFile());
+            } else {
+                writeJpeg(image, temp);
+            }
+            imageStore.put(target, temp, png ? "image/png" : "image/jpeg");
+            existing.put(target, Boolean.TRUE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG writer available");
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
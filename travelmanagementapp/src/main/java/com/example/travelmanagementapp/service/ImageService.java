@@ -4,7 +4,12 @@ import com.example.travelmanagementapp.model.Image;
 import com.example.travelmanagementapp.model.User;
 import com.example.travelmanagementapp.repository.ImageRepository;
 import com.example.travelmanagementapp.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
@@ -13,35 +18,121 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 @Service
 public class ImageService {
+
+    /**
+     * A file ready to be served, with the validators and content type resolved once and cached.
+     */
+    public static final class ServedFile {
+        private final Resource resource;
+        private final Path path;
+        private final String contentType;
+        private final String etag;
+        private final long lastModified;
+        private final long length;
+        private final boolean contentAddressed;
+        private final boolean fallback;
+
+        ServedFile(Resource resource, Path path, String contentType, String etag, long lastModified, long length,
+                   boolean contentAddressed, boolean fallback) {
+            this.resource = resource;
+            this.path = path;
+            this.contentType = contentType;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.contentAddressed = contentAddressed;
+            this.fallback = fallback;
+        }
+
+        public Resource getResource() { return resource; }
+        public Path getPath() { return path; }
+        public String getContentType() { return contentType; }
+        public String getEtag() { return etag; }
+        public long getLastModified() { return lastModified; }
+        public long getLength() { return length; }
+
+        /**
+         * True when the bytes behind this URL can never change: the path embeds the content
+         * hash, or the request pinned the version it expects. A size that fell back to the
+         * original is never immutable, since the derivative will replace it later.
+         */
+        public boolean isImmutable(String requestedVersion) {
+            if (fallback) {
+                return false;
+            }
+            // Versions may be a prefix of the content hash, but not an ambiguous short one
+            return contentAddressed
+                || (requestedVersion != null && requestedVersion.length() >= 8 && etag.startsWith(requestedVersion));
+        }
+    }
+
+    /**
+     * An upload written to the image store whose Image row may not exist yet.
+     */
+    public static final class StoredUpload {
+        private final ImageBlobStore.StoredBlob blob;
+        private final String originalFilename;
+        private final String declaredContentType;
+
+        StoredUpload(ImageBlobStore.StoredBlob blob, String originalFilename, String declaredContentType) {
+            this.blob = blob;
+            this.originalFilename = originalFilename;
+            this.declaredContentType = declaredContentType;
+        }
+
+        public ImageBlobStore.StoredBlob getBlob() { return blob; }
+    }
+
+    // Serving metadata per path and size, so hashes and MIME types are not recomputed per request
+    private final Cache<String, ServedFile> servedFiles = Caffeine.newBuilder()
+        .maximumSize(10000)
+        .build();
     @Autowired
     private ImageRepository imageRepository;
     
     @Autowired
     private UserRepository userRepository;
     
-    private final Path fileStorageLocation;
+    @Autowired
+    private CatalogLookupService catalogLookupService;
     
-    public ImageService() {
-        this.fileStorageLocation = Paths.get("uploads")
-                .toAbsolutePath().normalize();
-        
-        try {
-            Files.createDirectories(this.fileStorageLocation);
-        } catch (Exception ex) {
-            throw new RuntimeException("Could not create the directory where the uploaded files will be stored.", ex);
-        }
-    }
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+    
+    @Autowired
+    private ImageBlobStore imageBlobStore;
+    
+    @Autowired
+    private ImageStore imageStore;
+    
+    @Autowired
+    private ImageWriteExecutor imageWriteExecutor;
+    
+    @Value("${app.images.presigned-url-validity-seconds:3600}")
+    private long presignedUrlValiditySeconds;
 
     public Image saveImage(String filename, User uploader) {
         Image image = new Image();
@@ -54,6 +145,12 @@ public class ImageService {
         // Set legacy fields too
         image.setType("general");
         image.setRelatedEntityId(0L);
+        try {
+            describeFile(filename, image);
+        } catch (IOException e) {
+            System.err.println("Could not hash " + filename + ": " + e.getMessage());
+        }
+        imageDerivativeService.generateAsync(filename);
         return imageRepository.save(image);
     }
     
@@ -63,25 +160,11 @@ public class ImageService {
     
     public String saveImage(MultipartFile file, String entityType, Long entityId, String username) throws IOException {
         // Find the user by username
-        User uploader = userRepository.findByUsername(username)
+        User uploader = catalogLookupService.findUserByUsername(username)
             .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
-            
-        // Create directory if it doesn't exist
-        String uploadDir = "uploads/" + entityType;
-        File dir = new File(uploadDir);
-        if (!dir.exists()) {
-            dir.mkdirs();
-        }
-        
-        // Generate unique filename
-        String filename = System.currentTimeMillis() + "_" + file.getOriginalFilename();
-        Path filePath = Paths.get(uploadDir, filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
         
         // Create image record with ALL required fields
         Image image = new Image();
-        image.setFilePath(uploadDir + "/" + filename);
-        image.setFilename(filename);
         image.setEntityType(entityType);
         image.setEntityId(entityId);
         image.setUploader(uploader);
@@ -91,9 +174,21 @@ public class ImageService {
         image.setType(entityType);
         image.setRelatedEntityId(entityId);
         
-        imageRepository.save(image);
-        
-        return uploadDir + "/" + filename; // Return the relative path, not the absolute Path object
+        return storeAndSave(file, image).getFilePath(); // Return the relative path, not the absolute Path object
+    }
+    
+    /**
+     * Stores an upload that is not attached to any entity yet.
+     */
+    public Image saveImage(MultipartFile file, User uploader) throws IOException {
+        Image image = new Image();
+        image.setUploader(uploader);
+        image.setUploadDate(LocalDateTime.now());
+        image.setEntityType("general");
+        image.setEntityId(0L);
+        image.setType("general");
+        image.setRelatedEntityId(0L);
+        return storeAndSave(file, image);
     }
     
     public List<String> savePackageImages(List<MultipartFile> images, User uploader, String type) throws IOException {
@@ -101,59 +196,332 @@ public class ImageService {
     }
     
     public List<String> savePackageImages(List<MultipartFile> images, User uploader, String type, Long packageId) throws IOException {
+        List<StoredUpload> uploads = storeUploads(images);
+        try {
+            return savePackageImageRows(uploads, uploader, type, packageId);
+        } finally {
+            releaseUploads(uploads);
+        }
+    }
+    
+    /**
+     * Writes the files to the image store in parallel and waits for all of them. The result
+     * lines up with {@code files}, with {@code null} for empty files. Call this before opening
+     * a transaction, save the rows with {@link #savePackageImageRows}, and always finish with
+     * {@link #releaseUploads}: files whose rows did not commit are deleted then.
+     */
+    public List<StoredUpload> storeUploads(List<MultipartFile> files) throws IOException {
+        List<Callable<StoredUpload>> tasks = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            tasks.add(() -> file.isEmpty() ? null
+                : new StoredUpload(imageBlobStore.store(file.getInputStream()), file.getOriginalFilename(), file.getContentType()));
+        }
+        List<Future<StoredUpload>> futures;
+        try {
+            futures = imageWriteExecutor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted storing uploads");
+        }
+        List<StoredUpload> uploads = new ArrayList<>(futures.size());
+        Throwable failure = null;
+        for (Future<StoredUpload> future : futures) {
+            try {
+                uploads.add(future.get());
+            } catch (ExecutionException e) {
+                uploads.add(null);
+                failure = failure != null ? failure : e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                uploads.add(null);
+                failure = failure != null ? failure : e;
+            }
+        }
+        if (failure != null) {
+            // No row will ever reference the files that did make it
+            releaseUploads(uploads);
+            if (failure instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Could not store upload: " + failure.getMessage(), failure);
+        }
+        return uploads;
+    }
+    
+    /**
+     * Records package images already written by {@link #storeUploads}; only touches the database.
+     */
+    public List<String> savePackageImageRows(List<StoredUpload> uploads, User uploader, String type, Long packageId) {
         List<String> fileNames = new ArrayList<>();
         
-        for (MultipartFile file : images) {
-            if (!file.isEmpty()) {
-                String uploadDir = "uploads/packages/" + type;
-                File dir = new File(uploadDir);
-                if (!dir.exists()) {
-                    dir.mkdirs();
-                }
-                
-                String filename = System.currentTimeMillis() + "_" + file.getOriginalFilename();
-                Path filePath = Paths.get(uploadDir, filename);
-                Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-                
-                Image image = new Image();
-                image.setFilePath(uploadDir + "/" + filename);
-                image.setFilename(filename);
-                image.setEntityType("package_" + type);
-                image.setUploader(uploader);
-                image.setUploadDate(LocalDateTime.now());
-                
-                // Set the entity ID if provided
-                if (packageId != null) {
-                    image.setEntityId(packageId);
-                    image.setRelatedEntityId(packageId); // Set legacy field too
-                } else {
-                    image.setEntityId(0L); // Default value if no ID provided
-                    image.setRelatedEntityId(0L);
-                }
-                
-                // Set legacy fields for backward compatibility
-                image.setType("package_" + type);
-                
-                imageRepository.save(image);
-                
-                fileNames.add(uploadDir + "/" + filename);
+        for (StoredUpload upload : uploads) {
+            if (upload == null) {
+                continue;
             }
+            Image image = new Image();
+            image.setEntityType("package_" + type);
+            image.setUploader(uploader);
+            image.setUploadDate(LocalDateTime.now());
+            
+            // Set the entity ID if provided
+            if (packageId != null) {
+                image.setEntityId(packageId);
+                image.setRelatedEntityId(packageId); // Set legacy field too
+            } else {
+                image.setEntityId(0L); // Default value if no ID provided
+                image.setRelatedEntityId(0L);
+            }
+            
+            // Set legacy fields for backward compatibility
+            image.setType("package_" + type);
+            
+            fileNames.add(saveStoredImage(upload.blob, image, upload.originalFilename, upload.declaredContentType).getFilePath());
         }
         
         return fileNames;
     }
     
+    public void releaseUploads(List<StoredUpload> uploads) {
+        for (StoredUpload upload : uploads) {
+            if (upload != null) {
+                imageBlobStore.release(upload.blob);
+            }
+        }
+    }
+    
+    /**
+     * Deletes the image rows of an entity. Files no other row references are removed
+     * once the deletion commits.
+     */
+    public void deleteImagesFor(String entityType, Long entityId) {
+        List<Image> images = imageRepository.findByTypeAndRelatedEntityIdOrEntityTypeAndEntityId(
+            entityType, entityId, entityType, entityId);
+        deleteImages(images);
+    }
+    
+    public void deleteImage(Long id) {
+        imageRepository.findById(id).ifPresent(image -> deleteImages(List.of(image)));
+    }
+    
+    private void deleteImages(List<Image> images) {
+        if (images.isEmpty()) {
+            return;
+        }
+        List<String> filePaths = new ArrayList<>(images.size());
+        for (Image image : images) {
+            filePaths.add(image.getFilePath());
+        }
+        imageRepository.deleteAll(images);
+        imageBlobStore.reclaimAfterCommit(filePaths);
+    }
+    
     public Resource loadFileAsResource(String fileName) {
+        return loadFileAsResource(fileName, null);
+    }
+    
+    /**
+     * Loads an upload by its path below the uploads directory. With a size, the matching
+     * derivative is returned when it exists and the original otherwise.
+     */
+    public Resource loadFileAsResource(String fileName, ImageDerivativeService.Size size) {
+        String key = storeKey(fileName);
+        Path original = imageStore.localPath(key);
+        if (original == null) {
+            throw new RuntimeException("File not found " + fileName);
+        }
+        Path path = imageStore.localPath(imageDerivativeService.resolve(key, size));
         try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            if (resource.exists()) {
-                return resource;
-            } else {
-                throw new RuntimeException("File not found " + fileName);
-            }
+            return new UrlResource((path != null ? path : original).toUri());
         } catch (MalformedURLException ex) {
             throw new RuntimeException("File not found " + fileName, ex);
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Resolves an upload (path below the uploads directory) for serving, optionally as a
+     * derivative size, or returns {@code null} if this node has no such file. Hash, MIME type
+     * and timestamps are cached until the file changes.
+     */
+    public ServedFile loadServedFile(String fileName, ImageDerivativeService.Size size) {
+        String originalKey = storeKey(fileName);
+        Path original = imageStore.localPath(originalKey);
+        if (original == null) {
+            return null;
+        }
+        try {
+            Path resolved = imageStore.localPath(imageDerivativeService.resolve(originalKey, size));
+            Path path = resolved != null ? resolved : original;
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            long length = Files.size(path);
+            String key = fileName + "|" + (size != null ? size.suffix() : "original");
+            ServedFile cached = servedFiles.getIfPresent(key);
+            if (cached != null && cached.path.equals(path) && cached.lastModified == lastModified && cached.length == length) {
+                return cached;
+            }
+
+            boolean derivative = !path.equals(original);
+            Image image = findImageRow(fileName);
+            // Rows from before hashing are backfilled at startup; until then hash without writing
+            String hash = image != null && image.getContentHash() != null ? image.getContentHash() : hashFile(original);
+            String etag = derivative ? hash + "-" + size.suffix() : hash;
+            String contentType = derivative
+                ? guessContentType(path.getFileName().toString(), null)
+                : contentTypeOf(image, original);
+            boolean contentAddressed = original.getFileName().toString().contains(hash);
+            // The original stands in for a derivative that has not been generated yet
+            boolean fallback = size != null && !derivative && !imageDerivativeService.isProcessed(originalKey);
+
+            ServedFile served = new ServedFile(new UrlResource(path.toUri()), path, contentType, etag,
+                lastModified, length, contentAddressed, fallback);
+            // A fallback is replaced once the derivative exists, so only cache final answers
+            if (!fallback) {
+                servedFiles.put(key, served);
+            }
+            return served;
+        } catch (IOException e) {
+            // Removed between resolving and reading its attributes
+            return null;
+        }
+    }
+    
+    /**
+     * For stores that serve files themselves (S3), a presigned URL of the upload, or of its
+     * derivative when one exists; {@code null} when uploads are served by this application.
+     */
+    public String remoteUrl(String fileName, ImageDerivativeService.Size size) {
+        String key = storeKey(fileName);
+        if (!isValidKey(key)) {
+            return null;
+        }
+        URL url = imageStore.presignedGetUrl(imageDerivativeService.resolve(key, size),
+            Duration.ofSeconds(presignedUrlValiditySeconds));
+        return url != null ? url.toString() : null;
+    }
+    
+    /**
+     * Hashes the files of image rows saved before uploads were hashed, once, so serving an
+     * image never has to write. Files that cannot be read are reported and skipped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillContentHashes() {
+        long afterId = 0;
+        List<Image> images;
+        do {
+            images = imageRepository.findTop500ByContentHashIsNullAndIdGreaterThanOrderByIdAsc(afterId);
+            List<Image> described = new ArrayList<>(images.size());
+            for (Image image : images) {
+                afterId = image.getId();
+                String filePath = image.getFilePath();
+                if (filePath == null) {
+                    continue;
+                }
+                try {
+                    describeFile(filePath.startsWith("uploads/") ? filePath.substring("uploads/".length()) : filePath, image);
+                    described.add(image);
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Could not hash " + filePath + ": " + e.getMessage());
+                }
+            }
+            imageRepository.saveAll(described);
+        } while (!images.isEmpty());
+    }
+    
+    private static String contentTypeOf(Image image, Path original) {
+        if (image != null && image.getContentType() != null) {
+            return image.getContentType();
+        }
+        return guessContentType(original.getFileName().toString(), null);
+    }
+    
+    private Image findImageRow(String fileName) {
+        return imageRepository.findFirstByFilePathIn(List.of("uploads/" + fileName, fileName)).orElse(null);
+    }
+    
+    // Writes the upload to the content-addressed store (a no-op for duplicates) and saves its row
+    private Image storeAndSave(MultipartFile file, Image image) throws IOException {
+        ImageBlobStore.StoredBlob blob = imageBlobStore.store(file.getInputStream());
+        try {
+            return saveStoredImage(blob, image, file.getOriginalFilename(), file.getContentType());
+        } finally {
+            imageBlobStore.release(blob);
+        }
+    }
+    
+    /**
+     * Saves the row for a blob already written with {@link ImageBlobStore#store}. The caller
+     * still owns the blob's pending reference and releases it afterwards.
+     */
+    public Image saveStoredImage(ImageBlobStore.StoredBlob blob, Image image, String originalFilename,
+                                 String declaredContentType) {
+        image.setFilePath(blob.getFilePath());
+        image.setFilename(originalFilename != null ? originalFilename : blob.getHash());
+        image.setContentHash(blob.getHash());
+        image.setFileSize(blob.getSize());
+        image.setWidth(blob.getWidth());
+        image.setHeight(blob.getHeight());
+        String contentType = guessContentType(blob.getFilePath(), null);
+        image.setContentType("application/octet-stream".equals(contentType)
+            ? guessContentType(blob.getFilePath(), declaredContentType) : contentType);
+        Image saved = imageRepository.save(image);
+        if (!blob.isDuplicate()) {
+            imageDerivativeService.generateAsync(blob.getFilePath().substring("uploads/".length()));
+        }
+        return saved;
+    }
+    
+    private void describeFile(String fileName, Image image) throws IOException {
+        MessageDigest digest = sha256();
+        long size;
+        try (InputStream in = new DigestInputStream(imageStore.open(storeKey(fileName)), digest)) {
+            size = in.transferTo(OutputStream.nullOutputStream());
+        }
+        image.setContentHash(HexFormat.of().formatHex(digest.digest()));
+        image.setFileSize(size);
+        if (image.getContentType() == null) {
+            image.setContentType(guessContentType(fileName, null));
+        }
+    }
+    
+    // Same rules UploadFileServer applies to local paths: no traversal, no hidden segments
+    private static boolean isValidKey(String key) {
+        if (key.isEmpty() || key.indexOf('\0') >= 0 || key.indexOf('\\') >= 0) {
+            return false;
+        }
+        for (String segment : key.split("/")) {
+            if (segment.isEmpty() || segment.startsWith(".")) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // Upload paths arrive relative to the uploads directory, with or without a leading slash
+    private static String storeKey(String fileName) {
+        return fileName.startsWith("/") ? fileName.substring(1) : fileName;
+    }
+    
+    private static String hashFile(Path path) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(path), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    // Prefer the type the client declared for images, otherwise go by the extension
+    private static String guessContentType(String fileName, String declared) {
+        if (declared != null && declared.startsWith("image/")) {
+            return declared;
+        }
+        String guessed = URLConnection.guessContentTypeFromName(fileName);
+        return guessed != null ? guessed : "application/octet-stream";
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.travelmanagementapp.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Where uploaded image bytes live. Keys are paths relative to the uploads root, e.g.
+ * {@code blobs/ab/ab12...ef.jpg} or {@code destination/123_paris.jpg}; the Image rows keep
+ * storing {@code "uploads/" + key} as their file path.
+ *
+ * Selected with {@code app.images.store}: {@code local} (default, {@link LocalImageStore})
+ * or {@code s3} ({@link S3ImageStore}, for nodes that must share one catalog).
+ */
+public interface ImageStore {
+
+    // Local scratch space for files that are hashed or resized before being put into the store
+    Path SCRATCH_DIRECTORY = Paths.get("uploads", ".tmp").toAbsolutePath().normalize();
+
+    boolean exists(String key);
+
+    /**
+     * Stores the contents of {@code source} under {@code key}, replacing any existing object.
+     * The source file may be moved into place; callers delete it afterwards if it still exists.
+     */
+    void put(String key, Path source, String contentType) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * The file behind {@code key} when it is on this node's disk, so it can be served
+     * directly; {@code null} if the key does not exist or the store is remote.
+     */
+    Path localPath(String key);
+
+    /**
+     * A time-limited URL clients can fetch the object from directly, or {@code null} if the
+     * store serves files itself.
+     */
+    URL presignedGetUrl(String key, Duration validity);
+}
@@ -0,0 +1,83 @@
+package com.example.travelmanagementapp.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executor that writes uploaded files in parallel, so a request with many images
+ * waits for the slowest write instead of the sum of all of them.
+ *
+ * With {@code spring.threads.virtual.enabled} every write gets its own virtual thread and
+ * a semaphore caps how many run at once. Otherwise a fixed pool of platform threads is
+ * used; when its queue is full the submitting request thread writes the file itself,
+ * which slows it down instead of failing the upload.
+ */
+@Component
+public class ImageWriteExecutor {
+
+    private final ExecutorService executor;
+
+    // Only used in virtual-thread mode, where the executor itself is unbounded
+    private final Semaphore permits;
+
+    public ImageWriteExecutor(
+            @Value("${app.images.write-threads:8}") int threads,
+            @Value("${app.images.write-queue-capacity:500}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("image-writes-", 1).factory());
+            this.permits = new Semaphore(threads);
+            return;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "image-writes-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+        this.permits = null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Runs all tasks in parallel and returns once every one of them has finished, failed or
+     * not, so the caller can clean up after the ones that succeeded.
+     */
+    public <T> List<Future<T>> invokeAll(List<Callable<T>> tasks) throws InterruptedException {
+        if (permits == null) {
+            return executor.invokeAll(tasks);
+        }
+        List<Callable<T>> bounded = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            bounded.add(() -> {
+                permits.acquire();
+                try {
+                    return task.call();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+        return executor.invokeAll(bounded);
+    }
+}
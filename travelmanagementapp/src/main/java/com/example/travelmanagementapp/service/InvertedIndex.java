@@ -0,0 +1,231 @@
+package com.example.travelmanagementapp.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Thread-safe in-memory inverted index mapping lowercase tokens to the documents
+ * that contain them, with a per-document weight used for ranking.
+ *
+ * Every query token must match (AND semantics). The last token of a query is
+ * treated as a prefix so partially typed words still find results.
+ */
+public class InvertedIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // token -> (document id -> weight)
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+    // document id -> (token -> weight), kept so a document can be removed or re-indexed
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+
+    /**
+     * Splits text into lowercase alphanumeric tokens.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Adds the tokens of a field to a term weight map, e.g. name tokens with a higher
+     * weight than description tokens.
+     */
+    public static void addField(Map<String, Integer> terms, String text, int weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Integer::sum);
+        }
+    }
+
+    /**
+     * Indexes a document, replacing any previous version of it.
+     */
+    public void put(long id, Map<String, Integer> terms) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            if (terms.isEmpty()) {
+                return;
+            }
+            Map<String, Integer> copy = new HashMap<>(terms);
+            documents.put(id, copy);
+            for (Map.Entry<String, Integer> term : copy.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(id, term.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of all documents matching the query, best match first.
+     * Ties are broken by ascending id so paging is stable.
+     */
+    public List<Long> search(String query) {
+        return search(query, id -> true);
+    }
+
+    /**
+     * Like {@link #search(String)}, but only documents whose id passes {@code filter} are
+     * scored and ranked.
+     */
+    public List<Long> search(String query, LongPredicate filter) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = scores(query, filter);
+            List<Long> ids = new ArrayList<>(scores.keySet());
+            ids.sort((a, b) -> {
+                int byScore = Integer.compare(scores.get(b), scores.get(a));
+                return byScore != 0 ? byScore : Long.compare(a, b);
+            });
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of documents {@link #search(String, LongPredicate)} would return, without ranking them.
+     */
+    public int count(String query, LongPredicate filter) {
+        lock.readLock().lock();
+        try {
+            return scores(query, filter).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Score of every matching document; the caller holds the read lock
+    private Map<Long, Integer> scores(String query, LongPredicate filter) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<Map<Long, Integer>> lists = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size() - 1; i++) {
+            Map<Long, Integer> list = postings.get(tokens.get(i));
+            if (list == null) {
+                return Collections.emptyMap();
+            }
+            lists.add(list);
+        }
+        Map<Long, Integer> prefixMatches = prefixPostings(tokens.get(tokens.size() - 1));
+        if (prefixMatches.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        lists.add(prefixMatches);
+
+        // Intersect starting from the shortest posting list
+        Map<Long, Integer> smallest = lists.get(0);
+        for (Map<Long, Integer> list : lists) {
+            if (list.size() < smallest.size()) {
+                smallest = list;
+            }
+        }
+
+        Map<Long, Integer> scores = new HashMap<>();
+        for (Map.Entry<Long, Integer> candidate : smallest.entrySet()) {
+            if (!filter.test(candidate.getKey())) {
+                continue;
+            }
+            int score = 0;
+            boolean matchesAll = true;
+            for (Map<Long, Integer> list : lists) {
+                Integer weight = list.get(candidate.getKey());
+                if (weight == null) {
+                    matchesAll = false;
+                    break;
+                }
+                score += weight;
+            }
+            if (matchesAll) {
+                scores.put(candidate.getKey(), score);
+            }
+        }
+        return scores;
+    }
+
+    // Union of the posting lists of every token starting with the prefix, keeping the best weight
+    private Map<Long, Integer> prefixPostings(String prefix) {
+        NavigableMap<String, Map<Long, Integer>> range =
+            postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.size() == 1) {
+            return range.firstEntry().getValue();
+        }
+        Map<Long, Integer> union = new HashMap<>();
+        for (Map<Long, Integer> list : range.values()) {
+            for (Map.Entry<Long, Integer> entry : list.entrySet()) {
+                union.merge(entry.getKey(), entry.getValue(), Math::max);
+            }
+        }
+        return union;
+    }
+
+    private void removeInternal(long id) {
+        Map<String, Integer> previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String token : previous.keySet()) {
+            Map<Long, Integer> list = postings.get(token);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+}
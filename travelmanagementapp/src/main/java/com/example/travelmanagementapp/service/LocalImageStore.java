@@ -0,0 +1,100 @@
+package com.example.travelmanagementapp.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+
+/**
+ * Keeps images in the {@code uploads/} directory of this node.
+ */
+@Service
+@ConditionalOnProperty(name = "app.images.store", havingValue = "local", matchIfMissing = true)
+public class LocalImageStore implements ImageStore {
+
+    private final Path root;
+
+    public LocalImageStore() {
+        this(Paths.get("uploads"));
+    }
+
+    public LocalImageStore(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.root);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create the directory where the uploaded files will be stored.", e);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return localPath(key) != null;
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        Path target = target(key);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Source on another file system: copy next to the target first so readers never see a partial file
+            Path temp = Files.createTempFile(target.getParent(), ".put", ".tmp");
+            try {
+                Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        Path path = localPath(key);
+        if (path == null) {
+            throw new IOException("No such image: " + key);
+        }
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Path path = localPath(key);
+        if (path != null) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return UploadFileServer.resolveWithinRoot(root, key);
+    }
+
+    @Override
+    public URL presignedGetUrl(String key, Duration validity) {
+        return null;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    // Write target for a key; unlike localPath the file does not have to exist yet
+    private Path target(String key) throws IOException {
+        Path target = root.resolve(key).normalize();
+        if (!target.startsWith(root) || target.equals(root) || key.indexOf('\\') >= 0) {
+            throw new IOException("Invalid image key: " + key);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,345 @@
+package com.example.travelmanagementapp.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Streaming {@code multipart/form-data} reader (RFC 7578). Parts are handed out one at a
+ * time as they arrive on the request body; a part's content is read through
+ * {@link Part#getInputStream()} straight from the wire. Only a fixed-size buffer is held in
+ * memory, however large the parts are.
+ */
+public class MultipartStreamReader {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final int MAX_HEADER_BYTES = 16 * 1024;
+
+    /**
+     * One part of the body. Its content must be read (or skipped) before asking for the next part.
+     */
+    public final class Part {
+        private final String name;
+        private final String fileName;
+        private final String contentType;
+        private final InputStream content;
+
+        private Part(String name, String fileName, String contentType, int index) {
+            this.name = name;
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.content = new PartInputStream(index);
+        }
+
+        public String getName() { return name; }
+        // Null for plain form fields
+        public String getFileName() { return fileName; }
+        public String getContentType() { return contentType; }
+        public boolean isFile() { return fileName != null; }
+
+        public InputStream getInputStream() {
+            return content;
+        }
+
+        /**
+         * Reads a form field value as UTF-8. A value longer than {@code maxBytes} is the client's
+         * fault and fails with an IllegalArgumentException.
+         */
+        public String readString(int maxBytes) throws IOException {
+            ByteArrayOutputStream value = new ByteArrayOutputStream();
+            byte[] chunk = new byte[1024];
+            int read;
+            while ((read = content.read(chunk)) != -1) {
+                if (value.size() + read > maxBytes) {
+                    throw new IllegalArgumentException("Form field '" + name + "' exceeds " + maxBytes + " bytes");
+                }
+                value.write(chunk, 0, read);
+            }
+            return value.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private final InputStream in;
+    // CRLF "--" boundary; the first delimiter has no leading CRLF, so the body is read as if it had one
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private int head;
+    private int tail;
+    private boolean eof;
+    private boolean partOpen;
+    private boolean finished;
+    private int partIndex;
+    // Content known not to contain the delimiter ends here; set by the last scan so
+    // small reads do not rescan the buffer
+    private int contentEnd;
+
+    public MultipartStreamReader(InputStream in, String boundary) {
+        this(in, boundary, DEFAULT_BUFFER_SIZE);
+    }
+
+    public MultipartStreamReader(InputStream in, String boundary, int bufferSize) {
+        if (boundary == null || boundary.isEmpty() || boundary.length() > 70) {
+            throw new IllegalArgumentException("Invalid multipart boundary");
+        }
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buffer = new byte[Math.max(bufferSize, delimiter.length * 4)];
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        tail = 2;
+        // The preamble before the first boundary is read like the body of an ignored part
+        partOpen = true;
+    }
+
+    /**
+     * Extracts the boundary parameter from a {@code multipart/form-data} content type.
+     */
+    public static String boundaryOf(String contentType) {
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/form-data")) {
+            throw new IllegalArgumentException("Expected a multipart/form-data request");
+        }
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.toLowerCase(Locale.ROOT).startsWith("boundary=")) {
+                String boundary = trimmed.substring("boundary=".length());
+                if (boundary.length() >= 2 && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+                    boundary = boundary.substring(1, boundary.length() - 1);
+                }
+                return boundary;
+            }
+        }
+        throw new IllegalArgumentException("Multipart request without a boundary");
+    }
+
+    /**
+     * Returns the next part, or {@code null} after the closing boundary. Whatever is left of
+     * the previous part's content is skipped.
+     */
+    public Part nextPart() throws IOException {
+        if (partOpen) {
+            skipRemainingContent();
+        }
+        if (finished) {
+            return null;
+        }
+        String name = null;
+        String fileName = null;
+        String contentType = null;
+        int headerBytes = 0;
+        String line;
+        while (!(line = readHeaderLine()).isEmpty()) {
+            headerBytes += line.length();
+            if (headerBytes > MAX_HEADER_BYTES) {
+                throw new IOException("Multipart headers too large");
+            }
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String header = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            if (header.equals("content-disposition")) {
+                name = dispositionParameter(value, "name");
+                fileName = dispositionParameter(value, "filename");
+            } else if (header.equals("content-type")) {
+                contentType = value;
+            }
+        }
+        partOpen = true;
+        return new Part(name, fileName, contentType, ++partIndex);
+    }
+
+    private void skipRemainingContent() throws IOException {
+        byte[] skip = new byte[4096];
+        while (readContent(skip, 0, skip.length) != -1) {
+            // discard
+        }
+    }
+
+    /**
+     * Reads content of the open part. Bytes that could be the start of the delimiter stay
+     * in the buffer until enough input has arrived to tell. Returns -1 at the end of the part.
+     */
+    private int readContent(byte[] target, int offset, int length) throws IOException {
+        if (!partOpen) {
+            return -1;
+        }
+        while (true) {
+            if (head < contentEnd) {
+                int count = Math.min(contentEnd - head, length);
+                System.arraycopy(buffer, head, target, offset, count);
+                head += count;
+                return count;
+            }
+            int match = indexOfDelimiter();
+            if (match == head) {
+                head += delimiter.length;
+                contentEnd = head;
+                partOpen = false;
+                readDelimiterSuffix();
+                return -1;
+            }
+            // Everything before a match, or before a possible partial match at the end, is content
+            int safe = match >= 0 ? match - head : tail - head - (eof ? 0 : delimiter.length - 1);
+            if (safe > 0) {
+                contentEnd = head + safe;
+                continue;
+            }
+            if (eof) {
+                throw new IOException("Unexpected end of multipart body");
+            }
+            fill();
+        }
+    }
+
+    // After a delimiter: "--" closes the body, CRLF starts the headers of the next part
+    private void readDelimiterSuffix() throws IOException {
+        ensureAvailable(2);
+        if (tail - head >= 2 && buffer[head] == '-' && buffer[head + 1] == '-') {
+            head += 2;
+            finished = true;
+            return;
+        }
+        // Transport padding (spaces/tabs) may precede the CRLF
+        while (true) {
+            ensureAvailable(1);
+            if (head >= tail) {
+                throw new IOException("Unexpected end of multipart body");
+            }
+            byte b = buffer[head++];
+            if (b == '\n') {
+                return;
+            }
+            if (b != ' ' && b != '\t' && b != '\r') {
+                throw new IOException("Malformed multipart boundary line");
+            }
+        }
+    }
+
+    private String readHeaderLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        while (true) {
+            ensureAvailable(1);
+            if (head >= tail) {
+                throw new IOException("Unexpected end of multipart headers");
+            }
+            byte b = buffer[head++];
+            if (b == '\n') {
+                break;
+            }
+            if (line.size() > MAX_HEADER_BYTES) {
+                throw new IOException("Multipart headers too large");
+            }
+            line.write(b);
+        }
+        String value = line.toString(StandardCharsets.UTF_8);
+        return value.endsWith("\r") ? value.substring(0, value.length() - 1) : value;
+    }
+
+    private int indexOfDelimiter() {
+        int last = tail - delimiter.length;
+        outer:
+        for (int i = head; i <= last; i++) {
+            for (int j = 0; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private void ensureAvailable(int count) throws IOException {
+        while (tail - head < count && !eof) {
+            fill();
+        }
+    }
+
+    // Moves unread bytes to the front and reads more input behind them
+    private void fill() throws IOException {
+        if (head > 0) {
+            System.arraycopy(buffer, head, buffer, 0, tail - head);
+            tail -= head;
+            contentEnd = Math.max(0, contentEnd - head);
+            head = 0;
+        }
+        int read = in.read(buffer, tail, buffer.length - tail);
+        if (read == -1) {
+            eof = true;
+        } else {
+            tail += read;
+        }
+    }
+
+    // Parameters of a Content-Disposition value; quoted values may contain ';'
+    private static String dispositionParameter(String disposition, String parameter) {
+        int i = disposition.indexOf(';');
+        while (i >= 0 && i < disposition.length()) {
+            int start = i + 1;
+            int eq = disposition.indexOf('=', start);
+            if (eq < 0) {
+                return null;
+            }
+            String key = disposition.substring(start, eq).trim();
+            int valueStart = eq + 1;
+            while (valueStart < disposition.length() && disposition.charAt(valueStart) == ' ') {
+                valueStart++;
+            }
+            String value;
+            int end;
+            if (valueStart < disposition.length() && disposition.charAt(valueStart) == '"') {
+                StringBuilder quoted = new StringBuilder();
+                end = valueStart + 1;
+                while (end < disposition.length() && disposition.charAt(end) != '"') {
+                    char c = disposition.charAt(end);
+                    if (c == '\\' && end + 1 < disposition.length()) {
+                        c = disposition.charAt(++end);
+                    }
+                    quoted.append(c);
+                    end++;
+                }
+                value = quoted.toString();
+                end = disposition.indexOf(';', end);
+            } else {
+                end = disposition.indexOf(';', valueStart);
+                value = (end < 0 ? disposition.substring(valueStart) : disposition.substring(valueStart, end)).trim();
+            }
+            if (key.equalsIgnoreCase(parameter)) {
+                return value;
+            }
+            i = end;
+        }
+        return null;
+    }
+
+    private final class PartInputStream extends InputStream {
+        private final int index;
+
+        private PartInputStream(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            return read == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            // A part's stream ends once the reader has moved past it
+            if (index != partIndex) {
+                return -1;
+            }
+            if (length == 0) {
+                return 0;
+            }
+            return readContent(target, offset, length);
+        }
+    }
+}
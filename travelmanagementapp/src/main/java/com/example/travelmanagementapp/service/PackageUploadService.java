@@ -0,0 +1,232 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.model.Image;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates a travel package from a streamed {@code multipart/form-data} body, the same form
+ * {@code /travel-packages/create} takes. Each image part is hashed and written to the
+ * image store while it arrives, so a request holds one parser buffer and the small text
+ * fields in memory however many photos it carries, and nothing is spooled by the servlet
+ * container first.
+ *
+ * Parts may come in any order: images are stored as they arrive and their rows are saved
+ * together with the package once the whole body has been read.
+ */
+@Service
+public class PackageUploadService {
+
+    private static final int MAX_FIELD_BYTES = 64 * 1024;
+    private static final int MAX_TOTAL_FIELD_BYTES = 1024 * 1024;
+
+    /**
+     * An image written to the blob store whose Image row is not saved yet.
+     */
+    private static final class PendingImage {
+        private final String type;
+        private final ImageBlobStore.StoredBlob blob;
+        private final String fileName;
+        private final String contentType;
+
+        PendingImage(String type, ImageBlobStore.StoredBlob blob, String fileName, String contentType) {
+            this.type = type;
+            this.blob = blob;
+            this.fileName = fileName;
+            this.contentType = contentType;
+        }
+    }
+
+    @Autowired
+    private TravelPackageService travelPackageService;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private ImageBlobStore imageBlobStore;
+
+    @Autowired
+    private CatalogLookupService catalogLookupService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.uploads.stream.max-file-size:26214400}")
+    private long maxFileSize;
+
+    @Value("${app.uploads.stream.max-files:100}")
+    private int maxFiles;
+
+    /**
+     * Reads the whole body and creates the package with its restaurants, hotels and images.
+     * Throws IllegalArgumentException for invalid input and IllegalStateException when the
+     * user may not create packages.
+     */
+    public TravelPackage createTravelPackage(InputStream body, String contentType) throws IOException {
+        MultipartStreamReader reader = new MultipartStreamReader(body, MultipartStreamReader.boundaryOf(contentType));
+        Map<String, String> fields = new HashMap<>();
+        List<String> restaurants = new ArrayList<>();
+        List<String> hotels = new ArrayList<>();
+        List<PendingImage> images = new ArrayList<>();
+        User user = null;
+        int fieldBytes = 0;
+
+        try {
+            MultipartStreamReader.Part part;
+            while ((part = reader.nextPart()) != null) {
+                String name = part.getName() != null ? part.getName() : "";
+                if (part.isFile()) {
+                    String type = imageType(name);
+                    // Browsers send an empty part for a file input with nothing selected
+                    if (type == null || part.getFileName().isEmpty()) {
+                        continue;
+                    }
+                    if (images.size() >= maxFiles) {
+                        throw new IllegalArgumentException("At most " + maxFiles + " images per package");
+                    }
+                    ImageBlobStore.StoredBlob blob = imageBlobStore.store(new LimitedInputStream(part.getInputStream(), maxFileSize));
+                    images.add(new PendingImage(type, blob, part.getFileName(), part.getContentType()));
+                    continue;
+                }
+
+                String value = part.readString(MAX_FIELD_BYTES);
+                fieldBytes += value.length();
+                if (fieldBytes > MAX_TOTAL_FIELD_BYTES) {
+                    throw new IllegalArgumentException("Form fields exceed " + MAX_TOTAL_FIELD_BYTES + " bytes");
+                }
+                if (name.equals("restaurants") || name.startsWith("restaurants[")) {
+                    restaurants.add(value);
+                } else if (name.equals("hotels") || name.startsWith("hotels[")) {
+                    hotels.add(value);
+                } else {
+                    fields.put(name, value);
+                    // Check the user as soon as it is known, before more photos are uploaded
+                    if (name.equals("username")) {
+                        user = travelAgencyUser(value);
+                    }
+                }
+            }
+
+            if (user == null) {
+                throw new IllegalArgumentException("username is required");
+            }
+            String packageName = required(fields, "packageName");
+            String destination = required(fields, "destination");
+            double price;
+            try {
+                price = Double.parseDouble(required(fields, "price"));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid price: " + fields.get("price"));
+            }
+
+            User owner = user;
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                TravelPackage travelPackage;
+                try {
+                    travelPackage = travelPackageService.createTravelPackageWithDetails(packageName, destination, price,
+                        restaurants, hotels, List.of(), List.of(), owner, owner.getTravelAgencyName());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                for (PendingImage pending : images) {
+                    Image image = new Image();
+                    image.setEntityType("package_" + pending.type);
+                    image.setType("package_" + pending.type);
+                    image.setEntityId(travelPackage.getId());
+                    image.setRelatedEntityId(travelPackage.getId());
+                    image.setUploader(owner);
+                    image.setUploadDate(LocalDateTime.now());
+                    imageService.saveStoredImage(pending.blob, image, pending.fileName, pending.contentType);
+                }
+                return travelPackage;
+            });
+        } finally {
+            // Blobs whose rows were not committed (validation failed, rollback) are reclaimed here
+            for (PendingImage pending : images) {
+                imageBlobStore.release(pending.blob);
+            }
+        }
+    }
+
+    private User travelAgencyUser(String username) {
+        User user = catalogLookupService.findUserByUsername(username)
+            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        if (!"TRAVEL_AGENCY".equals(user.getRole())) {
+            throw new IllegalStateException("Only travel agency users can create travel packages");
+        }
+        if (user.getTravelAgencyName() == null || user.getTravelAgencyName().isEmpty()) {
+            throw new IllegalArgumentException("Travel agency name is not set for the user");
+        }
+        return user;
+    }
+
+    private static String imageType(String partName) {
+        if (partName.startsWith("restaurantImages")) {
+            return "restaurant";
+        }
+        if (partName.startsWith("hotelImages")) {
+            return "hotel";
+        }
+        return null;
+    }
+
+    private static String required(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        return value;
+    }
+
+    // Fails the upload as soon as a part grows past the limit instead of storing it first
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(int read) {
+            count += read;
+            if (count > limit) {
+                throw new IllegalArgumentException("Image exceeds the maximum size of " + limit + " bytes");
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.DTO.ItemPrice;
+import com.example.travelmanagementapp.DTO.PriceQuote;
+import com.example.travelmanagementapp.DTO.QuoteRequest;
+import com.example.travelmanagementapp.repository.HotelRepository;
+import com.example.travelmanagementapp.repository.TravelPackageRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Prices many packages and hotel stays in one call, for search and listing pages. The
+ * catalog prices of all items are read with one query per item type, then the items are
+ * priced in parallel on a fork-join pool against a single {@link RateTable} snapshot, so
+ * every quote in a response uses the same rules even if they are reloaded meanwhile.
+ * Items that cannot be priced get an error instead of failing the whole request.
+ */
+@Service
+public class PriceQuoteService {
+
+    public static final String PACKAGE = "package";
+    public static final String HOTEL = "hotel";
+
+    // Below this many items a task prices them itself instead of splitting further
+    private static final int SEQUENTIAL_THRESHOLD = 64;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    private final ForkJoinPool pool;
+
+    public PriceQuoteService(@Value("${app.pricing.quotes.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * One quote per request item, in request order.
+     */
+    public List<PriceQuote> quote(List<QuoteRequest> items) {
+        Set<Long> packageIds = new HashSet<>();
+        Set<Long> hotelIds = new HashSet<>();
+        for (QuoteRequest item : items) {
+            if (item.getId() == null) {
+                continue;
+            }
+            if (PACKAGE.equals(item.getType())) {
+                packageIds.add(item.getId());
+            } else if (HOTEL.equals(item.getType())) {
+                hotelIds.add(item.getId());
+            }
+        }
+        Map<Long, Double> packagePrices = packageIds.isEmpty()
+            ? Map.of() : toMap(travelPackageRepository.findPricesByIdIn(packageIds));
+        Map<Long, Double> hotelPrices = hotelIds.isEmpty()
+            ? Map.of() : toMap(hotelRepository.findPricesByIdIn(hotelIds));
+
+        QuoteTask task = new QuoteTask(items, pricingEngine.snapshot(), packagePrices, hotelPrices,
+            new PriceQuote[items.size()], 0, items.size());
+        if (items.size() <= SEQUENTIAL_THRESHOLD) {
+            // Not worth handing over to the pool
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+        return Arrays.asList(task.results);
+    }
+
+    private static Map<Long, Double> toMap(List<ItemPrice> prices) {
+        Map<Long, Double> map = new HashMap<>();
+        for (ItemPrice price : prices) {
+            map.put(price.getId(), price.getPrice());
+        }
+        return map;
+    }
+
+    private static final class QuoteTask extends RecursiveAction {
+        private final List<QuoteRequest> items;
+        private final RateTable table;
+        private final Map<Long, Double> packagePrices;
+        private final Map<Long, Double> hotelPrices;
+        private final PriceQuote[] results;
+        private final int from;
+        private final int to;
+
+        QuoteTask(List<QuoteRequest> items, RateTable table, Map<Long, Double> packagePrices,
+                Map<Long, Double> hotelPrices, PriceQuote[] results, int from, int to) {
+            this.items = items;
+            this.table = table;
+            this.packagePrices = packagePrices;
+            this.hotelPrices = hotelPrices;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = quoteItem(items.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new QuoteTask(items, table, packagePrices, hotelPrices, results, from, middle),
+                new QuoteTask(items, table, packagePrices, hotelPrices, results, middle, to));
+        }
+
+        private PriceQuote quoteItem(QuoteRequest item) {
+            String type = item.getType();
+            Long id = item.getId();
+            if (item.getTravelDate() == null) {
+                return PriceQuote.error(type, id, "Travel date is required");
+            }
+            try {
+                LocalDate travelDate = LocalDate.parse(item.getTravelDate());
+                int people = item.getNumberOfPeople() != null ? item.getNumberOfPeople() : 1;
+                if (PACKAGE.equals(type)) {
+                    Double price = packagePrices.get(id);
+                    if (price == null) {
+                        return PriceQuote.error(type, id, "Travel package not found");
+                    }
+                    return new PriceQuote(type, id, price, 0, table.quotePackage(price, travelDate, people));
+                }
+                if (HOTEL.equals(type)) {
+                    Double price = hotelPrices.get(id);
+                    if (price == null) {
+                        return PriceQuote.error(type, id, "Hotel not found");
+                    }
+                    LocalDate returnDate = item.getReturnDate() != null && !item.getReturnDate().isEmpty()
+                        ? LocalDate.parse(item.getReturnDate()) : travelDate.plusDays(1);
+                    int rooms = item.getRooms() != null ? item.getRooms() : 1;
+                    double total = table.quoteStay(price, travelDate, returnDate, rooms, people);
+                    return new PriceQuote(type, id, price, (int) ChronoUnit.DAYS.between(travelDate, returnDate), total);
+                }
+                return PriceQuote.error(type, id, "Type must be package or hotel");
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                return PriceQuote.error(type, id, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.travelmanagementapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Computes booking prices from the catalog price and the pricing rules in
+ * {@code app.pricing.rules-location}. The rules are compiled into a {@link RateTable} held
+ * in memory, so a quote does no I/O and no allocation beyond its result, and can be used to
+ * price every search result as well as the booking itself.
+ *
+ * The rules are reloaded without a restart through {@link #reload()} and, when they live in
+ * a file, whenever the file changes. A reload that fails keeps the current table.
+ */
+@Service
+public class PricingEngine {
+
+    // Years compiled into the table, starting with last year
+    private static final int WINDOW_YEARS = 5;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.pricing.rules-location:classpath:pricing-rules.json}")
+    private String rulesLocation;
+
+    @Value("${app.pricing.reload-check-seconds:30}")
+    private long reloadCheckSeconds;
+
+    private final AtomicReference<RateTable> table = new AtomicReference<>();
+
+    private volatile long loadedModified;
+
+    private final ScheduledExecutorService watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pricing-rules-watcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() throws IOException {
+        // Without rules there are no prices, so a broken file stops the startup
+        reload();
+        if (reloadCheckSeconds > 0) {
+            watcher.scheduleWithFixedDelay(this::reloadIfChanged, reloadCheckSeconds, reloadCheckSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watcher.shutdownNow();
+    }
+
+    /**
+     * Reads and compiles the rules and swaps them in. Throws IOException or
+     * IllegalArgumentException, leaving the current rules in place, when the file cannot be
+     * read or the rules are invalid.
+     */
+    public RateTable reload() throws IOException {
+        Resource resource = resourceLoader.getResource(rulesLocation);
+        long modified = lastModified(resource);
+        PricingRules rules;
+        try (InputStream in = resource.getInputStream()) {
+            rules = objectMapper.readValue(in, PricingRules.class);
+        }
+        RateTable compiled = new RateTable(rules, LocalDate.now().getYear() - 1, WINDOW_YEARS);
+        table.set(compiled);
+        loadedModified = modified;
+        return compiled;
+    }
+
+    /**
+     * The rules in effect. Quotes that must agree with each other should all be taken
+     * from one snapshot rather than through the engine, which may switch rules in between.
+     */
+    public RateTable snapshot() {
+        return table.get();
+    }
+
+    /**
+     * Total for a package starting on {@code travelDate}.
+     */
+    public double quotePackage(double price, LocalDate travelDate, int travellers) {
+        return table.get().quotePackage(price, travelDate, travellers);
+    }
+
+    /**
+     * Total for a hotel stay from {@code checkIn} up to, not including, {@code checkOut}.
+     */
+    public double quoteStay(double pricePerNight, LocalDate checkIn, LocalDate checkOut, int rooms, int guests) {
+        return table.get().quoteStay(pricePerNight, checkIn, checkOut, rooms, guests);
+    }
+
+    private void reloadIfChanged() {
+        try {
+            Resource resource = resourceLoader.getResource(rulesLocation);
+            RateTable current = table.get();
+            // Also recompiles at New Year so the window keeps covering the coming years
+            boolean stale = current.getWindowStart().getYear() != LocalDate.now().getYear() - 1;
+            if (stale || lastModified(resource) != loadedModified) {
+                reload();
+                System.out.println("Reloaded pricing rules from " + rulesLocation);
+            }
+        } catch (Exception e) {
+            System.err.println("Error reloading pricing rules, keeping the current ones: " + e.getMessage());
+        }
+    }
+
+    // Only files have a meaningful modification time; classpath resources inside a jar never change
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.isFile() ? resource.lastModified() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.travelmanagementapp.service;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pricing rules as written in the rules file (see {@code pricing-rules.json}). Compiled
+ * into a {@link RateTable} before use.
+ */
+public class PricingRules {
+
+    /**
+     * A multiplier for the nights from {@code from} to {@code to} (inclusive), both given as
+     * "MM-dd" and repeating every year. A season may wrap around New Year.
+     */
+    public static class Season {
+        private String name;
+        private String from;
+        private String to;
+        private double multiplier = 1.0;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getFrom() { return from; }
+        public void setFrom(String from) { this.from = from; }
+        public String getTo() { return to; }
+        public void setTo(String to) { this.to = to; }
+        public double getMultiplier() { return multiplier; }
+        public void setMultiplier(double multiplier) { this.multiplier = multiplier; }
+    }
+
+    /**
+     * Hotel rates are per room; a room holds {@code baseGuestsPerRoom} guests at that rate.
+     * Each additional guest adds {@code extraGuestSurcharge} of the nightly rate, and rooms
+     * taken by a single guest get {@code singleOccupancyDiscount} off.
+     */
+    public static class Occupancy {
+        private int baseGuestsPerRoom = 2;
+        private double extraGuestSurcharge = 0.0;
+        private double singleOccupancyDiscount = 0.0;
+
+        public int getBaseGuestsPerRoom() { return baseGuestsPerRoom; }
+        public void setBaseGuestsPerRoom(int baseGuestsPerRoom) { this.baseGuestsPerRoom = baseGuestsPerRoom; }
+        public double getExtraGuestSurcharge() { return extraGuestSurcharge; }
+        public void setExtraGuestSurcharge(double extraGuestSurcharge) { this.extraGuestSurcharge = extraGuestSurcharge; }
+        public double getSingleOccupancyDiscount() { return singleOccupancyDiscount; }
+        public void setSingleOccupancyDiscount(double singleOccupancyDiscount) { this.singleOccupancyDiscount = singleOccupancyDiscount; }
+    }
+
+    private List<Season> seasons = new ArrayList<>();
+    private Map<DayOfWeek, Double> weekdays = new EnumMap<>(DayOfWeek.class);
+    private Occupancy occupancy = new Occupancy();
+
+    public List<Season> getSeasons() { return seasons; }
+    public void setSeasons(List<Season> seasons) { this.seasons = seasons; }
+    public Map<DayOfWeek, Double> getWeekdays() { return weekdays; }
+    public void setWeekdays(Map<DayOfWeek, Double> weekdays) { this.weekdays = weekdays; }
+    public Occupancy getOccupancy() { return occupancy; }
+    public void setOccupancy(Occupancy occupancy) { this.occupancy = occupancy; }
+}
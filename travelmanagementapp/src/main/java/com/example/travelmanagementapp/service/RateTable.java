@@ -0,0 +1,226 @@
+package com.example.travelmanagementapp.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link PricingRules} compiled for lookups. The season and weekday multipliers of every
+ * day in a window of years are multiplied out once, and a running sum over them makes the
+ * price of a stay of any length two array reads. Dates outside the window are priced from
+ * the rules directly. Immutable, so a table can be shared by any number of threads and
+ * swapped out as a whole when the rules change.
+ */
+public final class RateTable {
+
+    // Keeps a quote for an absurd stay from walking millions of days outside the window
+    private static final int MAX_NIGHTS = 366;
+
+    private static final class CompiledSeason {
+        private final MonthDay from;
+        private final MonthDay to;
+        private final double multiplier;
+
+        CompiledSeason(MonthDay from, MonthDay to, double multiplier) {
+            this.from = from;
+            this.to = to;
+            this.multiplier = multiplier;
+        }
+
+        boolean contains(MonthDay day) {
+            // A season such as 12-20 to 01-05 wraps around New Year
+            return from.isAfter(to)
+                ? !day.isBefore(from) || !day.isAfter(to)
+                : !day.isBefore(from) && !day.isAfter(to);
+        }
+    }
+
+    private final List<CompiledSeason> seasons;
+    private final double[] weekdayFactors = new double[7];
+    private final int baseGuestsPerRoom;
+    private final double extraGuestSurcharge;
+    private final double singleOccupancyDiscount;
+
+    private final LocalDate windowStart;
+    private final long windowStartEpochDay;
+    private final double[] dailyFactors;
+    // cumulative[i] is the sum of dailyFactors[0..i-1]
+    private final double[] cumulative;
+
+    /**
+     * Compiles {@code rules} for the years {@code firstYear} to {@code firstYear + years - 1}.
+     * Throws IllegalArgumentException when the rules are inconsistent.
+     */
+    public RateTable(PricingRules rules, int firstYear, int years) {
+        this.seasons = compileSeasons(rules.getSeasons());
+
+        for (int i = 0; i < weekdayFactors.length; i++) {
+            weekdayFactors[i] = 1.0;
+        }
+        if (rules.getWeekdays() != null) {
+            for (Map.Entry<DayOfWeek, Double> weekday : rules.getWeekdays().entrySet()) {
+                weekdayFactors[weekday.getKey().getValue() - 1] = positive(weekday.getValue(), "weekday " + weekday.getKey());
+            }
+        }
+
+        PricingRules.Occupancy occupancy = rules.getOccupancy() != null ? rules.getOccupancy() : new PricingRules.Occupancy();
+        if (occupancy.getBaseGuestsPerRoom() < 1) {
+            throw new IllegalArgumentException("baseGuestsPerRoom must be at least 1");
+        }
+        if (occupancy.getExtraGuestSurcharge() < 0) {
+            throw new IllegalArgumentException("extraGuestSurcharge must not be negative");
+        }
+        if (occupancy.getSingleOccupancyDiscount() < 0 || occupancy.getSingleOccupancyDiscount() >= 1) {
+            throw new IllegalArgumentException("singleOccupancyDiscount must be at least 0 and below 1");
+        }
+        this.baseGuestsPerRoom = occupancy.getBaseGuestsPerRoom();
+        this.extraGuestSurcharge = occupancy.getExtraGuestSurcharge();
+        this.singleOccupancyDiscount = occupancy.getSingleOccupancyDiscount();
+
+        this.windowStart = LocalDate.of(firstYear, 1, 1);
+        this.windowStartEpochDay = windowStart.toEpochDay();
+        int days = (int) ChronoUnit.DAYS.between(windowStart, windowStart.plusYears(years));
+        this.dailyFactors = new double[days];
+        this.cumulative = new double[days + 1];
+        for (int i = 0; i < days; i++) {
+            dailyFactors[i] = computeFactor(windowStart.plusDays(i));
+            cumulative[i + 1] = cumulative[i] + dailyFactors[i];
+        }
+    }
+
+    public LocalDate getWindowStart() {
+        return windowStart;
+    }
+
+    public LocalDate getWindowEnd() {
+        return windowStart.plusDays(dailyFactors.length);
+    }
+
+    /**
+     * Combined season and weekday multiplier of one day.
+     */
+    public double factor(LocalDate day) {
+        long index = day.toEpochDay() - windowStartEpochDay;
+        return index >= 0 && index < dailyFactors.length ? dailyFactors[(int) index] : computeFactor(day);
+    }
+
+    /**
+     * Sum of the multipliers of the nights from {@code checkIn} up to, not including,
+     * {@code checkOut}; a stay at a flat rate costs the rate times this.
+     */
+    public double nightFactors(LocalDate checkIn, LocalDate checkOut) {
+        long from = checkIn.toEpochDay() - windowStartEpochDay;
+        long to = checkOut.toEpochDay() - windowStartEpochDay;
+        if (from >= 0 && to <= dailyFactors.length) {
+            return cumulative[(int) to] - cumulative[(int) from];
+        }
+        double sum = 0;
+        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+            sum += factor(night);
+        }
+        return sum;
+    }
+
+    /**
+     * Price of a package starting on {@code travelDate}; the package price is per traveller.
+     */
+    public double quotePackage(double price, LocalDate travelDate, int travellers) {
+        if (travelDate == null) {
+            throw new IllegalArgumentException("Travel date is required");
+        }
+        if (travellers < 1) {
+            throw new IllegalArgumentException("At least one traveller is required");
+        }
+        return round(price * factor(travelDate) * travellers);
+    }
+
+    /**
+     * Price of {@code rooms} rooms for {@code guests} guests from {@code checkIn} to
+     * {@code checkOut}; {@code pricePerNight} is the rate of one room at base occupancy.
+     */
+    public double quoteStay(double pricePerNight, LocalDate checkIn, LocalDate checkOut, int rooms, int guests) {
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("Check-out must be after check-in");
+        }
+        if (ChronoUnit.DAYS.between(checkIn, checkOut) > MAX_NIGHTS) {
+            throw new IllegalArgumentException("Stays longer than " + MAX_NIGHTS + " nights cannot be priced");
+        }
+        if (rooms < 1) {
+            throw new IllegalArgumentException("At least one room must be booked");
+        }
+        if (guests < 1) {
+            throw new IllegalArgumentException("At least one guest is required");
+        }
+        return round(pricePerNight * occupancyFactor(rooms, guests) * nightFactors(checkIn, checkOut));
+    }
+
+    /**
+     * Rooms' worth of the nightly rate a party pays: one per room, plus the surcharge per
+     * guest beyond the rooms' base occupancy, minus the discount per singly occupied room.
+     */
+    double occupancyFactor(int rooms, int guests) {
+        double factor = rooms + extraGuestSurcharge * Math.max(0, guests - rooms * baseGuestsPerRoom);
+        if (baseGuestsPerRoom > 1) {
+            // Guests spread evenly, so with fewer than two per room some rooms hold one
+            int singleRooms = Math.max(0, Math.min(rooms, 2 * rooms - guests));
+            factor -= singleOccupancyDiscount * singleRooms;
+        }
+        return factor;
+    }
+
+    private double computeFactor(LocalDate day) {
+        MonthDay monthDay = MonthDay.from(day);
+        double season = 1.0;
+        boolean inSeason = false;
+        // Where seasons overlap the highest multiplier applies
+        for (CompiledSeason candidate : seasons) {
+            if (candidate.contains(monthDay) && (!inSeason || candidate.multiplier > season)) {
+                season = candidate.multiplier;
+                inSeason = true;
+            }
+        }
+        return season * weekdayFactors[day.getDayOfWeek().getValue() - 1];
+    }
+
+    private static List<CompiledSeason> compileSeasons(List<PricingRules.Season> seasons) {
+        List<CompiledSeason> compiled = new ArrayList<>();
+        if (seasons == null) {
+            return compiled;
+        }
+        for (PricingRules.Season season : seasons) {
+            String name = season.getName() != null ? season.getName() : "unnamed";
+            compiled.add(new CompiledSeason(monthDay(season.getFrom(), name), monthDay(season.getTo(), name),
+                positive(season.getMultiplier(), "season " + name)));
+        }
+        return compiled;
+    }
+
+    private static MonthDay monthDay(String value, String season) {
+        if (value == null) {
+            throw new IllegalArgumentException("Season " + season + " needs from and to dates");
+        }
+        try {
+            return MonthDay.parse("--" + value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Season " + season + " has an invalid date " + value + ", expected MM-dd");
+        }
+    }
+
+    private static double positive(Double multiplier, String what) {
+        if (multiplier == null || !(multiplier > 0) || Double.isInfinite(multiplier)) {
+            throw new IllegalArgumentException("Multiplier of " + what + " must be positive");
+        }
+        return multiplier;
+    }
+
+    private static double round(double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.Exception.OurException;
+import com.example.travelmanagementapp.Exception.RoomsUnavailableException;
+import com.example.travelmanagementapp.model.Hotel;
+import com.example.travelmanagementapp.model.RoomNight;
+import com.example.travelmanagementapp.repository.RoomNightRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Rooms per hotel per night. Reservations of one hotel are serialized on this node by a
+ * striped lock, so local bookings never conflict with each other; the version column on
+ * {@link RoomNight} catches the rare conflict with another node, and the reservation is
+ * then retried against the fresh counts. Either way no night is sold beyond the hotel's
+ * room count.
+ */
+@Service
+public class RoomInventoryService {
+
+    private static final int LOCK_STRIPES = 256;
+
+    /**
+     * Free rooms of a hotel on one night.
+     */
+    public static final class NightAvailability {
+        private final LocalDate night;
+        private final int capacity;
+        private final int reserved;
+
+        NightAvailability(LocalDate night, int capacity, int reserved) {
+            this.night = night;
+            this.capacity = capacity;
+            this.reserved = reserved;
+        }
+
+        public LocalDate getNight() { return night; }
+        public int getCapacity() { return capacity; }
+        public int getReserved() { return reserved; }
+        public int getAvailable() { return Math.max(0, capacity - reserved); }
+    }
+
+    // Thrown inside the reservation transaction when another node changed the same nights first
+    private static final class ConcurrentUpdate extends RuntimeException {
+        ConcurrentUpdate(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    @Autowired
+    private RoomNightRepository roomNightRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.inventory.default-rooms:20}")
+    private int defaultRooms;
+
+    @Value("${app.inventory.max-nights:60}")
+    private int maxNights;
+
+    @Value("${app.inventory.reserve-attempts:5}")
+    private int reserveAttempts;
+
+    // Locks rather than monitors: the holder waits on the database and may be a virtual thread
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public RoomInventoryService() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public int capacityOf(Hotel hotel) {
+        return hotel.getRoomCount() != null ? hotel.getRoomCount() : defaultRooms;
+    }
+
+    /**
+     * Availability for every night from {@code checkIn} up to, not including, {@code checkOut}.
+     */
+    public List<NightAvailability> getAvailability(Hotel hotel, LocalDate checkIn, LocalDate checkOut) {
+        long nights = validateStay(checkIn, checkOut);
+        int capacity = capacityOf(hotel);
+        Map<LocalDate, Integer> reserved = new HashMap<>();
+        for (RoomNight night : roomNightRepository.findNights(hotel.getId(), checkIn, checkOut)) {
+            reserved.put(night.getNight(), night.getReserved());
+        }
+        List<NightAvailability> result = new ArrayList<>((int) nights);
+        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+            result.add(new NightAvailability(night, capacity, reserved.getOrDefault(night, 0)));
+        }
+        return result;
+    }
+
+    /**
+     * Reserves {@code rooms} rooms for every night of the stay and runs {@code action} in
+     * the same transaction, so the booking row commits together with its rooms. Throws
+     * RoomsUnavailableException when any night has too few free rooms.
+     */
+    public <T> T reserve(Hotel hotel, LocalDate checkIn, LocalDate checkOut, int rooms, Supplier<T> action) {
+        if (rooms < 1) {
+            throw new IllegalArgumentException("At least one room must be booked");
+        }
+        validateStay(checkIn, checkOut);
+        return update(hotel.getId(), checkIn, checkOut, rooms, capacityOf(hotel), action);
+    }
+
+    /**
+     * Gives back the rooms of a stay and runs {@code action} in the same transaction, which
+     * is the caller's one when it has already cancelled the booking. The nights are locked
+     * in the database instead of taking the hotel's lock, so a release never waits for a
+     * reservation while holding a booking's row, and never conflicts with one either. The
+     * stay is not checked against the current limits: it was valid when it was booked.
+     */
+    public <T> T release(Long hotelId, LocalDate checkIn, LocalDate checkOut, int rooms, Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            List<RoomNight> nights = roomNightRepository.lockNights(hotelId, checkIn, checkOut);
+            for (RoomNight night : nights) {
+                night.setReserved(Math.max(0, night.getReserved() - rooms));
+            }
+            roomNightRepository.saveAllAndFlush(nights);
+            return action.get();
+        });
+    }
+
+    private <T> T update(Long hotelId, LocalDate checkIn, LocalDate checkOut, int delta, int capacity, Supplier<T> action) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ReentrantLock lock = locks[Math.floorMod(hotelId.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return transaction.execute(status -> {
+                        applyDelta(hotelId, checkIn, checkOut, delta, capacity);
+                        return action.get();
+                    });
+                } catch (ConcurrentUpdate e) {
+                    if (attempt >= reserveAttempts) {
+                        throw new OurException("Room inventory is busy, please retry", e.getCause());
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void applyDelta(Long hotelId, LocalDate checkIn, LocalDate checkOut, int delta, int capacity) {
+        Map<LocalDate, RoomNight> booked = new HashMap<>();
+        for (RoomNight night : roomNightRepository.findNights(hotelId, checkIn, checkOut)) {
+            booked.put(night.getNight(), night);
+        }
+        List<RoomNight> changed = new ArrayList<>();
+        for (LocalDate day = checkIn; day.isBefore(checkOut); day = day.plusDays(1)) {
+            RoomNight night = booked.get(day);
+            if (night == null) {
+                night = new RoomNight(hotelId, day);
+            }
+            int reserved = night.getReserved() + delta;
+            if (delta > 0 && reserved > capacity) {
+                throw new RoomsUnavailableException("Only " + Math.max(0, capacity - night.getReserved())
+                    + " room(s) left on " + day);
+            }
+            night.setReserved(Math.max(0, reserved));
+            changed.add(night);
+        }
+        // Flush now so a conflicting version or a night inserted by another node surfaces
+        // here, before the caller's own writes, and the attempt can simply be repeated
+        try {
+            roomNightRepository.saveAllAndFlush(changed);
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            throw new ConcurrentUpdate(e);
+        }
+    }
+
+    private long validateStay(LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("Check-out must be after check-in");
+        }
+        long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
+        if (nights > maxNights) {
+            throw new IllegalArgumentException("Stays are limited to " + maxNights + " nights");
+        }
+        return nights;
+    }
+}
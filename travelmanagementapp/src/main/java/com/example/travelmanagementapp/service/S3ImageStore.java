@@ -0,0 +1,169 @@
+package com.example.travelmanagementapp.service;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.HttpMethod;
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.ResponseHeaderOverrides;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps images in an S3 bucket, or any S3-compatible service (MinIO, Ceph, a local fake)
+ * reached through {@code app.images.s3.endpoint} with path-style addressing.
+ *
+ * Uploads go through a {@link TransferManager}: files above the multipart threshold are
+ * split into parts that are sent in parallel on {@code app.images.s3.upload-threads}
+ * connections. Reads are not proxied; clients are redirected to presigned GET URLs.
+ */
+@Service
+@ConditionalOnProperty(name = "app.images.store", havingValue = "s3")
+public class S3ImageStore implements ImageStore {
+
+    // Blobs and their derivatives never change once written
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private final AmazonS3 s3;
+    private final TransferManager transferManager;
+    private final String bucket;
+    private final String keyPrefix;
+
+    public S3ImageStore(
+            @Value("${app.images.s3.bucket}") String bucket,
+            @Value("${app.images.s3.region:us-east-1}") String region,
+            @Value("${app.images.s3.endpoint:}") String endpoint,
+            @Value("${app.images.s3.access-key:}") String accessKey,
+            @Value("${app.images.s3.secret-key:}") String secretKey,
+            @Value("${app.images.s3.key-prefix:}") String keyPrefix,
+            @Value("${app.images.s3.multipart-threshold:16777216}") long multipartThreshold,
+            @Value("${app.images.s3.part-size:8388608}") long partSize,
+            @Value("${app.images.s3.upload-threads:4}") int uploadThreads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        AWSCredentialsProvider credentials = accessKey.isEmpty()
+            ? DefaultAWSCredentialsProviderChain.getInstance()
+            : new AWSStaticCredentialsProvider(new BasicAWSCredentials(accessKey, secretKey));
+        AmazonS3ClientBuilder builder = AmazonS3ClientBuilder.standard()
+            .withCredentials(credentials)
+            .withClientConfiguration(new ClientConfiguration().withMaxConnections(Math.max(50, uploadThreads * 2)));
+        if (endpoint.isEmpty()) {
+            builder.withRegion(region);
+        } else {
+            // S3-compatible services rarely support virtual-hosted buckets or chunked payload signing
+            builder.withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, region))
+                .withPathStyleAccessEnabled(true)
+                .withChunkedEncodingDisabled(true);
+        }
+        this.s3 = builder.build();
+        this.bucket = bucket;
+        this.keyPrefix = keyPrefix;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.transferManager = TransferManagerBuilder.standard()
+            .withS3Client(s3)
+            .withMultipartUploadThreshold(multipartThreshold)
+            .withMinimumUploadPartSize(partSize)
+            .withExecutorFactory(() -> Executors.newFixedThreadPool(uploadThreads, virtualThreads
+                // Part uploads only wait on the network, so they do not need carrier threads of their own
+                ? Thread.ofVirtual().name("image-s3-upload-", 1).factory()
+                : runnable -> {
+                    Thread thread = new Thread(runnable, "image-s3-upload-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+            .withShutDownThreadPools(true)
+            .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Also shuts down the S3 client
+        transferManager.shutdownNow(true);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return s3.doesObjectExist(bucket, objectKey(key));
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+        metadata.setContentLength(source.toFile().length());
+        if (key.startsWith("blobs/")) {
+            metadata.setCacheControl(IMMUTABLE_CACHE_CONTROL);
+        }
+        try {
+            // Reads the file in part-sized ranges, so large uploads are never buffered in memory
+            transferManager.upload(new PutObjectRequest(bucket, objectKey(key), source.toFile()).withMetadata(metadata))
+                .waitForCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted uploading " + key);
+        } catch (AmazonServiceException e) {
+            throw new IOException("Could not upload " + key + ": " + e.getErrorMessage(), e);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return s3.getObject(bucket, objectKey(key)).getObjectContent();
+        } catch (AmazonServiceException e) {
+            throw new IOException("Could not read " + key + ": " + e.getErrorMessage(), e);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            s3.deleteObject(bucket, objectKey(key));
+        } catch (AmazonServiceException e) {
+            throw new IOException("Could not delete " + key + ": " + e.getErrorMessage(), e);
+        }
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return null;
+    }
+
+    @Override
+    public URL presignedGetUrl(String key, Duration validity) {
+        GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(bucket, objectKey(key), HttpMethod.GET)
+            .withExpiration(new Date(System.currentTimeMillis() + validity.toMillis()));
+        // Legacy (non content-addressed) keys can be overwritten, so only blobs are cached for good
+        if (!key.startsWith("blobs/")) {
+            request.setResponseHeaders(new ResponseHeaderOverrides().withCacheControl("no-cache"));
+        }
+        // Signing is local, no request is made
+        return s3.generatePresignedUrl(request);
+    }
+
+    private String objectKey(String key) {
+        return keyPrefix + key;
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.travelmanagementapp.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie for typeahead completion. Every node keeps its best {@code maxResults}
+ * suggestions precomputed, so a lookup only walks the prefix and copies that list.
+ *
+ * Children are stored as sorted parallel arrays instead of maps to keep nodes small.
+ * Matching is case-insensitive; leading whitespace in the prefix is ignored.
+ */
+public class SuggestionTrie {
+
+    /**
+     * A single completion. {@code key} identifies the suggestion (e.g. "destination:12")
+     * so it can be re-weighted or removed later.
+     */
+    public static final class Suggestion {
+        private final String key;
+        private final String text;
+        private final String type;
+        private final Long id;
+        private final long weight;
+
+        public Suggestion(String key, String text, String type, Long id, long weight) {
+            this.key = key;
+            this.text = text;
+            this.type = type;
+            this.id = id;
+            this.weight = weight;
+        }
+
+        public String getKey() { return key; }
+        public String getText() { return text; }
+        public String getType() { return type; }
+        public Long getId() { return id; }
+        public long getWeight() { return weight; }
+
+        Suggestion withWeight(long newWeight) {
+            return new Suggestion(key, text, type, id, newWeight);
+        }
+    }
+
+    private static final Comparator<Suggestion> BY_RANK = Comparator
+        .comparingLong(Suggestion::getWeight).reversed()
+        .thenComparing(Suggestion::getText)
+        .thenComparing(Suggestion::getKey);
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+
+    private static final class Node {
+        char[] labels = NO_LABELS;
+        Node[] children = NO_CHILDREN;
+        // Suggestions whose text ends exactly at this node
+        Suggestion[] terminals = NO_SUGGESTIONS;
+        // Best suggestions in this subtree, sorted by rank
+        Suggestion[] top = NO_SUGGESTIONS;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node getOrAddChild(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newLabels[at] = c;
+            newChildren[at] = new Node();
+            System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[at];
+        }
+
+        void removeChild(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            if (i < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(labels, i + 1, newLabels, i, labels.length - i - 1);
+            System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return labels.length == 0 && terminals.length == 0;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxResults;
+    private final Node root = new Node();
+    private final Map<String, Suggestion> byKey = new HashMap<>();
+
+    public SuggestionTrie(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    /**
+     * Returns up to {@code limit} completions for the prefix, most popular first.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            boolean leading = true;
+            for (int i = 0; prefix != null && i < prefix.length() && node != null; i++) {
+                char c = prefix.charAt(i);
+                if (leading && Character.isWhitespace(c)) {
+                    continue;
+                }
+                leading = false;
+                node = node.child(Character.toLowerCase(c));
+            }
+            if (node == null || node == root) {
+                return List.of();
+            }
+            Suggestion[] top = node.top;
+            return Arrays.asList(top).subList(0, Math.min(Math.max(limit, 0), top.length));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a suggestion, replacing any existing suggestion with the same key.
+     */
+    public void put(Suggestion suggestion) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(suggestion.getKey());
+            String path = normalize(suggestion.getText());
+            if (path.isEmpty()) {
+                return;
+            }
+            byKey.put(suggestion.getKey(), suggestion);
+
+            Node[] nodes = new Node[path.length() + 1];
+            nodes[0] = root;
+            for (int i = 0; i < path.length(); i++) {
+                nodes[i + 1] = nodes[i].getOrAddChild(path.charAt(i));
+            }
+            Node leaf = nodes[path.length()];
+            Suggestion[] terminals = Arrays.copyOf(leaf.terminals, leaf.terminals.length + 1);
+            terminals[terminals.length - 1] = suggestion;
+            leaf.terminals = terminals;
+            recomputePath(nodes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds {@code delta} to the weight of an existing suggestion. Unknown keys are ignored.
+     */
+    public void addWeight(String key, long delta) {
+        lock.writeLock().lock();
+        try {
+            Suggestion existing = byKey.get(key);
+            if (existing == null) {
+                return;
+            }
+            // The write lock is reentrant, so put() can be called while holding it
+            put(existing.withWeight(existing.getWeight() + delta));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Suggestion get(String key) {
+        lock.readLock().lock();
+        try {
+            return byKey.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            byKey.clear();
+            root.labels = NO_LABELS;
+            root.children = NO_CHILDREN;
+            root.terminals = NO_SUGGESTIONS;
+            root.top = NO_SUGGESTIONS;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(String key) {
+        Suggestion existing = byKey.remove(key);
+        if (existing == null) {
+            return;
+        }
+        String path = normalize(existing.getText());
+        Node[] nodes = new Node[path.length() + 1];
+        nodes[0] = root;
+        for (int i = 0; i < path.length(); i++) {
+            nodes[i + 1] = nodes[i].child(path.charAt(i));
+        }
+        Node leaf = nodes[path.length()];
+        List<Suggestion> remaining = new ArrayList<>(leaf.terminals.length);
+        for (Suggestion terminal : leaf.terminals) {
+            if (!terminal.getKey().equals(key)) {
+                remaining.add(terminal);
+            }
+        }
+        leaf.terminals = remaining.toArray(NO_SUGGESTIONS);
+
+        // Prune nodes that no longer lead anywhere
+        for (int i = path.length(); i > 0 && nodes[i].isEmpty(); i--) {
+            nodes[i - 1].removeChild(path.charAt(i - 1));
+            nodes[i] = null;
+        }
+        recomputePath(nodes);
+    }
+
+    // Rebuilds the precomputed top lists from the deepest node on the path up to the root
+    private void recomputePath(Node[] nodes) {
+        for (int i = nodes.length - 1; i >= 0; i--) {
+            Node node = nodes[i];
+            if (node == null) {
+                continue;
+            }
+            List<Suggestion> candidates = new ArrayList<>(node.terminals.length + node.children.length * maxResults);
+            candidates.addAll(Arrays.asList(node.terminals));
+            for (Node child : node.children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(BY_RANK);
+            node.top = candidates.subList(0, Math.min(maxResults, candidates.size())).toArray(NO_SUGGESTIONS);
+        }
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (sb.length() == 0 && Character.isWhitespace(c)) {
+                continue;
+            }
+            sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+}
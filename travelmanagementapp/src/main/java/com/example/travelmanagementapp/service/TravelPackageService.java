@@ -1,5 +1,7 @@
 package com.example.travelmanagementapp.service;
 
+import com.example.travelmanagementapp.DTO.CursorPage;
+import com.example.travelmanagementapp.DTO.TravelPackageSummary;
 import com.example.travelmanagementapp.model.TravelPackage;
 import com.example.travelmanagementapp.repository.TravelPackageRepository;
 import com.example.travelmanagementapp.repository.RestaurantRepository;
@@ -7,13 +9,20 @@ import com.example.travelmanagementapp.repository.HotelRepository;
 import com.example.travelmanagementapp.model.Restaurant;
 import com.example.travelmanagementapp.model.Hotel;
 import com.example.travelmanagementapp.model.User;
+import com.example.travelmanagementapp.CacheConfig;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Service
@@ -30,15 +39,30 @@ public class TravelPackageService {
     
     @Autowired
     private ImageService imageService;
+    
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Autowired
+    private DemandIndex demandIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     public void createTravelPackage(TravelPackage travelPackage) {
-        travelPackageRepository.save(travelPackage);
+        catalogSearchIndex.indexTravelPackage(travelPackageRepository.save(travelPackage));
     }
 
     public List<TravelPackage> getAllTravelPackages() {
         return travelPackageRepository.findAll();
     }
     
+    public CursorPage<TravelPackageSummary> getTravelPackagePage(String cursor, int limit) {
+        List<TravelPackageSummary> rows = travelPackageRepository.findSummariesAfter(
+            CursorPage.decodeCursor(cursor), PageRequest.of(0, limit + 1));
+        return CursorPage.of(rows, limit, TravelPackageSummary::getId);
+    }
+    
     public List<TravelPackage> getTravelPackagesByUsername(String username) {
         return travelPackageRepository.findByUserUsername(username);
     }
@@ -47,185 +71,186 @@ public class TravelPackageService {
         return travelPackageRepository.findById(id).orElse(null);
     }
 
+    // Package updates may replace its hotels, so drop cached hotels as well
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.TRAVEL_PACKAGES, key = "#travelPackage.id"),
+        @CacheEvict(cacheNames = CacheConfig.HOTELS, allEntries = true)
+    })
     public void updateTravelPackage(TravelPackage travelPackage) {
-        travelPackageRepository.save(travelPackage);
+        catalogSearchIndex.indexTravelPackage(travelPackageRepository.save(travelPackage));
     }
 
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.TRAVEL_PACKAGES, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.HOTELS, allEntries = true)
+    })
     public void deleteTravelPackage(Long id) {
         travelPackageRepository.deleteById(id);
+        demandIndex.evictPackage(id);
+        imageService.deleteImagesFor("package_hotel", id);
+        imageService.deleteImagesFor("package_restaurant", id);
+        catalogSearchIndex.removeTravelPackage(id);
     }
 
-    @Transactional
+    // Image files are written in parallel before the transaction starts, so it only records
+    // rows and does not hold a connection during file I/O. Releasing the uploads afterwards
+    // deletes the files again if the transaction rolled back.
     public void createTravelPackageWithDetails(String packageName, String destination, List<String> restaurants, List<String> hotels, List<MultipartFile> restaurantImages, List<MultipartFile> hotelImages, User user) throws IOException {
-        TravelPackage travelPackage = new TravelPackage();
-        travelPackage.setName(packageName);
-        travelPackage.setDescription("Package to " + destination);
-        travelPackage.setPrice(0.0);
-        travelPackage.setUser(user);
-
-        // Save travel package
-        travelPackageRepository.save(travelPackage);
-
-        // Save restaurants and their images
-        for (int i = 0; i < restaurants.size(); i++) {
-            if (restaurants.get(i) != null && !restaurants.get(i).isEmpty()) {
-                Restaurant restaurant = new Restaurant();
-                restaurant.setName(restaurants.get(i));
-                restaurant.setTravelPackage(travelPackage);
-                restaurantRepository.save(restaurant);
-
-                // Process and save restaurant images
-                if (restaurantImages != null && i < restaurantImages.size()) {
-                    List<String> fileNames = imageService.savePackageImages(
-                            List.of(restaurantImages.get(i)), 
-                            user, 
-                            "restaurant");
-                    // You can store these filenames in your restaurant entity if needed
+        List<MultipartFile> restaurantFiles = restaurantImages != null ? restaurantImages : List.of();
+        List<MultipartFile> hotelFiles = hotelImages != null ? hotelImages : List.of();
+        List<ImageService.StoredUpload> uploads = storeUploads(restaurantFiles, hotelFiles);
+        List<ImageService.StoredUpload> restaurantUploads = uploads.subList(0, restaurantFiles.size());
+        List<ImageService.StoredUpload> hotelUploads = uploads.subList(restaurantFiles.size(), uploads.size());
+        try {
+            TravelPackage created = transactionTemplate().execute(status -> {
+                TravelPackage travelPackage = new TravelPackage();
+                travelPackage.setName(packageName);
+                travelPackage.setDescription("Package to " + destination);
+                travelPackage.setPrice(0.0);
+                travelPackage.setUser(user);
+
+                // Save travel package
+                travelPackageRepository.save(travelPackage);
+
+                // Save restaurants and their images
+                for (int i = 0; i < restaurants.size(); i++) {
+                    if (restaurants.get(i) != null && !restaurants.get(i).isEmpty()) {
+                        Restaurant restaurant = new Restaurant();
+                        restaurant.setName(restaurants.get(i));
+                        restaurant.setTravelPackage(travelPackage);
+                        restaurantRepository.save(restaurant);
+
+                        // Record the restaurant's image
+                        if (i < restaurantUploads.size()) {
+                            imageService.savePackageImageRows(
+                                    Collections.singletonList(restaurantUploads.get(i)),
+                                    user,
+                                    "restaurant",
+                                    null);
+                        }
+                    }
                 }
-            }
-        }
 
-        // Save hotels and their images
-        for (int i = 0; i < hotels.size(); i++) {
-            if (hotels.get(i) != null && !hotels.get(i).isEmpty()) {
-                Hotel hotel = new Hotel();
-                hotel.setName(hotels.get(i));
-                hotel.setTravelPackage(travelPackage);
-                hotelRepository.save(hotel);
-
-                // Process and save hotel images
-                if (hotelImages != null && i < hotelImages.size()) {
-                    List<String> fileNames = imageService.savePackageImages(
-                            List.of(hotelImages.get(i)), 
-                            user, 
-                            "hotel");
-                    // You can store these filenames in your hotel entity if needed
+                // Save hotels and their images
+                for (int i = 0; i < hotels.size(); i++) {
+                    if (hotels.get(i) != null && !hotels.get(i).isEmpty()) {
+                        Hotel hotel = new Hotel();
+                        hotel.setName(hotels.get(i));
+                        hotel.setTravelPackage(travelPackage);
+                        hotelRepository.save(hotel);
+
+                        // Record the hotel's image
+                        if (i < hotelUploads.size()) {
+                            imageService.savePackageImageRows(
+                                    Collections.singletonList(hotelUploads.get(i)),
+                                    user,
+                                    "hotel",
+                                    null);
+                        }
+                    }
                 }
-            }
+                return travelPackage;
+            });
+            // Only a committed package is searchable
+            catalogSearchIndex.indexTravelPackage(created);
+        } finally {
+            imageService.releaseUploads(uploads);
         }
     }
 
-    @Transactional
     public void createTravelPackageWithDetails(String packageName, String destination, double price,
                                                List<String> restaurants, List<String> hotels,
                                                List<MultipartFile> restaurantImages, List<MultipartFile> hotelImages,
                                                User user) throws IOException {
-        TravelPackage travelPackage = new TravelPackage();
-        travelPackage.setName(packageName);
-        travelPackage.setDescription("Package to " + destination);
-        travelPackage.setPrice(price);
-        travelPackage.setUser(user);
-
-        // Save travel package first to get the ID
-        travelPackageRepository.save(travelPackage);
-
-        // Process package-level images if any
-        if (restaurantImages != null && !restaurantImages.isEmpty()) {
-            List<String> restaurantFileNames = imageService.savePackageImages(
-                    restaurantImages,
-                    user,
-                    "restaurant");
-            
-            // Store association between images and package
-            for (String fileName : restaurantFileNames) {
-                // You might want to store these in a separate table or list
-            }
-        }
-        
-        if (hotelImages != null && !hotelImages.isEmpty()) {
-            List<String> hotelFileNames = imageService.savePackageImages(
-                    hotelImages,
-                    user,
-                    "hotel");
-            
-            // Store association between images and package
-            for (String fileName : hotelFileNames) {
-                // You might want to store these in a separate table or list
-            }
-        }
-
-        // Save restaurants
-        for (int i = 0; i < restaurants.size(); i++) {
-            if (restaurants.get(i) != null && !restaurants.get(i).isEmpty()) {
-                Restaurant restaurant = new Restaurant();
-                restaurant.setName(restaurants.get(i));
-                restaurant.setTravelPackage(travelPackage);
-                restaurantRepository.save(restaurant);
-            }
-        }
-
-        // Save hotels
-        for (int i = 0; i < hotels.size(); i++) {
-            if (hotels.get(i) != null && !hotels.get(i).isEmpty()) {
-                Hotel hotel = new Hotel();
-                hotel.setName(hotels.get(i));
-                hotel.setTravelPackage(travelPackage);
-                hotelRepository.save(hotel);
-            }
-        }
+        createPackage(packageName, destination, price, restaurants, hotels, restaurantImages, hotelImages,
+            user, null, false);
     }
 
-    @Transactional
-    public void createTravelPackageWithDetails(String packageName, String destination, double price,
+    public TravelPackage createTravelPackageWithDetails(String packageName, String destination, double price,
                                                List<String> restaurants, List<String> hotels,
                                                List<MultipartFile> restaurantImages, List<MultipartFile> hotelImages,
                                                User user, String travelAgencyName) throws IOException {
-        TravelPackage travelPackage = new TravelPackage();
-        travelPackage.setName(packageName);
-        travelPackage.setDescription("Package to " + destination);
-        travelPackage.setPrice(price);
-        travelPackage.setUser(user);
-        travelPackage.setTravelAgencyName(travelAgencyName);
-
-        // Save travel package first to get its ID
-        travelPackageRepository.save(travelPackage);
-        
-        // Process restaurant images with package ID
-        if (restaurantImages != null && !restaurantImages.isEmpty()) {
-            List<String> fileNames = imageService.savePackageImages(restaurantImages, user, "restaurant", travelPackage.getId());
-            // Association is now handled in the savePackageImages method
-        }
-        
-        // Process hotel images with package ID
-        if (hotelImages != null && !hotelImages.isEmpty()) {
-            List<String> fileNames = imageService.savePackageImages(hotelImages, user, "hotel", travelPackage.getId());
-            // Association is now handled in the savePackageImages method
-        }
+        return createPackage(packageName, destination, price, restaurants, hotels, restaurantImages, hotelImages,
+            user, travelAgencyName, true);
+    }
 
-        // Save restaurants
-        for (int i = 0; i < restaurants.size(); i++) {
-            if (restaurants.get(i) != null && !restaurants.get(i).isEmpty()) {
-                Restaurant restaurant = new Restaurant();
-                restaurant.setName(restaurants.get(i));
-                restaurant.setTravelPackage(travelPackage);
-                restaurantRepository.save(restaurant);
-            }
-        }
+    // Shared by the priced overloads; only the agency one attaches images to the new package id
+    private TravelPackage createPackage(String packageName, String destination, double price,
+                                       List<String> restaurants, List<String> hotels,
+                                       List<MultipartFile> restaurantImages, List<MultipartFile> hotelImages,
+                                       User user, String travelAgencyName, boolean linkImages) throws IOException {
+        List<MultipartFile> restaurantFiles = restaurantImages != null ? restaurantImages : List.of();
+        List<MultipartFile> hotelFiles = hotelImages != null ? hotelImages : List.of();
+        List<ImageService.StoredUpload> uploads = storeUploads(restaurantFiles, hotelFiles);
+        try {
+            TravelPackage created = transactionTemplate().execute(status -> {
+                TravelPackage travelPackage = new TravelPackage();
+                travelPackage.setName(packageName);
+                travelPackage.setDescription("Package to " + destination);
+                travelPackage.setPrice(price);
+                travelPackage.setUser(user);
+                if (travelAgencyName != null) {
+                    travelPackage.setTravelAgencyName(travelAgencyName);
+                }
+
+                // Save travel package first to get its ID
+                travelPackageRepository.save(travelPackage);
 
-        // Save hotels
-        for (int i = 0; i < hotels.size(); i++) {
-            if (hotels.get(i) != null && !hotels.get(i).isEmpty()) {
-                Hotel hotel = new Hotel();
-                hotel.setName(hotels.get(i));
-                hotel.setTravelPackage(travelPackage);
-                hotelRepository.save(hotel);
-            }
+                Long packageId = linkImages ? travelPackage.getId() : null;
+                imageService.savePackageImageRows(uploads.subList(0, restaurantFiles.size()), user, "restaurant", packageId);
+                imageService.savePackageImageRows(uploads.subList(restaurantFiles.size(), uploads.size()), user, "hotel", packageId);
+
+                // Save restaurants
+                for (int i = 0; i < restaurants.size(); i++) {
+                    if (restaurants.get(i) != null && !restaurants.get(i).isEmpty()) {
+                        Restaurant restaurant = new Restaurant();
+                        restaurant.setName(restaurants.get(i));
+                        restaurant.setTravelPackage(travelPackage);
+                        restaurantRepository.save(restaurant);
+                    }
+                }
+
+                // Save hotels
+                for (int i = 0; i < hotels.size(); i++) {
+                    if (hotels.get(i) != null && !hotels.get(i).isEmpty()) {
+                        Hotel hotel = new Hotel();
+                        hotel.setName(hotels.get(i));
+                        hotel.setTravelPackage(travelPackage);
+                        hotelRepository.save(hotel);
+                    }
+                }
+                return travelPackage;
+            });
+            // Only a committed package is searchable
+            catalogSearchIndex.indexTravelPackage(created);
+            return created;
+        } finally {
+            imageService.releaseUploads(uploads);
         }
     }
 
+    // Restaurant and hotel images go out as one parallel batch; the result keeps their order
+    private List<ImageService.StoredUpload> storeUploads(List<MultipartFile> restaurantFiles, List<MultipartFile> hotelFiles) throws IOException {
+        List<MultipartFile> files = new ArrayList<>(restaurantFiles.size() + hotelFiles.size());
+        files.addAll(restaurantFiles);
+        files.addAll(hotelFiles);
+        return imageService.storeUploads(files);
+    }
+
+    private TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(transactionManager);
+    }
+
     /**
-     * Saves an image file to the uploads directory
+     * Saves a hotel or restaurant image of a package, uploaded by the package's owner
      * @param image The MultipartFile image to save
-     * @return The filename of the saved image
+     * @param travelPackage The package the image belongs to
+     * @param type "hotel" or "restaurant"
+     * @return The stored path of the saved image
      * @throws IOException If there is an error saving the file
      */
-    public String saveImage(MultipartFile image) throws IOException {
-        String uploadDir = "uploads";
-        File dir = new File(uploadDir);
-        if (!dir.exists()) dir.mkdirs();
-        String filename = System.currentTimeMillis() + "_" + image.getOriginalFilename();
-        File dest = new File(dir, filename);
-        image.transferTo(dest);
-        return filename;
+    public String saveImage(MultipartFile image, TravelPackage travelPackage, String type) throws IOException {
+        // Linked to the package so deleting the package also removes the image
+        return imageService.savePackageImages(List.of(image), travelPackage.getUser(), type, travelPackage.getId()).get(0);
     }
-}
\ No newline at end of file
+}
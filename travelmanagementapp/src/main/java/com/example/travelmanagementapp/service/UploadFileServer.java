@@ -0,0 +1,188 @@
+package com.example.travelmanagementapp.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes upload files straight to the servlet response without going through Spring's
+ * Resource/HttpMessageConverter copy loop.
+ *
+ * On Tomcat (NIO/NIO2 connectors with sendfile enabled, the default) files above
+ * {@link #SENDFILE_THRESHOLD} are handed to the connector through the
+ * {@code org.apache.tomcat.sendfile.*} request attributes, which sends them with the
+ * kernel's sendfile. Smaller files, and containers without sendfile, are written with
+ * {@link FileChannel#transferTo} into the response channel.
+ */
+@Service
+public class UploadFileServer {
+
+    // Same threshold Tomcat's DefaultServlet uses: below it a plain write is cheaper
+    public static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Resolves {@code relativePath} below {@code root}. Rejects anything that would leave
+     * the root: {@code ..} segments, absolute paths, and symlinks pointing outside of it.
+     * Returns {@code null} if the path is invalid or is not a regular, non-hidden file.
+     */
+    public static Path resolveWithinRoot(Path root, String relativePath) {
+        if (relativePath == null || relativePath.isEmpty() || relativePath.indexOf('\0') >= 0
+                || relativePath.indexOf('\\') >= 0) {
+            return null;
+        }
+        String trimmed = relativePath.startsWith("/") ? relativePath.substring(1) : relativePath;
+        try {
+            Path normalizedRoot = root.toAbsolutePath().normalize();
+            Path candidate = normalizedRoot.resolve(trimmed).normalize();
+            if (!candidate.startsWith(normalizedRoot) || candidate.equals(normalizedRoot)) {
+                return null;
+            }
+            if (!Files.isRegularFile(candidate)) {
+                return null;
+            }
+            // Follow symlinks only to check the real location is still inside the root
+            Path realRoot = normalizedRoot.toRealPath();
+            Path real = candidate.toRealPath();
+            if (!real.startsWith(realRoot)) {
+                return null;
+            }
+            for (Path part : realRoot.relativize(real)) {
+                if (part.toString().startsWith(".")) {
+                    return null;
+                }
+            }
+            return real;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Serves {@code file} with validators, cache headers, conditional GET and single byte-range
+     * support. The response is complete (or handed to sendfile) when this method returns.
+     */
+    public void serve(ImageService.ServedFile file, CacheControl cacheControl,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path path = file.getPath();
+        long length = Files.size(path);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(file.getEtag(), file.getLastModified())) {
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && rangeApplies(request, file)) {
+            long[] parsed = parseRange(range, length);
+            if (parsed == null) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            if (parsed.length == 2) {
+                start = parsed[0];
+                end = parsed[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(file.getContentType());
+        response.setContentLengthLong(count);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + path.getFileName() + "\"");
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (count >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat streams the file itself after the servlet returns
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+            out.flush();
+        }
+    }
+
+    // If-Range: only honour the range when the client still has the current version
+    private static boolean rangeApplies(HttpServletRequest request, ImageService.ServedFile file) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        return ifRange == null || ifRange.equals("\"" + file.getEtag() + "\"");
+    }
+
+    /**
+     * Parses a {@code Range} header against a file length. Returns {start, end} (inclusive)
+     * for a single satisfiable range, an empty array when the header should be ignored
+     * (multiple ranges or another unit) and {@code null} when it is unsatisfiable.
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.travelmanagementapp;
+
+import com.example.travelmanagementapp.model.Booking;
+import com.example.travelmanagementapp.model.Destination;
+import com.example.travelmanagementapp.model.Hotel;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import com.example.travelmanagementapp.repository.BookingRepository;
+import com.example.travelmanagementapp.repository.DestinationRepository;
+import com.example.travelmanagementapp.repository.HotelRepository;
+import com.example.travelmanagementapp.repository.TravelPackageRepository;
+import com.example.travelmanagementapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class PersonalPackageMigrationTests {
+
+    @Autowired
+    private PersonalPackageMigration migration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    public void testPersonalPackagesBecomeDirectBookings() {
+        User traveller = new User();
+        traveller.setUsername("migration-traveller");
+        traveller.setPassword("secret");
+        traveller.setEmail("migration-traveller@example.com");
+        traveller.setRole("TRAVELLER");
+        traveller = userRepository.save(traveller);
+
+        Destination destination = new Destination();
+        destination.setName("Migration Bay");
+        destination.setCountry("Portugal");
+        destination = destinationRepository.save(destination);
+
+        TravelPackage owner = personalPackage(traveller, "Hotel owner package", "Hotel owner package");
+        owner.setIsPersonalBooking(false);
+        owner = travelPackageRepository.save(owner);
+        Hotel hotel = new Hotel();
+        hotel.setName("Harbour Inn");
+        hotel.setLocation("Migration Bay");
+        hotel.setAddress("1 Quay");
+        hotel.setPricePerNight(90.0);
+        hotel.setTravelPackage(owner);
+        hotel.setDestination(destination);
+        hotel = hotelRepository.save(hotel);
+
+        TravelPackage trip = travelPackageRepository.save(
+            personalPackage(traveller, "My Trip to Migration Bay", "Hotel: Harbour Inn"));
+        TravelPackage orphan = travelPackageRepository.save(
+            personalPackage(traveller, "My Trip to Atlantis", "Hotel: Nowhere"));
+        Booking migrated = bookingRepository.save(booking(traveller, trip));
+        Booking kept = bookingRepository.save(booking(traveller, orphan));
+
+        migration.migrate();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+            "SELECT travel_package_id, hotel_id, destination_id FROM booking WHERE id = ?", migrated.getId());
+        assertThat(row.get("travel_package_id")).isNull();
+        assertThat(((Number) row.get("hotel_id")).longValue()).isEqualTo(hotel.getId());
+        assertThat(((Number) row.get("destination_id")).longValue()).isEqualTo(destination.getId());
+        assertThat(travelPackageRepository.existsById(trip.getId())).isFalse();
+
+        // Nothing to match the unknown destination against, so that booking keeps its package
+        assertThat(jdbcTemplate.queryForObject("SELECT travel_package_id FROM booking WHERE id = ?",
+            Long.class, kept.getId())).isEqualTo(orphan.getId());
+    }
+
+    private static TravelPackage personalPackage(User user, String name, String description) {
+        TravelPackage travelPackage = new TravelPackage();
+        travelPackage.setName(name);
+        travelPackage.setDescription(description);
+        travelPackage.setPrice(450.0);
+        travelPackage.setTravelAgencyName("Destination Direct Booking");
+        travelPackage.setUser(user);
+        travelPackage.setIsPersonalBooking(true);
+        return travelPackage;
+    }
+
+    private static Booking booking(User user, TravelPackage travelPackage) {
+        Booking booking = new Booking();
+        booking.setBookingDate(LocalDate.now());
+        booking.setTravelDate(LocalDate.now().plusDays(30));
+        booking.setTotalPrice(450.0);
+        booking.setUser(user);
+        booking.setTravelPackage(travelPackage);
+        return booking;
+    }
+}
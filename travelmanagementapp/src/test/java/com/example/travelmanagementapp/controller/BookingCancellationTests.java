@@ -0,0 +1,209 @@
+package com.example.travelmanagementapp.controller;
+
+import com.example.travelmanagementapp.model.Booking;
+import com.example.travelmanagementapp.model.Hotel;
+import com.example.travelmanagementapp.model.RoomNight;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import com.example.travelmanagementapp.repository.BookingRepository;
+import com.example.travelmanagementapp.repository.HotelRepository;
+import com.example.travelmanagementapp.repository.RoomNightRepository;
+import com.example.travelmanagementapp.repository.TravelPackageRepository;
+import com.example.travelmanagementapp.repository.UserRepository;
+import com.example.travelmanagementapp.service.BookingService;
+import com.example.travelmanagementapp.service.RoomInventoryService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A small chunk size so the job needs several chunks, and a night limit below stays booked earlier
+@SpringBootTest(properties = {
+    "app.bookings.cancellation.chunk-size=4",
+    "app.inventory.max-nights=3"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BookingCancellationTests {
+
+    private static final LocalDate TRAVEL_DATE = LocalDate.of(2031, 5, 10);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private RoomInventoryService roomInventoryService;
+
+    @Autowired
+    private RoomNightRepository roomNightRepository;
+
+    @Test
+    public void testCancellationKeepsTheBookingAndOnlySucceedsOnce() throws Exception {
+        User traveller = user("cancel-once-traveller", "TRAVELLER");
+        TravelPackage travelPackage = travelPackage("cancel-once", user("cancel-once-agency", "TRAVEL_AGENCY"));
+        Booking booking = bookingRepository.save(booking(traveller, travelPackage));
+
+        mockMvc.perform(delete("/api/bookings/" + booking.getId())).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/bookings/" + booking.getId())).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/bookings/" + Long.MAX_VALUE)).andExpect(status().isNotFound());
+
+        Booking cancelled = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertThat(cancelled.getStatus()).isEqualTo(Booking.CANCELLED);
+        assertThat(cancelled.getCancelledAt()).isNotNull();
+    }
+
+    @Test
+    public void testStayLongerThanTheCurrentLimitCanStillBeCancelled() throws Exception {
+        User traveller = user("cancel-long-traveller", "TRAVELLER");
+        TravelPackage travelPackage = travelPackage("cancel-long", user("cancel-long-agency", "TRAVEL_AGENCY"));
+        Hotel hotel = hotel("cancel-long-hotel", travelPackage, 3);
+
+        // Booked for five nights while the limit was higher
+        List<RoomNight> nights = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            RoomNight night = new RoomNight(hotel.getId(), TRAVEL_DATE.plusDays(i));
+            night.setReserved(2);
+            nights.add(night);
+        }
+        roomNightRepository.saveAll(nights);
+        Booking stay = booking(traveller, travelPackage);
+        stay.setHotel(hotel);
+        stay.setReturnDate(TRAVEL_DATE.plusDays(5));
+        stay.setRooms(2);
+        stay = bookingRepository.save(stay);
+
+        mockMvc.perform(delete("/api/bookings/" + stay.getId())).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/bookings/" + stay.getId())).andExpect(status().isNotFound());
+
+        assertThat(roomNightRepository.findNights(hotel.getId(), TRAVEL_DATE, TRAVEL_DATE.plusDays(5)))
+            .extracting(RoomNight::getReserved).containsExactly(0, 0, 0, 0, 0);
+    }
+
+    @Test
+    public void testBulkCancellationOfAPackageReleasesRoomsAndReportsProgress() throws Exception {
+        User traveller = user("bulk-traveller", "TRAVELLER");
+        User agency = user("bulk-agency", "TRAVEL_AGENCY");
+        User otherAgency = user("bulk-other-agency", "TRAVEL_AGENCY");
+        user("bulk-admin", "ADMIN");
+        TravelPackage withdrawn = travelPackage("bulk-withdrawn", agency);
+        TravelPackage kept = travelPackage("bulk-kept", agency);
+        Hotel hotel = hotel("bulk-hotel", withdrawn, 3);
+
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            bookings.add(booking(traveller, withdrawn));
+        }
+        bookingRepository.saveAll(bookings);
+        Booking keptBooking = bookingRepository.save(booking(traveller, kept));
+        // A stay in the package's hotel: its rooms must come back
+        Booking stay = booking(traveller, withdrawn);
+        stay.setHotel(hotel);
+        stay.setReturnDate(TRAVEL_DATE.plusDays(2));
+        stay.setRooms(2);
+        bookingService.createBooking(stay);
+
+        String request = "{\"travelPackageId\":" + withdrawn.getId() + "}";
+        mockMvc.perform(post("/api/bookings/cancellations?username=bulk-other-agency")
+                .contentType(MediaType.APPLICATION_JSON).content(request))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/bookings/cancellations?username=bulk-admin")
+                .contentType(MediaType.APPLICATION_JSON).content("{}"))
+            .andExpect(status().isBadRequest());
+
+        JsonNode job = objectMapper.readTree(mockMvc.perform(post("/api/bookings/cancellations?username=bulk-agency")
+                .contentType(MediaType.APPLICATION_JSON).content(request))
+            .andExpect(status().isAccepted())
+            .andReturn().getResponse().getContentAsString());
+        String jobId = job.get("id").asText();
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        do {
+            Thread.sleep(50);
+            job = objectMapper.readTree(mockMvc.perform(get("/api/bookings/cancellations/" + jobId))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        } while (!"completed".equals(job.get("status").asText()) && !"failed".equals(job.get("status").asText())
+            && System.currentTimeMillis() < deadline);
+
+        assertThat(job.get("status").asText()).isEqualTo("completed");
+        assertThat(job.get("total").asLong()).isEqualTo(11);
+        assertThat(job.get("processed").asLong()).isEqualTo(11);
+        assertThat(job.get("cancelled").asLong()).isEqualTo(11);
+        assertThat(bookingRepository.findById(keptBooking.getId()).orElseThrow().getStatus()).isEqualTo(Booking.CONFIRMED);
+        assertThat(roomInventoryService.getAvailability(hotel, TRAVEL_DATE, TRAVEL_DATE.plusDays(2)))
+            .extracting(RoomInventoryService.NightAvailability::getAvailable).containsExactly(3, 3);
+        mockMvc.perform(get("/api/bookings/cancellations/unknown")).andExpect(status().isNotFound());
+    }
+
+    private Booking booking(User traveller, TravelPackage travelPackage) {
+        Booking booking = new Booking();
+        booking.setBookingDate(LocalDate.of(2031, 1, 1));
+        booking.setTravelDate(TRAVEL_DATE);
+        booking.setTotalPrice(100.0);
+        booking.setUser(traveller);
+        booking.setTravelPackage(travelPackage);
+        return booking;
+    }
+
+    private User user(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setEmail(username + "@example.com");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    private TravelPackage travelPackage(String name, User owner) {
+        TravelPackage travelPackage = new TravelPackage();
+        travelPackage.setName(name);
+        travelPackage.setDescription(name);
+        travelPackage.setPrice(100.0);
+        travelPackage.setTravelAgencyName(name);
+        travelPackage.setUser(owner);
+        return travelPackageRepository.save(travelPackage);
+    }
+
+    private Hotel hotel(String name, TravelPackage travelPackage, int rooms) {
+        Hotel hotel = new Hotel();
+        hotel.setName(name);
+        hotel.setLocation("Lisbon");
+        hotel.setAddress("1 Rua");
+        hotel.setPricePerNight(80.0);
+        hotel.setRoomCount(rooms);
+        hotel.setTravelPackage(travelPackage);
+        return hotelRepository.save(hotel);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.travelmanagementapp.controller;
+
+import com.example.travelmanagementapp.model.Booking;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import com.example.travelmanagementapp.repository.BookingRepository;
+import com.example.travelmanagementapp.repository.TravelPackageRepository;
+import com.example.travelmanagementapp.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BookingHistoryTests {
+
+    private static final int BOOKINGS = 45;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    public void testHistoryPagesInTravelDateOrderAndExportStreamsEveryBooking() throws Exception {
+        User traveller = seedBookings();
+
+        List<String> seen = new ArrayList<>();
+        LocalDate previous = LocalDate.MIN;
+        String cursor = null;
+        int pages = 0;
+        do {
+            String url = "/api/bookings/user/" + traveller.getId() + "/history?limit=20"
+                + (cursor != null ? "&cursor=" + cursor : "");
+            JsonNode page = objectMapper.readTree(mockMvc.perform(get(url))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+            for (JsonNode item : page.get("items")) {
+                LocalDate travelDate = LocalDate.parse(item.get("travelDate").asText());
+                assertThat(travelDate).isAfterOrEqualTo(previous);
+                previous = travelDate;
+                seen.add(item.get("id").asText());
+                assertThat(item.get("travelPackageName").asText()).isEqualTo("History, with a comma");
+            }
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(BOOKINGS).doesNotHaveDuplicates();
+
+        String ndjson = export(traveller, "ndjson");
+        String[] lines = ndjson.split("\n");
+        assertThat(lines).hasSize(BOOKINGS);
+        assertThat(objectMapper.readTree(lines[0]).get("totalPrice").asDouble()).isEqualTo(250.0);
+
+        String csv = export(traveller, "csv");
+        String[] rows = csv.split("\r\n");
+        assertThat(rows).hasSize(BOOKINGS + 1);
+        assertThat(rows[0]).startsWith("id,reference,bookingDate,travelDate");
+        assertThat(rows[1]).contains(",\"History, with a comma\",");
+
+        mockMvc.perform(get("/api/bookings/user/" + traveller.getId() + "/history?cursor=bogus"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/bookings/user/" + traveller.getId() + "/export?format=xml"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private String export(User traveller, String format) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/bookings/user/" + traveller.getId() + "/export?format=" + format))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private User seedBookings() {
+        User traveller = new User();
+        traveller.setUsername("history-traveller");
+        traveller.setPassword("secret");
+        traveller.setEmail("history-traveller@example.com");
+        traveller.setRole("TRAVELLER");
+        traveller = userRepository.save(traveller);
+
+        TravelPackage travelPackage = new TravelPackage();
+        travelPackage.setName("History, with a comma");
+        travelPackage.setDescription("History package");
+        travelPackage.setPrice(250.0);
+        travelPackage.setTravelAgencyName("History agency");
+        travelPackage.setUser(traveller);
+        travelPackage = travelPackageRepository.save(travelPackage);
+
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = new Booking();
+            booking.setBookingDate(LocalDate.of(2030, 1, 1));
+            // Several bookings share a travel date, so the id breaks ties across pages
+            booking.setTravelDate(LocalDate.of(2030, 6, 1).plusDays((i * 7) % 10));
+            booking.setTotalPrice(250.0);
+            booking.setUser(traveller);
+            booking.setTravelPackage(travelPackage);
+            bookings.add(booking);
+        }
+        bookingRepository.saveAll(bookings);
+        return traveller;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.travelmanagementapp.controller;
+
+import com.example.travelmanagementapp.model.Destination;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import com.example.travelmanagementapp.repository.DestinationRepository;
+import com.example.travelmanagementapp.repository.TravelPackageRepository;
+import com.example.travelmanagementapp.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class CatalogPagingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testDestinationPagesFollowTheCursorWithoutGapsOrRepeats() throws Exception {
+        List<Long> seeded = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Destination destination = new Destination();
+            destination.setName("Paged destination " + i);
+            destination.setCountry("Paged country");
+            destination.setDescription("Paged");
+            seeded.add(destinationRepository.save(destination).getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            String url = "/api/admin/destinations/page?limit=10" + (cursor != null ? "&cursor=" + cursor : "");
+            JsonNode page = objectMapper.readTree(mockMvc.perform(get(url))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+            assertThat(page.get("items").size()).isLessThanOrEqualTo(10);
+            for (JsonNode item : page.get("items")) {
+                seen.add(item.get("id").asLong());
+                // Only the projected columns are returned, not the hotel and restaurant graph
+                assertThat(item.has("hotels")).isFalse();
+            }
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        assertThat(seen).isSorted().doesNotHaveDuplicates().containsAll(seeded);
+
+        mockMvc.perform(get("/api/admin/destinations/page?cursor=not-a-cursor"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testPackageListingsKeepLegacyRowsAndHidePersonalPackages() throws Exception {
+        User owner = new User();
+        owner.setUsername("paged-agency");
+        owner.setPassword("secret");
+        owner.setEmail("paged-agency@example.com");
+        owner.setRole("TRAVEL_AGENCY");
+        owner = userRepository.save(owner);
+        Long listed = travelPackageRepository.save(travelPackage("Paged package", owner, false)).getId();
+        Long legacy = travelPackageRepository.save(travelPackage("Legacy package", owner, false)).getId();
+        Long personal = travelPackageRepository.save(travelPackage("Personal package", owner, true)).getId();
+        // Databases created before the flag existed still hold NULL in it
+        jdbcTemplate.execute("ALTER TABLE travel_package ALTER COLUMN is_personal_booking SET NULL");
+        jdbcTemplate.update("UPDATE travel_package SET is_personal_booking = NULL WHERE id = ?", legacy);
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            String url = "/api/bookings/packages/page?limit=2" + (cursor != null ? "&cursor=" + cursor : "");
+            JsonNode page = objectMapper.readTree(mockMvc.perform(get(url))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+            for (JsonNode item : page.get("items")) {
+                paged.add(item.get("id").asLong());
+            }
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+        assertThat(paged).contains(listed, legacy).doesNotContain(personal);
+
+        List<Long> listing = new ArrayList<>();
+        JsonNode packages = objectMapper.readTree(mockMvc.perform(get("/api/bookings/packages?travelDate=2031-05-10"))
+            .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        for (JsonNode item : packages) {
+            listing.add(item.get("id").asLong());
+            assertThat(item.has("quotedPrice")).isTrue();
+            assertThat(item.has("hotels")).isFalse();
+        }
+        assertThat(listing).isSorted().contains(listed, legacy).doesNotContain(personal);
+    }
+
+    private static TravelPackage travelPackage(String name, User owner, boolean personal) {
+        TravelPackage travelPackage = new TravelPackage();
+        travelPackage.setName(name);
+        travelPackage.setDescription(name);
+        travelPackage.setPrice(100.0);
+        travelPackage.setTravelAgencyName("Paged agency");
+        travelPackage.setIsPersonalBooking(personal);
+        travelPackage.setUser(owner);
+        return travelPackage;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.travelmanagementapp.controller;
+
+import com.example.travelmanagementapp.model.Destination;
+import com.example.travelmanagementapp.model.Hotel;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import com.example.travelmanagementapp.repository.BookingRepository;
+import com.example.travelmanagementapp.repository.DestinationRepository;
+import com.example.travelmanagementapp.repository.HotelRepository;
+import com.example.travelmanagementapp.repository.TravelPackageRepository;
+import com.example.travelmanagementapp.repository.UserRepository;
+import com.example.travelmanagementapp.service.IdempotencyStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class IdempotentBookingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User traveller;
+    private TravelPackage travelPackage;
+    private Hotel hotel;
+
+    @BeforeEach
+    public void seed() {
+        String suffix = UUID.randomUUID().toString();
+        traveller = user("idempotent-traveller-" + suffix, "TRAVELLER");
+        User agency = user("idempotent-agency-" + suffix, "TRAVEL_AGENCY");
+
+        TravelPackage created = new TravelPackage();
+        created.setName("Idempotent package");
+        created.setDescription("Idempotent package");
+        created.setPrice(100.0);
+        created.setTravelAgencyName("Idempotent agency");
+        created.setUser(agency);
+        travelPackage = travelPackageRepository.save(created);
+
+        Destination destination = new Destination();
+        destination.setName("Idempotent destination");
+        destination.setCountry("Portugal");
+        destination.setDescription("Idempotent destination");
+        destination = destinationRepository.save(destination);
+
+        Hotel createdHotel = new Hotel();
+        createdHotel.setName("Idempotent hotel");
+        createdHotel.setLocation("Lisbon");
+        createdHotel.setAddress("1 Rua");
+        createdHotel.setPricePerNight(80.0);
+        createdHotel.setRoomCount(5);
+        createdHotel.setTravelPackage(travelPackage);
+        createdHotel.setDestination(destination);
+        hotel = hotelRepository.save(createdHotel);
+    }
+
+    @Test
+    public void testRetriedRequestsReplayTheFirstResponseWithoutBookingAgain() throws Exception {
+        String key = UUID.randomUUID().toString();
+        MockHttpServletResponse first = send("/api/bookings", key, packageBooking("2031-06-01"));
+        MockHttpServletResponse retry = send("/api/bookings", key, packageBooking("2031-06-01"));
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(first.getHeader(IdempotencyStore.REPLAYED_HEADER)).isNull();
+        assertThat(retry.getStatus()).isEqualTo(200);
+        assertThat(retry.getHeader(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(bookings()).isEqualTo(1);
+
+        String stayKey = UUID.randomUUID().toString();
+        MockHttpServletResponse stay = send("/api/bookings/destination", stayKey, stayBooking("2031-06-10"));
+        MockHttpServletResponse stayRetry = send("/api/bookings/destination", stayKey, stayBooking("2031-06-10"));
+        assertThat(stay.getStatus()).isEqualTo(200);
+        assertThat(stayRetry.getContentAsString()).isEqualTo(stay.getContentAsString());
+        assertThat(bookings()).isEqualTo(2);
+
+        String batchKey = UUID.randomUUID().toString();
+        String batch = "[" + packageBooking("2031-07-01") + "," + packageBooking("2031-07-02") + "]";
+        MockHttpServletResponse batchResponse = send("/api/bookings/batch", batchKey, batch);
+        MockHttpServletResponse batchRetry = send("/api/bookings/batch", batchKey, batch);
+        assertThat(batchResponse.getStatus()).isEqualTo(200);
+        assertThat(batchRetry.getHeader(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(batchRetry.getContentAsString()).isEqualTo(batchResponse.getContentAsString());
+        assertThat(bookings()).isEqualTo(4);
+    }
+
+    @Test
+    public void testKeyReusedForADifferentRequestIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+        assertThat(send("/api/bookings", key, packageBooking("2031-08-01")).getStatus()).isEqualTo(200);
+        assertThat(send("/api/bookings", key, packageBooking("2031-08-02")).getStatus()).isEqualTo(422);
+
+        String stayKey = UUID.randomUUID().toString();
+        assertThat(send("/api/bookings/destination", stayKey, stayBooking("2031-08-10")).getStatus()).isEqualTo(200);
+        assertThat(send("/api/bookings/destination", stayKey, stayBooking("2031-08-11")).getStatus()).isEqualTo(422);
+
+        String batchKey = UUID.randomUUID().toString();
+        assertThat(send("/api/bookings/batch", batchKey, "[" + packageBooking("2031-08-20") + "]").getStatus())
+            .isEqualTo(200);
+        assertThat(send("/api/bookings/batch", batchKey, "[" + packageBooking("2031-08-21") + "]").getStatus())
+            .isEqualTo(422);
+
+        assertThat(bookings()).isEqualTo(3);
+    }
+
+    @Test
+    public void testConcurrentDuplicatesCreateOneBooking() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = packageBooking("2031-09-01");
+        int clients = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<String> bodies = new ArrayList<>();
+        try {
+            List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                Callable<MockHttpServletResponse> request = () -> {
+                    start.await();
+                    return send("/api/bookings", key, body);
+                };
+                responses.add(executor.submit(request));
+            }
+            start.countDown();
+            for (Future<MockHttpServletResponse> response : responses) {
+                assertThat(response.get().getStatus()).isEqualTo(200);
+                bodies.add(response.get().getContentAsString());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(bodies).containsOnly(bodies.get(0));
+        assertThat(bookings()).isEqualTo(1);
+    }
+
+    private MockHttpServletResponse send(String url, String key, String body) throws Exception {
+        return mockMvc.perform(post(url)
+                .header(IdempotencyStore.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andReturn().getResponse();
+    }
+
+    private String packageBooking(String travelDate) {
+        return "{\"userId\":" + traveller.getId() + ",\"travelPackageId\":" + travelPackage.getId()
+            + ",\"travelDate\":\"" + travelDate + "\",\"numberOfPeople\":2}";
+    }
+
+    private String stayBooking(String travelDate) {
+        return "{\"userId\":" + traveller.getId() + ",\"hotelId\":" + hotel.getId()
+            + ",\"destinationId\":" + hotel.getDestination().getId() + ",\"travelDate\":\"" + travelDate
+            + "\",\"numberOfPeople\":2}";
+    }
+
+    private int bookings() {
+        return bookingRepository.findByUserId(traveller.getId()).size();
+    }
+
+    private User user(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setEmail(username + "@example.com");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
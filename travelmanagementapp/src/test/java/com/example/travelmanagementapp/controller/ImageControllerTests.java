@@ -0,0 +1,163 @@
+package com.example.travelmanagementapp.controller;
+
+import com.example.travelmanagementapp.model.Image;
+import com.example.travelmanagementapp.model.User;
+import com.example.travelmanagementapp.repository.ImageRepository;
+import com.example.travelmanagementapp.repository.UserRepository;
+import com.example.travelmanagementapp.service.ImageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ImageControllerTests {
+
+    private static final Path TEST_DIR = Paths.get("uploads", "image-controller-test");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ImageService imageService;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.createDirectories(TEST_DIR);
+        byte[] content = new byte[1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Files.write(TEST_DIR.resolve("sample.bin"), content);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(TEST_DIR);
+    }
+
+    @Test
+    public void testConditionalGetReturnsNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/images/image-controller-test/sample.bin"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        mockMvc.perform(get("/api/images/image-controller-test/sample.bin").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void testPinnedVersionIsCachedAsImmutable() throws Exception {
+        String etag = mockMvc.perform(get("/api/images/image-controller-test/sample.bin"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String hash = etag.replace("\"", "");
+
+        mockMvc.perform(get("/api/images/image-controller-test/sample.bin").param("v", hash))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    public void testRowWithoutHashIsServedReadOnlyAndBackfilledOnce() throws Exception {
+        Image legacy = image(user("legacy-uploader", "ADMIN"));
+        legacy.setFilePath("uploads/image-controller-test/sample.bin");
+        legacy = imageRepository.save(legacy);
+        String hash = HexFormat.of().formatHex(
+            MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(TEST_DIR.resolve("sample.bin"))));
+
+        String etag = mockMvc.perform(get("/api/images/image-controller-test/sample.bin"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).contains(hash);
+        // Serving did not write the row
+        assertThat(imageRepository.findById(legacy.getId()).orElseThrow().getContentHash()).isNull();
+
+        imageService.backfillContentHashes();
+        Image backfilled = imageRepository.findById(legacy.getId()).orElseThrow();
+        assertThat(backfilled.getContentHash()).isEqualTo(hash);
+        assertThat(backfilled.getFileSize()).isEqualTo(1000L);
+    }
+
+    @Test
+    public void testRangeRequestReturnsPartialContent() throws Exception {
+        mockMvc.perform(get("/api/images/image-controller-test/sample.bin").header(HttpHeaders.RANGE, "bytes=10-19"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/1000"))
+            .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "10"));
+    }
+
+    @Test
+    public void testOnlyAdminOrUploaderCanDeleteAnImage() throws Exception {
+        User uploader = user("image-uploader", "ROLE_TRAVEL_AGENCY");
+        User other = user("image-other", "ROLE_TRAVEL_AGENCY");
+        User admin = user("image-admin", "ROLE_ADMIN");
+        Image first = image(uploader);
+        Image second = image(uploader);
+
+        mockMvc.perform(delete("/api/images/" + first.getId())).andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/images/" + first.getId()).param("userId", String.valueOf(Long.MAX_VALUE)))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/images/" + first.getId()).param("userId", other.getId().toString()))
+            .andExpect(status().isForbidden());
+        assertThat(imageRepository.existsById(first.getId())).isTrue();
+
+        mockMvc.perform(delete("/api/images/" + first.getId()).param("userId", uploader.getId().toString()))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/images/" + second.getId()).param("userId", admin.getId().toString()))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/images/" + second.getId()).param("userId", admin.getId().toString()))
+            .andExpect(status().isNotFound());
+        assertThat(imageRepository.existsById(first.getId())).isFalse();
+        assertThat(imageRepository.existsById(second.getId())).isFalse();
+    }
+
+    private User user(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setEmail(username + "@example.com");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    // A row without a stored file, so deleting it has nothing to reclaim
+    private Image image(User uploader) {
+        Image image = new Image();
+        image.setFilename("missing.jpg");
+        image.setUploadDate(LocalDateTime.now());
+        image.setEntityType("general");
+        image.setEntityId(0L);
+        image.setUploader(uploader);
+        return imageRepository.save(image);
+    }
+}
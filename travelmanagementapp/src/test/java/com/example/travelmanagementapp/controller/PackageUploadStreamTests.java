@@ -0,0 +1,40 @@
+package com.example.travelmanagementapp.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PackageUploadStreamTests {
+
+    private static final String BOUNDARY = "----StreamBoundary";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testOversizedFormFieldIsABadRequest() throws Exception {
+        String body = "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"description\"\r\n\r\n"
+            + "x".repeat(100 * 1024) + "\r\n"
+            + "--" + BOUNDARY + "--\r\n";
+
+        mockMvc.perform(post("/travel-packages/create/stream")
+                .contentType("multipart/form-data; boundary=" + BOUNDARY)
+                .content(body.getBytes(StandardCharsets.UTF_8)))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string(containsString("description")));
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.travelmanagementapp.controller;
+
+import com.example.travelmanagementapp.model.*;
+import com.example.travelmanagementapp.repository.*;
+import com.example.travelmanagementapp.service.CatalogSearchIndex;
+import com.example.travelmanagementapp.service.PricingEngine;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards list endpoints against N+1 queries: the number of SQL statements an endpoint
+ * issues must stay the same no matter how many rows it returns.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class QueryCountTests {
+
+    // Upper bound on statements for a single list request
+    private static final long MAX_STATEMENTS_PER_LIST = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    public void testDestinationListingUsesConstantQueries() throws Exception {
+        seedCatalog(3);
+        long small = countStatements("/api/admin/destinations");
+
+        seedCatalog(20);
+        long large = countStatements("/api/admin/destinations");
+
+        assertThat(large).isEqualTo(small);
+        assertThat(large).isLessThanOrEqualTo(MAX_STATEMENTS_PER_LIST);
+    }
+
+    @Test
+    public void testTravelPackageListingUsesConstantQueries() throws Exception {
+        seedCatalog(3);
+        long small = countStatements("/travel-packages");
+
+        seedCatalog(20);
+        long large = countStatements("/travel-packages");
+
+        assertThat(large).isEqualTo(small);
+        assertThat(large).isLessThanOrEqualTo(MAX_STATEMENTS_PER_LIST);
+    }
+
+    @Test
+    public void testSearchUsesConstantQueries() throws Exception {
+        seedCatalog(3);
+        long small = countStatements("/api/admin/search?query=seeded");
+
+        seedCatalog(20);
+        long large = countStatements("/api/admin/search?query=seeded");
+
+        assertThat(large).isEqualTo(small);
+        assertThat(large).isLessThanOrEqualTo(2 * MAX_STATEMENTS_PER_LIST);
+    }
+
+    @Test
+    public void testBatchBookingResolvesReferencesOnce() throws Exception {
+        seedCatalog(1);
+        TravelPackage travelPackage = travelPackageRepository.findAll().get(0);
+        StringBuilder body = new StringBuilder("[");
+        int bookings = 200;
+        for (int i = 0; i < bookings; i++) {
+            User traveller = new User();
+            String suffix = System.nanoTime() + "_" + i;
+            traveller.setUsername("traveller_" + suffix);
+            traveller.setPassword("secret");
+            traveller.setEmail("traveller_" + suffix + "@example.com");
+            traveller.setRole("TRAVELLER");
+            userRepository.save(traveller);
+            // Half the group is identified by username only
+            String user = i % 2 == 0 ? "\"userId\":" + traveller.getId() : "\"username\":\"" + traveller.getUsername() + "\"";
+            body.append(i > 0 ? "," : "").append("{").append(user)
+                .append(",\"travelPackageId\":").append(travelPackage.getId())
+                .append(",\"travelDate\":\"2030-05-01\",\"totalPrice\":100.0}");
+        }
+        body.append(",{\"username\":\"nobody\",\"travelPackageId\":").append(travelPackage.getId())
+            .append(",\"travelDate\":\"2030-05-01\",\"totalPrice\":100.0}]");
+
+        statistics.clear();
+        mockMvc.perform(post("/api/bookings/batch").contentType(MediaType.APPLICATION_JSON).content(body.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(bookings))
+            .andExpect(jsonPath("$.results[" + bookings + "].message").value("User not found"));
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(bookings);
+        // Two user lookups, one package lookup, id blocks and batched inserts instead of ~3 per booking
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(25);
+    }
+
+    @Test
+    public void testBulkQuotesReadPricesOncePerItemType() throws Exception {
+        seedCatalog(3);
+        TravelPackage travelPackage = travelPackageRepository.findAll().get(0);
+        Hotel hotel = hotelRepository.findAll().get(0);
+        StringBuilder body = new StringBuilder("[");
+        int items = 300;
+        for (int i = 0; i < items; i++) {
+            body.append(i > 0 ? "," : "").append(i % 2 == 0
+                ? "{\"type\":\"package\",\"id\":" + travelPackage.getId() + ",\"travelDate\":\"2030-05-01\",\"numberOfPeople\":2}"
+                : "{\"type\":\"hotel\",\"id\":" + hotel.getId() + ",\"travelDate\":\"2030-05-01\",\"returnDate\":\"2030-05-04\"}");
+        }
+        body.append(",{\"type\":\"hotel\",\"id\":-1,\"travelDate\":\"2030-05-01\"}]");
+
+        statistics.clear();
+        mockMvc.perform(post("/api/pricing/quotes").contentType(MediaType.APPLICATION_JSON).content(body.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(items + 1))
+            .andExpect(jsonPath("$[0].total").value(pricingEngine.quotePackage(travelPackage.getPrice(), LocalDate.of(2030, 5, 1), 2)))
+            .andExpect(jsonPath("$[1].nights").value(3))
+            .andExpect(jsonPath("$[" + items + "].error").value("Hotel not found"));
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    private long countStatements(String url) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Adds destinations and packages, each with its own owner, hotels and restaurants
+    private void seedCatalog(int count) {
+        for (int i = 0; i < count; i++) {
+            String suffix = System.nanoTime() + "_" + i;
+
+            User agency = new User();
+            agency.setUsername("agency_" + suffix);
+            agency.setPassword("secret");
+            agency.setEmail("agency_" + suffix + "@example.com");
+            agency.setRole("TRAVEL_AGENCY");
+            agency.setTravelAgencyName("Agency " + suffix);
+            userRepository.save(agency);
+
+            TravelPackage travelPackage = new TravelPackage();
+            travelPackage.setName("Seeded package " + suffix);
+            travelPackage.setDescription("Seeded package");
+            travelPackage.setPrice(100.0);
+            travelPackage.setUser(agency);
+            travelPackage.setTravelAgencyName(agency.getTravelAgencyName());
+            travelPackageRepository.save(travelPackage);
+
+            Destination destination = new Destination();
+            destination.setName("Seeded destination " + suffix);
+            destination.setCountry("Seeded country");
+            destination.setDescription("Seeded");
+            destinationRepository.save(destination);
+
+            for (int j = 0; j < 2; j++) {
+                Hotel hotel = new Hotel();
+                hotel.setName("Hotel " + j);
+                hotel.setLocation("Location");
+                hotel.setAddress("Address");
+                hotel.setPricePerNight(80.0);
+                hotel.setDestination(destination);
+                hotel.setTravelPackage(travelPackage);
+                hotelRepository.save(hotel);
+
+                Restaurant restaurant = new Restaurant();
+                restaurant.setName("Restaurant " + j);
+                restaurant.setLocation("Location");
+                restaurant.setAddress("Address");
+                restaurant.setCuisine("Local");
+                restaurant.setCuisineType("Local");
+                restaurant.setDestination(destination);
+                restaurant.setTravelPackage(travelPackage);
+                restaurantRepository.save(restaurant);
+            }
+        }
+        // Rows were written through the repositories, so refresh the search index
+        catalogSearchIndex.rebuild();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.travelmanagementapp.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares image throughput of the zero-copy /uploads path with the Resource-based
+ * /api/images path over real sockets. Not part of the normal build; run with
+ * {@code mvn test -Dtest=UploadServingBenchmark -Dbenchmark=true}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class UploadServingBenchmark {
+
+    private static final Path BENCH_DIR = Paths.get("uploads", "benchmark");
+    private static final int FILE_SIZE = 512 * 1024;
+    private static final int CLIENTS = 16;
+    private static final int REQUESTS_PER_CLIENT = 200;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.createDirectories(BENCH_DIR);
+        byte[] content = new byte[FILE_SIZE];
+        new Random(42).nextBytes(content);
+        Files.write(BENCH_DIR.resolve("gallery.jpg"), content);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(BENCH_DIR);
+    }
+
+    @Test
+    public void compareServingPaths() throws Exception {
+        // Warm up both paths before measuring
+        run("/api/images/benchmark/gallery.jpg", 2);
+        run("/uploads/benchmark/gallery.jpg", 2);
+
+        double resourcePath = run("/api/images/benchmark/gallery.jpg", REQUESTS_PER_CLIENT);
+        double zeroCopyPath = run("/uploads/benchmark/gallery.jpg", REQUESTS_PER_CLIENT);
+
+        System.out.printf("Resource path (/api/images): %.1f MB/s%n", resourcePath);
+        System.out.printf("Zero-copy path (/uploads):   %.1f MB/s%n", zeroCopyPath);
+        assertThat(zeroCopyPath).isPositive();
+    }
+
+    // Returns throughput in MB/s
+    private double run(String path, int requestsPerClient) throws Exception {
+        URI uri = URI.create("http://localhost:" + port + path);
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            long start = System.nanoTime();
+            List<Future<Long>> results = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                results.add(pool.submit(() -> {
+                    long bytes = 0;
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        HttpResponse<byte[]> response = client.send(
+                            HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+                        assertThat(response.statusCode()).isEqualTo(200);
+                        bytes += response.body().length;
+                    }
+                    return bytes;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> result : results) {
+                total += result.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return total / (1024.0 * 1024.0) / seconds;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.travelmanagementapp.controller;
+
+import com.example.travelmanagementapp.TravelManagementAppApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares platform-thread (default) and virtual-thread request handling with 10k
+ * concurrent connections against a database-backed listing and a file-serving endpoint.
+ * Each mode gets its own application instance. Not part of the normal build; run with
+ * {@code mvn test -Dtest=VirtualThreadLoadTest -Dbenchmark=true}, with the open file limit
+ * raised well above 20k ({@code ulimit -n}) since client and server share the process.
+ * The "loadtest" profile raises Tomcat's connection limits for the run.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class VirtualThreadLoadTest {
+
+    private static final Path LOAD_DIR = Paths.get("uploads", "loadtest");
+    private static final int CONNECTIONS = Integer.getInteger("loadtest.connections", 10_000);
+    private static final int REQUESTS_PER_CONNECTION = Integer.getInteger("loadtest.requests", 5);
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.createDirectories(LOAD_DIR);
+        byte[] content = new byte[64 * 1024];
+        new Random(42).nextBytes(content);
+        Files.write(LOAD_DIR.resolve("photo.jpg"), content);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(LOAD_DIR);
+    }
+
+    @Test
+    public void comparePlatformAndVirtualThreads() throws Exception {
+        Result platform = runAgainst(false);
+        Result virtual = runAgainst(true);
+
+        System.out.printf("%-18s %10s %10s %10s %10s %8s%n", "mode", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "errors");
+        System.out.println(platform.format("platform threads"));
+        System.out.println(virtual.format("virtual threads"));
+        assertThat(virtual.completed).isPositive();
+    }
+
+    private Result runAgainst(boolean virtualThreads) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TravelManagementAppApplication.class)
+            .profiles("test", "loadtest")
+            .properties("server.port=0", "spring.jmx.enabled=false",
+                "spring.threads.virtual.enabled=" + virtualThreads)
+            .run();
+        try {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            // Warm up JIT, connection pools and caches before measuring
+            load(port, 200, 5);
+            return load(port, CONNECTIONS, REQUESTS_PER_CONNECTION);
+        } finally {
+            context.close();
+        }
+    }
+
+    // Every simulated client keeps one request in flight at a time and alternates between a database read and a file
+    private Result load(int port, int connections, int requestsPerConnection) throws Exception {
+        URI listing = URI.create("http://localhost:" + port + "/travel-packages/page?limit=20");
+        URI photo = URI.create("http://localhost:" + port + "/uploads/loadtest/photo.jpg");
+        long[][] latencies = new long[connections][];
+        int[] errors = new int[connections];
+        // HTTP/1.1 without pipelining: every in-flight request holds its own pooled connection
+        HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(connections);
+            for (int c = 0; c < connections; c++) {
+                int client = c;
+                futures.add(clients.submit(() -> {
+                    long[] samples = new long[requestsPerConnection];
+                    for (int r = 0; r < requestsPerConnection; r++) {
+                        HttpRequest request = HttpRequest.newBuilder(r % 2 == 0 ? listing : photo)
+                            .timeout(Duration.ofSeconds(60)).GET().build();
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors[client]++;
+                            }
+                        } catch (IOException e) {
+                            errors[client]++;
+                        }
+                        samples[r] = System.nanoTime() - begin;
+                    }
+                    latencies[client] = samples;
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        int errorCount = Arrays.stream(errors).sum();
+        return new Result(all.length - errorCount, errorCount, elapsed, all);
+    }
+
+    private static final class Result {
+        private final int completed;
+        private final int errors;
+        private final long elapsedNanos;
+        private final long[] sortedLatencies;
+
+        Result(int completed, int errors, long elapsedNanos, long[] sortedLatencies) {
+            this.completed = completed;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            this.sortedLatencies = sortedLatencies;
+        }
+
+        String format(String mode) {
+            return String.format("%-18s %10.0f %10.1f %10.1f %10.1f %8d", mode,
+                completed / (elapsedNanos / 1e9), percentile(0.50), percentile(0.99), percentile(0.999), errors);
+        }
+
+        private double percentile(double p) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sortedLatencies.length - 1, Math.ceil(p * sortedLatencies.length) - 1);
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.travelmanagementapp.repository;
+
+import com.example.travelmanagementapp.model.Hotel;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hotel insert throughput with one statement per row (as under IDENTITY ids) against
+ * JDBC batches of growing size, each run saving all rows in one transaction. Not part
+ * of the normal build; run with
+ * {@code mvn test -Dtest=InsertBatchingBenchmark -Dbenchmark=true}. Point the test
+ * datasource at MySQL for numbers that include network round trips.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class InsertBatchingBenchmark {
+
+    private static final int ROWS = 20_000;
+    private static final int[] BATCH_SIZES = {1, 10, 50, 200};
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Test
+    public void insertThroughputByBatchSize() {
+        TravelPackage travelPackage = travelPackage();
+
+        // Warm up JIT and connection pool
+        for (int batchSize : BATCH_SIZES) {
+            run(travelPackage, batchSize, ROWS / 10);
+        }
+
+        System.out.printf("%-12s %12s%n", "batch size", "rows/s");
+        for (int batchSize : BATCH_SIZES) {
+            System.out.printf("%-12d %12.0f%n", batchSize, run(travelPackage, batchSize, ROWS));
+        }
+    }
+
+    private double run(TravelPackage travelPackage, int batchSize, int rows) {
+        long begin = System.nanoTime();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            List<Hotel> hotels = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                Hotel hotel = new Hotel();
+                hotel.setName("Benchmark Hotel " + i);
+                hotel.setLocation("Benchmark");
+                hotel.setAddress(i + " Benchmark Street");
+                hotel.setPricePerNight(100.0);
+                hotel.setTravelPackage(travelPackage);
+                hotels.add(hotel);
+            }
+            hotelRepository.saveAll(hotels);
+        });
+        long elapsed = System.nanoTime() - begin;
+        return rows / (elapsed / 1e9);
+    }
+
+    private TravelPackage travelPackage() {
+        User owner = new User();
+        owner.setUsername("batch-benchmark");
+        owner.setPassword("secret");
+        owner.setEmail("batch-benchmark@example.com");
+        owner.setRole("TRAVEL_AGENCY");
+        owner = userRepository.save(owner);
+
+        TravelPackage travelPackage = new TravelPackage();
+        travelPackage.setName("Batch benchmark");
+        travelPackage.setDescription("Batch benchmark");
+        travelPackage.setPrice(100.0);
+        travelPackage.setTravelAgencyName("Batch benchmark");
+        travelPackage.setUser(owner);
+        return travelPackageRepository.save(travelPackage);
+    }
+}
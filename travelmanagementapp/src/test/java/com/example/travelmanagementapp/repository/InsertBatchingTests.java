@@ -0,0 +1,112 @@
+package com.example.travelmanagementapp.repository;
+
+import com.example.travelmanagementapp.IdSequenceInitializer;
+import com.example.travelmanagementapp.model.Hotel;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sequence-generated ids let Hibernate batch inserts: saving many rows in one
+ * transaction must cost a handful of statements, not one per row.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class InsertBatchingTests {
+
+    private static final int ROWS = 200;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Test
+    public void testHotelInsertsAreBatched() {
+        TravelPackage travelPackage = travelPackage();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        // One statement per row, as before the switch to sequences
+        statistics.clear();
+        saveHotels(travelPackage, 1);
+        long unbatched = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        saveHotels(travelPackage, batchSize);
+        long batched = statistics.getPrepareStatementCount();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        assertThat(unbatched).isGreaterThanOrEqualTo(ROWS);
+        // 200 rows: four batched inserts of 50, plus at most one id block fetch per 50 ids
+        long insertBatches = ROWS / batchSize;
+        long idFetches = ROWS / IdSequenceInitializer.ALLOCATION_SIZE;
+        assertThat(batched).isBetween(insertBatches, insertBatches + idFetches + 1);
+    }
+
+    private void saveHotels(TravelPackage travelPackage, int jdbcBatchSize) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            List<Hotel> hotels = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                Hotel hotel = new Hotel();
+                hotel.setName("Batch Hotel " + i);
+                hotel.setLocation("Batch Location");
+                hotel.setPricePerNight(100.0 + i);
+                hotel.setAddress("Batch Address " + i);
+                hotel.setTravelPackage(travelPackage);
+                hotels.add(hotel);
+            }
+            hotelRepository.saveAll(hotels);
+        });
+    }
+
+    private TravelPackage travelPackage() {
+        User owner = new User();
+        owner.setUsername("batch-agency");
+        owner.setPassword("secret");
+        owner.setEmail("batch-agency@example.com");
+        owner.setRole("TRAVEL_AGENCY");
+        owner = userRepository.save(owner);
+
+        TravelPackage travelPackage = new TravelPackage();
+        travelPackage.setName("Batch Package");
+        travelPackage.setDescription("Batch Package");
+        travelPackage.setPrice(100.0);
+        travelPackage.setTravelAgencyName("Batch Agency");
+        travelPackage.setUser(owner);
+        return travelPackageRepository.save(travelPackage);
+    }
+}
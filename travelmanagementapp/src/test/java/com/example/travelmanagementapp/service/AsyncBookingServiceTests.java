@@ -0,0 +1,161 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.DTO.BookingDTO;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import com.example.travelmanagementapp.repository.TravelPackageRepository;
+import com.example.travelmanagementapp.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = {
+    "app.bookings.async.enabled=true",
+    "app.bookings.async.directory=target/booking-queue-test",
+    "app.bookings.async.batch-size=25",
+    "app.bookings.async.retry-initial-millis=20",
+    "app.bookings.async.retry-max-millis=100",
+    "app.bookings.async.retry-limit-millis=300"
+})
+@ActiveProfiles("test")
+public class AsyncBookingServiceTests {
+
+    @Autowired
+    private AsyncBookingService asyncBookingService;
+
+    @MockitoSpyBean
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @AfterAll
+    public static void cleanUp() throws IOException {
+        FileSystemUtils.deleteRecursively(Paths.get("target", "booking-queue-test"));
+    }
+
+    @Test
+    public void testQueuedBookingsAreWrittenInBatches() throws Exception {
+        User traveller = traveller("async-traveller");
+        TravelPackage travelPackage = travelPackage("Async package", traveller);
+
+        List<String> references = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            references.add(asyncBookingService.enqueue(traveller.getId(), travelPackage.getId(), "2030-09-01", 300.0));
+        }
+        // The package was deleted (or never existed) by the time the writer gets to it
+        String orphan = asyncBookingService.enqueue(traveller.getId(), -1L, "2030-09-01", 300.0);
+
+        for (String reference : references) {
+            Map<String, Object> status = awaitWritten(reference);
+            assertThat(status.get("status")).isEqualTo(AsyncBookingService.CONFIRMED);
+            assertThat(status.get("id")).isNotNull();
+        }
+        Map<String, Object> rejected = awaitWritten(orphan);
+        assertThat(rejected.get("status")).isEqualTo(AsyncBookingService.REJECTED);
+        assertThat(rejected.get("message")).isEqualTo("Travel package not found");
+    }
+
+    @Test
+    public void testOnlyTheBookingThatFailsOnItsOwnIsDeadLettered() throws Exception {
+        User traveller = traveller("async-poison-traveller");
+        TravelPackage travelPackage = travelPackage("Async poison package", traveller);
+        String poisonDate = "2030-12-31";
+        doThrow(new IllegalStateException("value too long")).when(bookingService).createBookings(
+            argThat((List<BookingDTO> items) -> items.stream().anyMatch(item -> poisonDate.equals(item.getTravelDate()))),
+            anyList());
+
+        List<String> good = new ArrayList<>();
+        good.add(asyncBookingService.enqueue(traveller.getId(), travelPackage.getId(), "2030-12-30", 300.0));
+        String poison = asyncBookingService.enqueue(traveller.getId(), travelPackage.getId(), poisonDate, 300.0);
+        good.add(asyncBookingService.enqueue(traveller.getId(), travelPackage.getId(), "2030-12-29", 300.0));
+
+        Map<String, Object> status = awaitWritten(poison);
+        assertThat(status.get("status")).isEqualTo(AsyncBookingService.REJECTED);
+        assertThat((String) status.get("message")).contains("value too long");
+        for (String reference : good) {
+            assertThat(awaitWritten(reference).get("status")).isEqualTo(AsyncBookingService.CONFIRMED);
+        }
+        String deadLetters = Files.readString(Paths.get("target", "booking-queue-test", "dead-letter.ndjson"));
+        assertThat(deadLetters).contains(poison);
+        assertThat(good).noneMatch(deadLetters::contains);
+    }
+
+    @Test
+    public void testBookingsWaitOutADatabaseOutage() throws Exception {
+        User traveller = traveller("async-outage-traveller");
+        TravelPackage travelPackage = travelPackage("Async outage package", traveller);
+        String outageDate = "2030-11-30";
+        // Longer than the retry limit, which only applies to failures other than outages
+        AtomicInteger outages = new AtomicInteger(12);
+        doAnswer(invocation -> {
+            if (outages.getAndDecrement() > 0) {
+                throw new CannotCreateTransactionException("Could not open JPA EntityManager for transaction");
+            }
+            return invocation.callRealMethod();
+        }).when(bookingService).createBookings(
+            argThat((List<BookingDTO> items) -> items.stream().anyMatch(item -> outageDate.equals(item.getTravelDate()))),
+            anyList());
+
+        String reference = asyncBookingService.enqueue(traveller.getId(), travelPackage.getId(), outageDate, 300.0);
+
+        Map<String, Object> status = awaitWritten(reference);
+        assertThat(status.get("status")).isEqualTo(AsyncBookingService.CONFIRMED);
+        assertThat(outages.get()).isNegative();
+        Path deadLetters = Paths.get("target", "booking-queue-test", "dead-letter.ndjson");
+        assertThat(!Files.exists(deadLetters) || !Files.readString(deadLetters).contains(reference)).isTrue();
+    }
+
+    private User traveller(String username) {
+        User traveller = new User();
+        traveller.setUsername(username);
+        traveller.setPassword("secret");
+        traveller.setEmail(username + "@example.com");
+        traveller.setRole("TRAVELLER");
+        return userRepository.save(traveller);
+    }
+
+    private TravelPackage travelPackage(String name, User owner) {
+        TravelPackage travelPackage = new TravelPackage();
+        travelPackage.setName(name);
+        travelPackage.setDescription(name);
+        travelPackage.setPrice(300.0);
+        travelPackage.setTravelAgencyName("Async agency");
+        travelPackage.setUser(owner);
+        return travelPackageRepository.save(travelPackage);
+    }
+
+    private Map<String, Object> awaitWritten(String reference) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            Map<String, Object> status = asyncBookingService.getStatus(reference).orElseThrow();
+            if (!AsyncBookingService.PENDING.equals(status.get("status")) || System.currentTimeMillis() > deadline) {
+                return status;
+            }
+            Thread.sleep(20);
+        }
+    }
+}
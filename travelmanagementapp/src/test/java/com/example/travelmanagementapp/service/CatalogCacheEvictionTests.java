@@ -0,0 +1,135 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.model.Destination;
+import com.example.travelmanagementapp.model.Hotel;
+import com.example.travelmanagementapp.model.Restaurant;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import com.example.travelmanagementapp.repository.DestinationRepository;
+import com.example.travelmanagementapp.repository.TravelPackageRepository;
+import com.example.travelmanagementapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CatalogCacheEvictionTests {
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private CatalogLookupService catalogLookupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    private String admin;
+    private Destination lisbon;
+    private Destination porto;
+    private TravelPackage travelPackage;
+
+    @BeforeEach
+    public void seed() {
+        String suffix = Long.toString(System.nanoTime());
+        User user = new User();
+        user.setUsername("cache-admin-" + suffix);
+        user.setPassword("secret");
+        user.setEmail("cache-admin-" + suffix + "@example.com");
+        user.setRole("ADMIN");
+        admin = userRepository.save(user).getUsername();
+        lisbon = destination("Lisbon " + suffix);
+        porto = destination("Porto " + suffix);
+
+        TravelPackage created = new TravelPackage();
+        created.setName("Cached package " + suffix);
+        created.setDescription("Cached package");
+        created.setPrice(500.0);
+        created.setTravelAgencyName("Cache agency");
+        created.setUser(user);
+        travelPackage = travelPackageRepository.save(created);
+    }
+
+    @Test
+    public void testCachedOwnersFollowHotelChanges() throws Exception {
+        // Cache the owners before every change, so a missing eviction shows up as a stale list
+        assertThat(destinationHotels(lisbon)).isEmpty();
+        assertThat(packageHotels()).isEmpty();
+
+        Hotel hotel = adminService.createHotel("Cached hotel", "Lisbon", 90.0, "1 Rua",
+            lisbon.getId(), travelPackage.getId(), null, admin);
+        assertThat(destinationHotels(lisbon)).containsExactly(hotel.getId());
+        assertThat(packageHotels()).containsExactly(hotel.getId());
+
+        assertThat(destinationHotels(porto)).isEmpty();
+        adminService.updateHotel(hotel.getId(), null, "Porto", null, null, porto.getId(), null, admin);
+        assertThat(destinationHotels(lisbon)).isEmpty();
+        assertThat(destinationHotels(porto)).containsExactly(hotel.getId());
+
+        adminService.deleteHotel(hotel.getId(), admin);
+        assertThat(destinationHotels(porto)).isEmpty();
+        assertThat(packageHotels()).isEmpty();
+    }
+
+    @Test
+    public void testCachedOwnersFollowRestaurantChanges() throws Exception {
+        assertThat(destinationRestaurants(lisbon)).isEmpty();
+        assertThat(packageRestaurants()).isEmpty();
+
+        Restaurant restaurant = adminService.createRestaurant("Cached restaurant", "Lisbon", "2 Rua",
+            "Seafood", "Portuguese", lisbon.getId(), travelPackage.getId(), null, admin);
+        assertThat(destinationRestaurants(lisbon)).containsExactly(restaurant.getId());
+        assertThat(packageRestaurants()).containsExactly(restaurant.getId());
+
+        assertThat(destinationRestaurants(porto)).isEmpty();
+        adminService.updateRestaurant(restaurant.getId(), null, "Porto", null, null, null, porto.getId(), null, admin);
+        assertThat(destinationRestaurants(lisbon)).isEmpty();
+        assertThat(destinationRestaurants(porto)).containsExactly(restaurant.getId());
+
+        adminService.deleteRestaurant(restaurant.getId(), admin);
+        assertThat(destinationRestaurants(porto)).isEmpty();
+        assertThat(packageRestaurants()).isEmpty();
+    }
+
+    private Destination destination(String name) {
+        Destination destination = new Destination();
+        destination.setName(name);
+        destination.setCountry("Portugal");
+        destination.setDescription(name);
+        return destinationRepository.save(destination);
+    }
+
+    private List<Long> destinationHotels(Destination destination) {
+        return catalogLookupService.findDestinationById(destination.getId()).orElseThrow().getHotels().stream()
+            .map(Hotel::getId).collect(Collectors.toList());
+    }
+
+    private List<Long> destinationRestaurants(Destination destination) {
+        return catalogLookupService.findDestinationById(destination.getId()).orElseThrow().getRestaurants().stream()
+            .map(Restaurant::getId).collect(Collectors.toList());
+    }
+
+    private List<Long> packageHotels() {
+        return catalogLookupService.findTravelPackageById(travelPackage.getId()).orElseThrow().getHotels().stream()
+            .map(Hotel::getId).collect(Collectors.toList());
+    }
+
+    private List<Long> packageRestaurants() {
+        return catalogLookupService.findTravelPackageById(travelPackage.getId()).orElseThrow().getRestaurants().stream()
+            .map(Restaurant::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.DTO.ImportResult;
+import com.example.travelmanagementapp.model.Destination;
+import com.example.travelmanagementapp.model.Hotel;
+import com.example.travelmanagementapp.model.Restaurant;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import com.example.travelmanagementapp.repository.DestinationRepository;
+import com.example.travelmanagementapp.repository.TravelPackageRepository;
+import com.example.travelmanagementapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CatalogImportServiceTests {
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private CatalogLookupService catalogLookupService;
+
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String suffix;
+    private String admin;
+    private Destination destination;
+    private TravelPackage travelPackage;
+
+    @BeforeEach
+    public void seed() {
+        suffix = Long.toString(System.nanoTime());
+        User user = new User();
+        user.setUsername("import-admin-" + suffix);
+        user.setPassword("secret");
+        user.setEmail("import-admin-" + suffix + "@example.com");
+        user.setRole("ADMIN");
+        admin = userRepository.save(user).getUsername();
+
+        Destination created = new Destination();
+        created.setName("Import destination " + suffix);
+        created.setCountry("Portugal");
+        created.setDescription("Import destination");
+        destination = destinationRepository.save(created);
+
+        TravelPackage createdPackage = new TravelPackage();
+        createdPackage.setName("Import package " + suffix);
+        createdPackage.setDescription("Import package");
+        createdPackage.setPrice(500.0);
+        createdPackage.setTravelAgencyName("Import agency");
+        createdPackage.setUser(user);
+        travelPackage = travelPackageRepository.save(createdPackage);
+    }
+
+    @Test
+    public void testCsvImportSpansChunksAndKeepsGoodRowsOfARejectedChunk() throws Exception {
+        String country = "Importland" + suffix;
+        int rows = CatalogImportService.CHUNK_SIZE + 2;
+        StringBuilder csv = new StringBuilder("name,country,description\n");
+        for (int i = 1; i <= rows; i++) {
+            if (i == 500) {
+                // Passes validation but is too long for the column, so the database rejects the chunk
+                csv.append("x".repeat(300)).append(',').append(country).append(",Too long\n");
+            } else if (i == CatalogImportService.CHUNK_SIZE + 1) {
+                csv.append("Missing country ").append(i).append(",,No country\n");
+            } else {
+                csv.append("Town ").append(i).append(',').append(country).append(",\"Town, number ").append(i).append("\"\n");
+            }
+        }
+
+        ImportResult result = importCatalog("destinations", "csv", csv.toString());
+
+        // Data row i is on line i + 1, after the header
+        assertThat(result.getRowsRead()).isEqualTo(rows);
+        assertThat(result.getRowsImported()).isEqualTo(rows - 2);
+        assertThat(result.getRowsFailed()).isEqualTo(2);
+        assertThat(errorLines(result)).containsExactly(501L, (long) CatalogImportService.CHUNK_SIZE + 2);
+        assertThat(result.getErrors().get(0).get("message").toString()).startsWith("Could not save row");
+        assertThat(result.getErrors().get(1).get("message")).isEqualTo("Missing required field: country");
+
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM destination WHERE country = ?", Long.class, country)).isEqualTo(rows - 2);
+        // Both chunks were indexed as they committed
+        assertThat(catalogSearchIndex.search(country).getDestinationIds()).hasSize(rows - 2);
+    }
+
+    @Test
+    public void testNdjsonImportReportsBadRowsAndRefreshesCachedOwners() throws Exception {
+        // Cache the owners first, so a missing eviction shows up as a stale list
+        assertThat(destinationHotels()).isEmpty();
+        assertThat(packageHotels()).isEmpty();
+
+        String ndjson = String.join("\n",
+            hotel("Imported hotel", "90", destination.getId(), travelPackage.getId()),
+            "{not json",
+            "",
+            hotel("Lost hotel", "90", Long.MAX_VALUE, travelPackage.getId()),
+            hotel("Orphan hotel", "90", destination.getId(), Long.MAX_VALUE),
+            hotel("Cheap hotel", "-1", destination.getId(), travelPackage.getId()),
+            hotel("Second hotel", "120", destination.getId(), travelPackage.getId()));
+
+        ImportResult result = importCatalog("hotels", "ndjson", ndjson);
+
+        assertThat(result.getRowsRead()).isEqualTo(6);
+        assertThat(result.getRowsImported()).isEqualTo(2);
+        assertThat(errorLines(result)).containsExactlyInAnyOrder(2L, 4L, 5L, 6L);
+        assertThat(result.getErrors()).extracting(error -> error.get("message").toString())
+            .anyMatch(message -> message.startsWith("Invalid JSON"))
+            .contains("Destination not found: " + Long.MAX_VALUE,
+                "Travel package not found: " + Long.MAX_VALUE,
+                "pricePerNight must not be negative");
+
+        assertThat(destinationHotels()).containsExactlyInAnyOrder("Imported hotel", "Second hotel");
+        assertThat(packageHotels()).containsExactlyInAnyOrder("Imported hotel", "Second hotel");
+    }
+
+    @Test
+    public void testCsvRestaurantImportRefreshesCachedOwners() throws Exception {
+        assertThat(catalogLookupService.findDestinationById(destination.getId()).orElseThrow().getRestaurants()).isEmpty();
+
+        String csv = "name,location,address,cuisine,cuisineType,destinationId,packageId\n"
+            + "Imported restaurant,Lisbon,1 Rua,Seafood,Portuguese," + destination.getId() + "," + travelPackage.getId() + "\n"
+            + "Lost restaurant,Lisbon,2 Rua,Seafood,Portuguese,oops," + travelPackage.getId() + "\n";
+
+        ImportResult result = importCatalog("restaurants", "csv", csv);
+
+        assertThat(result.getRowsImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(error -> error.get("message"))
+            .containsExactly("Invalid id for destinationId: oops");
+        assertThat(catalogLookupService.findDestinationById(destination.getId()).orElseThrow().getRestaurants())
+            .extracting(Restaurant::getName).containsExactly("Imported restaurant");
+        assertThat(catalogLookupService.findTravelPackageById(travelPackage.getId()).orElseThrow().getRestaurants())
+            .extracting(Restaurant::getName).containsExactly("Imported restaurant");
+    }
+
+    private ImportResult importCatalog(String entityType, String format, String body) throws Exception {
+        return catalogImportService.importCatalog(entityType, format,
+            new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), admin);
+    }
+
+    private static String hotel(String name, String pricePerNight, Long destinationId, Long packageId) {
+        return "{\"name\":\"" + name + "\",\"location\":\"Lisbon\",\"pricePerNight\":" + pricePerNight
+            + ",\"address\":\"1 Rua\",\"destinationId\":" + destinationId + ",\"packageId\":" + packageId + "}";
+    }
+
+    private static List<Long> errorLines(ImportResult result) {
+        return result.getErrors().stream()
+            .map(error -> (Long) error.get("line"))
+            .collect(Collectors.toList());
+    }
+
+    private List<String> destinationHotels() {
+        return catalogLookupService.findDestinationById(destination.getId()).orElseThrow().getHotels().stream()
+            .map(Hotel::getName).collect(Collectors.toList());
+    }
+
+    private List<String> packageHotels() {
+        return catalogLookupService.findTravelPackageById(travelPackage.getId()).orElseThrow().getHotels().stream()
+            .map(Hotel::getName).collect(Collectors.toList());
+    }
+}
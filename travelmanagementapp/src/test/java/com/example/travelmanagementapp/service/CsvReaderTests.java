@@ -0,0 +1,34 @@
+package com.example.travelmanagementapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CsvReaderTests {
+
+    @Test
+    public void testReadsQuotedFieldsAndTracksRecordLines() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader(
+            "name,country\r\nParis,France\n\n\"Rome, \"\"Eternal\"\"\",\"It\naly\"\nLyon,"));
+
+        assertThat(csv.readRecord()).containsExactly("name", "country");
+        assertThat(csv.readRecord()).containsExactly("Paris", "France");
+        assertThat(csv.getRecordLine()).isEqualTo(2);
+        assertThat(csv.readRecord()).containsExactly("Rome, \"Eternal\"", "It\naly");
+        assertThat(csv.getRecordLine()).isEqualTo(4);
+        assertThat(csv.readRecord()).containsExactly("Lyon", "");
+        assertThat(csv.getRecordLine()).isEqualTo(6);
+        assertThat(csv.readRecord()).isNull();
+    }
+
+    @Test
+    public void testUnterminatedQuoteIsRejected() {
+        CsvReader csv = new CsvReader(new StringReader("\"Paris,France\n"));
+
+        assertThatThrownBy(csv::readRecord).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.travelmanagementapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DayBucketsTests {
+
+    @Test
+    public void testSeriesSpansPagesAndKeepsKeysApart() {
+        DayBuckets buckets = new DayBuckets();
+        LocalDate start = LocalDate.of(2030, 3, 1);
+
+        // 100 nights cross at least one page boundary
+        buckets.addRange(7L, start, start.plusDays(100), 2);
+        buckets.add(7L, start.plusDays(10), 1);
+        buckets.add(8L, start.plusDays(10), 5);
+
+        int[] series = buckets.series(7L, start.minusDays(1), start.plusDays(101));
+        assertThat(series).hasSize(102);
+        assertThat(series[0]).isZero();
+        assertThat(series[1]).isEqualTo(2);
+        assertThat(series[11]).isEqualTo(3);
+        assertThat(series[100]).isEqualTo(2);
+        assertThat(series[101]).isZero();
+        assertThat(buckets.sum(7L, start, start.plusDays(100))).isEqualTo(201);
+
+        assertThat(buckets.get(8L, start.plusDays(10))).isEqualTo(5);
+        assertThat(buckets.get(8L, start.plusDays(11))).isZero();
+    }
+
+    @Test
+    public void testRemovingRestoresZeroAndEmptyRangesAreEmpty() {
+        DayBuckets buckets = new DayBuckets();
+        LocalDate day = LocalDate.of(2031, 12, 31);
+
+        buckets.add(1L, day, 3);
+        buckets.add(1L, day, -3);
+
+        assertThat(buckets.get(1L, day)).isZero();
+        assertThat(buckets.series(1L, day, day)).isEmpty();
+        assertThat(buckets.series(1L, day.plusDays(1), day)).isEmpty();
+        assertThat(buckets.series(99L, day, day.plusDays(3))).containsExactly(0, 0, 0);
+    }
+
+    @Test
+    public void testForEachDayVisitsOnlyTheKeysCountedDays() {
+        DayBuckets buckets = new DayBuckets();
+        LocalDate start = LocalDate.of(2030, 6, 30);
+
+        buckets.add(3L, start, 2);
+        buckets.add(3L, start.plusDays(70), 1);
+        buckets.add(3L, start.plusDays(5), 4);
+        buckets.add(3L, start.plusDays(5), -4);
+        buckets.add(4L, start, 9);
+
+        Map<LocalDate, Integer> days = new HashMap<>();
+        buckets.forEachDay(3L, days::put);
+        assertThat(days).containsOnly(Map.entry(start, 2), Map.entry(start.plusDays(70), 1));
+    }
+}
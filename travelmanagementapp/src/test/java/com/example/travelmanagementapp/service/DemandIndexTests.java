@@ -0,0 +1,207 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.model.Booking;
+import com.example.travelmanagementapp.model.Destination;
+import com.example.travelmanagementapp.model.Hotel;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import com.example.travelmanagementapp.repository.DestinationRepository;
+import com.example.travelmanagementapp.repository.HotelRepository;
+import com.example.travelmanagementapp.repository.TravelPackageRepository;
+import com.example.travelmanagementapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class DemandIndexTests {
+
+    private static final LocalDate TRAVEL_DATE = LocalDate.of(2032, 4, 1);
+
+    @Autowired
+    private DemandIndex demandIndex;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void testPackageBookingsFollowTheirHotelToANewDestination() throws Exception {
+        User traveller = user("demand-traveller", "TRAVELLER");
+        user("demand-admin", "ADMIN");
+        Destination lisbon = destination("Demand Lisbon");
+        Destination porto = destination("Demand Porto");
+        TravelPackage travelPackage = travelPackage("demand-package", user("demand-agency", "TRAVEL_AGENCY"));
+        Hotel hotel = hotel("demand-hotel", travelPackage, lisbon);
+
+        Booking first = bookingService.createBooking(booking(traveller, travelPackage));
+        assertThat(arrivals(lisbon)).isEqualTo(1);
+
+        // Bookings already counted move along with the hotel, as a rebuild would count them
+        adminService.updateHotel(hotel.getId(), null, null, null, null, porto.getId(), null, "demand-admin");
+        assertThat(arrivals(lisbon)).isZero();
+        assertThat(arrivals(porto)).isEqualTo(1);
+
+        bookingService.createBooking(booking(traveller, travelPackage));
+        assertThat(arrivals(porto)).isEqualTo(2);
+
+        // Cancelling the booking made before the move takes it off where it is counted now
+        assertThat(bookingService.cancelBooking(first.getId())).isTrue();
+        assertThat(arrivals(lisbon)).isZero();
+        assertThat(arrivals(porto)).isEqualTo(1);
+
+        demandIndex.rebuild();
+        assertThat(arrivals(lisbon)).isZero();
+        assertThat(arrivals(porto)).isEqualTo(1);
+    }
+
+    @Test
+    public void testBookingCommittedJustBeforeARebuildIsCountedOnce() throws Exception {
+        User traveller = user("race-traveller", "TRAVELLER");
+        Destination destination = destination("Race Destination");
+        TravelPackage travelPackage = travelPackage("race-package", user("race-agency", "TRAVEL_AGENCY"));
+        hotel("race-hotel", travelPackage, destination);
+
+        // A rebuild starts after the booking's commit but before the index hears of it: it
+        // must either wait for the update or leave the booking to it, not count it twice
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AtomicReference<Future<?>> rebuild = new AtomicReference<>();
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        rebuild.set(executor.submit(() -> demandIndex.rebuild()));
+                        try {
+                            rebuild.get().get(500, TimeUnit.MILLISECONDS);
+                        } catch (TimeoutException e) {
+                            // Waiting for this transaction's update to be applied
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                });
+                bookingService.createBooking(booking(traveller, travelPackage));
+            });
+            rebuild.get().get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(arrivals(destination)).isEqualTo(1);
+    }
+
+    @Test
+    public void testRebuildMatchesTheLiveCounts() {
+        User traveller = user("rebuild-traveller", "TRAVELLER");
+        Destination destination = destination("Rebuild Destination");
+        TravelPackage travelPackage = travelPackage("rebuild-package", user("rebuild-agency", "TRAVEL_AGENCY"));
+        Hotel hotel = hotel("rebuild-hotel", travelPackage, destination);
+
+        for (int i = 0; i < 3; i++) {
+            bookingService.createBooking(booking(traveller, travelPackage));
+        }
+        Booking stay = booking(traveller, travelPackage);
+        stay.setHotel(hotel);
+        stay.setReturnDate(TRAVEL_DATE.plusDays(2));
+        stay.setRooms(2);
+        bookingService.createBooking(stay);
+        int[] roomNights = demandIndex.getHotelRoomNights(hotel.getId(), TRAVEL_DATE, TRAVEL_DATE.plusDays(3));
+        assertThat(arrivals(destination)).isEqualTo(4);
+        assertThat(roomNights).containsExactly(2, 2, 0);
+
+        demandIndex.rebuild();
+
+        assertThat(arrivals(destination)).isEqualTo(4);
+        assertThat(demandIndex.getHotelRoomNights(hotel.getId(), TRAVEL_DATE, TRAVEL_DATE.plusDays(3)))
+            .containsExactly(roomNights);
+        assertThat(demandIndex.getHotelArrivals(hotel.getId(), TRAVEL_DATE, TRAVEL_DATE.plusDays(1)))
+            .containsExactly(1);
+    }
+
+    private long arrivals(Destination destination) {
+        return demandIndex.countDestinationArrivals(destination.getId(), TRAVEL_DATE, TRAVEL_DATE.plusDays(1));
+    }
+
+    private Booking booking(User traveller, TravelPackage travelPackage) {
+        Booking booking = new Booking();
+        booking.setBookingDate(LocalDate.of(2032, 1, 1));
+        booking.setTravelDate(TRAVEL_DATE);
+        booking.setTotalPrice(100.0);
+        booking.setUser(traveller);
+        booking.setTravelPackage(travelPackage);
+        return booking;
+    }
+
+    private User user(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setEmail(username + "@example.com");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    private Destination destination(String name) {
+        Destination destination = new Destination();
+        destination.setName(name);
+        destination.setCountry("Portugal");
+        destination.setDescription(name);
+        return destinationRepository.save(destination);
+    }
+
+    private TravelPackage travelPackage(String name, User owner) {
+        TravelPackage travelPackage = new TravelPackage();
+        travelPackage.setName(name);
+        travelPackage.setDescription(name);
+        travelPackage.setPrice(100.0);
+        travelPackage.setTravelAgencyName(name);
+        travelPackage.setUser(owner);
+        return travelPackageRepository.save(travelPackage);
+    }
+
+    private Hotel hotel(String name, TravelPackage travelPackage, Destination destination) {
+        Hotel hotel = new Hotel();
+        hotel.setName(name);
+        hotel.setLocation(destination.getName());
+        hotel.setAddress("1 Rua");
+        hotel.setPricePerNight(80.0);
+        hotel.setRoomCount(10);
+        hotel.setTravelPackage(travelPackage);
+        hotel.setDestination(destination);
+        return hotelRepository.save(hotel);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.travelmanagementapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IdempotencyStoreTests {
+
+    private final IdempotencyStore store = new IdempotencyStore(1000, 60, 10, new ObjectMapper());
+
+    @Test
+    public void testConcurrentDuplicatesRunOnceAndShareTheResponse() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Map<String, Object> request = Map.of("travelPackageId", 7, "travelDate", "2026-12-01");
+
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ResponseEntity<?>>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(clients.submit(() -> store.execute("booking", "key-1", request, () -> {
+                    int id = executions.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return ResponseEntity.ok(Map.of("id", id));
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<ResponseEntity<?>> response : responses) {
+                assertThat(response.get().getBody()).isEqualTo(Map.of("id", 1));
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        assertThat(executions.get()).isEqualTo(1);
+
+        ResponseEntity<?> retry = store.execute("booking", "key-1", request, () -> ResponseEntity.ok(Map.of("id", 2)));
+        assertThat(retry.getBody()).isEqualTo(Map.of("id", 1));
+        assertThat(retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    public void testServerErrorsAreNotRememberedAndKeysCannotChangeRequest() {
+        Map<String, Object> request = Map.of("hotelId", 3);
+        ResponseEntity<?> failed = store.execute("destination-booking", "key-2", request,
+            () -> ResponseEntity.status(500).body("Error creating booking: timeout"));
+        assertThat(failed.getStatusCode().value()).isEqualTo(500);
+
+        ResponseEntity<?> retried = store.execute("destination-booking", "key-2", request,
+            () -> ResponseEntity.ok(Map.of("id", 5)));
+        assertThat(retried.getBody()).isEqualTo(Map.of("id", 5));
+
+        ResponseEntity<?> reused = store.execute("destination-booking", "key-2", Map.of("hotelId", 4),
+            () -> ResponseEntity.ok(Map.of("id", 6)));
+        assertThat(reused.getStatusCode().value()).isEqualTo(422);
+
+        // The same key on another endpoint is a different request
+        ResponseEntity<?> otherScope = store.execute("booking", "key-2", Map.of("hotelId", 4),
+            () -> ResponseEntity.ok(Map.of("id", 7)));
+        assertThat(otherScope.getBody()).isEqualTo(Map.of("id", 7));
+    }
+}
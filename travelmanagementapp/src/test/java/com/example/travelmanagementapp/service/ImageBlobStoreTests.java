@@ -0,0 +1,54 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.model.Image;
+import com.example.travelmanagementapp.model.User;
+import com.example.travelmanagementapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ImageBlobStoreTests {
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void testDuplicateUploadsShareOneBlobUntilLastReferenceIsDeleted() throws Exception {
+        User uploader = new User();
+        uploader.setUsername("blob-" + UUID.randomUUID());
+        uploader.setPassword("secret");
+        uploader.setEmail(uploader.getUsername() + "@example.com");
+        uploader.setRole("ROLE_ADMIN");
+        uploader = userRepository.save(uploader);
+
+        byte[] content = ("not really a photo " + UUID.randomUUID()).getBytes();
+        Image first = imageService.saveImage(new MockMultipartFile("file", "beach.jpg", "image/jpeg", content), uploader);
+        Image second = imageService.saveImage(new MockMultipartFile("file", "copy-of-beach.jpg", "image/jpeg", content), uploader);
+
+        assertThat(second.getFilePath()).isEqualTo(first.getFilePath());
+        assertThat(second.getContentHash()).isEqualTo(first.getContentHash());
+        assertThat(first.getFilePath()).startsWith(ImageBlobStore.BLOB_PREFIX).contains(first.getContentHash());
+        Path blob = Paths.get(first.getFilePath());
+        assertThat(Files.exists(blob)).isTrue();
+
+        imageService.deleteImage(first.getId());
+        assertThat(Files.exists(blob)).isTrue();
+
+        imageService.deleteImage(second.getId());
+        assertThat(Files.exists(blob)).isFalse();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.travelmanagementapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ImageDerivativeServiceTests {
+
+    @TempDir
+    Path uploads;
+
+    @Test
+    public void testGeneratesEachSizeWithinItsBounds() throws IOException {
+        Path original = uploads.resolve("1_paris.jpeg");
+        ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB), "jpg", original.toFile());
+
+        ImageDerivativeService service = new ImageDerivativeService(1, 1, new LocalImageStore(uploads));
+        service.generate("1_paris.jpeg");
+
+        BufferedImage thumbnail = ImageIO.read(uploads.resolve("1_paris_thumbnail.jpg").toFile());
+        BufferedImage card = ImageIO.read(uploads.resolve("1_paris_card.jpg").toFile());
+        assertThat(thumbnail.getWidth()).isEqualTo(160);
+        assertThat(thumbnail.getHeight()).isEqualTo(80);
+        assertThat(card.getWidth()).isEqualTo(480);
+        assertThat(service.resolve("1_paris.jpeg", ImageDerivativeService.Size.FULL))
+            .isEqualTo("1_paris_full.jpg");
+        service.shutdown();
+    }
+
+    @Test
+    public void testSmallOriginalIsServedForLargerSizes() throws IOException {
+        Path original = uploads.resolve("2_icon.png");
+        ImageIO.write(new BufferedImage(300, 200, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+
+        ImageDerivativeService service = new ImageDerivativeService(1, 1, new LocalImageStore(uploads));
+        service.generate("2_icon.png");
+
+        assertThat(service.resolve("2_icon.png", ImageDerivativeService.Size.CARD)).isEqualTo("2_icon.png");
+        assertThat(service.resolve("2_icon.png", ImageDerivativeService.Size.THUMBNAIL))
+            .isEqualTo("2_icon_thumbnail.png");
+        assertThat(service.resolve("2_icon.png", null)).isEqualTo("2_icon.png");
+        service.shutdown();
+    }
+
+    @Test
+    public void testUndecodableOriginalIsNotCheckedOrQueuedAgain() throws IOException {
+        Files.writeString(uploads.resolve("3_scan.jpg"), "not really a jpeg");
+        AtomicInteger lookups = new AtomicInteger();
+        LocalImageStore store = new LocalImageStore(uploads) {
+            @Override
+            public boolean exists(String key) {
+                lookups.incrementAndGet();
+                return super.exists(key);
+            }
+        };
+
+        ImageDerivativeService service = new ImageDerivativeService(1, 1, store);
+        service.generate("3_scan.jpg");
+        lookups.set(0);
+
+        assertThat(service.resolve("3_scan.jpg", ImageDerivativeService.Size.THUMBNAIL)).isEqualTo("3_scan.jpg");
+        assertThat(service.resolve("3_scan.jpg", ImageDerivativeService.Size.CARD)).isEqualTo("3_scan.jpg");
+        assertThat(service.isProcessed("3_scan.jpg")).isTrue();
+        assertThat(lookups.get()).isZero();
+
+        // Deleting forgets the failure, so a replacement under the same key is generated
+        service.deleteDerivatives("3_scan.jpg");
+        ImageIO.write(new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB), "jpg", uploads.resolve("3_scan.jpg").toFile());
+        assertThat(service.isProcessed("3_scan.jpg")).isFalse();
+        service.generate("3_scan.jpg");
+        assertThat(service.resolve("3_scan.jpg", ImageDerivativeService.Size.THUMBNAIL))
+            .isEqualTo("3_scan_thumbnail.jpg");
+        service.shutdown();
+    }
+}
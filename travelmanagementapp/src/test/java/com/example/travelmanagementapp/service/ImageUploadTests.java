@@ -0,0 +1,139 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.model.Image;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import com.example.travelmanagementapp.repository.HotelRepository;
+import com.example.travelmanagementapp.repository.ImageRepository;
+import com.example.travelmanagementapp.repository.TravelPackageRepository;
+import com.example.travelmanagementapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ImageUploadTests {
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private TravelPackageService travelPackageService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @MockitoSpyBean
+    private HotelRepository hotelRepository;
+
+    @Test
+    public void testCommittedPackageKeepsItsImagesAndRolledBackPackageDeletesThem() throws Exception {
+        User agency = agency();
+        byte[] kept = content();
+        TravelPackage created = travelPackageService.createTravelPackageWithDetails("Kept package", "Lisbon", 100.0,
+            List.of(), List.of(), List.of(image(kept)), List.of(), agency, "Upload agency");
+
+        List<Image> images = imageRepository.findByEntityTypeAndEntityId("package_restaurant", created.getId());
+        assertThat(images).extracting(Image::getContentHash).containsExactly(sha256(kept));
+        assertThat(blobExists(kept)).isTrue();
+
+        // The hotel insert fails after the package and image rows were written
+        doThrow(new DataIntegrityViolationException("hotel insert failed")).when(hotelRepository).save(any());
+        byte[] restaurantImage = content();
+        byte[] hotelImage = content();
+        long packages = travelPackageRepository.count();
+        assertThatThrownBy(() -> travelPackageService.createTravelPackageWithDetails("Rolled back package", "Porto",
+                100.0, List.of(), List.of("Hotel"), List.of(image(restaurantImage)), List.of(image(hotelImage)),
+                agency, "Upload agency"))
+            .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(travelPackageRepository.count()).isEqualTo(packages);
+        assertThat(imageRepository.countByContentHash(sha256(restaurantImage))).isZero();
+        assertThat(blobExists(restaurantImage)).isFalse();
+        assertThat(blobExists(hotelImage)).isFalse();
+        assertThat(blobExists(kept)).isTrue();
+
+        imageService.deleteImagesFor("package_restaurant", created.getId());
+        assertThat(blobExists(kept)).isFalse();
+    }
+
+    @Test
+    public void testFailedWriteReleasesTheUploadsThatWereStored() throws Exception {
+        byte[] first = content();
+        byte[] second = content();
+        MultipartFile broken = new MockMultipartFile("file", "broken.jpg", "image/jpeg", content()) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                throw new IOException("connection reset");
+            }
+        };
+
+        assertThatThrownBy(() -> imageService.storeUploads(List.of(image(first), broken, image(second))))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("connection reset");
+
+        assertThat(blobExists(first)).isFalse();
+        assertThat(blobExists(second)).isFalse();
+    }
+
+    private User agency() {
+        User user = new User();
+        user.setUsername("upload-" + UUID.randomUUID());
+        user.setPassword("secret");
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setRole("TRAVEL_AGENCY");
+        return userRepository.save(user);
+    }
+
+    private static byte[] content() {
+        return ("not really a photo " + UUID.randomUUID()).getBytes();
+    }
+
+    private static MultipartFile image(byte[] content) {
+        return new MockMultipartFile("file", "photo.jpg", "image/jpeg", content);
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    // Blobs live at uploads/blobs/<first two hash digits>/<hash>.<extension>
+    private static boolean blobExists(byte[] content) throws Exception {
+        String hash = sha256(content);
+        Path directory = Paths.get("uploads", "blobs", hash.substring(0, 2));
+        if (!Files.isDirectory(directory)) {
+            return false;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.anyMatch(file -> file.getFileName().toString().startsWith(hash));
+        }
+    }
+}
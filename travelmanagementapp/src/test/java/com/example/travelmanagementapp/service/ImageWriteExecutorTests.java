@@ -0,0 +1,52 @@
+package com.example.travelmanagementapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ImageWriteExecutorTests {
+
+    @Test
+    public void testPlatformThreadsNeverRunMoreWritesThanConfigured() throws Exception {
+        assertThat(peakConcurrency(new ImageWriteExecutor(2, 50, false))).isEqualTo(2);
+    }
+
+    @Test
+    public void testVirtualThreadsNeverRunMoreWritesThanConfigured() throws Exception {
+        assertThat(peakConcurrency(new ImageWriteExecutor(2, 50, true))).isEqualTo(2);
+    }
+
+    // Runs twelve slow writes and returns how many were ever in flight at once
+    private static int peakConcurrency(ImageWriteExecutor executor) throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            int index = i;
+            tasks.add(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(30);
+                } finally {
+                    running.decrementAndGet();
+                }
+                return index;
+            });
+        }
+        try {
+            List<Future<Integer>> results = executor.invokeAll(tasks);
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(results.get(i).get()).isEqualTo(i);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return peak.get();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.travelmanagementapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InvertedIndexTests {
+
+    private static Map<String, Integer> terms(String name, String country, String description) {
+        Map<String, Integer> terms = new HashMap<>();
+        InvertedIndex.addField(terms, name, 5);
+        InvertedIndex.addField(terms, country, 3);
+        InvertedIndex.addField(terms, description, 1);
+        return terms;
+    }
+
+    @Test
+    public void testSearchIntersectsTokensAndRanksByWeight() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, terms("Paris", "France", "City of lights"));
+        index.put(2, terms("Nice", "France", "Beaches near Paris? Not quite"));
+        index.put(3, terms("Rome", "Italy", "Eternal city"));
+
+        assertThat(index.search("paris")).containsExactly(1L, 2L);
+        assertThat(index.search("france nice")).containsExactly(2L);
+        assertThat(index.search("city")).containsExactly(1L, 3L);
+        assertThat(index.search("tokyo")).isEmpty();
+        assertThat(index.search("  ")).isEmpty();
+    }
+
+    @Test
+    public void testLastTokenIsMatchedAsPrefix() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, terms("Paris", "France", null));
+        index.put(2, terms("Parma", "Italy", null));
+
+        assertThat(index.search("par")).containsExactly(1L, 2L);
+        assertThat(index.search("ITALY par")).containsExactly(2L);
+    }
+
+    @Test
+    public void testFilteredSearchRanksAndCountsOnlyAcceptedDocuments() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(2, terms("Paris", "France", null));
+        index.put(3, terms("Paris weekend", "France", null));
+        index.put(4, terms("Nice", "France", "Paris nearby"));
+
+        assertThat(index.search("paris", id -> id % 2 == 0)).containsExactly(2L, 4L);
+        assertThat(index.search("paris", id -> id % 2 == 1)).containsExactly(3L);
+        assertThat(index.count("france", id -> id % 2 == 0)).isEqualTo(2);
+        assertThat(index.count("tokyo", id -> true)).isZero();
+    }
+
+    @Test
+    public void testPutReplacesAndRemoveDeletesDocument() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, terms("Paris", "France", null));
+        index.put(1, terms("Lyon", "France", null));
+
+        assertThat(index.search("paris")).isEmpty();
+        assertThat(index.search("lyon")).containsExactly(1L);
+
+        index.remove(1);
+        assertThat(index.search("france")).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+}
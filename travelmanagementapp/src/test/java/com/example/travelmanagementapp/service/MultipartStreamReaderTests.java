@@ -0,0 +1,88 @@
+package com.example.travelmanagementapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MultipartStreamReaderTests {
+
+    private static final String BOUNDARY = "----FormBoundary7MA4YWxkTrZu0gW";
+
+    @Test
+    public void testStreamsFieldsAndFilesWithSmallBuffer() throws IOException {
+        byte[] photo = new byte[200_000];
+        new Random(7).nextBytes(photo);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"packageName\"\r\n\r\n"
+            + "Alps été\r\n"
+            + "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"hotelImages\"; filename=\"lake; view.jpg\"\r\n"
+            + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(photo);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        MultipartStreamReader reader = new MultipartStreamReader(
+            new ByteArrayInputStream(body.toByteArray()), BOUNDARY, 256);
+
+        MultipartStreamReader.Part field = reader.nextPart();
+        assertThat(field.getName()).isEqualTo("packageName");
+        assertThat(field.isFile()).isFalse();
+        assertThat(field.readString(1024)).isEqualTo("Alps été");
+
+        MultipartStreamReader.Part file = reader.nextPart();
+        assertThat(file.getFileName()).isEqualTo("lake; view.jpg");
+        assertThat(file.getContentType()).isEqualTo("image/jpeg");
+        try (InputStream in = file.getInputStream()) {
+            assertThat(in.readAllBytes()).isEqualTo(photo);
+        }
+        assertThat(reader.nextPart()).isNull();
+    }
+
+    @Test
+    public void testUnreadPartIsSkippedAndTruncatedBodyIsRejected() throws IOException {
+        String body = "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"skipped\"\r\n\r\n"
+            + "ignored value\r\n"
+            + "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"username\"\r\n\r\n"
+            + "agency";
+        MultipartStreamReader reader = new MultipartStreamReader(
+            new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), BOUNDARY);
+
+        reader.nextPart();
+        MultipartStreamReader.Part username = reader.nextPart();
+        assertThat(username.getName()).isEqualTo("username");
+        assertThatThrownBy(() -> username.readString(1024)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void testOversizedFieldIsRejectedAsClientError() throws IOException {
+        String body = "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"description\"\r\n\r\n"
+            + "x".repeat(2048) + "\r\n"
+            + "--" + BOUNDARY + "--\r\n";
+        MultipartStreamReader reader = new MultipartStreamReader(
+            new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), BOUNDARY);
+
+        MultipartStreamReader.Part description = reader.nextPart();
+        assertThatThrownBy(() -> description.readString(1024))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("description");
+    }
+
+    @Test
+    public void testBoundaryIsTakenFromContentType() {
+        assertThat(MultipartStreamReader.boundaryOf("multipart/form-data; boundary=\"abc\"")).isEqualTo("abc");
+        assertThatThrownBy(() -> MultipartStreamReader.boundaryOf("application/json"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
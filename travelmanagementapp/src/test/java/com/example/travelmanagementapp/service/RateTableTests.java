@@ -0,0 +1,103 @@
+package com.example.travelmanagementapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class RateTableTests {
+
+    private static PricingRules.Season season(String name, String from, String to, double multiplier) {
+        PricingRules.Season season = new PricingRules.Season();
+        season.setName(name);
+        season.setFrom(from);
+        season.setTo(to);
+        season.setMultiplier(multiplier);
+        return season;
+    }
+
+    private static PricingRules rules() {
+        PricingRules rules = new PricingRules();
+        rules.getSeasons().add(season("summer", "07-01", "08-31", 1.5));
+        rules.getSeasons().add(season("peak", "08-01", "08-15", 2.0));
+        rules.getSeasons().add(season("year-end", "12-30", "01-02", 1.2));
+        rules.getWeekdays().put(DayOfWeek.SATURDAY, 1.1);
+        rules.getOccupancy().setBaseGuestsPerRoom(2);
+        rules.getOccupancy().setExtraGuestSurcharge(0.5);
+        rules.getOccupancy().setSingleOccupancyDiscount(0.2);
+        return rules;
+    }
+
+    @Test
+    public void testSeasonsOverlapAndWrapAroundNewYear() {
+        RateTable table = new RateTable(rules(), 2030, 2);
+
+        // 2030-06-30 is a Sunday
+        assertThat(table.factor(LocalDate.of(2030, 6, 30))).isEqualTo(1.0);
+        assertThat(table.factor(LocalDate.of(2030, 7, 1))).isEqualTo(1.5);
+        // The higher of two overlapping seasons wins
+        assertThat(table.factor(LocalDate.of(2030, 8, 5))).isEqualTo(2.0);
+        assertThat(table.factor(LocalDate.of(2030, 8, 16))).isEqualTo(1.5);
+        assertThat(table.factor(LocalDate.of(2030, 12, 31))).isEqualTo(1.2);
+        assertThat(table.factor(LocalDate.of(2031, 1, 2))).isEqualTo(1.2);
+        assertThat(table.factor(LocalDate.of(2031, 1, 3))).isEqualTo(1.0);
+        // Saturday in summer
+        assertThat(table.factor(LocalDate.of(2030, 7, 6))).isCloseTo(1.65, within(1e-9));
+    }
+
+    @Test
+    public void testStayPricesMatchNightByNightSumInsideAndOutsideWindow() {
+        RateTable table = new RateTable(rules(), 2030, 1);
+        LocalDate[][] stays = {
+            {LocalDate.of(2030, 7, 28), LocalDate.of(2030, 8, 4)},
+            {LocalDate.of(2030, 12, 28), LocalDate.of(2031, 1, 4)},
+            {LocalDate.of(2029, 12, 25), LocalDate.of(2030, 1, 3)},
+            {LocalDate.of(2035, 8, 1), LocalDate.of(2035, 8, 3)}
+        };
+        for (LocalDate[] stay : stays) {
+            double expected = 0;
+            for (LocalDate night = stay[0]; night.isBefore(stay[1]); night = night.plusDays(1)) {
+                expected += table.factor(night);
+            }
+            assertThat(table.nightFactors(stay[0], stay[1])).isCloseTo(expected, within(1e-9));
+        }
+
+        // Sun to Sun in plain season: six weekday nights plus one Saturday
+        assertThat(table.quoteStay(100.0, LocalDate.of(2030, 3, 3), LocalDate.of(2030, 3, 10), 1, 2)).isEqualTo(710.0);
+    }
+
+    @Test
+    public void testOccupancyRules() {
+        RateTable table = new RateTable(rules(), 2030, 1);
+        LocalDate in = LocalDate.of(2030, 3, 4);
+        LocalDate out = LocalDate.of(2030, 3, 5);
+
+        assertThat(table.quoteStay(100.0, in, out, 1, 2)).isEqualTo(100.0);
+        assertThat(table.quoteStay(100.0, in, out, 1, 1)).isEqualTo(80.0);
+        assertThat(table.quoteStay(100.0, in, out, 1, 4)).isEqualTo(200.0);
+        // Three guests in two rooms: one room is singly occupied
+        assertThat(table.quoteStay(100.0, in, out, 2, 3)).isEqualTo(180.0);
+        assertThat(table.quotePackage(999.99, in, 2)).isEqualTo(1999.98);
+    }
+
+    @Test
+    public void testInvalidRulesAndRequestsAreRejected() {
+        PricingRules rules = rules();
+        rules.getSeasons().add(season("broken", "13-01", "01-02", 1.0));
+        assertThatThrownBy(() -> new RateTable(rules, 2030, 1)).isInstanceOf(IllegalArgumentException.class);
+
+        PricingRules negative = rules();
+        negative.getWeekdays().put(DayOfWeek.MONDAY, -1.0);
+        assertThatThrownBy(() -> new RateTable(negative, 2030, 1)).isInstanceOf(IllegalArgumentException.class);
+
+        RateTable table = new RateTable(rules(), 2030, 1);
+        LocalDate day = LocalDate.of(2030, 3, 4);
+        assertThatThrownBy(() -> table.quoteStay(100.0, day, day, 1, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> table.quoteStay(100.0, day, day.plusDays(1), 0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> table.quotePackage(100.0, day, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.model.Hotel;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import com.example.travelmanagementapp.repository.HotelRepository;
+import com.example.travelmanagementapp.repository.TravelPackageRepository;
+import com.example.travelmanagementapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reservation throughput as the number of concurrent clients grows, once spread over many
+ * hotels and once all on a single hot hotel, where the per-hotel lock serializes everything.
+ * Afterwards the stored counts must add up to exactly the confirmed nights: nothing lost,
+ * nothing oversold. Not part of the normal build; run with
+ * {@code mvn test -Dtest=RoomInventoryBenchmark -Dbenchmark=true}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class RoomInventoryBenchmark {
+
+    private static final int HOTELS = 64;
+    private static final int NIGHTS_PER_STAY = 3;
+    private static final int WINDOW_DAYS = 30;
+    private static final int RESERVATIONS_PER_RUN = 4000;
+    private static final LocalDate FIRST_NIGHT = LocalDate.of(2031, 1, 1);
+
+    @Autowired
+    private RoomInventoryService roomInventoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void reservationThroughputByConcurrency() throws Exception {
+        List<Hotel> hotels = createHotels();
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> concurrencies = new ArrayList<>();
+        for (int threads = 1; threads <= cores * 4; threads *= 2) {
+            concurrencies.add(threads);
+        }
+
+        // Warm up JIT and connection pool
+        run(hotels, cores, 1000);
+
+        System.out.printf("%-10s %16s %16s%n", "clients", "spread res/s", "hot hotel res/s");
+        for (int threads : concurrencies) {
+            double spread = run(hotels, threads, RESERVATIONS_PER_RUN);
+            double hot = run(hotels.subList(0, 1), threads, RESERVATIONS_PER_RUN);
+            System.out.printf("%-10d %16.0f %16.0f%n", threads, spread, hot);
+        }
+
+        Long stored = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(reserved), 0) FROM room_night", Long.class);
+        assertThat(stored).isEqualTo(confirmed * NIGHTS_PER_STAY);
+    }
+
+    // Reservations confirmed over all runs, warm-up included
+    private long confirmed;
+
+    private double run(List<Hotel> hotels, int threads, int reservations) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            int perClient = reservations / threads;
+            for (int c = 0; c < threads; c++) {
+                futures.add(clients.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < perClient; i++) {
+                        Hotel hotel = hotels.get(random.nextInt(hotels.size()));
+                        LocalDate checkIn = FIRST_NIGHT.plusDays(random.nextInt(WINDOW_DAYS));
+                        roomInventoryService.reserve(hotel, checkIn, checkIn.plusDays(NIGHTS_PER_STAY), 1, () -> null);
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - begin;
+            confirmed += (long) perClient * threads;
+            return perClient * threads / (elapsed / 1e9);
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    private List<Hotel> createHotels() {
+        User owner = new User();
+        owner.setUsername("inventory-benchmark");
+        owner.setPassword("secret");
+        owner.setEmail("inventory-benchmark@example.com");
+        owner.setRole("TRAVEL_AGENCY");
+        owner = userRepository.save(owner);
+
+        TravelPackage travelPackage = new TravelPackage();
+        travelPackage.setName("Inventory benchmark");
+        travelPackage.setDescription("Inventory benchmark");
+        travelPackage.setPrice(100.0);
+        travelPackage.setTravelAgencyName("Inventory benchmark");
+        travelPackage.setUser(owner);
+        travelPackage = travelPackageRepository.save(travelPackage);
+
+        List<Hotel> hotels = new ArrayList<>(HOTELS);
+        for (int i = 0; i < HOTELS; i++) {
+            Hotel hotel = new Hotel();
+            hotel.setName("Benchmark Hotel " + i);
+            hotel.setLocation("Benchmark");
+            hotel.setAddress(i + " Benchmark Street");
+            hotel.setPricePerNight(100.0);
+            // Large enough that no run sells out, so every attempt writes
+            hotel.setRoomCount(Integer.MAX_VALUE / 2);
+            hotel.setTravelPackage(travelPackage);
+            hotels.add(hotel);
+        }
+        return hotelRepository.saveAll(hotels);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.travelmanagementapp.service;
+
+import com.example.travelmanagementapp.Exception.RoomsUnavailableException;
+import com.example.travelmanagementapp.model.Hotel;
+import com.example.travelmanagementapp.model.TravelPackage;
+import com.example.travelmanagementapp.model.User;
+import com.example.travelmanagementapp.repository.HotelRepository;
+import com.example.travelmanagementapp.repository.TravelPackageRepository;
+import com.example.travelmanagementapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class RoomInventoryServiceTests {
+
+    private static final LocalDate CHECK_IN = LocalDate.of(2030, 7, 1);
+
+    @Autowired
+    private RoomInventoryService roomInventoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TravelPackageRepository travelPackageRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Test
+    public void testConcurrentReservationsNeverOversell() throws Exception {
+        Hotel hotel = hotel("inventory-oversell", 5);
+        AtomicInteger confirmed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> attempts = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                // Overlapping stays: every one of them includes the night of July 2nd
+                LocalDate checkIn = CHECK_IN.plusDays(i % 2);
+                attempts.add(clients.submit(() -> {
+                    try {
+                        roomInventoryService.reserve(hotel, checkIn, checkIn.plusDays(2), 1, () -> null);
+                        confirmed.incrementAndGet();
+                    } catch (RoomsUnavailableException e) {
+                        rejected.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> attempt : attempts) {
+                attempt.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+
+        assertThat(confirmed.get()).isEqualTo(5);
+        assertThat(rejected.get()).isEqualTo(35);
+        List<RoomInventoryService.NightAvailability> nights =
+            roomInventoryService.getAvailability(hotel, CHECK_IN, CHECK_IN.plusDays(3));
+        // Which stays won is up to the scheduler: the shared night is sold out and each
+        // winner took exactly one of the two edge nights
+        assertThat(nights.get(1).getAvailable()).isZero();
+        assertThat(nights.get(0).getAvailable() + nights.get(2).getAvailable()).isEqualTo(5);
+    }
+
+    @Test
+    public void testRoomsComeBackOnReleaseAndFailedBookingsKeepNoRooms() {
+        Hotel hotel = hotel("inventory-release", 2);
+        LocalDate checkOut = CHECK_IN.plusDays(3);
+
+        roomInventoryService.reserve(hotel, CHECK_IN, checkOut, 2, () -> null);
+        assertThatThrownBy(() -> roomInventoryService.reserve(hotel, CHECK_IN.plusDays(1), checkOut, 1, () -> null))
+            .isInstanceOf(RoomsUnavailableException.class);
+
+        // A booking that fails after reserving rolls its rooms back with it
+        roomInventoryService.release(hotel.getId(), CHECK_IN, checkOut, 1, () -> null);
+        assertThatThrownBy(() -> roomInventoryService.reserve(hotel, CHECK_IN, checkOut, 1, () -> {
+            throw new IllegalStateException("booking insert failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(roomInventoryService.getAvailability(hotel, CHECK_IN, checkOut))
+            .extracting(RoomInventoryService.NightAvailability::getAvailable).containsExactly(1, 1, 1);
+    }
+
+    private Hotel hotel(String name, int rooms) {
+        User owner = new User();
+        owner.setUsername(name);
+        owner.setPassword("secret");
+        owner.setEmail(name + "@example.com");
+        owner.setRole("TRAVEL_AGENCY");
+        owner = userRepository.save(owner);
+
+        TravelPackage travelPackage = new TravelPackage();
+        travelPackage.setName(name);
+        travelPackage.setDescription(name);
+        travelPackage.setPrice(100.0);
+        travelPackage.setTravelAgencyName(name);
+        travelPackage.setUser(owner);
+        travelPackage = travelPackageRepository.save(travelPackage);
+
+        Hotel hotel = new Hotel();
+        hotel.setName(name);
+        hotel.setLocation("Lisbon");
+        hotel.setAddress("1 Rua");
+        hotel.setPricePerNight(80.0);
+        hotel.setRoomCount(rooms);
+        hotel.setTravelPackage(travelPackage);
+        return hotelRepository.save(hotel);
+    }
+}
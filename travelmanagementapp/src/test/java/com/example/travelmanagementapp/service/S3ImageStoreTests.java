@@ -0,0 +1,231 @@
+package com.example.travelmanagementapp.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class S3ImageStoreTests {
+
+    private static final long MB = 1024 * 1024;
+
+    @TempDir
+    Path temp;
+
+    private FakeS3 fakeS3;
+    private S3ImageStore store;
+
+    @BeforeEach
+    public void startFakeS3() throws IOException {
+        fakeS3 = new FakeS3();
+        store = new S3ImageStore("images", "us-east-1", fakeS3.endpoint(), "test", "test", "",
+            5 * MB, 5 * MB, 4, false);
+    }
+
+    @AfterEach
+    public void stopFakeS3() {
+        store.shutdown();
+        fakeS3.stop();
+    }
+
+    @Test
+    public void testLargeUploadIsSentAsParallelMultipartParts() throws Exception {
+        byte[] content = new byte[(int) (17 * MB)];
+        new Random(42).nextBytes(content);
+        Path source = temp.resolve("large.jpg");
+        Files.write(source, content);
+
+        store.put("blobs/ab/large.jpg", source, "image/jpeg");
+
+        assertThat(fakeS3.partsUploaded.get()).isEqualTo(4);
+        assertThat(fakeS3.maxConcurrentParts.get()).isGreaterThan(1);
+        assertThat(store.exists("blobs/ab/large.jpg")).isTrue();
+        try (InputStream in = store.open("blobs/ab/large.jpg")) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+    }
+
+    @Test
+    public void testPresignedUrlServesObjectAndDeleteRemovesIt() throws Exception {
+        byte[] content = "small image".getBytes(StandardCharsets.UTF_8);
+        Path source = temp.resolve("small.png");
+        Files.write(source, content);
+        store.put("destination/1_small.png", source, "image/png");
+        assertThat(fakeS3.partsUploaded.get()).isZero();
+
+        URL url = store.presignedGetUrl("destination/1_small.png", Duration.ofMinutes(5));
+        assertThat(url.getQuery()).contains("Signature");
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(
+            HttpRequest.newBuilder(url.toURI()).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo(content);
+
+        store.delete("destination/1_small.png");
+        assertThat(store.exists("destination/1_small.png")).isFalse();
+    }
+
+    /**
+     * In-process stand-in for the parts of the S3 REST API the store uses: path-style
+     * PUT/GET/HEAD/DELETE of objects and multipart uploads (including ListParts). Signatures are not checked.
+     */
+    static final class FakeS3 {
+        private final HttpServer server;
+        private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        private final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+        final AtomicInteger partsUploaded = new AtomicInteger();
+        final AtomicInteger maxConcurrentParts = new AtomicInteger();
+        private final AtomicInteger concurrentParts = new AtomicInteger();
+
+        FakeS3() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/", this::handle);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+        }
+
+        String endpoint() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            try (exchange) {
+                String path = exchange.getRequestURI().getPath();
+                Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+                String method = exchange.getRequestMethod();
+                if ("POST".equals(method) && query.containsKey("uploads")) {
+                    String uploadId = UUID.randomUUID().toString();
+                    uploads.put(uploadId, new ConcurrentSkipListMap<>());
+                    sendXml(exchange, "<InitiateMultipartUploadResult><Bucket>images</Bucket><Key>" + path
+                        + "</Key><UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+                } else if ("PUT".equals(method) && query.containsKey("uploadId")) {
+                    int running = concurrentParts.incrementAndGet();
+                    maxConcurrentParts.accumulateAndGet(running, Math::max);
+                    try {
+                        byte[] part = exchange.getRequestBody().readAllBytes();
+                        // Hold the part briefly so parallel uploads overlap
+                        Thread.sleep(100);
+                        uploads.get(query.get("uploadId")).put(Integer.parseInt(query.get("partNumber")), part);
+                        partsUploaded.incrementAndGet();
+                        exchange.getResponseHeaders().set("ETag", "\"" + md5(part) + "\"");
+                        exchange.sendResponseHeaders(200, -1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        exchange.sendResponseHeaders(500, -1);
+                    } finally {
+                        concurrentParts.decrementAndGet();
+                    }
+                } else if ("GET".equals(method) && query.containsKey("uploadId")) {
+                    // ListParts: the transfer manager asks which parts it can skip before uploading
+                    StringBuilder body = new StringBuilder("<ListPartsResult><Bucket>images</Bucket><Key>" + path
+                        + "</Key><UploadId>" + query.get("uploadId") + "</UploadId><IsTruncated>false</IsTruncated>");
+                    for (Map.Entry<Integer, byte[]> part : uploads.get(query.get("uploadId")).entrySet()) {
+                        body.append("<Part><PartNumber>").append(part.getKey()).append("</PartNumber><ETag>\"")
+                            .append(md5(part.getValue())).append("\"</ETag><Size>").append(part.getValue().length)
+                            .append("</Size></Part>");
+                    }
+                    sendXml(exchange, body.append("</ListPartsResult>").toString());
+                } else if ("POST".equals(method) && query.containsKey("uploadId")) {
+                    exchange.getRequestBody().readAllBytes();
+                    Map<Integer, byte[]> parts = uploads.remove(query.get("uploadId"));
+                    int length = parts.values().stream().mapToInt(part -> part.length).sum();
+                    byte[] object = new byte[length];
+                    int offset = 0;
+                    for (byte[] part : parts.values()) {
+                        System.arraycopy(part, 0, object, offset, part.length);
+                        offset += part.length;
+                    }
+                    objects.put(path, object);
+                    sendXml(exchange, "<CompleteMultipartUploadResult><Bucket>images</Bucket><Key>" + path
+                        + "</Key><ETag>\"" + md5(object) + "-" + parts.size() + "\"</ETag></CompleteMultipartUploadResult>");
+                } else if ("PUT".equals(method)) {
+                    byte[] object = exchange.getRequestBody().readAllBytes();
+                    objects.put(path, object);
+                    exchange.getResponseHeaders().set("ETag", "\"" + md5(object) + "\"");
+                    exchange.sendResponseHeaders(200, -1);
+                } else if ("GET".equals(method) || "HEAD".equals(method)) {
+                    byte[] object = objects.get(path);
+                    if (object == null) {
+                        exchange.sendResponseHeaders(404, -1);
+                        return;
+                    }
+                    exchange.getResponseHeaders().set("ETag", "\"" + md5(object) + "\"");
+                    exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+                    if ("HEAD".equals(method)) {
+                        exchange.getResponseHeaders().set("Content-Length", String.valueOf(object.length));
+                        exchange.sendResponseHeaders(200, -1);
+                    } else {
+                        exchange.sendResponseHeaders(200, object.length);
+                        try (OutputStream out = exchange.getResponseBody()) {
+                            out.write(object);
+                        }
+                    }
+                } else if ("DELETE".equals(method)) {
+                    objects.remove(path);
+                    exchange.sendResponseHeaders(204, -1);
+                } else {
+                    exchange.sendResponseHeaders(405, -1);
+                }
+            }
+        }
+
+        private static void sendXml(HttpExchange exchange, String body) throws IOException {
+            byte[] bytes = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/xml");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+
+        private static Map<String, String> parseQuery(String rawQuery) {
+            Map<String, String> query = new HashMap<>();
+            if (rawQuery == null) {
+                return query;
+            }
+            for (String pair : rawQuery.split("&")) {
+                int eq = pair.indexOf('=');
+                query.put(eq < 0 ? pair : pair.substring(0, eq), eq < 0 ? "" : pair.substring(eq + 1));
+            }
+            return query;
+        }
+
+        private static String md5(byte[] bytes) {
+            try {
+                return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(bytes));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.travelmanagementapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SuggestionTrieTests {
+
+    private static List<String> texts(List<SuggestionTrie.Suggestion> suggestions) {
+        return suggestions.stream().map(SuggestionTrie.Suggestion::getText).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testSuggestReturnsMostPopularCompletionsFirst() {
+        SuggestionTrie trie = new SuggestionTrie(3);
+        trie.put(new SuggestionTrie.Suggestion("destination:1", "Paris", "destination", 1L, 5));
+        trie.put(new SuggestionTrie.Suggestion("destination:2", "Parma", "destination", 2L, 1));
+        trie.put(new SuggestionTrie.Suggestion("package:1", "Paris Getaway", "package", 1L, 9));
+        trie.put(new SuggestionTrie.Suggestion("destination:3", "Pattaya", "destination", 3L, 0));
+
+        assertThat(texts(trie.suggest("pa", 10))).containsExactly("Paris Getaway", "Paris", "Parma");
+        assertThat(texts(trie.suggest("  PAR", 2))).containsExactly("Paris Getaway", "Paris");
+        assertThat(trie.suggest("x", 10)).isEmpty();
+        assertThat(trie.suggest("", 10)).isEmpty();
+    }
+
+    @Test
+    public void testReweightAndRemoveUpdatePrecomputedResults() {
+        SuggestionTrie trie = new SuggestionTrie(3);
+        trie.put(new SuggestionTrie.Suggestion("destination:1", "Paris", "destination", 1L, 5));
+        trie.put(new SuggestionTrie.Suggestion("destination:2", "Parma", "destination", 2L, 1));
+
+        trie.addWeight("destination:2", 10);
+        assertThat(texts(trie.suggest("p", 10))).containsExactly("Parma", "Paris");
+
+        trie.remove("destination:2");
+        assertThat(texts(trie.suggest("par", 10))).containsExactly("Paris");
+        assertThat(trie.size()).isEqualTo(1);
+    }
+}
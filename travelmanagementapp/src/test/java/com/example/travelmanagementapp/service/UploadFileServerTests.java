@@ -0,0 +1,59 @@
+package com.example.travelmanagementapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UploadFileServerTests {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    public void testResolveStaysInsideRoot() throws IOException {
+        Path root = Files.createDirectories(temp.resolve("uploads"));
+        Files.createDirectories(root.resolve("destination"));
+        Files.writeString(root.resolve("destination/paris.jpg"), "image");
+        Files.writeString(root.resolve("destination/.hidden.tmp"), "partial");
+        Files.writeString(temp.resolve("secret.txt"), "secret");
+
+        assertThat(UploadFileServer.resolveWithinRoot(root, "destination/paris.jpg"))
+            .isEqualTo(root.resolve("destination/paris.jpg").toRealPath());
+        assertThat(UploadFileServer.resolveWithinRoot(root, "/destination/paris.jpg")).isNotNull();
+        assertThat(UploadFileServer.resolveWithinRoot(root, "../secret.txt")).isNull();
+        assertThat(UploadFileServer.resolveWithinRoot(root, "destination/../../secret.txt")).isNull();
+        assertThat(UploadFileServer.resolveWithinRoot(root, "destination\\..\\..\\secret.txt")).isNull();
+        assertThat(UploadFileServer.resolveWithinRoot(root, "destination/.hidden.tmp")).isNull();
+        assertThat(UploadFileServer.resolveWithinRoot(root, "destination")).isNull();
+        assertThat(UploadFileServer.resolveWithinRoot(root, "")).isNull();
+    }
+
+    @Test
+    public void testResolveRejectsSymlinkOutOfRoot() throws IOException {
+        Path root = Files.createDirectories(temp.resolve("uploads"));
+        Path secret = Files.writeString(temp.resolve("secret.txt"), "secret");
+        try {
+            Files.createSymbolicLink(root.resolve("link.jpg"), secret);
+        } catch (UnsupportedOperationException | IOException e) {
+            return; // File system without symlink support
+        }
+
+        assertThat(UploadFileServer.resolveWithinRoot(root, "link.jpg")).isNull();
+    }
+
+    @Test
+    public void testParseRange() {
+        assertThat(UploadFileServer.parseRange("bytes=0-99", 1000)).containsExactly(0, 99);
+        assertThat(UploadFileServer.parseRange("bytes=900-", 1000)).containsExactly(900, 999);
+        assertThat(UploadFileServer.parseRange("bytes=-100", 1000)).containsExactly(900, 999);
+        assertThat(UploadFileServer.parseRange("bytes=990-2000", 1000)).containsExactly(990, 999);
+        assertThat(UploadFileServer.parseRange("bytes=1000-", 1000)).isNull();
+        assertThat(UploadFileServer.parseRange("bytes=0-1,5-9", 1000)).isEmpty();
+        assertThat(UploadFileServer.parseRange("items=0-1", 1000)).isEmpty();
+    }
+}